@@ -0,0 +1,269 @@
+package org.gbif.common.parsers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resolves the Content-Type of http URLs asynchronously with HEAD requests, for media links whose format can't be
+ * told from a file extension, see {@link MediaParser#detectType(org.gbif.api.model.common.MediaObject,
+ * ContentTypeResolver)}.
+ *
+ * Requests run on a fixed pool of threads bounding the overall concurrency, and at most a given number of requests
+ * run against the same host while the others wait in a queue of the host. Connections are kept alive and pooled by
+ * {@link HttpURLConnection}.
+ *
+ * Servers of media give the same type to URLs of the same pattern, so the content types are cached by host and path
+ * pattern: the path and query where every part holding a digit is replaced by a wildcard. Concurrent lookups of a
+ * pattern share a single request. Failed requests and responses without content type aren't cached.
+ */
+public class ContentTypeResolver implements Closeable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ContentTypeResolver.class);
+  private static final String WILDCARD = "*";
+
+  private final ThreadPoolExecutor executor;
+  private final int maxPerHost;
+  private final int timeout;
+  private final ConcurrentMap<String, CompletableFuture<String>> contentTypes;
+  private final ConcurrentMap<String, HostQueue> hosts = new ConcurrentHashMap<String, HostQueue>();
+  private final AtomicLong requestCount = new AtomicLong();
+
+  /**
+   * @param maxConcurrency the number of requests running at most
+   * @param maxPerHost     the number of requests running at most against the same host
+   * @param timeout        the connect and read timeouts in milliseconds
+   * @param cacheSize      the number of url patterns to remember at most
+   */
+  public ContentTypeResolver(int maxConcurrency, int maxPerHost, int timeout, int cacheSize) {
+    Preconditions.checkArgument(maxConcurrency > 0, "Maximum concurrency must be positive");
+    Preconditions.checkArgument(maxPerHost > 0, "Maximum requests per host must be positive");
+    Preconditions.checkArgument(timeout >= 0, "Negative timeout %s", timeout);
+    Preconditions.checkArgument(cacheSize > 0, "Cache size must be positive");
+    this.maxPerHost = maxPerHost;
+    this.timeout = timeout;
+    executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 0, TimeUnit.MILLISECONDS,
+      new LinkedBlockingQueue<Runnable>(),
+      new ThreadFactoryBuilder().setDaemon(true).setNameFormat("content-type-resolver-%d").build());
+    contentTypes = CacheBuilder.newBuilder().maximumSize(cacheSize).<String, CompletableFuture<String>>build().asMap();
+  }
+
+  /**
+   * @return the content type of the URL in lower case without parameters, or null if it is not an http URL or has no
+   * content type
+   */
+  public CompletableFuture<String> resolve(@Nullable URI url) {
+    if (url == null || url.getHost() == null || !("http".equalsIgnoreCase(url.getScheme())
+                                                  || "https".equalsIgnoreCase(url.getScheme()))) {
+      return CompletableFuture.completedFuture(null);
+    }
+    String key = pattern(url);
+    CompletableFuture<String> contentType = new CompletableFuture<String>();
+    CompletableFuture<String> pending = contentTypes.putIfAbsent(key, contentType);
+    if (pending != null) {
+      return pending;
+    }
+    String host = url.getHost().toLowerCase(Locale.ENGLISH);
+    HostQueue queue = hosts.get(host);
+    if (queue == null) {
+      HostQueue newQueue = new HostQueue();
+      queue = hosts.putIfAbsent(host, newQueue);
+      if (queue == null) {
+        queue = newQueue;
+      }
+    }
+    queue.submit(new Request(url, key, contentType, queue));
+    return contentType;
+  }
+
+  /**
+   * @return the number of HEAD requests sent
+   */
+  public long getRequestCount() {
+    return requestCount.get();
+  }
+
+  /**
+   * Cancels the pending requests, which resolve to null, and rejects new ones.
+   * Requests already running are not interrupted, they finish or time out on their own.
+   */
+  @Override
+  public void close() {
+    // unlike shutdownNow, shutdown leaves the running requests uninterrupted
+    executor.shutdown();
+    List<Runnable> queued = new ArrayList<Runnable>();
+    executor.getQueue().drainTo(queued);
+    for (Runnable request : queued) {
+      ((Request) request).complete(null);
+    }
+    for (HostQueue queue : hosts.values()) {
+      queue.cancel();
+    }
+  }
+
+  /**
+   * @return the host, port, path and query of the URL with a wildcard for every part holding a digit
+   */
+  static String pattern(URI url) {
+    StringBuilder sb = new StringBuilder(url.getHost().toLowerCase(Locale.ENGLISH)).append(':').append(url.getPort());
+    String path = Strings.nullToEmpty(url.getRawPath());
+    if (url.getRawQuery() != null) {
+      path = path + '?' + url.getRawQuery();
+    }
+    int start = 0;
+    boolean digit = false;
+    for (int i = 0; i <= path.length(); i++) {
+      char c = i < path.length() ? path.charAt(i) : '/';
+      if (c == '/' || c == '?' || c == '&' || c == '=' || c == ';') {
+        if (digit) {
+          sb.append(WILDCARD);
+        } else {
+          sb.append(path, start, i);
+        }
+        if (i < path.length()) {
+          sb.append(c);
+        }
+        start = i + 1;
+        digit = false;
+      } else if (c >= '0' && c <= '9') {
+        digit = true;
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * @return the media type of a Content-Type header in lower case, or null if there is none
+   */
+  private static String mediaType(@Nullable String contentType) {
+    if (contentType == null) {
+      return null;
+    }
+    int parameters = contentType.indexOf(';');
+    if (parameters >= 0) {
+      contentType = contentType.substring(0, parameters);
+    }
+    return Strings.emptyToNull(contentType.trim().toLowerCase(Locale.ENGLISH));
+  }
+
+  /**
+   * The requests of a host, running at most maxPerHost at a time.
+   */
+  private class HostQueue {
+    private final Deque<Request> pending = new ArrayDeque<Request>();
+    private int running;
+
+    private void submit(Request request) {
+      synchronized (this) {
+        if (running >= maxPerHost) {
+          pending.add(request);
+          return;
+        }
+        running++;
+      }
+      execute(request);
+    }
+
+    private void done() {
+      Request next;
+      synchronized (this) {
+        next = pending.poll();
+        if (next == null) {
+          running--;
+        }
+      }
+      if (next != null) {
+        execute(next);
+      }
+    }
+
+    private void cancel() {
+      Request request;
+      do {
+        synchronized (this) {
+          request = pending.poll();
+        }
+        if (request != null) {
+          request.complete(null);
+        }
+      } while (request != null);
+    }
+
+    private void execute(Request request) {
+      try {
+        executor.execute(request);
+      } catch (RejectedExecutionException e) {
+        // closed
+        request.complete(null);
+        done();
+      }
+    }
+  }
+
+  private class Request implements Runnable {
+    private final URI url;
+    private final String key;
+    private final CompletableFuture<String> contentType;
+    private final HostQueue queue;
+
+    private Request(URI url, String key, CompletableFuture<String> contentType, HostQueue queue) {
+      this.url = url;
+      this.key = key;
+      this.contentType = contentType;
+      this.queue = queue;
+    }
+
+    @Override
+    public void run() {
+      String type = null;
+      try {
+        requestCount.incrementAndGet();
+        HttpURLConnection connection = (HttpURLConnection) url.toURL().openConnection();
+        connection.setRequestMethod("HEAD");
+        connection.setConnectTimeout(timeout);
+        connection.setReadTimeout(timeout);
+        int status = connection.getResponseCode();
+        if (status >= 200 && status < 300) {
+          type = mediaType(connection.getContentType());
+        } else {
+          LOG.debug("HEAD request to {} failed with status {}", url, status);
+        }
+      } catch (IOException e) {
+        LOG.debug("HEAD request to {} failed", url, e);
+      } finally {
+        complete(type);
+        queue.done();
+      }
+    }
+
+    private void complete(String type) {
+      if (type == null) {
+        // let the next URL of the pattern try again
+        contentTypes.remove(key, contentType);
+      }
+      contentType.complete(type);
+    }
+  }
+}
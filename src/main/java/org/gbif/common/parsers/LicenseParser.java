@@ -69,12 +69,29 @@ public class LicenseParser extends EnumParser<License> {
    * otherwise defaults to License.UNSUPPORTED
    */
   public License parseUriThenTitle(@Nullable URI uri, @Nullable String title) {
+    return parseThenTitle(uri == null ? null : uri.toString(), title);
+  }
+
+  /**
+   * Like {@link #parseUriThenTitle(URI, String)} for a scanned URL, which is ignored if it isn't valid.
+   * This avoids creating a URI for the license.
+   *
+   * @param url   license URL
+   * @param title license title
+   *
+   * @return License parsed, UNSUPPORTED if it could not be parsed or UNSPECIFIED if no URL and title were given
+   */
+  public License parseUrlThenTitle(@Nullable ParsedUrl url, @Nullable String title) {
+    return parseThenTitle(url == null || !url.isValid() ? null : url.toString(), title);
+  }
+
+  private License parseThenTitle(@Nullable String uri, @Nullable String title) {
     if (uri == null && Strings.isNullOrEmpty(title)) {
       return License.UNSPECIFIED;
     }
 
     if (uri != null) {
-      ParseResult<License> result = singletonObject.parse(uri.toString());
+      ParseResult<License> result = singletonObject.parse(uri);
       if (result.isSuccessful()) {
         return result.getPayload();
       }
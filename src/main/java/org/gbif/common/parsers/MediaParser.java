@@ -2,12 +2,26 @@ package org.gbif.common.parsers;
 
 import org.gbif.api.model.common.MediaObject;
 import org.gbif.api.vocabulary.MediaType;
+import org.gbif.common.parsers.core.ParallelChunks;
 
 import java.net.URI;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
 import javax.annotation.Nullable;
 
+import com.google.common.base.Objects;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import org.apache.tika.Tika;
 import org.apache.tika.mime.MimeType;
@@ -16,6 +30,13 @@ import org.apache.tika.mime.MimeTypes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Parser for media formats and types.
+ *
+ * Formats are detected from file extensions and only a few thousand exist, so the detected formats are cached by the
+ * extension of the URL path, see {@link #parseMimeType(URI)}, and the parsed mime types by their normalized value.
+ * Both caches are bounded and expose their statistics.
+ */
 public class MediaParser {
   private static final Logger LOG = LoggerFactory.getLogger(MediaParser.class);
   private static final Tika TIKA = new Tika();
@@ -25,8 +46,36 @@ public class MediaParser {
   private static final Set<String> HTML_MIME_TYPES = ImmutableSet
     .of("text/x-coldfusion", "text/x-php", "text/asp", "text/aspdotnet", "text/x-cgi", "text/x-jsp", "text/x-perl",
       HTML_TYPE, MIME_TYPES.OCTET_STREAM);
+  // registered extensions which aren't a dot followed by a plain suffix, like .tar.gz or -gz
+  private static final List<String> COMPOUND_EXTENSIONS = compoundExtensions();
+  // prefixed to an extension to detect the format of all the names ending with it
+  private static final String PROBE_NAME = "x";
+  private static final int EXTENSION_CACHE_SIZE = 10000;
+  private static final int MIME_TYPE_CACHE_SIZE = 1000;
+  // media objects of a batch detected by one thread at a time
+  private static final int CHUNK_SIZE = 4096;
   private static MediaParser instance = null;
 
+  private final LoadingCache<String, String> formatsByExtension = CacheBuilder.newBuilder()
+    .maximumSize(EXTENSION_CACHE_SIZE)
+    .recordStats()
+    .build(new CacheLoader<String, String>() {
+      @Override
+      public String load(String extension) {
+        return detectMimeType(PROBE_NAME + extension);
+      }
+    });
+
+  private final LoadingCache<String, Optional<String>> mimeTypes = CacheBuilder.newBuilder()
+    .maximumSize(MIME_TYPE_CACHE_SIZE)
+    .recordStats()
+    .build(new CacheLoader<String, Optional<String>>() {
+      @Override
+      public Optional<String> load(String format) {
+        return Optional.fromNullable(registeredMimeType(format));
+      }
+    });
+
   public static MediaParser getInstance() {
     synchronized (MediaParser.class) {
       if (instance == null) {
@@ -37,31 +86,104 @@ public class MediaParser {
   }
 
   public MediaObject detectType(MediaObject mo) {
-    if (Strings.isNullOrEmpty(mo.getFormat())) {
+    detect(mo.getIdentifier(), mo.getFormat()).applyTo(mo);
+    return mo;
+  }
+
+  /**
+   * Like {@link #detectType(MediaObject)}, except that the format of an http identifier without file extension is the
+   * Content-Type given by its server instead of a web page. The format stays a web page if the Content-Type can't be
+   * resolved.
+   *
+   * @return the media object once its type is detected
+   */
+  public CompletableFuture<MediaObject> detectType(final MediaObject mo, ContentTypeResolver resolver) {
+    if (!Strings.isNullOrEmpty(mo.getFormat()) || !hasNoExtension(mo.getIdentifier())) {
+      return CompletableFuture.completedFuture(detectType(mo));
+    }
+    return resolver.resolve(mo.getIdentifier()).thenApply(new Function<String, MediaObject>() {
+      @Override
+      public MediaObject apply(String contentType) {
+        if (contentType != null) {
+          mo.setFormat(toFormat(parseMimeType(contentType)));
+        }
+        return detectType(mo);
+      }
+    });
+  }
+
+  /**
+   * Detects the types of media objects like {@link #detectType(MediaObject)} does for each, in parallel chunks.
+   * The type is detected once per distinct identifier and format, and the equal identifiers of the media objects are
+   * replaced by a single URI instance.
+   *
+   * @param media media objects to modify, all distinct instances
+   *
+   * @return the media objects
+   */
+  public List<MediaObject> detectTypes(List<MediaObject> media) {
+    return detectTypes(media, new UrlInterner());
+  }
+
+  /**
+   * Like {@link #detectTypes(List)} with a table of identifiers shared by several batches.
+   */
+  public List<MediaObject> detectTypes(List<MediaObject> media, final UrlInterner interner) {
+    Preconditions.checkNotNull(interner, "URL interner required");
+    final MediaObject[] objects = media.toArray(new MediaObject[media.size()]);
+    final ConcurrentMap<MediaKey, DetectedType> detected = new ConcurrentHashMap<MediaKey, DetectedType>();
+    final Function<MediaKey, DetectedType> detector = new Function<MediaKey, DetectedType>() {
+      @Override
+      public DetectedType apply(MediaKey key) {
+        return detect(key.identifier, key.format);
+      }
+    };
+
+    ParallelChunks.process(objects.length, CHUNK_SIZE, new ParallelChunks.Processor() {
+      @Override
+      public void process(int from, int to) {
+        for (int i = from; i < to; i++) {
+          MediaObject mo = objects[i];
+          if (mo != null) {
+            mo.setIdentifier(interner.intern(mo.getIdentifier()));
+            MediaKey key = new MediaKey(mo.getIdentifier(), mo.getFormat());
+            DetectedType type = detected.get(key);
+            if (type == null) {
+              // the map detects every distinct key only once, even if several chunks meet it together
+              type = detected.computeIfAbsent(key, detector);
+            }
+            type.applyTo(mo);
+          }
+        }
+      }
+    });
+    return media;
+  }
+
+  private DetectedType detect(@Nullable URI identifier, @Nullable String format) {
+    if (Strings.isNullOrEmpty(format)) {
       // derive from URI
-      mo.setFormat(parseMimeType(mo.getIdentifier()));
+      format = parseMimeType(identifier);
     }
 
     // if MIME type is text/html make it a references link instead
-    if (HTML_TYPE.equalsIgnoreCase(mo.getFormat()) && mo.getIdentifier() != null) {
-      // make file URI the references link URL instead
-      mo.setReferences(mo.getIdentifier());
-      mo.setIdentifier(null);
-      mo.setFormat(null);
-    }
-
-    if (!Strings.isNullOrEmpty(mo.getFormat())) {
-      if (mo.getFormat().startsWith("image")) {
-        mo.setType(MediaType.StillImage);
-      } else if (mo.getFormat().startsWith("audio")) {
-        mo.setType(MediaType.Sound);
-      } else if (mo.getFormat().startsWith("video")) {
-        mo.setType(MediaType.MovingImage);
+    if (HTML_TYPE.equalsIgnoreCase(format) && identifier != null) {
+      return DetectedType.LINK;
+    }
+
+    MediaType type = null;
+    if (!Strings.isNullOrEmpty(format)) {
+      if (format.startsWith("image")) {
+        type = MediaType.StillImage;
+      } else if (format.startsWith("audio")) {
+        type = MediaType.Sound;
+      } else if (format.startsWith("video")) {
+        type = MediaType.MovingImage;
       } else {
-        LOG.debug("Unsupported media format {}", mo.getFormat());
+        LOG.debug("Unsupported media format {}", format);
       }
     }
-    return mo;
+    return new DetectedType(format, type);
   }
 
   /**
@@ -72,7 +194,10 @@ public class MediaParser {
     if (format != null) {
       format = Strings.emptyToNull(format.trim().toLowerCase());
     }
+    return format == null ? null : mimeTypes.getUnchecked(format).orNull();
+  }
 
+  private static String registeredMimeType(String format) {
     try {
       MimeType mime = MIME_TYPES.getRegisteredMimeType(format);
       if (mime != null) {
@@ -83,23 +208,175 @@ public class MediaParser {
     }
 
     // verify this is a reasonable mime type
-    return format == null || MimeType.isValid(format) ? format : null;
+    return MimeType.isValid(format) ? format : null;
   }
 
   /**
    * Parses a mime type using apache tika which can handle the following:
    * http://svn.apache.org/repos/asf/tika/trunk/tika-core/src/main/resources/org/apache/tika/mime/tika-mimetypes.xml
+   *
+   * Tika detects the type from the last segment of the URI path, the detected format is cached for the extension of
+   * that segment. Names without extension share the format of unknown files, so the few special file names known to
+   * tika such as README are not recognized.
    */
   public String parseMimeType(@Nullable URI uri) {
-    if (uri != null) {
-      String mime = TIKA.detect(uri.toString());
-      if (mime != null && HTML_MIME_TYPES.contains(mime.toLowerCase())) {
-        // links without any suffix default to OCTET STREAM, see:
-        // http://dev.gbif.org/issues/browse/POR-2066
-        return HTML_TYPE;
+    if (uri == null) {
+      return null;
+    }
+    String path = uri.getPath();
+    return path == null ? formatsByExtension.getUnchecked("") : parseMimeType(path, 0, path.length());
+  }
+
+  /**
+   * Like {@link #parseMimeType(URI)} for a scanned URL, which is ignored if it isn't valid.
+   * This avoids creating a URI only to detect its mime type.
+   */
+  public String parseMimeType(@Nullable ParsedUrl url) {
+    if (url == null || !url.isValid()) {
+      return null;
+    }
+    if (url.getPathStart() < 0) {
+      return formatsByExtension.getUnchecked("");
+    }
+    String value = url.toString();
+    int escape = value.indexOf('%', url.getPathStart());
+    if (escape >= 0 && escape < url.getPathEnd()) {
+      // tika decodes the path
+      return parseMimeType(url.toUri());
+    }
+    return parseMimeType(value, url.getPathStart(), url.getPathEnd());
+  }
+
+  private String parseMimeType(String path, int from, int to) {
+    return formatsByExtension.getUnchecked(extension(path, from, to));
+  }
+
+  /**
+   * @return the statistics of the cache of formats detected from URIs, by file extension
+   */
+  public CacheStats getExtensionCacheStats() {
+    return formatsByExtension.stats();
+  }
+
+  /**
+   * @return the statistics of the cache of parsed mime types
+   */
+  public CacheStats getMimeTypeCacheStats() {
+    return mimeTypes.stats();
+  }
+
+  /**
+   * Finds the extension of the last segment of a path deciding the format tika detects: the suffix starting at the
+   * last dot, or a longer compound extension the segment ends with.
+   *
+   * @return the extension, empty if there is none
+   */
+  private static String extension(String path, int from, int to) {
+    int name = path.lastIndexOf('/', to - 1) + 1;
+    if (name < from) {
+      name = from;
+    }
+    int start = path.lastIndexOf('.', to - 1);
+    if (start < name) {
+      start = to;
+    }
+    for (String extension : COMPOUND_EXTENSIONS) {
+      int s = to - extension.length();
+      if (s >= name && s < start && path.regionMatches(true, s, extension, 0, extension.length())) {
+        start = s;
+      }
+    }
+    return path.substring(start, to);
+  }
+
+  private static List<String> compoundExtensions() {
+    ImmutableList.Builder<String> builder = ImmutableList.builder();
+    for (org.apache.tika.mime.MediaType type : MIME_TYPES.getMediaTypeRegistry().getTypes()) {
+      try {
+        for (String extension : MIME_TYPES.forName(type.toString()).getExtensions()) {
+          if (!extension.startsWith(".") || extension.indexOf('.', 1) > 0) {
+            builder.add(extension);
+          }
+        }
+      } catch (MimeTypeException e) {
+      }
+    }
+    return builder.build();
+  }
+
+  private static boolean hasNoExtension(@Nullable URI uri) {
+    return uri != null && uri.getPath() != null && extension(uri.getPath(), 0, uri.getPath().length()).isEmpty();
+  }
+
+  private static String detectMimeType(String name) {
+    return toFormat(TIKA.detect(name));
+  }
+
+  private static String toFormat(@Nullable String mime) {
+    if (mime != null && HTML_MIME_TYPES.contains(mime.toLowerCase())) {
+      // links without any suffix default to OCTET STREAM, see:
+      // http://dev.gbif.org/issues/browse/POR-2066
+      return HTML_TYPE;
+    }
+    return mime;
+  }
+
+  /**
+   * Key of the interned identifier and format of a media object.
+   */
+  private static class MediaKey {
+    private final URI identifier;
+    private final String format;
+    private final int hash;
+
+    private MediaKey(URI identifier, String format) {
+      this.identifier = identifier;
+      this.format = format;
+      this.hash = System.identityHashCode(identifier) * 31 + (format == null ? 0 : format.hashCode());
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof MediaKey)) {
+        return false;
+      }
+      MediaKey that = (MediaKey) obj;
+      // equal identifiers are the same instance once interned
+      return hash == that.hash && identifier == that.identifier && Objects.equal(format, that.format);
+    }
+  }
+
+  /**
+   * The format and type detected for a media object.
+   */
+  private static class DetectedType {
+    // the identifier is a link to a web page
+    private static final DetectedType LINK = new DetectedType(null, null);
+    private final String format;
+    private final MediaType type;
+
+    private DetectedType(String format, MediaType type) {
+      this.format = format;
+      this.type = type;
+    }
+
+    private void applyTo(MediaObject mo) {
+      if (this == LINK) {
+        // make file URI the references link URL instead
+        mo.setReferences(mo.getIdentifier());
+        mo.setIdentifier(null);
+        mo.setFormat(null);
+      } else {
+        mo.setFormat(format);
+        if (type != null) {
+          mo.setType(type);
+        }
       }
-      return mime;
     }
-    return null;
   }
 }
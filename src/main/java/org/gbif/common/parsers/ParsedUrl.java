@@ -0,0 +1,166 @@
+package org.gbif.common.parsers;
+
+import java.net.URI;
+
+/**
+ * The result of scanning a URL with {@link UrlParser#scan(String)}: the URL string, its validity and the offsets of
+ * its components. Nothing but the URL string is created by the scan, the components and the {@link URI} are created
+ * on demand.
+ */
+public final class ParsedUrl {
+
+  private final String url;
+  private final int errorIndex;
+  private final int schemeEnd;
+  private final int hostStart;
+  private final int hostEnd;
+  private final int port;
+  private final int pathStart;
+  private final int pathEnd;
+  private final int queryStart;
+  private final int queryEnd;
+  private final int fragmentStart;
+
+  /**
+   * Copies the last successful scan of the scanner.
+   *
+   * @param url    the scanned string
+   * @param offset the index in the string of the first scanned character
+   */
+  ParsedUrl(String url, int offset, UrlScanner scanner) {
+    this.url = url;
+    errorIndex = shift(scanner.errorIndex, offset);
+    schemeEnd = shift(scanner.schemeEnd, offset);
+    hostStart = shift(scanner.hostStart, offset);
+    hostEnd = shift(scanner.hostEnd, offset);
+    port = scanner.port;
+    pathStart = shift(scanner.pathStart, offset);
+    pathEnd = shift(scanner.pathEnd, offset);
+    queryStart = shift(scanner.queryStart, offset);
+    queryEnd = shift(scanner.queryEnd, offset);
+    fragmentStart = shift(scanner.fragmentStart, offset);
+  }
+
+  /**
+   * An invalid URL.
+   */
+  ParsedUrl(String url, int errorIndex) {
+    this.url = url;
+    this.errorIndex = errorIndex;
+    schemeEnd = -1;
+    hostStart = -1;
+    hostEnd = -1;
+    port = -1;
+    pathStart = -1;
+    pathEnd = -1;
+    queryStart = -1;
+    queryEnd = -1;
+    fragmentStart = -1;
+  }
+
+  private static int shift(int index, int offset) {
+    // the scheme of an authority scan ends before the scanned characters
+    return index == -1 ? -1 : index - offset;
+  }
+
+  /**
+   * @return true if the string is a valid URI reference, absolute or relative
+   */
+  public boolean isValid() {
+    return errorIndex < 0;
+  }
+
+  /**
+   * @return true if the string is a valid URI with a host, as accepted by {@link UrlParser#parse(String)}
+   */
+  public boolean isUrl() {
+    return errorIndex < 0 && hostStart >= 0;
+  }
+
+  /**
+   * @return the index of the first invalid character, or of the start of an invalid authority, -1 if the string is
+   * valid
+   */
+  public int getErrorIndex() {
+    return errorIndex;
+  }
+
+  /**
+   * @return the scheme or null
+   */
+  public String getScheme() {
+    return schemeEnd < 0 ? null : url.substring(0, schemeEnd);
+  }
+
+  /**
+   * @return true if the scheme is the given one, ignoring case
+   */
+  public boolean hasScheme(String scheme) {
+    return schemeEnd == scheme.length() && url.regionMatches(true, 0, scheme, 0, schemeEnd);
+  }
+
+  /**
+   * @return the host, an IPv6 address within brackets, or null
+   */
+  public String getHost() {
+    return hostStart < 0 ? null : url.substring(hostStart, hostEnd);
+  }
+
+  /**
+   * @return the port, or -1 if there is none
+   */
+  public int getPort() {
+    return port;
+  }
+
+  /**
+   * @return the raw path, possibly empty, or null for an invalid or opaque URI
+   */
+  public String getPath() {
+    return pathStart < 0 ? null : url.substring(pathStart, pathEnd);
+  }
+
+  public int getPathStart() {
+    return pathStart;
+  }
+
+  public int getPathEnd() {
+    return pathEnd;
+  }
+
+  /**
+   * @return the raw query or null
+   */
+  public String getQuery() {
+    return queryStart < 0 ? null : url.substring(queryStart, queryEnd);
+  }
+
+  /**
+   * @return the raw fragment or null
+   */
+  public String getFragment() {
+    return fragmentStart < 0 ? null : url.substring(fragmentStart);
+  }
+
+  /**
+   * @return the URI of a valid string, or null
+   */
+  public URI toUri() {
+    if (isValid()) {
+      try {
+        return URI.create(url);
+      } catch (IllegalArgumentException e) {
+        // not expected, the scanner accepts the syntax of java.net.URI only
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return the scanned string, prefixed with http:// if it was a www address
+   */
+  @Override
+  public String toString() {
+    return url;
+  }
+}
@@ -0,0 +1,213 @@
+package org.gbif.common.parsers;
+
+import org.gbif.api.vocabulary.TypeStatus;
+import org.gbif.common.parsers.core.ParallelChunks;
+import org.gbif.common.parsers.core.ParseResult;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+
+import com.google.common.base.Strings;
+
+/**
+ * Interprets a type status value such as "Holotype of Abies alba Mill." into both its {@link TypeStatus} and its
+ * typified name, with the results of {@link TypeStatusParser} and {@link TypifiedNameParser} for the same value.
+ *
+ * A single scan of the value finds the "of" ending the type status and the one starting the typified name, without
+ * the regular expressions of the two parsers. The typified name is only parsed when asked for, through the shared
+ * caching name parser, and a batch interprets every distinct value once.
+ */
+public class TypeStatusInterpreter {
+
+  private static final int CHUNK_SIZE = 4096;
+  private static final Interpretation EMPTY = new Interpretation(null, ParseResult.<TypeStatus>fail(), null, false);
+
+  private static TypeStatusInterpreter singletonObject = null;
+
+  private final TypeStatusParser statusParser = TypeStatusParser.getInstance();
+
+  private TypeStatusInterpreter() {
+  }
+
+  public static TypeStatusInterpreter getInstance() {
+    synchronized (TypeStatusInterpreter.class) {
+      if (singletonObject == null) {
+        singletonObject = new TypeStatusInterpreter();
+      }
+    }
+    return singletonObject;
+  }
+
+  /**
+   * The type status and typified name of a value.
+   * The typified name is parsed on the first call only, an interpretation can be shared by threads.
+   */
+  public static class Interpretation {
+    private final String value;
+    private final ParseResult<TypeStatus> typeStatus;
+    // the name following the type status, parsed lazily
+    private final String name;
+    // a value the scan leaves to the typified name parser
+    private final boolean unscanned;
+    private volatile ParseResult<String> typifiedName;
+
+    private Interpretation(String value, ParseResult<TypeStatus> typeStatus, @Nullable String name, boolean unscanned) {
+      this.value = value;
+      this.typeStatus = typeStatus;
+      this.name = name;
+      this.unscanned = unscanned;
+    }
+
+    /**
+     * @return the type status as {@link TypeStatusParser#parse(String)} gives it
+     */
+    public ParseResult<TypeStatus> getTypeStatus() {
+      return typeStatus;
+    }
+
+    /**
+     * @return the typified name as {@link TypifiedNameParser#parse(String)} gives it
+     */
+    public ParseResult<String> getTypifiedName() {
+      ParseResult<String> result = typifiedName;
+      if (result == null) {
+        // parsing twice in a race gives the same result
+        if (unscanned) {
+          result = TypifiedNameParser.getInstance().parse(value);
+        } else if (name != null) {
+          result = TypifiedNameParser.getInstance().parseName(name, value);
+        } else {
+          result = ParseResult.fail();
+        }
+        typifiedName = result;
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Interprets a type status value.
+   *
+   * @return the interpretation, never null
+   */
+  public Interpretation interpret(@Nullable String value) {
+    if (Strings.isNullOrEmpty(value)) {
+      return EMPTY;
+    }
+    final int length = value.length();
+    for (int i = 0; i < length; i++) {
+      if (isLineTerminator(value.charAt(i))) {
+        // both parsers stop at line ends in ways not worth scanning for
+        return new Interpretation(value, statusParser.parse(value), null, true);
+      }
+    }
+
+    // the bounds the status parser trims to
+    int start = 0;
+    int end = length;
+    while (start < end && value.charAt(start) <= ' ') {
+      start++;
+    }
+    while (start < end && value.charAt(end - 1) <= ' ') {
+      end--;
+    }
+
+    // the status ends at the last " of " after its first character, the name starts after the first white space,
+    // "of", and non word characters with some white space among them
+    int statusEnd = end;
+    int nameStart = -1;
+    boolean unscanned = false;
+    for (int i = 1; i + 1 < length; i++) {
+      char o = value.charAt(i);
+      char f = value.charAt(i + 1);
+      if ((o == 'o' || o == 'O') && (f == 'f' || f == 'F')) {
+        if (value.charAt(i - 1) == ' ' && i - 1 > start && i + 2 < end && value.charAt(i + 2) == ' ') {
+          statusEnd = i - 1;
+        }
+        if (nameStart < 0 && !unscanned && isWhitespace(value.charAt(i - 1))) {
+          int j = i + 2;
+          boolean whitespace = false;
+          while (j < length && !isWordCharacter(value.charAt(j))) {
+            whitespace |= isWhitespace(value.charAt(j));
+            j++;
+          }
+          if (whitespace) {
+            if (j < length) {
+              nameStart = j;
+            } else {
+              // a name of non word characters only, whose exact bounds are left to the name parser
+              unscanned = true;
+            }
+          }
+        }
+      }
+    }
+
+    String name = nameStart < 0 ? null : value.substring(nameStart);
+    return new Interpretation(value, statusParser.parseStatus(value.substring(start, statusEnd)), name, unscanned);
+  }
+
+  /**
+   * Interprets type status values like {@link #interpret(String)} does for every value, in parallel chunks.
+   * Every distinct value is interpreted once and its interpretation is shared by all its rows, so that its typified
+   * name is parsed at most once too.
+   *
+   * @return the interpretations in the order of the values
+   */
+  public List<Interpretation> interpretAll(List<String> values) {
+    final String[] raw = values.toArray(new String[values.size()]);
+    final Interpretation[] interpretations = new Interpretation[raw.length];
+    final ConcurrentMap<String, Interpretation> interpreted = new ConcurrentHashMap<String, Interpretation>();
+    final Function<String, Interpretation> interpreter = new Function<String, Interpretation>() {
+      @Override
+      public Interpretation apply(String value) {
+        return interpret(value);
+      }
+    };
+
+    ParallelChunks.process(raw.length, CHUNK_SIZE, new ParallelChunks.Processor() {
+      @Override
+      public void process(int from, int to) {
+        for (int i = from; i < to; i++) {
+          String value = raw[i];
+          if (Strings.isNullOrEmpty(value)) {
+            interpretations[i] = EMPTY;
+          } else {
+            Interpretation interpretation = interpreted.get(value);
+            if (interpretation == null) {
+              // the map interprets every distinct value only once, even if several chunks meet it together
+              interpretation = interpreted.computeIfAbsent(value, interpreter);
+            }
+            interpretations[i] = interpretation;
+          }
+        }
+      }
+    });
+    return Arrays.asList(interpretations);
+  }
+
+  /**
+   * @return true for the characters of \s in a regular expression
+   */
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+  }
+
+  /**
+   * @return true for the characters of \w in a regular expression
+   */
+  private static boolean isWordCharacter(char c) {
+    return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_';
+  }
+
+  /**
+   * @return true for the characters ending a line for . in a regular expression
+   */
+  private static boolean isLineTerminator(char c) {
+    return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+  }
+}
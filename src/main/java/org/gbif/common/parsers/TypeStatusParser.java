@@ -2,6 +2,7 @@ package org.gbif.common.parsers;
 
 import org.gbif.api.vocabulary.TypeStatus;
 import org.gbif.common.parsers.core.EnumParser;
+import org.gbif.common.parsers.core.ParseResult;
 
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -40,6 +41,14 @@ public class TypeStatusParser extends EnumParser<TypeStatus> {
     return NON_LETTERS.removeFrom(value);
   }
 
+  /**
+   * Parses the words of a type status alone, once any typified name has been split off.
+   */
+  ParseResult<TypeStatus> parseStatus(String status) {
+    TypeStatus value = getDictionary().get(NON_LETTERS.removeFrom(status.toUpperCase()));
+    return value == null ? ParseResult.<TypeStatus>fail() : ParseResult.success(ParseResult.CONFIDENCE.DEFINITE, value);
+  }
+
   public static TypeStatusParser getInstance()
     throws ClassCastException, AbstractMethodError, ArithmeticException, ArrayIndexOutOfBoundsException {
     synchronized (TypeStatusParser.class) {
@@ -12,7 +12,7 @@ import org.slf4j.LoggerFactory;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import static org.gbif.common.parsers.utils.NameParserUtils.PARSER;
+import static org.gbif.common.parsers.utils.NameParserUtils.CACHING_PARSER;
 
 /**
  * Singleton implementation using regex to extract a scientific name after a typestatus from a string.
@@ -35,20 +35,27 @@ public class TypifiedNameParser implements Parsable<String> {
     if (!Strings.isNullOrEmpty(input)) {
       Matcher m = NAME_SEPARATOR.matcher(input);
       if (m.find()) {
-        String name = m.group(1);
-        // make sure the name does not end with "type", see http://dev.gbif.org/issues/browse/POR-2703
-        if (!name.endsWith("type")) {
-          try {
-            ParsedName pn = PARSER.parse(name,null);
-            return ParseResult.success(ParseResult.CONFIDENCE.PROBABLE, pn.canonicalNameComplete());
+        return parseName(m.group(1), input);
+      }
+    }
+    return ParseResult.fail();
+  }
+
+  /**
+   * Parses the name found after the type status of an input.
+   */
+  ParseResult<String> parseName(String name, String input) {
+    // make sure the name does not end with "type", see http://dev.gbif.org/issues/browse/POR-2703
+    if (!name.endsWith("type")) {
+      try {
+        ParsedName pn = CACHING_PARSER.parse(name,null);
+        return ParseResult.success(ParseResult.CONFIDENCE.PROBABLE, pn.canonicalNameComplete());
 
-          } catch (UnparsableException e) {
-            log.debug("Cannot parse typified name: [{}] from input [{}]", name, input);
-            name = CLEAN_WHITESPACE.matcher(name).replaceAll(" ").trim();
-            if (REASONABLE_NAME_SIZE_RANGE.contains(name.length())) {
-              return ParseResult.success(ParseResult.CONFIDENCE.POSSIBLE, name);
-            }
-          }
+      } catch (UnparsableException e) {
+        log.debug("Cannot parse typified name: [{}] from input [{}]", name, input);
+        name = CLEAN_WHITESPACE.matcher(name).replaceAll(" ").trim();
+        if (REASONABLE_NAME_SIZE_RANGE.contains(name.length())) {
+          return ParseResult.success(ParseResult.CONFIDENCE.POSSIBLE, name);
         }
       }
     }
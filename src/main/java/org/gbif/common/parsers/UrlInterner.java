@@ -0,0 +1,37 @@
+package org.gbif.common.parsers;
+
+import java.net.URI;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.Nullable;
+
+/**
+ * A table sharing a single {@link URI} instance between all the equal URLs of a batch of records.
+ * URLs are equal if they have the same string, unlike {@link URI#equals(Object)} which ignores the case of the scheme
+ * and host, so interning never changes a URL. The table is keyed by the string held by the URI itself and costs a map
+ * entry per distinct URL only.
+ *
+ * The table is Thread-Safe and grows with the distinct URLs, so it is meant to live as long as a batch.
+ */
+public class UrlInterner {
+
+  private final ConcurrentMap<String, URI> urls = new ConcurrentHashMap<String, URI>();
+
+  /**
+   * @return the shared instance of the URL, which is the given one the first time
+   */
+  public URI intern(@Nullable URI url) {
+    if (url == null) {
+      return null;
+    }
+    URI shared = urls.putIfAbsent(url.toString(), url);
+    return shared == null ? url : shared;
+  }
+
+  /**
+   * @return the number of distinct URLs
+   */
+  public int size() {
+    return urls.size();
+  }
+}
@@ -4,9 +4,7 @@ import java.net.URI;
 import java.util.List;
 
 import com.google.common.base.CharMatcher;
-import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
-import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,6 +15,7 @@ import org.slf4j.LoggerFactory;
  */
 public class UrlParser {
   private static final Logger LOG = LoggerFactory.getLogger(UrlParser.class);
+  // counted by countDelimiters in this order
   private static final String[] MULTI_VALUE_DELIMITERS = {"|#DELIMITER#|", "|", ",", ";"};
   private static final String HTTP_SCHEME = "http://";
 
@@ -32,37 +31,60 @@ public class UrlParser {
    * @return The converted value, or null if not parsable or exception occurred
    */
   public static URI parse(String value) {
+    ParsedUrl url = scan(value);
+    return url.isUrl() ? url.toUri() : null;
+  }
+
+  /**
+   * Scans a String like {@link #parse(String)} does, without creating a java.net.URI or throwing any exception.
+   * The result tells if the value is a valid URI and if it has a host, and where its components are.
+   *
+   * @param value The input value to be scanned
+   *
+   * @return The scanned value, trimmed and prefixed with the default protocol for www addresses, never null
+   */
+  public static ParsedUrl scan(String value) {
     value = CharMatcher.WHITESPACE.trimFrom(Strings.nullToEmpty(value));
-    if (Strings.isNullOrEmpty(value)) {
-      return null;
+    if (value.isEmpty()) {
+      return new ParsedUrl(value, 0);
     }
+    UrlScanner scanner = new UrlScanner();
+    if (scan(value, 0, value.length(), scanner)) {
+      return new ParsedUrl(HTTP_SCHEME + value, -HTTP_SCHEME.length(), scanner);
+    }
+    if (scanner.errorIndex >= 0) {
+      return new ParsedUrl(value, scanner.errorIndex);
+    }
+    return new ParsedUrl(value, 0, scanner);
+  }
 
-    URI uri = null;
-    try {
-      uri = URI.create(value);
-      if (!uri.isAbsolute() && value.startsWith("www")) {
-        // make www an http address
-        try {
-          uri = URI.create(HTTP_SCHEME + value);
-        } catch (IllegalArgumentException e) {
-          // keep the previous scheme-less result
-        }
-      }
-
-      // verify that we have a domain
-      if (Strings.isNullOrEmpty(uri.getHost())) {
-        return null;
+  /**
+   * Scans the trimmed characters from to to of a string, as an http address if they are a www one.
+   *
+   * @return true if they were scanned as an http address
+   */
+  private static boolean scan(String value, int from, int to, UrlScanner scanner) {
+    if (scanner.scan(value, from, to, false) && scanner.schemeEnd < 0 && value.startsWith("www", from)) {
+      // make www an http address
+      if (scanner.scan(value, from, to, true)) {
+        return true;
       }
-
-    } catch (IllegalArgumentException e) {
+      // keep the previous scheme-less result
+      scanner.scan(value, from, to, false);
     }
-
-    return uri;
+    return false;
   }
 
+  private static boolean isUrl(UrlScanner scanner) {
+    return scanner.errorIndex < 0 && scanner.hostStart >= 0;
+  }
 
   /**
    * Parses a single string with null, one or many URIs concatenated together as found in dwc:associatedMedia.
+   *
+   * The delimiters of the string are counted in a single pass and only the ones found are tried. The delimiter
+   * giving the most URIs wins, the first one on a tie. The fragments are only scanned to choose the delimiter, so
+   * URIs are created for the fragments of the winning delimiter only.
    */
   public static List<URI> parseUriList(String uris) {
     List<URI> result = Lists.newArrayList();
@@ -74,31 +96,120 @@ public class UrlParser {
         result.add(uri);
 
       } else {
-        // try common delimiters
+        // try the common delimiters found
+        int[] counts = countDelimiters(uris);
+        UrlScanner scanner = new UrlScanner();
+        String best = null;
         int maxValidUrls = 0;
-        for (String delimiter : MULTI_VALUE_DELIMITERS) {
-          Splitter splitter = Splitter.on(delimiter).omitEmptyStrings().trimResults();
-          String[] urls = Iterables.toArray(splitter.split(uris), String.class);
-          // avoid parsing if we haven' actually split anything
-          if (urls.length > 1) {
-            List<URI> tmp = Lists.newArrayList();
-            for (String url : urls) {
-              uri = UrlParser.parse(url);
-              if (uri != null) {
-                tmp.add(uri);
-              }
-            }
-            if (tmp.size() > maxValidUrls) {
-              result = tmp;
-              maxValidUrls = tmp.size();
-            } else if (maxValidUrls > 0 && tmp.size() == maxValidUrls) {
+        for (int d = 0; d < MULTI_VALUE_DELIMITERS.length; d++) {
+          // avoid scanning if we can't split anything
+          if (counts[d] > 0) {
+            int validUrls = countUrls(uris, MULTI_VALUE_DELIMITERS[d], scanner);
+            if (validUrls > maxValidUrls) {
+              best = MULTI_VALUE_DELIMITERS[d];
+              maxValidUrls = validUrls;
+            } else if (maxValidUrls > 0 && validUrls == maxValidUrls) {
               LOG.info("Unclear what delimiter is being used for concatenated URIs = {}", uris);
             }
           }
         }
+        if (best != null) {
+          result = parseFragments(uris, best, scanner);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Counts the occurrences of every delimiter of {@link #MULTI_VALUE_DELIMITERS} in a single pass, the pipes of the
+   * long delimiter being counted as pipes as well.
+   */
+  private static int[] countDelimiters(String uris) {
+    int[] counts = new int[MULTI_VALUE_DELIMITERS.length];
+    for (int i = 0; i < uris.length(); i++) {
+      char c = uris.charAt(i);
+      if (c == '|') {
+        counts[1]++;
+        if (uris.startsWith(MULTI_VALUE_DELIMITERS[0], i)) {
+          counts[0]++;
+        }
+      } else if (c == ',') {
+        counts[2]++;
+      } else if (c == ';') {
+        counts[3]++;
+      }
+    }
+    return counts;
+  }
+
+  /**
+   * @return the number of fragments which are URLs, or 0 if the delimiter splits less than 2 non empty fragments
+   */
+  private static int countUrls(String uris, String delimiter, UrlScanner scanner) {
+    int fragments = 0;
+    int urls = 0;
+    int start = 0;
+    while (start <= uris.length()) {
+      int end = uris.indexOf(delimiter, start);
+      if (end < 0) {
+        end = uris.length();
+      }
+      int from = trimStart(uris, start, end);
+      int to = trimEnd(uris, from, end);
+      if (from < to) {
+        fragments++;
+        scan(uris, from, to, scanner);
+        if (isUrl(scanner)) {
+          urls++;
+        }
+      }
+      start = end + delimiter.length();
+    }
+    return fragments < 2 ? 0 : urls;
+  }
+
+  /**
+   * Parses the trimmed, non empty fragments between the delimiters which are URLs.
+   */
+  private static List<URI> parseFragments(String uris, String delimiter, UrlScanner scanner) {
+    List<URI> result = Lists.newArrayList();
+    int start = 0;
+    while (start <= uris.length()) {
+      int end = uris.indexOf(delimiter, start);
+      if (end < 0) {
+        end = uris.length();
+      }
+      int from = trimStart(uris, start, end);
+      int to = trimEnd(uris, from, end);
+      if (from < to) {
+        boolean http = scan(uris, from, to, scanner);
+        if (isUrl(scanner)) {
+          String url = uris.substring(from, to);
+          try {
+            result.add(URI.create(http ? HTTP_SCHEME + url : url));
+          } catch (IllegalArgumentException e) {
+            // the scanner accepted a fragment java.net.URI rejects, skip it like any other junk
+            LOG.debug("Skipping invalid URI {}", url, e);
+          }
+        }
       }
+      start = end + delimiter.length();
     }
     return result;
   }
 
+  private static int trimStart(String value, int from, int to) {
+    while (from < to && CharMatcher.WHITESPACE.matches(value.charAt(from))) {
+      from++;
+    }
+    return from;
+  }
+
+  private static int trimEnd(String value, int from, int to) {
+    while (to > from && CharMatcher.WHITESPACE.matches(value.charAt(to - 1))) {
+      to--;
+    }
+    return to;
+  }
 }
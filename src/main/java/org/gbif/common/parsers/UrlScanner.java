@@ -0,0 +1,616 @@
+package org.gbif.common.parsers;
+
+/**
+ * Hand written scanner of URI references, reporting the offsets of their components without creating any object or
+ * throwing any exception.
+ *
+ * The syntax accepted is the one of {@link java.net.URI}, which is RFC 2396 with the RFC 3986 relaxations for empty
+ * paths and authorities and the IPv6 literals of RFC 2732. A reference accepted by the scanner can be given to
+ * {@link java.net.URI#create(String)}, and the host found is the one of {@link java.net.URI#getHost()}: an authority
+ * which isn't a valid server, such as a hostname with an underscore, is a registry based authority without host.
+ *
+ * The scanner keeps the result of the last scan in its fields, an instance can be reused but is not Thread-Safe.
+ */
+final class UrlScanner {
+
+  // character classes as bitmasks, the low mask for the characters below 64 and the high mask for the others below 128
+  private static final long L_DIGIT = lowMask('0', '9');
+  private static final long H_UPALPHA = highMask('A', 'Z');
+  private static final long H_LOWALPHA = highMask('a', 'z');
+  private static final long H_ALPHA = H_LOWALPHA | H_UPALPHA;
+  private static final long L_ALPHANUM = L_DIGIT;
+  private static final long H_ALPHANUM = H_ALPHA;
+  private static final long L_HEX = L_DIGIT;
+  private static final long H_HEX = highMask('A', 'F') | highMask('a', 'f');
+  private static final long L_MARK = lowMask("-_.!~*'()");
+  private static final long H_MARK = highMask("-_.!~*'()");
+  private static final long L_UNRESERVED = L_ALPHANUM | L_MARK;
+  private static final long H_UNRESERVED = H_ALPHANUM | H_MARK;
+  private static final long L_RESERVED = lowMask(";/?:@&=+$,[]");
+  private static final long H_RESERVED = highMask(";/?:@&=+$,[]");
+  // flag allowing escaped octets and visible non ASCII characters, the NUL character never matches
+  private static final long L_ESCAPED = 1L;
+  private static final long L_URIC = L_RESERVED | L_UNRESERVED | L_ESCAPED;
+  private static final long H_URIC = H_RESERVED | H_UNRESERVED;
+  private static final long L_PCHAR = L_UNRESERVED | L_ESCAPED | lowMask(":@&=+$,");
+  private static final long H_PCHAR = H_UNRESERVED | highMask(":@&=+$,");
+  private static final long L_PATH = L_PCHAR | lowMask(";/");
+  private static final long H_PATH = H_PCHAR | highMask(";/");
+  private static final long L_DASH = lowMask("-");
+  private static final long H_DASH = highMask("-");
+  private static final long L_USERINFO = L_UNRESERVED | L_ESCAPED | lowMask(";:&=+$,");
+  private static final long H_USERINFO = H_UNRESERVED | highMask(";:&=+$,");
+  private static final long L_REG_NAME = L_UNRESERVED | L_ESCAPED | lowMask("$,;:@&=+");
+  private static final long H_REG_NAME = H_UNRESERVED | highMask("$,;:@&=+");
+  private static final long L_SERVER_PERCENT = L_USERINFO | L_ALPHANUM | L_DASH | lowMask(".:@[]%");
+  private static final long H_SERVER_PERCENT = H_USERINFO | H_ALPHANUM | H_DASH | highMask(".:@[]%");
+  private static final long L_SCOPE_ID = L_ALPHANUM | lowMask("_.");
+  private static final long H_SCOPE_ID = H_ALPHANUM | highMask("_.");
+  private static final long L_SCHEME = L_DIGIT | lowMask("+-.");
+  private static final long H_SCHEME = H_ALPHA | highMask("+-.");
+
+  /**
+   * Index of the first invalid character, -1 if the reference is valid.
+   */
+  int errorIndex;
+
+  /**
+   * Index of the colon ending the scheme, -1 if there is no scheme. When scanning an authority, the index the colon of
+   * the implied http:// would have.
+   */
+  int schemeEnd;
+
+  /**
+   * Offsets of the host, IPv6 brackets included, -1 if there is none.
+   */
+  int hostStart;
+  int hostEnd;
+
+  /**
+   * The port, -1 if there is none.
+   */
+  int port;
+
+  /**
+   * Offsets of the path, -1 for an opaque URI such as mailto:info@gbif.org.
+   */
+  int pathStart;
+  int pathEnd;
+
+  /**
+   * Offsets of the query without the question mark, -1 if there is none.
+   */
+  int queryStart;
+  int queryEnd;
+
+  /**
+   * Offset of the fragment after the hash, -1 if there is none. The fragment ends with the reference.
+   */
+  int fragmentStart;
+
+  private String s;
+  private int ipv6ByteCount;
+
+  /**
+   * Scans the characters from to to of a string as a URI reference.
+   *
+   * @param authority true to scan them as if they followed http://, that is as an authority and a path
+   *
+   * @return true if they are a valid reference
+   */
+  boolean scan(String s, int from, int to, boolean authority) {
+    this.s = s;
+    errorIndex = -1;
+    schemeEnd = -1;
+    hostStart = -1;
+    hostEnd = -1;
+    port = -1;
+    pathStart = -1;
+    pathEnd = -1;
+    queryStart = -1;
+    queryEnd = -1;
+    fragmentStart = -1;
+    ipv6ByteCount = 0;
+
+    int p;
+    int colon = authority ? -1 : indexOfScheme(from, to);
+    if (authority) {
+      schemeEnd = from - 3;
+      p = scanHierarchical(from, to, true);
+    } else if (colon >= 0) {
+      if (colon == from || !match(s.charAt(from), 0, H_ALPHA)) {
+        return invalid(from);
+      }
+      int q = scan(from + 1, colon, L_SCHEME, H_SCHEME);
+      if (q < colon) {
+        return invalid(q);
+      }
+      schemeEnd = colon;
+      p = colon + 1;
+      if (at(p, to, '/')) {
+        p = scanHierarchical(p, to, false);
+      } else {
+        // opaque part
+        int end = indexOf('#', p, to);
+        if (end <= p) {
+          return invalid(p);
+        }
+        p = check(p, end, L_URIC, H_URIC);
+      }
+    } else {
+      p = scanHierarchical(from, to, false);
+    }
+    if (p < 0) {
+      return false;
+    }
+    if (at(p, to, '#')) {
+      fragmentStart = p + 1;
+      p = check(p + 1, to, L_URIC, H_URIC);
+      if (p < 0) {
+        return false;
+      }
+    }
+    if (p < to) {
+      return invalid(p);
+    }
+    return true;
+  }
+
+  /**
+   * @return the index of a colon before any of /?#, or -1
+   */
+  private int indexOfScheme(int from, int to) {
+    for (int p = from; p < to; p++) {
+      char c = s.charAt(p);
+      if (c == ':') {
+        return p;
+      }
+      if (c == '/' || c == '?' || c == '#') {
+        return -1;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Scans an optional authority, a path and an optional query.
+   *
+   * @param authority true if an authority starts at p without the leading //
+   *
+   * @return the end of the scanned characters or -1 if they are invalid
+   */
+  private int scanHierarchical(int p, int n, boolean authority) {
+    if (authority || at(p, n, '/') && at(p + 1, n, '/')) {
+      if (!authority) {
+        p += 2;
+      }
+      int q = indexOfAny(p, n, true);
+      if (q > p) {
+        if (!scanAuthority(p, q)) {
+          return -1;
+        }
+        p = q;
+      } else if (q >= n) {
+        // an empty authority is allowed before a path, query or fragment only
+        return fail(p);
+      }
+    }
+    int q = indexOfAny(p, n, false);
+    if (check(p, q, L_PATH, H_PATH) < 0) {
+      return -1;
+    }
+    pathStart = p;
+    pathEnd = q;
+    p = q;
+    if (at(p, n, '?')) {
+      p++;
+      q = indexOf('#', p, n);
+      if (check(p, q, L_URIC, H_URIC) < 0) {
+        return -1;
+      }
+      queryStart = p;
+      queryEnd = q;
+      p = q;
+    }
+    return p;
+  }
+
+  /**
+   * Scans an authority, which has a host if it is a valid server and a registry name otherwise.
+   *
+   * @return false if it is neither
+   */
+  private boolean scanAuthority(int p, int n) {
+    int q = scan(p, n, L_REG_NAME, H_REG_NAME);
+    if (q < 0) {
+      return false;
+    }
+    boolean regChars = q == n;
+    boolean serverChars = scan(p, n, L_SERVER_PERCENT & ~L_ESCAPED, H_SERVER_PERCENT, true) == n;
+    if (serverChars) {
+      if (scanServer(p, n)) {
+        return true;
+      }
+      if (errorIndex >= 0) {
+        return false;
+      }
+      hostStart = -1;
+      hostEnd = -1;
+      port = -1;
+    }
+    if (regChars) {
+      return true;
+    }
+    return invalid(p);
+  }
+
+  /**
+   * Scans an authority made of optional user info, a host and an optional port.
+   *
+   * @return false if it isn't a valid server
+   */
+  private boolean scanServer(int p, int n) {
+    int q = indexOf('@', p, n);
+    if (q < n) {
+      int r = scan(p, q, L_USERINFO, H_USERINFO);
+      if (r < q) {
+        return false;
+      }
+      p = q + 1;
+    }
+
+    if (at(p, n, '[')) {
+      p++;
+      q = indexOf(']', p, n);
+      if (q <= p || q >= n) {
+        return false;
+      }
+      // an optional scope id follows a %
+      int r = indexOf('%', p, q);
+      if (r > p) {
+        if (!scanIPv6(p, r) || r + 1 == q || scan(r + 1, q, L_SCOPE_ID, H_SCOPE_ID) < q) {
+          return false;
+        }
+      } else if (!scanIPv6(p, q)) {
+        return false;
+      }
+      hostStart = p - 1;
+      hostEnd = q + 1;
+      p = q + 1;
+    } else {
+      q = scanIPv4(p, n);
+      if (q <= p) {
+        q = scanHostname(p, n);
+        if (q < 0) {
+          return false;
+        }
+      }
+      hostStart = p;
+      hostEnd = q;
+      p = q;
+    }
+
+    if (at(p, n, ':')) {
+      p++;
+      if (p < n) {
+        long value = 0;
+        for (q = p; q < n; q++) {
+          char c = s.charAt(q);
+          if (c < '0' || c > '9') {
+            return false;
+          }
+          value = value * 10 + c - '0';
+          if (value > Integer.MAX_VALUE) {
+            return false;
+          }
+        }
+        port = (int) value;
+        p = n;
+      }
+    }
+    return p >= n;
+  }
+
+  /**
+   * Scans a hostname made of labels of letters, digits and inner dashes separated by dots. The last label of a
+   * qualified name starts with a letter.
+   *
+   * @return the end of the hostname, or -1 if there is none
+   */
+  private int scanHostname(int start, int n) {
+    int p = start;
+    int lastLabel = -1;
+    do {
+      int q = scan(p, n, L_ALPHANUM, H_ALPHANUM);
+      if (q <= p) {
+        break;
+      }
+      lastLabel = p;
+      p = q;
+      q = scan(p, n, L_ALPHANUM | L_DASH, H_ALPHANUM | H_DASH);
+      if (q > p) {
+        if (s.charAt(q - 1) == '-') {
+          return -1;
+        }
+        p = q;
+      }
+      if (!at(p, n, '.')) {
+        break;
+      }
+      p++;
+    } while (p < n);
+
+    if (p < n && !at(p, n, ':') || lastLabel < 0) {
+      return -1;
+    }
+    if (lastLabel > start && !match(s.charAt(lastLabel), 0, H_ALPHA)) {
+      return -1;
+    }
+    return p;
+  }
+
+  /**
+   * Scans a dotted IPv4 address of 4 bytes, which is the whole host if followed by the end of the authority or a port.
+   *
+   * @param strict true if the address must end at n
+   *
+   * @return the end of the address, or -1 if there is none
+   */
+  private int scanIPv4(int start, int n, boolean strict) {
+    int m = scan(start, n, L_DIGIT | lowMask("."), 0);
+    if (m <= start || strict && m != n) {
+      return -1;
+    }
+    int p = start;
+    for (int b = 0; b < 4; b++) {
+      if (b > 0) {
+        if (!at(p, m, '.')) {
+          return -1;
+        }
+        p++;
+      }
+      int q = p;
+      int value = 0;
+      while (q < m && s.charAt(q) >= '0' && s.charAt(q) <= '9') {
+        value = value * 10 + s.charAt(q) - '0';
+        if (value > 255) {
+          return -1;
+        }
+        q++;
+      }
+      if (q == p) {
+        return -1;
+      }
+      p = q;
+    }
+    return p < m ? -1 : p;
+  }
+
+  private int scanIPv4(int start, int n) {
+    int p = scanIPv4(start, n, false);
+    if (p > start && p < n && s.charAt(p) != ':') {
+      return -1;
+    }
+    return p;
+  }
+
+  /**
+   * Scans an IPv6 address without brackets, of 16 bytes or fewer around a :: compression.
+   */
+  private boolean scanIPv6(int start, int n) {
+    int p = start;
+    boolean compressedZeros = false;
+    int q = scanHexSeq(p, n);
+    if (q == -2) {
+      return false;
+    }
+    if (q > p) {
+      p = q;
+      if (at(p, n, ':') && at(p + 1, n, ':')) {
+        compressedZeros = true;
+        p = scanHexPost(p + 2, n);
+      } else if (at(p, n, ':')) {
+        p = takeIPv4(p + 1, n);
+      }
+    } else if (at(p, n, ':') && at(p + 1, n, ':')) {
+      compressedZeros = true;
+      p = scanHexPost(p + 2, n);
+    }
+    if (p < 0 || p < n || ipv6ByteCount > 16) {
+      return false;
+    }
+    return compressedZeros ? ipv6ByteCount < 16 : ipv6ByteCount == 16;
+  }
+
+  private int scanHexPost(int start, int n) {
+    if (start == n) {
+      return start;
+    }
+    int q = scanHexSeq(start, n);
+    if (q == -2) {
+      return -1;
+    }
+    if (q > start) {
+      return at(q, n, ':') ? takeIPv4(q + 1, n) : q;
+    }
+    return takeIPv4(start, n);
+  }
+
+  private int takeIPv4(int start, int n) {
+    int p = scanIPv4(start, n, true);
+    if (p <= start) {
+      return -1;
+    }
+    ipv6ByteCount += 4;
+    return p;
+  }
+
+  /**
+   * Scans colon separated groups of at most 4 hex digits, up to an IPv4 address or a ::.
+   *
+   * @return the end of the groups, -1 if there is none or -2 if they are invalid
+   */
+  private int scanHexSeq(int start, int n) {
+    int q = scan(start, n, L_HEX, H_HEX);
+    if (q <= start || at(q, n, '.')) {
+      return -1;
+    }
+    if (q > start + 4) {
+      return -2;
+    }
+    ipv6ByteCount += 2;
+    int p = q;
+    while (p < n && at(p, n, ':') && !at(p + 1, n, ':')) {
+      p++;
+      q = scan(p, n, L_HEX, H_HEX);
+      if (q <= p) {
+        return -2;
+      }
+      if (at(q, n, '.')) {
+        // the start of an IPv4 address
+        p--;
+        break;
+      }
+      if (q > p + 4) {
+        return -2;
+      }
+      ipv6ByteCount += 2;
+      p = q;
+    }
+    return p;
+  }
+
+  /**
+   * Checks all the characters of a component.
+   *
+   * @return the end of the component or -1 if a character is invalid
+   */
+  private int check(int start, int end, long lowMask, long highMask) {
+    int p = scan(start, end, lowMask, highMask);
+    if (p < 0) {
+      return -1;
+    }
+    return p < end ? fail(p) : p;
+  }
+
+  private int scan(int start, int end, long lowMask, long highMask) {
+    return scan(start, end, lowMask, highMask, false);
+  }
+
+  /**
+   * Scans the characters of a class, and escaped octets and visible non ASCII characters if the class has
+   * {@link #L_ESCAPED}.
+   *
+   * @param otherChars true to accept visible non ASCII characters without the escaped octets
+   *
+   * @return the end of the characters, or -1 for a malformed escape
+   */
+  private int scan(int start, int end, long lowMask, long highMask, boolean otherChars) {
+    boolean escaped = (lowMask & L_ESCAPED) != 0;
+    int p = start;
+    while (p < end) {
+      char c = s.charAt(p);
+      if (match(c, lowMask, highMask)) {
+        p++;
+      } else if (escaped && c == '%') {
+        if (p + 3 <= end && match(s.charAt(p + 1), L_HEX, H_HEX) && match(s.charAt(p + 2), L_HEX, H_HEX)) {
+          p += 3;
+        } else {
+          return fail(p);
+        }
+      } else if ((escaped || otherChars) && c > 128 && !Character.isSpaceChar(c) && !Character.isISOControl(c)) {
+        p++;
+      } else {
+        break;
+      }
+    }
+    return p;
+  }
+
+  private int fail(int p) {
+    errorIndex = p;
+    return -1;
+  }
+
+  private boolean invalid(int p) {
+    errorIndex = p;
+    return false;
+  }
+
+  private boolean at(int p, int n, char c) {
+    return p < n && s.charAt(p) == c;
+  }
+
+  private int indexOf(char c, int from, int to) {
+    for (int p = from; p < to; p++) {
+      if (s.charAt(p) == c) {
+        return p;
+      }
+    }
+    return to;
+  }
+
+  /**
+   * @return the index of the first of ?# or of /?# with the slash, or to if there is none
+   */
+  private int indexOfAny(int from, int to, boolean slash) {
+    for (int p = from; p < to; p++) {
+      char c = s.charAt(p);
+      if (c == '?' || c == '#' || slash && c == '/') {
+        return p;
+      }
+    }
+    return to;
+  }
+
+  private static boolean match(char c, long lowMask, long highMask) {
+    if (c == 0) {
+      return false;
+    }
+    if (c < 64) {
+      return ((1L << c) & lowMask) != 0;
+    }
+    if (c < 128) {
+      return ((1L << (c - 64)) & highMask) != 0;
+    }
+    return false;
+  }
+
+  private static long lowMask(String chars) {
+    long m = 0;
+    for (int i = 0; i < chars.length(); i++) {
+      char c = chars.charAt(i);
+      if (c < 64) {
+        m |= 1L << c;
+      }
+    }
+    return m;
+  }
+
+  private static long highMask(String chars) {
+    long m = 0;
+    for (int i = 0; i < chars.length(); i++) {
+      char c = chars.charAt(i);
+      if (c >= 64 && c < 128) {
+        m |= 1L << (c - 64);
+      }
+    }
+    return m;
+  }
+
+  private static long lowMask(char first, char last) {
+    long m = 0;
+    for (int c = Math.max(first, 1); c <= Math.min(last, 63); c++) {
+      m |= 1L << c;
+    }
+    return m;
+  }
+
+  private static long highMask(char first, char last) {
+    long m = 0;
+    for (int c = Math.max(first, 64); c <= Math.min(last, 127); c++) {
+      m |= 1L << (c - 64);
+    }
+    return m;
+  }
+}
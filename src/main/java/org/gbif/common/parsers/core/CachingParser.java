@@ -0,0 +1,44 @@
+package org.gbif.common.parsers.core;
+
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * A parser remembering the results of another parser for the most recent inputs, for values repeated over many
+ * records such as the geodetic datum of a dataset.
+ * The wrapped parser must be Thread-Safe and return results that don't depend on anything but the input. Null inputs
+ * and null results are never cached.
+ */
+public class CachingParser<T> implements Parsable<T> {
+
+  private final Parsable<T> parser;
+  private final ConcurrentMap<String, ParseResult<T>> cache;
+
+  /**
+   * @param parser      the parser whose results are cached
+   * @param maximumSize the number of inputs to remember at most
+   */
+  public CachingParser(Parsable<T> parser, int maximumSize) {
+    Preconditions.checkNotNull(parser, "Parser required");
+    Preconditions.checkArgument(maximumSize > 0, "Maximum size must be positive");
+    this.parser = parser;
+    cache = CacheBuilder.newBuilder().maximumSize(maximumSize).<String, ParseResult<T>>build().asMap();
+  }
+
+  @Override
+  public ParseResult<T> parse(String input) {
+    if (input == null) {
+      return parser.parse(null);
+    }
+    ParseResult<T> result = cache.get(input);
+    if (result == null) {
+      result = parser.parse(input);
+      if (result != null) {
+        cache.put(input, result);
+      }
+    }
+    return result;
+  }
+}
@@ -1,5 +1,6 @@
 package org.gbif.common.parsers.core;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
@@ -55,6 +56,13 @@ public class DictionaryBackedParser<V> implements Parsable<V> {
     }
   }
 
+  /**
+   * @return a read only view of the dictionary, keyed by the normalised values
+   */
+  protected Map<String, V> getDictionary() {
+    return Collections.unmodifiableMap(dictionary);
+  }
+
   /**
    * Normalisation of a value used both by adding to the internal dictionary and parsing values.
    * The default does trim and uppercase the value for Strings, but leaves other types unaltered.
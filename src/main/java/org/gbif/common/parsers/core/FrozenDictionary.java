@@ -0,0 +1,104 @@
+package org.gbif.common.parsers.core;
+
+import java.util.Map;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Immutable dictionary of string keys that can be looked up with a slice of a char array, so normalized keys can be
+ * looked up without creating a string.
+ *
+ * The keys are kept in an open addressing table at most half full, a lookup hashes the slice once and compares the
+ * characters of the keys with the same hash only.
+ */
+public final class FrozenDictionary<V> {
+
+  private final char[][] keys;
+  private final int[] hashes;
+  private final V[] values;
+  private final int mask;
+  private final int size;
+
+  @SuppressWarnings("unchecked")
+  private FrozenDictionary(Map<String, V> map) {
+    int capacity = Integer.highestOneBit(Math.max(2, map.size()) * 2 - 1) << 1;
+    keys = new char[capacity][];
+    hashes = new int[capacity];
+    values = (V[]) new Object[capacity];
+    mask = capacity - 1;
+    for (Map.Entry<String, V> entry : map.entrySet()) {
+      Preconditions.checkNotNull(entry.getKey(), "Null key");
+      Preconditions.checkNotNull(entry.getValue(), "Null value for key %s", entry.getKey());
+      char[] key = entry.getKey().toCharArray();
+      int hash = hash(key, 0, key.length);
+      int slot = hash & mask;
+      while (keys[slot] != null) {
+        slot = (slot + 1) & mask;
+      }
+      keys[slot] = key;
+      hashes[slot] = hash;
+      values[slot] = entry.getValue();
+    }
+    size = map.size();
+  }
+
+  /**
+   * @return a dictionary with the entries of the map, which must not have null keys or values
+   */
+  public static <V> FrozenDictionary<V> copyOf(Map<String, V> map) {
+    return new FrozenDictionary<V>(map);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return the value of the key, or null if there is none
+   */
+  public V get(String key) {
+    return key == null ? null : get(key.toCharArray(), 0, key.length());
+  }
+
+  /**
+   * @param chars the characters of the key
+   * @param from  first character of the key
+   * @param to    end of the key, exclusive
+   *
+   * @return the value of the key, or null if there is none
+   */
+  public V get(char[] chars, int from, int to) {
+    Preconditions.checkPositionIndexes(from, to, chars.length);
+    int hash = hash(chars, from, to);
+    int slot = hash & mask;
+    char[] key;
+    while ((key = keys[slot]) != null) {
+      if (hashes[slot] == hash && matches(key, chars, from, to)) {
+        return values[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    return null;
+  }
+
+  private static boolean matches(char[] key, char[] chars, int from, int to) {
+    if (key.length != to - from) {
+      return false;
+    }
+    for (int i = 0; i < key.length; i++) {
+      if (key[i] != chars[from + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int hash(char[] chars, int from, int to) {
+    int h = 0;
+    for (int i = from; i < to; i++) {
+      h = 31 * h + chars[i];
+    }
+    // spread the high bits like HashMap does, as only the low bits select the slot
+    return h ^ (h >>> 16);
+  }
+}
@@ -0,0 +1,191 @@
+package org.gbif.common.parsers.core;
+
+import org.gbif.api.vocabulary.OccurrenceIssue;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Immutable set of occurrence issues backed by a bitmask, with the bit {@link OccurrenceIssue#ordinal()} set for
+ * every issue in the set.
+ *
+ * The empty set and the sets of a single issue are shared instances, so creating them allocates nothing. The bitmask
+ * itself can be used directly where sets are too costly, for example in columnar batches.
+ */
+public final class OccurrenceIssueSet extends AbstractSet<OccurrenceIssue> {
+
+  private static final OccurrenceIssue[] ISSUES = OccurrenceIssue.values();
+
+  static {
+    Preconditions.checkState(ISSUES.length <= Long.SIZE, "Too many issues for a long bitmask");
+  }
+
+  private static final OccurrenceIssueSet EMPTY = new OccurrenceIssueSet(0);
+  private static final OccurrenceIssueSet[] SINGLETONS = new OccurrenceIssueSet[ISSUES.length];
+
+  static {
+    for (OccurrenceIssue issue : ISSUES) {
+      SINGLETONS[issue.ordinal()] = new OccurrenceIssueSet(bit(issue));
+    }
+  }
+
+  private final long bits;
+
+  private OccurrenceIssueSet(long bits) {
+    this.bits = bits;
+  }
+
+  /**
+   * @return the bit of the issue in the bitmasks
+   */
+  public static long bit(OccurrenceIssue issue) {
+    return 1L << issue.ordinal();
+  }
+
+  public static OccurrenceIssueSet empty() {
+    return EMPTY;
+  }
+
+  /**
+   * @return the set of the single issue, or the empty set for null
+   */
+  public static OccurrenceIssueSet of(OccurrenceIssue issue) {
+    return issue == null ? EMPTY : SINGLETONS[issue.ordinal()];
+  }
+
+  /**
+   * @return the set of the issues, ignoring nulls
+   */
+  public static OccurrenceIssueSet of(OccurrenceIssue... issues) {
+    if (issues == null) {
+      return EMPTY;
+    }
+    long bits = 0;
+    for (OccurrenceIssue issue : issues) {
+      if (issue != null) {
+        bits |= bit(issue);
+      }
+    }
+    return fromBits(bits);
+  }
+
+  /**
+   * @return the set of the issues, ignoring nulls, or the given set itself if it is already an OccurrenceIssueSet
+   */
+  public static OccurrenceIssueSet copyOf(Iterable<OccurrenceIssue> issues) {
+    if (issues instanceof OccurrenceIssueSet) {
+      return (OccurrenceIssueSet) issues;
+    }
+    if (issues == null) {
+      return EMPTY;
+    }
+    long bits = 0;
+    for (OccurrenceIssue issue : issues) {
+      if (issue != null) {
+        bits |= bit(issue);
+      }
+    }
+    return fromBits(bits);
+  }
+
+  /**
+   * @param bits of the issues, see {@link #bit(OccurrenceIssue)}
+   *
+   * @return the set of the issues of the bitmask
+   */
+  public static OccurrenceIssueSet fromBits(long bits) {
+    Preconditions.checkArgument(ISSUES.length == Long.SIZE || bits >>> ISSUES.length == 0, "Unknown issue bits %s",
+                                bits);
+    if (bits == 0) {
+      return EMPTY;
+    }
+    if (Long.bitCount(bits) == 1) {
+      return SINGLETONS[Long.numberOfTrailingZeros(bits)];
+    }
+    return new OccurrenceIssueSet(bits);
+  }
+
+  /**
+   * @return the bitmask of the issues
+   */
+  public long getBits() {
+    return bits;
+  }
+
+  /**
+   * @return a set with the issues of this set and the given one
+   */
+  public OccurrenceIssueSet with(OccurrenceIssue issue) {
+    Preconditions.checkNotNull(issue);
+    return (bits & bit(issue)) != 0 ? this : fromBits(bits | bit(issue));
+  }
+
+  /**
+   * @return a set with the issues of this set and the other one
+   */
+  public OccurrenceIssueSet union(OccurrenceIssueSet other) {
+    return (bits | other.bits) == bits ? this : fromBits(bits | other.bits);
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return o instanceof OccurrenceIssue && (bits & bit((OccurrenceIssue) o)) != 0;
+  }
+
+  @Override
+  public int size() {
+    return Long.bitCount(bits);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return bits == 0;
+  }
+
+  /**
+   * @return the issues in the order of their declaration
+   */
+  @Override
+  public Iterator<OccurrenceIssue> iterator() {
+    return new Iterator<OccurrenceIssue>() {
+      private long remaining = bits;
+
+      @Override
+      public boolean hasNext() {
+        return remaining != 0;
+      }
+
+      @Override
+      public OccurrenceIssue next() {
+        if (remaining == 0) {
+          throw new NoSuchElementException();
+        }
+        int ordinal = Long.numberOfTrailingZeros(remaining);
+        remaining &= remaining - 1;
+        return ISSUES[ordinal];
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException("OccurrenceIssueSet is immutable");
+      }
+    };
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof OccurrenceIssueSet) {
+      return bits == ((OccurrenceIssueSet) o).bits;
+    }
+    return super.equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    // the sum of the element hash codes, as required by Set
+    return super.hashCode();
+  }
+}
@@ -3,34 +3,30 @@ package org.gbif.common.parsers.core;
 import org.gbif.api.vocabulary.OccurrenceIssue;
 
 import java.util.Collection;
-import java.util.EnumSet;
 import java.util.Set;
 
 import com.google.common.base.Preconditions;
-import com.google.common.base.Predicates;
-import com.google.common.collect.Iterables;
-import com.google.common.collect.Lists;
 
 /**
  *
  */
 public class OccurrenceParseResult<T> extends ParseResult<T> {
-  private final Set<OccurrenceIssue> issues = EnumSet.noneOf(OccurrenceIssue.class);
+  private OccurrenceIssueSet issues;
 
   public OccurrenceParseResult(STATUS status, CONFIDENCE confidence, T payload, Throwable error, Collection<OccurrenceIssue> issues) {
     super(status, confidence, payload, error);
-    if (issues != null) {
-      // add non nulls only
-      Iterables.addAll(this.issues, Iterables.filter(issues, Predicates.notNull()));
-    }
+    // non nulls only
+    this.issues = OccurrenceIssueSet.copyOf(issues);
   }
 
   public OccurrenceParseResult(STATUS status, CONFIDENCE confidence, T payload, Throwable error) {
     super(status, confidence, payload, error);
+    this.issues = OccurrenceIssueSet.empty();
   }
 
   public OccurrenceParseResult(ParseResult<T> result) {
     super(result.getStatus(), result.getConfidence(), result.getPayload(), result.getError());
+    this.issues = OccurrenceIssueSet.empty();
   }
 
   /**
@@ -68,11 +64,11 @@ public class OccurrenceParseResult<T> extends ParseResult<T> {
   }
 
   public static <T> OccurrenceParseResult<T> success(CONFIDENCE confidence, T payload, OccurrenceIssue issue) {
-    return new OccurrenceParseResult<T>(STATUS.SUCCESS, confidence, payload, null, Lists.newArrayList(issue));
+    return new OccurrenceParseResult<T>(STATUS.SUCCESS, confidence, payload, null, OccurrenceIssueSet.of(issue));
   }
 
   public static <T> OccurrenceParseResult<T> success(CONFIDENCE confidence, T payload, OccurrenceIssue ... issues) {
-    return new OccurrenceParseResult<T>(STATUS.SUCCESS, confidence, payload, null, Lists.newArrayList(issues));
+    return new OccurrenceParseResult<T>(STATUS.SUCCESS, confidence, payload, null, OccurrenceIssueSet.of(issues));
   }
 
   public static <T> OccurrenceParseResult<T> success(CONFIDENCE confidence, T payload, Collection<OccurrenceIssue> issues) {
@@ -80,11 +76,11 @@ public class OccurrenceParseResult<T> extends ParseResult<T> {
   }
 
   public static <T> OccurrenceParseResult<T> fail(OccurrenceIssue issue) {
-    return new OccurrenceParseResult<T>(STATUS.FAIL, null, null, null, Lists.newArrayList(issue));
+    return new OccurrenceParseResult<T>(STATUS.FAIL, null, null, null, OccurrenceIssueSet.of(issue));
   }
 
   public static <T> OccurrenceParseResult<T> fail(OccurrenceIssue ... issues) {
-    return new OccurrenceParseResult<T>(STATUS.FAIL, null, null, null, Lists.newArrayList(issues));
+    return new OccurrenceParseResult<T>(STATUS.FAIL, null, null, null, OccurrenceIssueSet.of(issues));
   }
 
   public static <T> OccurrenceParseResult<T> fail(Collection<OccurrenceIssue> issues) {
@@ -105,7 +101,7 @@ public class OccurrenceParseResult<T> extends ParseResult<T> {
   }
 
   public static <T> OccurrenceParseResult<T> fail(T payload, OccurrenceIssue ... issues) {
-    return new OccurrenceParseResult<T>(STATUS.FAIL, null, payload, null, Lists.newArrayList(issues));
+    return new OccurrenceParseResult<T>(STATUS.FAIL, null, payload, null, OccurrenceIssueSet.of(issues));
   }
 
   /**
@@ -118,17 +114,27 @@ public class OccurrenceParseResult<T> extends ParseResult<T> {
    * @return the new parse response which has a status of FAIL and an additional payload.
    */
   public static <T> OccurrenceParseResult<T> fail(T payload, OccurrenceIssue issue) {
-    return new OccurrenceParseResult<T>(STATUS.FAIL, null, payload, null, Lists.newArrayList(issue));
+    return new OccurrenceParseResult<T>(STATUS.FAIL, null, payload, null, OccurrenceIssueSet.of(issue));
   }
 
 
+  /**
+   * @return the immutable set of issues, use {@link #addIssue(OccurrenceIssue)} to add one
+   */
   public Set<OccurrenceIssue> getIssues() {
     return issues;
   }
 
+  /**
+   * @return the issues as a bitmask, see {@link OccurrenceIssueSet#bit(OccurrenceIssue)}
+   */
+  public long getIssueBits() {
+    return issues.getBits();
+  }
+
   public void addIssue(OccurrenceIssue issue) {
     Preconditions.checkNotNull(issue);
-    issues.add(issue);
+    issues = issues.with(issue);
   }
 
 }
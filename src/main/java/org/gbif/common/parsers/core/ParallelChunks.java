@@ -0,0 +1,76 @@
+package org.gbif.common.parsers.core;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Utilities to process the rows of a columnar batch in parallel chunks.
+ * The rows are split recursively in ranges of at most the chunk size, which are processed on the common
+ * {@link ForkJoinPool}. A batch of a single chunk is processed by the calling thread.
+ */
+public class ParallelChunks {
+
+  /**
+   * Processes a range of rows. The ranges given to a processor never overlap, so writing to the rows of the range
+   * needs no synchronization.
+   */
+  public interface Processor {
+
+    /**
+     * @param from first row of the range
+     * @param to   end of the range, exclusive
+     */
+    void process(int from, int to);
+  }
+
+  private ParallelChunks() {
+    throw new UnsupportedOperationException("Can't initialize class");
+  }
+
+  /**
+   * Processes the rows from 0 to size in chunks of at most chunkSize rows and waits until all are done.
+   * An exception thrown by the processor is rethrown once the running chunks are done.
+   */
+  public static void process(int size, int chunkSize, Processor processor) {
+    Preconditions.checkArgument(size >= 0, "Negative size %s", size);
+    Preconditions.checkArgument(chunkSize > 0, "Chunk size must be positive");
+    Preconditions.checkNotNull(processor, "Processor required");
+    if (size <= chunkSize) {
+      processor.process(0, size);
+    } else {
+      ForkJoinPool.commonPool().invoke(new ChunkAction(processor, chunkSize, 0, size));
+    }
+  }
+
+  private static class ChunkAction extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final Processor processor;
+    private final int chunkSize;
+    private final int from;
+    private final int to;
+
+    private ChunkAction(Processor processor, int chunkSize, int from, int to) {
+      this.processor = processor;
+      this.chunkSize = chunkSize;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= chunkSize) {
+        processor.process(from, to);
+      } else {
+        // split on a chunk boundary so all chunks but the last are full
+        int middle = from + (to - from) / chunkSize / 2 * chunkSize;
+        if (middle == from) {
+          middle += chunkSize;
+        }
+        invokeAll(new ChunkAction(processor, chunkSize, from, middle), new ChunkAction(processor, chunkSize, middle, to));
+      }
+    }
+  }
+}
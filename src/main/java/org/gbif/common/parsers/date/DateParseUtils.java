@@ -4,11 +4,13 @@ package org.gbif.common.parsers.date;
 import org.gbif.common.parsers.core.ParseResult;
 
 import java.text.ParseException;
-import java.text.ParsePosition;
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
 import java.util.Calendar;
 import java.util.Date;
-import java.util.GregorianCalendar;
 import javax.annotation.Nullable;
 
 import com.google.common.base.Joiner;
@@ -21,6 +23,7 @@ import org.slf4j.LoggerFactory;
  * Utilities for parsing dates. Methods are implemented in static to reduce object creation and shorten coding for
  * clients. It is not anticipated that these methods would ever be mocked in unit tests.
  * Note: The returned date will always be in the systems default TimeZone. BE CAREFUL!
+ * Parsing is done with java.time, {@link Date} instances are only created for the returned results.
  */
 @Deprecated
 public class DateParseUtils {
@@ -30,7 +33,14 @@ public class DateParseUtils {
   private static final Joiner DATE_JOINER = Joiner.on("-").skipNulls();
 
   // parsers are held as statics (effectively singletons) as they are all threadsafe
-  private static  final StringToDateParser STRING_TO_DATE_PARSER = new StringToDateParser();
+  private static final ThreeTenStringToDateParser STRING_TO_DATE_PARSER = new ThreeTenStringToDateParser();
+
+  private static final ThreeTenStringToDateParser.DatePattern[] DAY_MONTH_YEAR =
+    ThreeTenStringToDateParser.DatePattern.compileAll("dd/MM/yyyy", "dd/mm/yyyy");
+  private static final ThreeTenStringToDateParser.DatePattern ISO_DATE =
+    ThreeTenStringToDateParser.DatePattern.compile("yyyy-MM-dd");
+  private static final ThreeTenStringToDateParser.DatePattern[] LENIENT_FULL_DATE =
+    ThreeTenStringToDateParser.DatePattern.compileAll("yyyy-MM-dd", "yyyy/MM/dd");
 
   // enumeration of the fields supported in the date handling
   public enum DATE_FIELD {
@@ -57,7 +67,7 @@ public class DateParseUtils {
       {"December", "Dec", "D", "De"}
   };
 
-  protected static final int CURRENT_YEAR = new GregorianCalendar().get(Calendar.YEAR);
+  protected static final int CURRENT_YEAR = Year.now().getValue();
 
   /**
    * Takes a String representation and attempts to construct a date
@@ -68,7 +78,11 @@ public class DateParseUtils {
    */
   public static ParseResult<Date> parse(String input) {
     input = normalizeMonth(input);
-    return STRING_TO_DATE_PARSER.parse(input);
+    ParseResult<TemporalAccessor> parsed = STRING_TO_DATE_PARSER.parse(input);
+    if (parsed.isSuccessful()) {
+      return ParseResult.success(parsed.getConfidence(), ThreeTenStringToDateParser.toDate(parsed.getPayload()));
+    }
+    return ParseResult.fail();
   }
 
   /**
@@ -110,7 +124,7 @@ public class DateParseUtils {
         case MONTH:
           return valueAsInt >= 1 && valueAsInt <= 12;
         case YEAR:
-          return valueAsInt >= 1 && valueAsInt <= new GregorianCalendar().get(Calendar.YEAR);
+          return valueAsInt >= 1 && valueAsInt <= Year.now().getValue();
       }
     } catch (NumberFormatException e) {
       LOGGER.debug("{} does not appear valid as a {}", value, field);
@@ -132,10 +146,7 @@ public class DateParseUtils {
       return true;
     }
 
-    // SimpleDateFormat is not thread-safe. Do not reuse or if you reuse use Thread locals or other synchronization
-    SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-    sdf.setLenient(false);
-    return sdf.parse(DATE_JOINER.join(ymd.getYear(), ymd.getMonth(), ymd.getDay()), new ParsePosition(0)) != null;
+    return ISO_DATE.parse(DATE_JOINER.join(ymd.getYear(), ymd.getMonth(), ymd.getDay()), false) != null;
   }
 
   /**
@@ -154,9 +165,9 @@ public class DateParseUtils {
     }
 
     month = normalizeMonth(month);
-    Date d = STRING_TO_DATE_PARSER.strictParse(day + "/" + month + "/" + year, new String[]{"dd/MM/yyyy", "dd/mm/yyyy"});
+    TemporalAccessor d = ThreeTenStringToDateParser.strictParse(day + "/" + month + "/" + year, DAY_MONTH_YEAR);
     if (d != null) {
-      return ParseResult.success(ParseResult.CONFIDENCE.DEFINITE, d);
+      return ParseResult.success(ParseResult.CONFIDENCE.DEFINITE, ThreeTenStringToDateParser.toDate(d));
     }
     return ParseResult.fail();
   }
@@ -169,6 +180,11 @@ public class DateParseUtils {
    * @return The result of the parsing
    */
   public static YearMonthDay atomize(Date input) {
+    LocalDate date = ThreeTenStringToDateParser.toLocalDate(input);
+    if (date != null) {
+      return toYearMonthDay(date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+    }
+    // Julian calendar
     YearMonthDay ymd = new YearMonthDay();
     Calendar c = Calendar.getInstance();
     c.setTime(input);
@@ -178,6 +194,13 @@ public class DateParseUtils {
     return ymd;
   }
 
+  private static YearMonthDay toYearMonthDay(int year, int month, int day) {
+    YearMonthDay ymd = new YearMonthDay();
+    ymd.setDay(String.valueOf(day));
+    ymd.setMonth(String.valueOf(month));
+    ymd.setYear(String.valueOf(year));
+    return ymd;
+  }
 
   public static YearMonthDay normalize(String year, String month, String day) {
     YearMonthDay ymd = new YearMonthDay();
@@ -213,17 +236,16 @@ public class DateParseUtils {
         LOGGER.debug("Year[{}] resulted in: {}", year, result.getPayload());
         ymd = result.getPayload();
       } else {
-        try {
-          // last ditch attempt to get a date
-          // bad days are converted by the gregorian calendar (31/06/2000 for example becomes 01/07/2000)
-          Date p = DateUtils.parseDate(year, new String[] {"yyyy-MM-dd", "yyyy/MM/dd"});
-          GregorianCalendar gc = new GregorianCalendar();
-          gc.setTime(p);
-          ymd.setYear(String.valueOf(gc.get(Calendar.YEAR)));
-          ymd.setMonth(String.valueOf(1+gc.get(Calendar.MONTH)));
-          ymd.setDay(String.valueOf(gc.get(Calendar.DAY_OF_MONTH)));
-
-        } catch (ParseException e) {
+        // last ditch attempt to get a date
+        // bad days are rolled over (31/06/2000 for example becomes 01/07/2000)
+        for (ThreeTenStringToDateParser.DatePattern pattern : LENIENT_FULL_DATE) {
+          TemporalAccessor p = pattern.parse(year, true);
+          if (p != null) {
+            ymd.setYear(String.valueOf(p.get(ChronoField.YEAR_OF_ERA)));
+            ymd.setMonth(String.valueOf(p.get(ChronoField.MONTH_OF_YEAR)));
+            ymd.setDay(String.valueOf(p.get(ChronoField.DAY_OF_MONTH)));
+            break;
+          }
         }
       }
     }
@@ -302,10 +324,16 @@ public class DateParseUtils {
    */
   public static ParseResult<YearMonthDay> atomize(String input) {
     input = normalizeMonth(input);
-    ParseResult<Date> parsed = parse(input);
+    ParseResult<TemporalAccessor> parsed = STRING_TO_DATE_PARSER.parse(input);
     if (ParseResult.STATUS.SUCCESS == parsed.getStatus()) {
-      // atomize
-      YearMonthDay atomized = atomize(parsed.getPayload());
+      // atomize, local date times do not need the conversion to a Date
+      YearMonthDay atomized;
+      if (parsed.getPayload() instanceof LocalDateTime) {
+        LocalDateTime ldt = (LocalDateTime) parsed.getPayload();
+        atomized = toYearMonthDay(ldt.getYear(), ldt.getMonthValue(), ldt.getDayOfMonth());
+      } else {
+        atomized = atomize(ThreeTenStringToDateParser.toDate(parsed.getPayload()));
+      }
       // construct a combined result of the 2 stages
       return ParseResult.success(parsed.getConfidence(), atomized);
 
@@ -328,7 +356,7 @@ public class DateParseUtils {
       int m = 1;
       for (String[] monthValues : MONTHS) {
         for (String month : monthValues) {
-          if (StringUtils.equalsIgnoreCase(month, input) || StringUtils.equalsIgnoreCase(month + ".", input)) {
+          if (StringUtils.equalsIgnoreCase(month, input) || isAbbreviation(month, input)) {
             return padTo2Chars(m);
           }
         }
@@ -338,6 +366,14 @@ public class DateParseUtils {
     return input;
   }
 
+  /**
+   * @return true if input is the month followed by a dot, ignoring case
+   */
+  private static boolean isAbbreviation(String month, String input) {
+    return input.length() == month.length() + 1 && input.charAt(month.length()) == '.'
+           && input.regionMatches(true, 0, month, 0, month.length());
+  }
+
   /**
    * @param value To convert into a 2 char String.  Must be 1-12 inclusive or else strange results might occur
    *
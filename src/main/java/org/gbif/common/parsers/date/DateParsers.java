@@ -1,5 +1,6 @@
 package org.gbif.common.parsers.date;
 
+import org.gbif.common.parsers.core.Parsable;
 
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
@@ -65,4 +66,12 @@ public class DateParsers {
     return ThreeTenNumericalDateParser.newInstance();
   }
 
+  /**
+   * Get a new instance of the parser for ISO 8601 date intervals (e.g. 2004-05-01/2004-06-15, 1998/1999 or
+   * 2004-05-01/15).
+   */
+  public static Parsable<DateRange> defaultDateRangeParser() {
+    return new DateRangeParser();
+  }
+
 }
@@ -0,0 +1,109 @@
+package org.gbif.common.parsers.date;
+
+import java.time.temporal.TemporalAccessor;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * DateRange is a simple immutable class holding the two ends of a date interval (e.g. 2004-05-01/2004-06-15) as
+ * {@link TemporalAccessor} with possibly different resolutions.
+ * The range is also packed into its start and end epoch days (both inclusive), so 2004-05/2004-06 covers the days
+ * from the first of May to the 30th of June.
+ *
+ * Thread-Safe, immutable class.
+ *
+ */
+public class DateRange {
+
+  private final TemporalAccessor from;
+  private final TemporalAccessor to;
+
+  private final long startEpochDay;
+  private final long endEpochDay;
+
+  DateRange(TemporalAccessor from, TemporalAccessor to, long startEpochDay, long endEpochDay) {
+    Preconditions.checkArgument(startEpochDay <= endEpochDay, "The range must not end before it starts");
+    this.from = from;
+    this.to = to;
+    this.startEpochDay = startEpochDay;
+    this.endEpochDay = endEpochDay;
+  }
+
+  /**
+   * Build a new instance of {@link DateRange} from its two ends.
+   *
+   * @param from start of the range
+   * @param to end of the range
+   * @return the range or null if one of the ends has no year or the range ends before it starts
+   */
+  public static DateRange of(TemporalAccessor from, TemporalAccessor to) {
+    long start = TemporalAccessorUtils.toStartEpochDay(from);
+    long end = TemporalAccessorUtils.toEndEpochDay(to);
+    if (start == TemporalAccessorUtils.NO_EPOCH_VALUE || end == TemporalAccessorUtils.NO_EPOCH_VALUE || start > end) {
+      return null;
+    }
+    return new DateRange(from, to, start, end);
+  }
+
+  public TemporalAccessor getFrom() {
+    return from;
+  }
+
+  public TemporalAccessor getTo() {
+    return to;
+  }
+
+  /**
+   * @return the epoch day of the first day of the range
+   */
+  public long getStartEpochDay() {
+    return startEpochDay;
+  }
+
+  /**
+   * @return the epoch day of the last day of the range (inclusive)
+   */
+  public long getEndEpochDay() {
+    return endEpochDay;
+  }
+
+  /**
+   * @param epochDay
+   * @return true if the day is covered by the range
+   */
+  public boolean contains(long epochDay) {
+    return epochDay >= startEpochDay && epochDay <= endEpochDay;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(from, to);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof DateRange)) {
+      return false;
+    }
+
+    DateRange that = (DateRange) obj;
+    return Objects.equal(this.from, that.from)
+           && Objects.equal(this.to, that.to);
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+      .append("from", from)
+      .append("to", to)
+      .append("startEpochDay", startEpochDay)
+      .append("endEpochDay", endEpochDay)
+      .toString();
+  }
+}
@@ -0,0 +1,212 @@
+package org.gbif.common.parsers.date;
+
+import org.gbif.common.parsers.core.Parsable;
+import org.gbif.common.parsers.core.ParseResult;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAccessor;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Parses ISO 8601 like date intervals such as 2004-05-01/2004-06-15, 1998/1999 or 2004-05-01/15 into a
+ * {@link DateRange}.
+ *
+ * The input is lexed once: the single '/' splits it in two ends and each end made only of digits and hyphens
+ * (yyyy, yyyy-MM or yyyy-MM-dd) is built directly from its numbers. Other ends (e.g. date times) are given to the
+ * numerical date parser.
+ * An end with fewer parts than the start and no year is abbreviated: its parts replace the last ones of the start
+ * (2004-05-01/15 ends 2004-05-15, 2004-05-01/06-15 ends 2004-06-15).
+ *
+ * Inputs that are not intervals, or intervals that cannot be parsed, fail without trying other date formats.
+ *
+ * Thread-Safe.
+ */
+class DateRangeParser implements Parsable<DateRange> {
+
+  private static final char INTERVAL_SEPARATOR = '/';
+  private static final char PART_SEPARATOR = '-';
+
+  // yyyy-MM-dd
+  private static final int MAX_PARTS = 3;
+
+  private static final TemporalParser NUMERICAL_DATE_PARSER = ThreeTenNumericalDateParser.newInstance();
+
+  /**
+   * Checks if the input has the shape of an interval made of two ISO dates (e.g. 1998/1999 or 2004-05-01/15),
+   * without parsing the dates.
+   */
+  static boolean isIsoInterval(String input) {
+    if (input == null) {
+      return false;
+    }
+    Ends ends = Ends.lex(input);
+    return ends != null && ends.isSimple(0) && ends.isSimple(1) && ends.widths[0][0] == 4;
+  }
+
+  @Override
+  public ParseResult<DateRange> parse(String input) {
+    if (StringUtils.isBlank(input)) {
+      return ParseResult.fail();
+    }
+
+    Ends ends = Ends.lex(input);
+    if (ends == null) {
+      return ParseResult.fail();
+    }
+
+    ParseResult.CONFIDENCE confidence = ParseResult.CONFIDENCE.DEFINITE;
+    TemporalAccessor from;
+    if (ends.isSimple(0)) {
+      from = ends.widths[0][0] == 4 ? ends.toTemporal(0, 0) : null;
+    } else {
+      ParseResult<TemporalAccessor> result = NUMERICAL_DATE_PARSER.parse(ends.text(input, 0));
+      from = result.getPayload();
+      confidence = result.isSuccessful() ? result.getConfidence() : confidence;
+    }
+    if (from == null) {
+      return ParseResult.fail();
+    }
+
+    TemporalAccessor to;
+    if (ends.isSimple(1)) {
+      if (ends.widths[1][0] == 4) {
+        to = ends.toTemporal(1, 0);
+      } else if (ends.isSimple(0) && ends.counts[1] < ends.counts[0]) {
+        // abbreviated, the missing leading parts come from the start
+        to = ends.toTemporal(1, ends.counts[0] - ends.counts[1]);
+      } else {
+        to = null;
+      }
+    } else {
+      ParseResult<TemporalAccessor> result = NUMERICAL_DATE_PARSER.parse(ends.text(input, 1));
+      to = result.getPayload();
+      if (result.isSuccessful() && result.getConfidence().compareTo(confidence) > 0) {
+        confidence = result.getConfidence();
+      }
+    }
+    if (to == null) {
+      return ParseResult.fail();
+    }
+
+    DateRange range = DateRange.of(from, to);
+    return range == null ? ParseResult.<DateRange>fail() : ParseResult.success(confidence, range);
+  }
+
+  /**
+   * Result of the lexing of the input: bounds, numbers and widths of the parts of both ends.
+   */
+  private static class Ends {
+    private final int[] starts = new int[2];
+    private final int[] ends = new int[2];
+    private final int[][] values = new int[2][MAX_PARTS];
+    private final int[][] widths = new int[2][MAX_PARTS];
+    private final int[] counts = new int[2];
+    // an end is simple if it only contains digits and hyphens, as yyyy[-MM[-dd]] or an abbreviation
+    private final boolean[] simple = {true, true};
+
+    /**
+     * @return the ends or null if the input does not contain exactly one interval separator
+     */
+    static Ends lex(String input) {
+      Ends e = new Ends();
+      int side = 0;
+      e.starts[0] = -1;
+      e.starts[1] = -1;
+      for (int i = 0; i < input.length(); i++) {
+        char c = input.charAt(i);
+        if (c == INTERVAL_SEPARATOR) {
+          if (side == 1) {
+            // more than one separator, a date like 2004/05/01 rather than an interval
+            return null;
+          }
+          e.close(0);
+          side = 1;
+          continue;
+        }
+        if (Character.isWhitespace(c)) {
+          // only allowed around the ends, checked once the end is known
+          continue;
+        }
+        if (e.starts[side] < 0) {
+          e.starts[side] = i;
+        } else if (i > e.ends[side] + 1) {
+          // whitespace within an end
+          e.simple[side] = false;
+        }
+        e.ends[side] = i;
+
+        if (c >= '0' && c <= '9') {
+          if (e.counts[side] == 0) {
+            e.counts[side] = 1;
+          }
+          int part = e.counts[side] - 1;
+          if (e.widths[side][part] < 4) {
+            e.values[side][part] = e.values[side][part] * 10 + (c - '0');
+          } else {
+            e.simple[side] = false;
+          }
+          e.widths[side][part]++;
+        } else if (c == PART_SEPARATOR && e.counts[side] > 0 && e.counts[side] < MAX_PARTS
+                   && e.widths[side][e.counts[side] - 1] > 0) {
+          e.counts[side]++;
+        } else {
+          e.simple[side] = false;
+        }
+      }
+      if (side == 0) {
+        return null;
+      }
+      e.close(1);
+      return e.starts[0] < 0 || e.starts[1] < 0 ? null : e;
+    }
+
+    private void close(int side) {
+      // a trailing hyphen leaves an empty part
+      if (counts[side] == 0 || widths[side][counts[side] - 1] == 0) {
+        simple[side] = false;
+      }
+    }
+
+    boolean isSimple(int side) {
+      return simple[side];
+    }
+
+    String text(String input, int side) {
+      return input.substring(starts[side], ends[side] + 1);
+    }
+
+    /**
+     * Builds a Year, YearMonth or LocalDate from the parts of an end, the first offset parts are taken from the start.
+     *
+     * @return the temporal or null if the parts are not a valid date
+     */
+    TemporalAccessor toTemporal(int side, int offset) {
+      int count = offset + counts[side];
+      int[] parts = new int[count];
+      for (int i = 0; i < count; i++) {
+        int width = i < offset ? widths[0][i] : widths[side][i - offset];
+        parts[i] = i < offset ? values[0][i] : values[side][i - offset];
+        // year on 4 digits, month and day on 1 or 2
+        if (i == 0 ? width != 4 : width > 2) {
+          return null;
+        }
+      }
+
+      if (count > 1 && (parts[1] < 1 || parts[1] > 12)) {
+        return null;
+      }
+      switch (count) {
+        case 1:
+          return Year.of(parts[0]);
+        case 2:
+          return YearMonth.of(parts[0], parts[1]);
+        default:
+          YearMonth yearMonth = YearMonth.of(parts[0], parts[1]);
+          return yearMonth.isValidDay(parts[2]) ? LocalDate.of(parts[0], parts[1], parts[2]) : null;
+      }
+    }
+  }
+}
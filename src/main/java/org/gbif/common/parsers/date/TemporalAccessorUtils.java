@@ -1,5 +1,7 @@
 package org.gbif.common.parsers.date;
 
+import org.gbif.common.parsers.core.ParseResult;
+
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Year;
@@ -7,13 +9,15 @@ import java.time.YearMonth;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.time.chrono.IsoChronology;
 import java.time.temporal.ChronoField;
 import java.time.temporal.TemporalAccessor;
 import java.time.temporal.TemporalQueries;
 import java.util.Date;
+import java.util.List;
 import javax.annotation.Nullable;
 
-
+import com.google.common.base.Preconditions;
 
 /**
  * Utility methods to work with {@link TemporalAccessor}
@@ -23,6 +27,15 @@ public class TemporalAccessorUtils {
 
   public static ZoneId UTC_ZONE_ID = ZoneOffset.UTC;
 
+  /**
+   * Returned by the epoch conversions when no value can be computed.
+   */
+  public static final long NO_EPOCH_VALUE = Long.MIN_VALUE;
+
+  private static final long MILLIS_PER_SECOND = 1000L;
+  private static final long MILLIS_PER_DAY = 86400000L;
+  private static final long DAYS_0000_TO_1970 = 719528L;
+
   /**
    * Transform a {@link TemporalAccessor} to a {@link java.util.Date}.
    * If the provided {@link TemporalAccessor} contains offset(timezone) information it will be used.
@@ -83,6 +96,191 @@ public class TemporalAccessorUtils {
     return null;
   }
 
+  /**
+   * Epoch day of the first day represented by a {@link TemporalAccessor}.
+   * For {@link YearMonth} it is the first day of the month, for {@link Year} the first day of January.
+   * The local date is used for date times, with or without offset.
+   *
+   * @param temporalAccessor
+   * @return the epoch day or {@link #NO_EPOCH_VALUE} if the temporalAccessor is null or has no year
+   */
+  public static long toStartEpochDay(@Nullable TemporalAccessor temporalAccessor) {
+    if(temporalAccessor == null){
+      return NO_EPOCH_VALUE;
+    }
+    if(temporalAccessor.isSupported(ChronoField.EPOCH_DAY)){
+      return temporalAccessor.getLong(ChronoField.EPOCH_DAY);
+    }
+    if(temporalAccessor.isSupported(ChronoField.MONTH_OF_YEAR)){
+      return epochDay(temporalAccessor.getLong(ChronoField.YEAR), temporalAccessor.get(ChronoField.MONTH_OF_YEAR), 1);
+    }
+    if(temporalAccessor.isSupported(ChronoField.YEAR)){
+      return epochDay(temporalAccessor.getLong(ChronoField.YEAR), 1, 1);
+    }
+    return NO_EPOCH_VALUE;
+  }
+
+  /**
+   * Epoch day of the last day represented by a {@link TemporalAccessor}.
+   * For {@link YearMonth} it is the last day of the month, for {@link Year} the 31st of December.
+   *
+   * @param temporalAccessor
+   * @return the epoch day or {@link #NO_EPOCH_VALUE} if the temporalAccessor is null or has no year
+   */
+  public static long toEndEpochDay(@Nullable TemporalAccessor temporalAccessor) {
+    if(temporalAccessor == null){
+      return NO_EPOCH_VALUE;
+    }
+    if(temporalAccessor.isSupported(ChronoField.EPOCH_DAY)){
+      return temporalAccessor.getLong(ChronoField.EPOCH_DAY);
+    }
+    if(temporalAccessor.isSupported(ChronoField.MONTH_OF_YEAR)){
+      long year = temporalAccessor.getLong(ChronoField.YEAR);
+      int month = temporalAccessor.get(ChronoField.MONTH_OF_YEAR);
+      return epochDay(year, month, lengthOfMonth(year, month));
+    }
+    if(temporalAccessor.isSupported(ChronoField.YEAR)){
+      return epochDay(temporalAccessor.getLong(ChronoField.YEAR), 12, 31);
+    }
+    return NO_EPOCH_VALUE;
+  }
+
+  /**
+   * Same as {@code toDate(temporalAccessor, ignoreOffset).getTime()} without creating any object.
+   *
+   * @param temporalAccessor
+   * @param ignoreOffset in case offset information is available in the provided {@link TemporalAccessor}, should it
+   *                     be used ?
+   * @return the epoch milliseconds of the start of the temporalAccessor or {@link #NO_EPOCH_VALUE}
+   */
+  public static long toStartEpochMilli(@Nullable TemporalAccessor temporalAccessor, boolean ignoreOffset) {
+    if(temporalAccessor == null){
+      return NO_EPOCH_VALUE;
+    }
+
+    if(!ignoreOffset && temporalAccessor.isSupported(ChronoField.INSTANT_SECONDS)){
+      return temporalAccessor.getLong(ChronoField.INSTANT_SECONDS) * MILLIS_PER_SECOND
+             + temporalAccessor.get(ChronoField.MILLI_OF_SECOND);
+    }
+
+    long epochDay = toStartEpochDay(temporalAccessor);
+    if(epochDay == NO_EPOCH_VALUE){
+      return NO_EPOCH_VALUE;
+    }
+    long millis = epochDay * MILLIS_PER_DAY;
+    if(temporalAccessor.isSupported(ChronoField.MILLI_OF_DAY)){
+      millis += temporalAccessor.getLong(ChronoField.MILLI_OF_DAY);
+    }
+    return millis;
+  }
+
+  /**
+   * Epoch milliseconds of the last millisecond represented by a {@link TemporalAccessor}: the end of the last day for
+   * partial dates and dates, the same value as {@link #toStartEpochMilli(TemporalAccessor, boolean)} for date times.
+   *
+   * @param temporalAccessor
+   * @param ignoreOffset in case offset information is available in the provided {@link TemporalAccessor}, should it
+   *                     be used ?
+   * @return the epoch milliseconds of the end of the temporalAccessor (inclusive) or {@link #NO_EPOCH_VALUE}
+   */
+  public static long toEndEpochMilli(@Nullable TemporalAccessor temporalAccessor, boolean ignoreOffset) {
+    if(temporalAccessor != null && temporalAccessor.isSupported(ChronoField.MILLI_OF_DAY)){
+      return toStartEpochMilli(temporalAccessor, ignoreOffset);
+    }
+    long epochDay = toEndEpochDay(temporalAccessor);
+    return epochDay == NO_EPOCH_VALUE ? NO_EPOCH_VALUE : (epochDay + 1) * MILLIS_PER_DAY - 1;
+  }
+
+  /**
+   * Fills the start and end epoch days (both inclusive) of each successful parse result.
+   * Unsuccessful results get {@link #NO_EPOCH_VALUE} for both.
+   *
+   * @param results parse results, null entries are allowed
+   * @param starts array of at least results.size() receiving the start epoch days
+   * @param ends array of at least results.size() receiving the end epoch days
+   * @return the number of results converted
+   */
+  public static int toEpochDayIntervals(List<? extends ParseResult<? extends TemporalAccessor>> results,
+                                        long[] starts, long[] ends) {
+    Preconditions.checkArgument(starts.length >= results.size() && ends.length >= results.size(),
+                                "Arrays are smaller than the results");
+    int converted = 0;
+    int i = 0;
+    for (ParseResult<? extends TemporalAccessor> result : results) {
+      TemporalAccessor ta = result != null && result.isSuccessful() ? result.getPayload() : null;
+      starts[i] = toStartEpochDay(ta);
+      ends[i] = toEndEpochDay(ta);
+      if(starts[i] != NO_EPOCH_VALUE){
+        converted++;
+      }
+      i++;
+    }
+    return converted;
+  }
+
+  /**
+   * Fills the start and end epoch milliseconds (both inclusive) of each successful parse result.
+   * Unsuccessful results get {@link #NO_EPOCH_VALUE} for both.
+   *
+   * @param results parse results, null entries are allowed
+   * @param ignoreOffset in case offset information is available, should it be used ?
+   * @param starts array of at least results.size() receiving the start epoch milliseconds
+   * @param ends array of at least results.size() receiving the end epoch milliseconds
+   * @return the number of results converted
+   */
+  public static int toEpochMilliIntervals(List<? extends ParseResult<? extends TemporalAccessor>> results,
+                                          boolean ignoreOffset, long[] starts, long[] ends) {
+    Preconditions.checkArgument(starts.length >= results.size() && ends.length >= results.size(),
+                                "Arrays are smaller than the results");
+    int converted = 0;
+    int i = 0;
+    for (ParseResult<? extends TemporalAccessor> result : results) {
+      TemporalAccessor ta = result != null && result.isSuccessful() ? result.getPayload() : null;
+      starts[i] = toStartEpochMilli(ta, ignoreOffset);
+      ends[i] = toEndEpochMilli(ta, ignoreOffset);
+      if(starts[i] != NO_EPOCH_VALUE){
+        converted++;
+      }
+      i++;
+    }
+    return converted;
+  }
+
+  /**
+   * Same computation as {@link java.time.LocalDate#toEpochDay()}, for a valid date.
+   */
+  private static long epochDay(long year, int month, int day) {
+    long total = 365 * year;
+    if (year >= 0) {
+      total += (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+    } else {
+      total -= year / -4 - year / -100 + year / -400;
+    }
+    total += (367 * month - 362) / 12;
+    total += day - 1;
+    if (month > 2) {
+      total--;
+      if (!IsoChronology.INSTANCE.isLeapYear(year)) {
+        total--;
+      }
+    }
+    return total - DAYS_0000_TO_1970;
+  }
+
+  private static int lengthOfMonth(long year, int month) {
+    switch (month) {
+      case 2:
+        return IsoChronology.INSTANCE.isLeapYear(year) ? 29 : 28;
+      case 4:
+      case 6:
+      case 9:
+      case 11:
+        return 30;
+      default:
+        return 31;
+    }
+  }
+
   /**
    * Only enable this function when we move to Java 8, do NOT use Guava Optional<>, it introduced some
    * incompatibility in shaded jars (e.g. occurrence)
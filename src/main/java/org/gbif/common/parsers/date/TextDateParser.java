@@ -36,6 +36,11 @@ class TextDateParser implements TemporalParser {
       return ParseResult.fail();
     }
 
+    // intervals are not single dates, fail before trying every format (see DateRangeParser)
+    if(DateRangeParser.isIsoInterval(input)) {
+      return ParseResult.fail();
+    }
+
     // Check if the input text contains only punctuations and numbers
     // Also accept the T marker (e.g. 1978-12-21T02:12) from the ISO format
     // We could also simply try to parse it but it is probably not optimal
@@ -0,0 +1,747 @@
+package org.gbif.common.parsers.date;
+
+import org.gbif.common.parsers.core.Parsable;
+import org.gbif.common.parsers.core.ParseResult;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.chrono.IsoChronology;
+import java.time.temporal.TemporalAccessor;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.base.Strings;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * java.time based implementation of the algorithm of the deprecated {@link StringToDateParser}.
+ *
+ * The decision tree (input shapes, pattern order and confidence rules) is the same but the SimpleDateFormat style
+ * patterns are compiled once into immutable {@link DatePattern}s which validate the fields strictly without creating
+ * Calendar, DateFormat or exception instances.
+ * Results are {@link LocalDateTime} or {@link OffsetDateTime} when the input contains an offset, conversion to
+ * {@link Date} is left to the caller (see {@link #toDate(TemporalAccessor)}).
+ *
+ * Known differences with the SimpleDateFormat based parser: time zone names are not supported (only GMT and numeric
+ * offsets) and February 29th of years that are leap years in the Julian calendar only (e.g. 1500) is rejected.
+ *
+ * Thread-safe.
+ */
+class ThreeTenStringToDateParser implements Parsable<TemporalAccessor> {
+
+  static final ZoneId DEFAULT_ZONE = ZoneId.systemDefault();
+  private static final ZoneRules DEFAULT_ZONE_RULES = DEFAULT_ZONE.getRules();
+  private static final TimeZone DEFAULT_TIME_ZONE = TimeZone.getTimeZone(DEFAULT_ZONE);
+  // java.util.TimeZone ignores local mean time and the transitions before 1900 (UTC), the ZoneRules are used after
+  private static final LocalDateTime TIME_ZONE_HISTORY_START = LocalDateTime.of(1900, 1, 2, 0, 0);
+
+  // java.util dates use the Julian calendar before this (local) date
+  private static final LocalDateTime GREGORIAN_CUTOVER = LocalDateTime.of(1582, 10, 15, 0, 0);
+  // one day of margin for the time zones
+  private static final long GREGORIAN_CUTOVER_MILLIS = new GregorianCalendar().getGregorianChange().getTime()
+                                                       + 86400000L;
+
+  // maximum date the parser considers a validly parsed date
+  private static final LocalDateTime MAX_VALID_DATE = LocalDateTime.now().plusYears(3000);
+
+  // as SimpleDateFormat, 2 digits years are placed within 80 years before and 20 years after now
+  private static final LocalDateTime DEFAULT_CENTURY_START = LocalDateTime.now().minusYears(80);
+
+  private static final DatePattern[] YEAR_ONLY = DatePattern.compileAll("yy", "yyyy");
+  private static final DatePattern[] TIME_FORMATS = DatePattern.compileAll(
+    "yyyy-MM-dd HH:mm:ss", "yyyy-MM-dd'T'HH", "yyyy-MM-dd'T'HH:mm", "yyyy-MM-dd'T'HH:mm:ss", "yyyy-MM-dd'T'HHmm",
+    "yyyy-MM-dd'T'HHmmss", "yyyy-MM-dd'T'HH:mm:ssZZ", "yyyy-MM-dd'T'HH:mm:ss'Z'");
+  private static final DatePattern[] FREQUENT_FULL = DatePattern.compileAll("yyyy-MM-dd", "dd.MM.yyyy", "dd-MM-yyyy");
+  private static final DatePattern[] CHAR6_ONLY_DIGITS = DatePattern.compileAll("ddMMyy", "MMddyy", "yyMMdd");
+  private static final DatePattern[] CHAR8_ONLY_DIGITS = DatePattern.compileAll("yyyyMMdd", "ddMMyyyy");
+
+  // patterns built around the delimiter found in the input, compiled on first use
+  private static final ConcurrentMap<Character, DelimitedPatterns> DELIMITED_PATTERNS = new ConcurrentHashMap<>();
+
+  /**
+   * Verifies if day and year cannot be confused with the month and returns appropriate confidence level.
+   */
+  private static ParseResult.CONFIDENCE checkMonthDay(TemporalAccessor d, boolean verifyYear) {
+    if (d == null) {
+      return ParseResult.CONFIDENCE.DEFINITE;
+    }
+
+    LocalDateTime local = toLocalDateTime(d);
+    int day = local.getDayOfMonth();
+    int month = local.getMonthValue();
+
+    if (day > 12 || day == month) {
+      if (verifyYear) {
+        int year = local.getYear();
+        int yearInCentury = year % 100;
+        if (yearInCentury > 31) {
+          return ParseResult.CONFIDENCE.DEFINITE;
+        } else if (year < 1700) {
+          return ParseResult.CONFIDENCE.POSSIBLE;
+        }
+        return ParseResult.CONFIDENCE.PROBABLE;
+      }
+      return ParseResult.CONFIDENCE.DEFINITE;
+    }
+    // day and month might have been confused
+    return ParseResult.CONFIDENCE.POSSIBLE;
+  }
+
+  /**
+   * Parses a numerical date or datetime string trying various formats.
+   * Parsing is done based on the string length and delimiters found in the input primarily.
+   * There is no cleaning done that removes question marks.
+   */
+  @Override
+  public ParseResult<TemporalAccessor> parse(String input) {
+    if (Strings.isNullOrEmpty(input)) {
+      return ParseResult.fail();
+    }
+
+    final int len = input.length();
+    TemporalAccessor d = null;
+    ParseResult.CONFIDENCE confidence = ParseResult.CONFIDENCE.DEFINITE;
+
+    if (StringUtils.isNumeric(input)) {
+      if (len <= 4) {
+        // year only
+        d = strictParse(input, YEAR_ONLY);
+
+      } else if (len == 6) {
+        // no delimiter, year as 2 digits
+        d = strictParse(input, CHAR6_ONLY_DIGITS);
+        confidence = checkMonthDay(d, true);
+        confidence = confidence == ParseResult.CONFIDENCE.DEFINITE ? ParseResult.CONFIDENCE.PROBABLE : confidence;
+      } else if (len == 8) {
+        d = strictParse(input, CHAR8_ONLY_DIGITS);
+        confidence = checkMonthDay(d, true);
+      }
+
+    } else {
+      // find what delimiter exists how often
+      char del = 0;
+      boolean hasDel = false;
+      int delimCount = 0;
+      for (int i = 0; i < len; i++) {
+        char c = input.charAt(i);
+        if (!Character.isDigit(c) && !Character.isAlphabetic(c)) {
+          delimCount++;
+          if (!hasDel) {
+            del = c;
+            hasDel = true;
+          } else if (del != c) {
+            // different delimiters in use - could be datetime
+            d = strictParse(input, TIME_FORMATS);
+            confidence = checkMonthDay(d, true);
+            break;
+          }
+        }
+      }
+
+      // a quote cannot be used as literal in the patterns below, no date can be found
+      if (!hasDel || del == '\'') {
+        return ParseResult.fail();
+      }
+
+      // check if full year is given within the string
+      final boolean fullYear = hasFourDigits(input);
+      if (delimCount == 1) {
+        // year & month only
+        if (fullYear) {
+          d = strictParse(input, delimitedPatterns(del).yearMonth);
+        } else {
+          d = strictParse(input, delimitedPatterns(del).shortYearMonth);
+          confidence = ParseResult.CONFIDENCE.POSSIBLE;
+        }
+
+      } else if (delimCount == 2) {
+        if (fullYear) {
+          // first try very common formats (main US, European, Chinese, etc)
+          d = strictParse(input, FREQUENT_FULL);
+          if (d == null) {
+            // maybe a datetime format ?
+            d = strictParse(input, TIME_FORMATS);
+            if (d == null) {
+              d = strictParse(input, delimitedPatterns(del).fullDate);
+              confidence = checkMonthDay(d, false);
+            }
+          }
+
+        } else {
+          d = strictParse(input, delimitedPatterns(del).shortDate);
+          confidence = checkMonthDay(d, true);
+        }
+
+      } else {
+        // more than 3 delimiters, with time?
+        d = strictParse(input, TIME_FORMATS);
+      }
+    }
+
+    // basic year validation to avoid year = 12321
+    if (d != null && toLocalDateTime(d).isBefore(MAX_VALID_DATE)) {
+      return ParseResult.success(confidence, d);
+    }
+    return ParseResult.fail();
+  }
+
+  /**
+   * Parses strictly with the first pattern matching the complete input.
+   *
+   * @return the date or null if none of the patterns matches
+   */
+  static TemporalAccessor strictParse(String input, DatePattern... patterns) {
+    for (DatePattern pattern : patterns) {
+      TemporalAccessor d = pattern.parse(input, false);
+      if (d != null) {
+        return d;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Converts a parsed value to a {@link Date} interpreting local date times in the system default time zone,
+   * as SimpleDateFormat does.
+   */
+  static Date toDate(TemporalAccessor temporal) {
+    if (temporal instanceof OffsetDateTime) {
+      OffsetDateTime odt = (OffsetDateTime) temporal;
+      if (odt.toLocalDateTime().isBefore(GREGORIAN_CUTOVER)) {
+        return julianDate(odt.toLocalDateTime(), TimeZone.getTimeZone(odt.getOffset()));
+      }
+      return new Date(odt.toEpochSecond() * 1000 + odt.getNano() / 1000000);
+    }
+
+    LocalDateTime ldt = (LocalDateTime) temporal;
+    if (ldt.isBefore(GREGORIAN_CUTOVER)) {
+      return julianDate(ldt, DEFAULT_TIME_ZONE);
+    }
+    if (ldt.isBefore(TIME_ZONE_HISTORY_START)) {
+      long local = ldt.toEpochSecond(ZoneOffset.UTC) * 1000;
+      return new Date(local - DEFAULT_TIME_ZONE.getOffset(local - DEFAULT_TIME_ZONE.getRawOffset()));
+    }
+    return new Date(ldt.toEpochSecond(offsetOf(ldt)) * 1000 + ldt.getNano() / 1000000);
+  }
+
+  /**
+   * Returns the date of the given instant in the system default time zone, as {@link Calendar#getInstance()} does.
+   *
+   * @return the date or null for dates before the Gregorian cut-over which need a Calendar
+   */
+  static LocalDate toLocalDate(Date date) {
+    long millis = date.getTime();
+    if (millis < GREGORIAN_CUTOVER_MILLIS) {
+      return null;
+    }
+    return LocalDate.ofEpochDay(Math.floorDiv(millis + DEFAULT_TIME_ZONE.getOffset(millis), 86400000L));
+  }
+
+  private static Date julianDate(LocalDateTime ldt, TimeZone zone) {
+    GregorianCalendar cal = new GregorianCalendar(zone);
+    cal.clear();
+    cal.set(ldt.getYear(), ldt.getMonthValue() - 1, ldt.getDayOfMonth(), ldt.getHour(), ldt.getMinute(),
+            ldt.getSecond());
+    return cal.getTime();
+  }
+
+  /**
+   * Offset of a local date time in the default zone. Like {@link Calendar} ambiguous times are resolved to the later
+   * offset (standard time).
+   */
+  private static ZoneOffset offsetOf(LocalDateTime ldt) {
+    if (DEFAULT_ZONE_RULES.isFixedOffset()) {
+      return DEFAULT_ZONE_RULES.getOffset(ldt);
+    }
+    ZoneOffsetTransition transition = DEFAULT_ZONE_RULES.getTransition(ldt);
+    if (transition == null) {
+      return DEFAULT_ZONE_RULES.getOffset(ldt);
+    }
+    return transition.isGap() ? transition.getOffsetBefore() : transition.getOffsetAfter();
+  }
+
+  /**
+   * @return the transition if the local date time is skipped by a transition of the default zone, null otherwise
+   */
+  private static ZoneOffsetTransition gapOf(LocalDateTime ldt) {
+    if (DEFAULT_ZONE_RULES.isFixedOffset() || ldt.isBefore(TIME_ZONE_HISTORY_START)) {
+      return null;
+    }
+    ZoneOffsetTransition transition = DEFAULT_ZONE_RULES.getTransition(ldt);
+    return transition != null && transition.isGap() ? transition : null;
+  }
+
+  private static LocalDateTime toLocalDateTime(TemporalAccessor d) {
+    if (d instanceof OffsetDateTime) {
+      return ((OffsetDateTime) d).atZoneSameInstant(DEFAULT_ZONE).toLocalDateTime();
+    }
+    return (LocalDateTime) d;
+  }
+
+  private static boolean hasFourDigits(String input) {
+    int digits = 0;
+    for (int i = 0; i < input.length(); i++) {
+      // ASCII digits only, like the \d\d\d\d pattern of the legacy parser
+      char c = input.charAt(i);
+      if (c >= '0' && c <= '9') {
+        if (++digits == 4) {
+          return true;
+        }
+      } else {
+        digits = 0;
+      }
+    }
+    return false;
+  }
+
+  private static DelimitedPatterns delimitedPatterns(char del) {
+    DelimitedPatterns patterns = DELIMITED_PATTERNS.get(del);
+    if (patterns == null) {
+      patterns = new DelimitedPatterns(del);
+      DelimitedPatterns existing = DELIMITED_PATTERNS.putIfAbsent(del, patterns);
+      if (existing != null) {
+        patterns = existing;
+      }
+    }
+    return patterns;
+  }
+
+  /**
+   * The patterns used for dates with a single kind of delimiter.
+   */
+  private static class DelimitedPatterns {
+    private final DatePattern[] yearMonth;
+    private final DatePattern[] shortYearMonth;
+    private final DatePattern[] fullDate;
+    private final DatePattern[] shortDate;
+
+    DelimitedPatterns(char del) {
+      // the delimiter is never a letter, only the quote needs escaping and is rejected before
+      String d = String.valueOf(del);
+      yearMonth = DatePattern.compileAll("yyyy" + d + "MM", "MM" + d + "yyyy");
+      shortYearMonth = DatePattern.compileAll("yy" + d + "MM", "MM" + d + "yy");
+      fullDate = DatePattern.compileAll("yyyy" + d + "MM" + d + "dd", "dd" + d + "MM" + d + "yyyy",
+                                        "MM" + d + "dd" + d + "yyyy");
+      if (del == '-') {
+        // iso formats use dash and start with years
+        shortDate = DatePattern.compileAll("yy" + d + "MM" + d + "dd", "dd" + d + "MM" + d + "yy",
+                                           "MM" + d + "dd" + d + "yy");
+      } else {
+        shortDate = DatePattern.compileAll("dd" + d + "MM" + d + "yy", "MM" + d + "dd" + d + "yy",
+                                           "yy" + d + "MM" + d + "dd");
+      }
+    }
+  }
+
+  /**
+   * A compiled SimpleDateFormat pattern supporting the letters y, M, d, H, m, s and Z as well as quoted literals.
+   * Parsing follows the SimpleDateFormat rules: spaces and tabs are skipped before each field, abutting numeric
+   * fields are read with their pattern width, 2 digits years for "yy" are placed in the default century and the whole
+   * input has to be consumed.
+   * A pattern ending in "ZZ" also accepts offsets written as +hh:mm, like commons-lang DateUtils does.
+   *
+   * Immutable and thread-safe.
+   */
+  static final class DatePattern {
+
+    private static final int LITERAL = 0;
+    private static final int YEAR = 1;
+    private static final int MONTH = 2;
+    private static final int DAY = 3;
+    private static final int HOUR = 4;
+    private static final int MINUTE = 5;
+    private static final int SECOND = 6;
+    private static final int OFFSET = 7;
+
+    private static final int MAX_YEAR = 292278994;
+    // lenient resolution keeps the years in a range where java.time arithmetic cannot overflow
+    private static final int MAX_LENIENT_YEAR = 500000000;
+
+    private final String pattern;
+    private final int[] kinds;
+    // the character for literals, the number of pattern letters otherwise
+    private final int[] args;
+    private final boolean[] abutting;
+
+    private DatePattern(String pattern, int[] kinds, int[] args) {
+      this.pattern = pattern;
+      this.kinds = kinds;
+      this.args = args;
+      abutting = new boolean[kinds.length];
+      for (int i = 0; i < kinds.length - 1; i++) {
+        abutting[i] = kinds[i] != LITERAL && kinds[i + 1] != LITERAL;
+      }
+    }
+
+    static DatePattern[] compileAll(String... patterns) {
+      DatePattern[] compiled = new DatePattern[patterns.length];
+      for (int i = 0; i < patterns.length; i++) {
+        compiled[i] = compile(patterns[i]);
+      }
+      return compiled;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the pattern contains an unsupported letter or an unterminated quote
+     */
+    static DatePattern compile(String pattern) {
+      int[] kinds = new int[pattern.length()];
+      int[] args = new int[pattern.length()];
+      int size = 0;
+      int i = 0;
+      while (i < pattern.length()) {
+        char c = pattern.charAt(i);
+        if (c == '\'') {
+          int end = pattern.indexOf('\'', i + 1);
+          if (end < 0) {
+            throw new IllegalArgumentException("Unterminated quote in pattern " + pattern);
+          }
+          if (end == i + 1) {
+            // '' is a quote
+            kinds[size] = LITERAL;
+            args[size++] = '\'';
+          }
+          for (int j = i + 1; j < end; j++) {
+            kinds[size] = LITERAL;
+            args[size++] = pattern.charAt(j);
+          }
+          i = end + 1;
+
+        } else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+          int count = 1;
+          while (i + count < pattern.length() && pattern.charAt(i + count) == c) {
+            count++;
+          }
+          kinds[size] = kindOf(c, pattern);
+          args[size++] = count;
+          i += count;
+
+        } else {
+          kinds[size] = LITERAL;
+          args[size++] = c;
+          i++;
+        }
+      }
+      int[] k = new int[size];
+      int[] a = new int[size];
+      System.arraycopy(kinds, 0, k, 0, size);
+      System.arraycopy(args, 0, a, 0, size);
+      return new DatePattern(pattern, k, a);
+    }
+
+    private static int kindOf(char letter, String pattern) {
+      switch (letter) {
+        case 'y':
+          return YEAR;
+        case 'M':
+          return MONTH;
+        case 'd':
+          return DAY;
+        case 'H':
+          return HOUR;
+        case 'm':
+          return MINUTE;
+        case 's':
+          return SECOND;
+        case 'Z':
+          return OFFSET;
+        default:
+          throw new IllegalArgumentException("Unsupported letter " + letter + " in pattern " + pattern);
+      }
+    }
+
+    /**
+     * @param lenient if true, out of range values roll over to the next month/year like a lenient Calendar does
+     *
+     * @return a {@link LocalDateTime}, an {@link OffsetDateTime} if the pattern has an offset, or null
+     */
+    TemporalAccessor parse(String text, boolean lenient) {
+      Fields f = new Fields();
+      int pos = 0;
+      for (int i = 0; i < kinds.length && pos >= 0; i++) {
+        switch (kinds[i]) {
+          case LITERAL:
+            pos = pos < text.length() && text.charAt(pos) == (char) args[i] ? pos + 1 : -1;
+            break;
+          case OFFSET:
+            pos = parseOffset(text, pos, args[i] > 1, f);
+            break;
+          default:
+            pos = parseNumber(text, pos, args[i], abutting[i], f);
+            if (pos >= 0) {
+              setField(text, kinds[i], args[i], pos, f);
+            }
+        }
+      }
+      if (pos != text.length()) {
+        return null;
+      }
+      return lenient ? resolveLenient(f) : resolveStrict(f);
+    }
+
+    private static void setField(String text, int kind, int count, int pos, Fields f) {
+      f.parsed |= 1 << kind;
+      switch (kind) {
+        case YEAR:
+          f.year = f.number;
+          // only exactly 2 digits are interpreted as an abbreviated year
+          if (count <= 2 && pos - f.numberStart == 2 && Character.isDigit(text.charAt(f.numberStart))
+              && Character.isDigit(text.charAt(f.numberStart + 1))) {
+            int centuryStart = DEFAULT_CENTURY_START.getYear();
+            // the year of the century start is resolved once the full date is known
+            f.ambiguousYear = f.number == centuryStart % 100;
+            f.year = f.number + (centuryStart / 100) * 100 + (f.number < centuryStart % 100 ? 100 : 0);
+          }
+          break;
+        case MONTH:
+          f.month = f.number;
+          break;
+        case DAY:
+          f.day = f.number;
+          break;
+        case HOUR:
+          f.hour = f.number;
+          break;
+        case MINUTE:
+          f.minute = f.number;
+          break;
+        case SECOND:
+          f.second = f.number;
+          break;
+        default:
+          throw new IllegalStateException("Not a numeric field: " + kind);
+      }
+    }
+
+    private static LocalDateTime resolveFields(Fields f) {
+      if (f.year < 1 || f.year > MAX_YEAR || f.month < 1 || f.month > 12 || f.day < 1
+          || f.day > lengthOfMonth(f.year, f.month) || f.hour < 0 || f.hour > 23 || f.minute < 0 || f.minute > 59
+          || f.second < 0 || f.second > 59) {
+        return null;
+      }
+      if (f.year == 1582 && f.month == 10 && f.day > 4 && f.day < 15) {
+        // the days skipped by the Gregorian reform
+        return null;
+      }
+      if (f.month == 2 && f.day == 29 && !IsoChronology.INSTANCE.isLeapYear(f.year)) {
+        // Julian only leap day
+        return null;
+      }
+      return LocalDateTime.of(f.year, f.month, f.day, f.hour, f.minute, f.second);
+    }
+
+    private static TemporalAccessor resolveStrict(Fields f) {
+      LocalDateTime ldt = resolveFields(f);
+      if (ldt != null && f.ambiguousYear && ldt.isBefore(DEFAULT_CENTURY_START)) {
+        f.year += 100;
+        ldt = resolveFields(f);
+      }
+      if (ldt == null) {
+        return null;
+      }
+      if (f.hasOffset) {
+        return OffsetDateTime.of(ldt, ZoneOffset.ofTotalSeconds(f.offsetSeconds));
+      }
+      // like a strict Calendar, local times skipped by a transition are valid if the shift changes no parsed field
+      ZoneOffsetTransition gap = gapOf(ldt);
+      if (gap != null) {
+        LocalDateTime shifted = ldt.plusSeconds(gap.getDuration().getSeconds());
+        if (shifted.getYear() != ldt.getYear() && (f.parsed & (1 << YEAR)) != 0
+            || shifted.getMonthValue() != ldt.getMonthValue() && (f.parsed & (1 << MONTH)) != 0
+            || shifted.getDayOfMonth() != ldt.getDayOfMonth() && (f.parsed & (1 << DAY)) != 0
+            || shifted.getHour() != ldt.getHour() && (f.parsed & (1 << HOUR)) != 0
+            || shifted.getMinute() != ldt.getMinute() && (f.parsed & (1 << MINUTE)) != 0
+            || shifted.getSecond() != ldt.getSecond() && (f.parsed & (1 << SECOND)) != 0) {
+          return null;
+        }
+      }
+      return ldt;
+    }
+
+    private static TemporalAccessor resolveLenient(Fields f) {
+      if (Math.abs(f.year) > MAX_LENIENT_YEAR) {
+        return null;
+      }
+      LocalDateTime ldt = LocalDateTime.of(f.year, 1, 1, 0, 0)
+        .plusMonths(f.month - 1L).plusDays(f.day - 1L)
+        .plusHours(f.hour).plusMinutes(f.minute).plusSeconds(f.second);
+      if (f.ambiguousYear && ldt.isBefore(DEFAULT_CENTURY_START)) {
+        ldt = ldt.plusYears(100);
+      }
+      return f.hasOffset ? OffsetDateTime.of(ldt, ZoneOffset.ofTotalSeconds(f.offsetSeconds)) : ldt;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+      switch (month) {
+        case 2:
+          // Julian leap years before the Gregorian reform
+          boolean leap = year < 1582 ? year % 4 == 0 : IsoChronology.INSTANCE.isLeapYear(year);
+          return leap ? 29 : 28;
+        case 4:
+        case 6:
+        case 9:
+        case 11:
+          return 30;
+        default:
+          return 31;
+      }
+    }
+
+    /**
+     * @return the index of the first non space or tab character from start, -1 if there is none
+     */
+    private static int skipBlanks(String text, int start) {
+      for (int i = start; i < text.length(); i++) {
+        char c = text.charAt(i);
+        if (c != ' ' && c != '\t') {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    /**
+     * Reads an optionally negative integer into {@link Fields#number}.
+     *
+     * @return the index after the number or -1
+     */
+    private static int parseNumber(String text, int start, int count, boolean abutting, Fields f) {
+      int pos = skipBlanks(text, start);
+      if (pos < 0) {
+        return -1;
+      }
+      int limit = text.length();
+      if (abutting) {
+        if (start + count > limit) {
+          return -1;
+        }
+        limit = start + count;
+      }
+      f.numberStart = pos;
+      boolean negative = pos < limit && text.charAt(pos) == '-';
+      if (negative) {
+        pos++;
+      }
+      long value = 0;
+      int digits = 0;
+      while (pos < limit) {
+        int digit = Character.digit(text.charAt(pos), 10);
+        if (digit < 0) {
+          break;
+        }
+        // values too large for the calendar fields are capped, they stay invalid
+        value = Math.min(value * 10 + digit, Integer.MAX_VALUE);
+        digits++;
+        pos++;
+      }
+      if (digits == 0) {
+        return -1;
+      }
+      f.number = (int) (negative ? -value : value);
+      return pos;
+    }
+
+    /**
+     * Reads a +hhmm (or GMT, GMT+h:mm) offset, +hh:mm is accepted at the end of text if allowColon is set.
+     *
+     * @return the index after the offset or -1
+     */
+    private static int parseOffset(String text, int start, boolean allowColon, Fields f) {
+      int pos = skipBlanks(text, start);
+      if (pos < 0) {
+        return -1;
+      }
+      boolean gmt = false;
+      if (text.regionMatches(true, pos, "GMT", 0, 3)) {
+        gmt = true;
+        pos += 3;
+        if (pos == text.length() || (text.charAt(pos) != '+' && text.charAt(pos) != '-')) {
+          f.setOffset(0);
+          return pos;
+        }
+      }
+      int sign = text.charAt(pos) == '+' ? 1 : text.charAt(pos) == '-' ? -1 : 0;
+      if (sign == 0) {
+        return -1;
+      }
+      pos++;
+
+      int hours = digitAt(text, pos++);
+      if (hours < 0) {
+        return -1;
+      }
+      int next = digitAt(text, pos);
+      if (next >= 0) {
+        hours = hours * 10 + next;
+        pos++;
+      } else if (!gmt) {
+        // +hhmm needs 2 digits hours
+        return -1;
+      }
+      if (pos < text.length() && text.charAt(pos) == ':'
+          && (gmt || (allowColon && pos + 3 == text.length()))) {
+        pos++;
+      } else if (gmt) {
+        return -1;
+      }
+      int m1 = digitAt(text, pos);
+      int m2 = digitAt(text, pos + 1);
+      if (m1 < 0 || m2 < 0) {
+        return -1;
+      }
+      int minutes = m1 * 10 + m2;
+      if (hours > 23 || minutes > 59) {
+        return -1;
+      }
+      f.setOffset(sign * (hours * 60 + minutes) * 60);
+      return pos + 2;
+    }
+
+    private static int digitAt(String text, int pos) {
+      if (pos >= text.length()) {
+        return -1;
+      }
+      char c = text.charAt(pos);
+      return c >= '0' && c <= '9' ? c - '0' : -1;
+    }
+
+    @Override
+    public String toString() {
+      return pattern;
+    }
+  }
+
+  /**
+   * Mutable fields of a single parse, defaults are the ones of a cleared Calendar.
+   */
+  private static class Fields {
+    private int year = 1970;
+    private int month = 1;
+    private int day = 1;
+    private int hour;
+    private int minute;
+    private int second;
+    private boolean ambiguousYear;
+    // bits of the parsed field kinds
+    private int parsed;
+    private boolean hasOffset;
+    private int offsetSeconds;
+    // last number read and where it started
+    private int number;
+    private int numberStart;
+
+    void setOffset(int offsetSeconds) {
+      this.offsetSeconds = offsetSeconds;
+      hasOffset = true;
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package org.gbif.common.parsers.geospatial;
+
+import com.google.common.base.Objects;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * The one degree cells and the centi cells covered by a polygon, see
+ * {@link CellIdUtils#getCellCoverage(double[][], double[][])}.
+ * A cell is full if it lies entirely inside the polygon, and partial if the boundary of the polygon crosses it.
+ *
+ * The cells are ranges of cell ids, the centi cells ranges of centi cell indexes of the 0.1 degree grid, see
+ * {@link CellIdUtils#toCentiCellIndex(int, int)}.
+ *
+ * Thread-Safe, immutable class.
+ */
+public class CellCoverage {
+
+  private final CellRanges fullCells;
+  private final CellRanges partialCells;
+  private final CellRanges fullCentiCells;
+  private final CellRanges partialCentiCells;
+
+  CellCoverage(CellRanges fullCells, CellRanges partialCells, CellRanges fullCentiCells,
+    CellRanges partialCentiCells) {
+    this.fullCells = fullCells;
+    this.partialCells = partialCells;
+    this.fullCentiCells = fullCentiCells;
+    this.partialCentiCells = partialCentiCells;
+  }
+
+  /**
+   * @return the one degree cells inside the polygon
+   */
+  public CellRanges getFullCells() {
+    return fullCells;
+  }
+
+  /**
+   * @return the one degree cells crossed by the boundary of the polygon
+   */
+  public CellRanges getPartialCells() {
+    return partialCells;
+  }
+
+  /**
+   * @return the one degree cells inside or crossed by the boundary of the polygon
+   */
+  public CellRanges getCoveredCells() {
+    return fullCells.union(partialCells);
+  }
+
+  /**
+   * @return the centi cells inside the polygon, as centi cell indexes
+   */
+  public CellRanges getFullCentiCells() {
+    return fullCentiCells;
+  }
+
+  /**
+   * @return the centi cells crossed by the boundary of the polygon, as centi cell indexes
+   */
+  public CellRanges getPartialCentiCells() {
+    return partialCentiCells;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(fullCells, partialCells, fullCentiCells, partialCentiCells);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof CellCoverage)) {
+      return false;
+    }
+
+    CellCoverage that = (CellCoverage) obj;
+    return Objects.equal(this.fullCells, that.fullCells)
+           && Objects.equal(this.partialCells, that.partialCells)
+           && Objects.equal(this.fullCentiCells, that.fullCentiCells)
+           && Objects.equal(this.partialCentiCells, that.partialCentiCells);
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+      .append("fullCells", fullCells)
+      .append("partialCells", partialCells)
+      .append("fullCentiCells", fullCentiCells.getRangeCount() + " ranges")
+      .append("partialCentiCells", partialCentiCells.getRangeCount() + " ranges")
+      .toString();
+  }
+}
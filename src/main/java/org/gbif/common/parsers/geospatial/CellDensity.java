@@ -0,0 +1,295 @@
+package org.gbif.common.parsers.geospatial;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Counts occurrences per one degree cell and per centi cell.
+ * The one degree cells are counted in a dense grid indexed by cell id, the centi cells, which are usually few compared
+ * to the 6,480,000 of the world, in an open addressing table keyed by centi cell index
+ * (see {@link CellIdUtils#toCentiCellIndex(int, int)}).
+ *
+ * Coordinates are placed in cells like {@link CellKeys#toKey(double, double, int)} does, so the latitude 90 and the
+ * longitude 180 are in the last row and column of the grid.
+ *
+ * Not Thread-Safe, use {@link ConcurrentCellDensity} to count from several threads.
+ */
+public class CellDensity {
+
+  private static final int CENTI_CELL_ROWS = CellRanges.NUMBER_OF_CENTI_CELLS / CellRanges.CENTI_CELLS_PER_ROW;
+
+  private final long[] cells = new long[CellRanges.NUMBER_OF_CELLS];
+  private final SparseCounts centiCells = new SparseCounts();
+  private long invalidCount;
+
+  /**
+   * Counts one occurrence at the latitude / longitude.
+   *
+   * @return false if the coordinate is invalid and was only counted in {@link #getInvalidCount()}
+   */
+  public boolean add(double latitude, double longitude) {
+    return add(latitude, longitude, 1);
+  }
+
+  /**
+   * Counts occurrences at the latitude / longitude.
+   *
+   * @return false if the coordinate is invalid and was only counted in {@link #getInvalidCount()}
+   */
+  public boolean add(double latitude, double longitude, long count) {
+    if (!(latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180)) {
+      invalidCount += count;
+      return false;
+    }
+    // the row and column of the centi cell grid, like the key of the centi cell level has them
+    int row = (int) Math.min(CellKeys.gridIndex((latitude + 90) * 10), CENTI_CELL_ROWS - 1);
+    int column = (int) Math.min(CellKeys.gridIndex((longitude + 180) * 10), CellRanges.CENTI_CELLS_PER_ROW - 1);
+    cells[(row / 10) * CellRanges.CELLS_PER_ROW + column / 10] += count;
+    centiCells.add(row * CellRanges.CENTI_CELLS_PER_ROW + column, count);
+    return true;
+  }
+
+  /**
+   * Counts one occurrence at each of the coordinates.
+   *
+   * @param latitudes  of the occurrences
+   * @param longitudes of the occurrences, at least as many as latitudes
+   *
+   * @return the number of valid coordinates
+   */
+  public int addAll(double[] latitudes, double[] longitudes) {
+    Preconditions.checkArgument(longitudes.length >= latitudes.length, "Longitudes are shorter than latitudes");
+    int valid = 0;
+    for (int i = 0; i < latitudes.length; i++) {
+      if (add(latitudes[i], longitudes[i], 1)) {
+        valid++;
+      }
+    }
+    return valid;
+  }
+
+  /**
+   * Adds all the counts of the other density to this one.
+   */
+  public void merge(CellDensity other) {
+    for (int i = 0; i < cells.length; i++) {
+      cells[i] += other.cells[i];
+    }
+    other.centiCells.addTo(centiCells);
+    invalidCount += other.invalidCount;
+  }
+
+  /**
+   * @return the number of occurrences in the cell
+   */
+  public long getCount(int cellId) {
+    Preconditions.checkElementIndex(cellId, cells.length, "cellId");
+    return cells[cellId];
+  }
+
+  /**
+   * @return the number of occurrences in the centi cell
+   */
+  public long getCentiCellCount(int cellId, int centiCellId) {
+    return centiCells.get(CellIdUtils.toCentiCellIndex(cellId, centiCellId));
+  }
+
+  /**
+   * @return the number of occurrences with a valid coordinate
+   */
+  public long getTotalCount() {
+    long total = 0;
+    for (long count : cells) {
+      total += count;
+    }
+    return total;
+  }
+
+  /**
+   * @return the number of occurrences with an invalid coordinate
+   */
+  public long getInvalidCount() {
+    return invalidCount;
+  }
+
+  /**
+   * @return the number of cells with occurrences
+   */
+  public int getOccupiedCellCount() {
+    int count = 0;
+    for (long c : cells) {
+      if (c != 0) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * @return the number of centi cells with occurrences
+   */
+  public int getOccupiedCentiCellCount() {
+    return centiCells.size();
+  }
+
+  /**
+   * @return the ids of the cells with occurrences, in increasing order
+   */
+  public List<Integer> getCellIds() {
+    List<Integer> cellIds = new ArrayList<Integer>();
+    for (int i = 0; i < cells.length; i++) {
+      if (cells[i] != 0) {
+        cellIds.add(i);
+      }
+    }
+    return cellIds;
+  }
+
+  /**
+   * @return the bounding box of the cells with occurrences, see {@link CellIdUtils#getBoundingBoxForCells(List)}, or
+   * null if there are none
+   */
+  public LatLngBoundingBox getBoundingBox() {
+    return CellIdUtils.getBoundingBoxForCells(getCellIds());
+  }
+
+  /**
+   * Copies the counts of a window of the one degree grid, row by row from the south. The columns wrap around the
+   * antimeridian.
+   *
+   * @param firstRow    of the window, 0 for the cells from -90 to -89
+   * @param firstColumn of the window, 0 for the cells from -180 to -179
+   * @param rows        of the window
+   * @param columns     of the window
+   *
+   * @return the counts, count of the cell at row r and column c of the window at r * columns + c
+   */
+  public long[] getCellCounts(int firstRow, int firstColumn, int rows, int columns) {
+    checkWindow(firstRow, firstColumn, rows, columns, CellRanges.CELLS_PER_ROW,
+                CellRanges.NUMBER_OF_CELLS / CellRanges.CELLS_PER_ROW);
+    long[] counts = new long[rows * columns];
+    for (int r = 0; r < rows; r++) {
+      int rowStart = (firstRow + r) * CellRanges.CELLS_PER_ROW;
+      for (int c = 0; c < columns; c++) {
+        counts[r * columns + c] = cells[rowStart + (firstColumn + c) % CellRanges.CELLS_PER_ROW];
+      }
+    }
+    return counts;
+  }
+
+  /**
+   * Copies the counts of a window of the centi cell grid, row by row from the south. The columns wrap around the
+   * antimeridian.
+   *
+   * @param firstRow    of the window, 0 for the centi cells from -90 to -89.9
+   * @param firstColumn of the window, 0 for the centi cells from -180 to -179.9
+   * @param rows        of the window
+   * @param columns     of the window
+   *
+   * @return the counts, count of the centi cell at row r and column c of the window at r * columns + c
+   */
+  public long[] getCentiCellCounts(int firstRow, int firstColumn, int rows, int columns) {
+    checkWindow(firstRow, firstColumn, rows, columns, CellRanges.CENTI_CELLS_PER_ROW,
+                CellRanges.NUMBER_OF_CENTI_CELLS / CellRanges.CENTI_CELLS_PER_ROW);
+    long[] counts = new long[rows * columns];
+    for (int r = 0; r < rows; r++) {
+      int rowStart = (firstRow + r) * CellRanges.CENTI_CELLS_PER_ROW;
+      // skip the empty cells rather than looking up every centi cell
+      int cellRowStart = (firstRow + r) / 10 * CellRanges.CELLS_PER_ROW;
+      for (int c = 0; c < columns; c++) {
+        int column = (firstColumn + c) % CellRanges.CENTI_CELLS_PER_ROW;
+        if (cells[cellRowStart + column / 10] != 0) {
+          counts[r * columns + c] = centiCells.get(rowStart + column);
+        }
+      }
+    }
+    return counts;
+  }
+
+  private static void checkWindow(int firstRow, int firstColumn, int rows, int columns, int rowLength, int rowCount) {
+    Preconditions.checkArgument(firstRow >= 0 && rows >= 0 && firstRow + rows <= rowCount, "Invalid rows %s + %s",
+                                firstRow, rows);
+    Preconditions.checkArgument(firstColumn >= 0 && firstColumn < rowLength && columns >= 0 && columns <= rowLength,
+                                "Invalid columns %s + %s", firstColumn, columns);
+  }
+
+  /**
+   * Open addressing table of counts keyed by non negative int, with linear probing.
+   */
+  private static class SparseCounts {
+    private static final int EMPTY = -1;
+
+    private int[] keys = newKeys(1024);
+    private long[] values = new long[1024];
+    private int size;
+
+    private static int[] newKeys(int capacity) {
+      int[] keys = new int[capacity];
+      Arrays.fill(keys, EMPTY);
+      return keys;
+    }
+
+    private static int slot(int key, int mask) {
+      // Fibonacci hashing spreads the neighbouring centi cells
+      int hash = key * 0x9E3779B9;
+      return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    void add(int key, long count) {
+      int mask = keys.length - 1;
+      int slot = slot(key, mask);
+      while (keys[slot] != EMPTY) {
+        if (keys[slot] == key) {
+          values[slot] += count;
+          return;
+        }
+        slot = (slot + 1) & mask;
+      }
+      keys[slot] = key;
+      values[slot] = count;
+      if (++size > keys.length / 2) {
+        resize();
+      }
+    }
+
+    long get(int key) {
+      int mask = keys.length - 1;
+      int slot = slot(key, mask);
+      while (keys[slot] != EMPTY) {
+        if (keys[slot] == key) {
+          return values[slot];
+        }
+        slot = (slot + 1) & mask;
+      }
+      return 0;
+    }
+
+    int size() {
+      return size;
+    }
+
+    void addTo(SparseCounts other) {
+      for (int i = 0; i < keys.length; i++) {
+        if (keys[i] != EMPTY) {
+          other.add(keys[i], values[i]);
+        }
+      }
+    }
+
+    private void resize() {
+      int[] oldKeys = keys;
+      long[] oldValues = values;
+      keys = newKeys(2 * oldKeys.length);
+      values = new long[2 * oldValues.length];
+      size = 0;
+      for (int i = 0; i < oldKeys.length; i++) {
+        if (oldKeys[i] != EMPTY) {
+          add(oldKeys[i], oldValues[i]);
+        }
+      }
+    }
+  }
+}
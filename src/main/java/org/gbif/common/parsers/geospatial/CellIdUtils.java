@@ -4,6 +4,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import com.google.common.base.Preconditions;
 import org.apache.commons.math3.util.Precision;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,6 +21,11 @@ public class CellIdUtils {
   private static final int MAX_LONGITUDE = 180;
   private static final int MIN_LONGITUDE = -MAX_LONGITUDE;
 
+  /**
+   * Returned by the primitive computations for coordinates that have no cell.
+   */
+  public static final int INVALID_CELL_ID = -1;
+
   private CellIdUtils() {
     throw new UnsupportedOperationException("Can't initialize class");
   }
@@ -49,6 +55,158 @@ public class CellIdUtils {
     }
   }
 
+  /**
+   * Determines the cell id for the latitude / longitude provided, without boxing, logging or exceptions.
+   * Valid coordinates give the same value as {@link #toCellId(Double, Double)}.
+   *
+   * @return the cell id or {@link #INVALID_CELL_ID} if the latitude or longitude is out of range or NaN
+   */
+  public static int computeCellId(double latitude, double longitude) {
+    if (latitude >= MIN_LATITUDE && latitude <= MAX_LATITUDE && longitude >= MIN_LONGITUDE
+        && longitude <= MAX_LONGITUDE) {
+      // the values are positive, the cast is the floor
+      return (int) (latitude + MAX_LATITUDE) * 360 + (int) (longitude + MAX_LONGITUDE);
+    }
+    return INVALID_CELL_ID;
+  }
+
+  /**
+   * Computes the cell ids of all the coordinates, see {@link #computeCellId(double, double)}.
+   *
+   * @param latitudes  of the points
+   * @param longitudes of the points, at least as many as latitudes
+   * @param cellIds    receiving the cell id or {@link #INVALID_CELL_ID} of each point, at least as many as latitudes
+   *
+   * @return the number of valid cell ids
+   */
+  public static int computeCellIds(double[] latitudes, double[] longitudes, int[] cellIds) {
+    final int n = latitudes.length;
+    Preconditions.checkArgument(longitudes.length >= n && cellIds.length >= n, "Arrays are shorter than latitudes");
+    int valid = 0;
+    // branch free body
+    for (int i = 0; i < n; i++) {
+      double lat = latitudes[i];
+      double lng = longitudes[i];
+      boolean inRange = lat >= MIN_LATITUDE & lat <= MAX_LATITUDE & lng >= MIN_LONGITUDE & lng <= MAX_LONGITUDE;
+      int cellId = (int) (lat + MAX_LATITUDE) * 360 + (int) (lng + MAX_LONGITUDE);
+      cellIds[i] = inRange ? cellId : INVALID_CELL_ID;
+      valid += inRange ? 1 : 0;
+    }
+    return valid;
+  }
+
+  /**
+   * Determines the centi cell id for the latitude / longitude provided, without boxing or exceptions.
+   * Valid coordinates give the same value as {@link #toCentiCellId(Double, Double)}.
+   *
+   * @return the centi cell id or {@link #INVALID_CELL_ID} if the latitude or longitude is out of range or NaN
+   */
+  public static int computeCentiCellId(double latitude, double longitude) {
+    if (latitude >= MIN_LATITUDE && latitude <= MAX_LATITUDE && longitude >= MIN_LONGITUDE
+        && longitude <= MAX_LONGITUDE) {
+      return centiCellId(latitude, longitude);
+    }
+    return INVALID_CELL_ID;
+  }
+
+  /**
+   * Computes the centi cell ids of all the coordinates, see {@link #computeCentiCellId(double, double)}.
+   *
+   * @param latitudes    of the points
+   * @param longitudes   of the points, at least as many as latitudes
+   * @param centiCellIds receiving the centi cell id or {@link #INVALID_CELL_ID} of each point, at least as many as
+   *                     latitudes
+   *
+   * @return the number of valid centi cell ids
+   */
+  public static int computeCentiCellIds(double[] latitudes, double[] longitudes, int[] centiCellIds) {
+    final int n = latitudes.length;
+    Preconditions.checkArgument(longitudes.length >= n && centiCellIds.length >= n,
+                                "Arrays are shorter than latitudes");
+    int valid = 0;
+    for (int i = 0; i < n; i++) {
+      double lat = latitudes[i];
+      double lng = longitudes[i];
+      boolean inRange = lat >= MIN_LATITUDE & lat <= MAX_LATITUDE & lng >= MIN_LONGITUDE & lng <= MAX_LONGITUDE;
+      int centiCellId = centiCellId(lat, lng);
+      centiCellIds[i] = inRange ? centiCellId : INVALID_CELL_ID;
+      valid += inRange ? 1 : 0;
+    }
+    return valid;
+  }
+
+  /**
+   * Centi cell arithmetic of {@link #toCentiCellId(Double, Double)}: first decimal of the latitude and longitude,
+   * counted from the south west corner of the cell.
+   */
+  private static int centiCellId(double latitude, double longitude) {
+    //get decimal value for up to 4 decimal places
+    //17.2-> 172000 -> 2000
+    int la = Math.abs((int) (latitude * 10000) % 10000);
+    if (latitude < 0) la = 10000 - la;
+    la = (la / 1000) % 10;
+    int lo = Math.abs((int) (longitude * 10000) % 10000);
+    if (longitude < 0) lo = 10000 - lo;
+    lo = (lo / 1000) % 10;
+    return Math.abs((la * 10) + lo);
+  }
+
+  /**
+   * Index of a centi cell in the 0.1 degree grid, counting the centi cells row by row from the south west corner of the
+   * world like the cell ids do for the cells. Contiguous centi cells along a latitude have contiguous indexes, so they
+   * can be used in {@link CellRanges}.
+   *
+   * @return the centi cell index, from 0 to {@link CellRanges#NUMBER_OF_CENTI_CELLS} - 1
+   */
+  public static int toCentiCellIndex(int cellId, int centiCellId) {
+    int row = (cellId / 360) * 10 + centiCellId / 10;
+    int column = (cellId % 360) * 10 + centiCellId % 10;
+    return row * CellRanges.CENTI_CELLS_PER_ROW + column;
+  }
+
+  /**
+   * @return the cell id of the cell containing the centi cell index
+   */
+  public static int toCellIdFromCentiCellIndex(int centiCellIndex) {
+    int row = centiCellIndex / CellRanges.CENTI_CELLS_PER_ROW;
+    int column = centiCellIndex % CellRanges.CENTI_CELLS_PER_ROW;
+    return (row / 10) * 360 + column / 10;
+  }
+
+  /**
+   * @return the centi cell id, within its cell, of the centi cell index
+   */
+  public static int toCentiCellIdFromCentiCellIndex(int centiCellIndex) {
+    int row = centiCellIndex / CellRanges.CENTI_CELLS_PER_ROW;
+    int column = centiCellIndex % CellRanges.CENTI_CELLS_PER_ROW;
+    return (row % 10) * 10 + column % 10;
+  }
+
+  /**
+   * Rasterizes the polygon into the cells and centi cells it covers, either fully or partially.
+   * The polygon is given as rings, each ring as the latitudes and the longitudes of its vertices. The rings are
+   * combined with the even-odd rule so holes are given as more rings. Edges are the shortest way between two vertices,
+   * so a polygon can cross the antimeridian, but rings going around a pole are not supported.
+   *
+   * @param latitudes  of the vertices of each ring
+   * @param longitudes of the vertices of each ring
+   *
+   * @return the cells and centi cells covered by the polygon
+   *
+   * @throws IllegalArgumentException if a coordinate is invalid or a ring goes around a pole
+   */
+  public static CellCoverage getCellCoverage(double[][] latitudes, double[][] longitudes) {
+    Preconditions.checkArgument(latitudes.length == longitudes.length, "Latitudes and longitudes of different lengths");
+    PolygonRasterizer cells = new PolygonRasterizer(1);
+    PolygonRasterizer centiCells = new PolygonRasterizer(10);
+    for (int i = 0; i < latitudes.length; i++) {
+      cells.addRing(latitudes[i], longitudes[i]);
+      centiCells.addRing(latitudes[i], longitudes[i]);
+    }
+    return new CellCoverage(cells.getFullCells(), cells.getPartialCells(), centiCells.getFullCells(),
+                            centiCells.getPartialCells());
+  }
+
   /**
    * Get mod 360 cell id.
    */
@@ -88,18 +246,7 @@ public class CellIdUtils {
       throw new UnableToGenerateCellIdException(
         "Latitude[" + latitude + "], Longitude[" + longitude + "] cannot be " + "converted to a centi cell id");
     } else {
-
-      //get decimal value for up to 4 decimal places
-      //17.2-> 172000 -> 2000
-      int la = Math.abs((int) (latitude * 10000) % 10000);
-      if (latitude < 0) la = 10000 - la;
-      la = (la / 1000) % 10;
-      int lo = Math.abs((int) (longitude * 10000) % 10000);
-      if (longitude < 0) lo = 10000 - lo;
-      lo = (lo / 1000) % 10;
-
-      int centiCellId = (la * 10) + lo;
-      return Math.abs(centiCellId);
+      return centiCellId(latitude, longitude);
     }
   }
 
@@ -160,6 +307,27 @@ public class CellIdUtils {
    *          if the lat longs are invalid
    */
   public static Set<Integer> getCellsEnclosedBy(double minLat, double maxLat, double minLong, double maxLong)
+    throws UnableToGenerateCellIdException {
+    CellRanges ranges = getCellRangesEnclosedBy(minLat, maxLat, minLong, maxLong);
+    Set<Integer> cells = new HashSet<Integer>(Math.max(16, ranges.getCellCount() * 4 / 3 + 1));
+    for (int r = 0; r < ranges.getRangeCount(); r++) {
+      for (int i = ranges.getStart(r); i <= ranges.getEnd(r); i++) {
+        cells.add(i);
+      }
+    }
+    return cells;
+  }
+
+  /**
+   * Gets the cells that are enclosed within the bounding box as one range of cell ids per latitude row, see
+   * {@link #getCellsEnclosedBy(double, double, double, double)} for the cells included.
+   *
+   * @return The ranges of the cells that are enclosed by the bounding box
+   *
+   * @throws UnableToGenerateCellIdException
+   *          if the lat longs are invalid
+   */
+  public static CellRanges getCellRangesEnclosedBy(double minLat, double maxLat, double minLong, double maxLong)
     throws UnableToGenerateCellIdException {
     if (minLat < MIN_LATITUDE) minLat = MIN_LATITUDE;
     if (maxLat > MAX_LATITUDE) maxLat = MAX_LATITUDE;
@@ -185,16 +353,22 @@ public class CellIdUtils {
 
     LOGGER.debug("Getting cells contained in {} to {}", lower, upper);
 
+    CellRanges.Builder builder = new CellRanges.Builder(CellRanges.CELLS_PER_ROW, CellRanges.NUMBER_OF_CELLS);
+    if (upper < lower) {
+      return builder.build();
+    }
+    // the same columns are kept in every row, omitRight of 0 means up to the end of the row
     int omitLeft = lower % 360;
     int omitRight = upper % 360;
-    if (omitRight == 0) omitRight = 360;
-    Set<Integer> cells = new HashSet<Integer>();
-    for (int i = lower; i <= upper; i++) {
-      if (i % 360 >= omitLeft && i % 360 <= omitRight) {
-        cells.add(i);
+    if (omitRight == 0) omitRight = 359;
+    for (int row = lower / 360; row <= upper / 360; row++) {
+      int start = Math.max(lower, row * 360 + omitLeft);
+      int end = Math.min(upper, row * 360 + omitRight);
+      if (start <= end) {
+        builder.add(start, end);
       }
     }
-    return cells;
+    return builder.build();
   }
 
   /**
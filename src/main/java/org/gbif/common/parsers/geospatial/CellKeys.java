@@ -0,0 +1,259 @@
+package org.gbif.common.parsers.geospatial;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Utilities for hierarchical cell keys, nesting cells from one degree down to 0.001 degree.
+ *
+ * Every level divides a cell of the level above in 10 x 10 children, numbered like the centi cells are in a cell:
+ * 10 * row + column from the south west corner. A key is the level in its high bits and the path to the cell in its
+ * low bits: the one degree cell id followed by the child number at every level, in base 100.
+ * So the key of a one degree cell is its cell id, the key of a centi cell is made of its cell id and centi cell id,
+ * and all the descendants of a cell at a given level form a single range of keys.
+ *
+ * Everything is computed arithmetically, without allocation.
+ */
+public class CellKeys {
+
+  /**
+   * Level of the one degree cells.
+   */
+  public static final int CELL_LEVEL = 0;
+
+  /**
+   * Level of the 0.1 degree centi cells.
+   */
+  public static final int CENTI_CELL_LEVEL = 1;
+
+  /**
+   * Level of the 0.001 degree cells.
+   */
+  public static final int MAX_LEVEL = 3;
+
+  /**
+   * Returned for coordinates that have no cell.
+   */
+  public static final long INVALID_KEY = -1L;
+
+  /**
+   * Fraction of a cell under which a coordinate is considered on the boundary above.
+   */
+  public static final double BOUNDARY_TOLERANCE = 1e-9;
+
+  private static final int LEVEL_SHIFT = 48;
+  private static final long PATH_MASK = (1L << LEVEL_SHIFT) - 1;
+  private static final int CHILDREN = 100;
+
+  // 10 ^ level and 100 ^ level
+  private static final long[] CELLS_PER_DEGREE = {1, 10, 100, 1000};
+  private static final long[] DESCENDANTS = {1, 100, 10000, 1000000};
+
+  private CellKeys() {
+    throw new UnsupportedOperationException("Can't initialize class");
+  }
+
+  /**
+   * Determines the key of the cell at the given level containing the latitude / longitude.
+   * The cells are computed on the grid of the level, the latitude 90 and longitude 180 belong to the last row and
+   * column. A coordinate less than {@link #BOUNDARY_TOLERANCE} cell below a boundary is on the boundary, so a decimal
+   * coordinate like -71.31 is in the cell starting at -71.31 although its closest double is slightly smaller.
+   *
+   * @return the key or {@link #INVALID_KEY} if the latitude or longitude is out of range or NaN
+   */
+  public static long toKey(double latitude, double longitude, int level) {
+    checkLevel(level);
+    if (!(latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180)) {
+      return INVALID_KEY;
+    }
+    long scale = CELLS_PER_DEGREE[level];
+    long row = Math.min(gridIndex((latitude + 90) * scale), 180 * scale - 1);
+    long column = Math.min(gridIndex((longitude + 180) * scale), 360 * scale - 1);
+    return keyOf(row, column, level);
+  }
+
+  /**
+   * @return the index of the grid line at or just below the value, see {@link #BOUNDARY_TOLERANCE}
+   */
+  static long gridIndex(double value) {
+    long index = (long) value;
+    return index + 1 - value < BOUNDARY_TOLERANCE ? index + 1 : index;
+  }
+
+  /**
+   * @return the key of the cell at the given row and column of the grid of the level
+   */
+  private static long keyOf(long row, long column, int level) {
+    long scale = CELLS_PER_DEGREE[level];
+    long path = (row / scale) * 360 + column / scale;
+    for (int i = level - 1; i >= 0; i--) {
+      long digit = CELLS_PER_DEGREE[i];
+      path = path * CHILDREN + ((row / digit) % 10) * 10 + (column / digit) % 10;
+    }
+    return ((long) level << LEVEL_SHIFT) | path;
+  }
+
+  /**
+   * @return the key of the one degree cell, which is the cell id itself
+   */
+  public static long fromCellId(int cellId) {
+    checkCellId(cellId);
+    return cellId;
+  }
+
+  /**
+   * @return the key of the centi cell within the cell
+   */
+  public static long fromCentiCellId(int cellId, int centiCellId) {
+    checkCellId(cellId);
+    if (centiCellId < 0 || centiCellId >= CHILDREN) {
+      throw new IllegalArgumentException("Invalid centi cell id " + centiCellId);
+    }
+    return ((long) CENTI_CELL_LEVEL << LEVEL_SHIFT) | ((long) cellId * CHILDREN + centiCellId);
+  }
+
+  /**
+   * @return the id of the one degree cell containing the cell of the key
+   */
+  public static int toCellId(long key) {
+    return (int) (getPathUnchecked(key) / DESCENDANTS[getLevel(key)]);
+  }
+
+  /**
+   * @return the centi cell id of the centi cell containing the cell of the key, or {@link CellIdUtils#INVALID_CELL_ID}
+   * for a one degree cell
+   */
+  public static int toCentiCellId(long key) {
+    int level = getLevel(key);
+    if (level < CENTI_CELL_LEVEL) {
+      return CellIdUtils.INVALID_CELL_ID;
+    }
+    return (int) ((getPathUnchecked(key) / DESCENDANTS[level - CENTI_CELL_LEVEL]) % CHILDREN);
+  }
+
+  /**
+   * @return the level of the key, from {@link #CELL_LEVEL} to {@link #MAX_LEVEL}
+   */
+  public static int getLevel(long key) {
+    int level = (int) (key >>> LEVEL_SHIFT);
+    // the message is only built for an invalid key, so checking allocates nothing
+    if (level > MAX_LEVEL || key < 0 || getPathUnchecked(key) >= 64800 * DESCENDANTS[level]) {
+      throw new IllegalArgumentException("Invalid cell key " + key);
+    }
+    return level;
+  }
+
+  /**
+   * @return the key of the cell containing this one at the level above
+   */
+  public static long getParent(long key) {
+    int level = getLevel(key);
+    Preconditions.checkArgument(level > CELL_LEVEL, "One degree cells have no parent");
+    return ((long) (level - 1) << LEVEL_SHIFT) | (getPathUnchecked(key) / CHILDREN);
+  }
+
+  /**
+   * @param childNumber 10 * row + column of the child within the cell, from 0 to 99
+   *
+   * @return the key of the child cell at the level below
+   */
+  public static long getChild(long key, int childNumber) {
+    int level = getLevel(key);
+    Preconditions.checkArgument(level < MAX_LEVEL, "Cells of the last level have no children");
+    if (childNumber < 0 || childNumber >= CHILDREN) {
+      throw new IllegalArgumentException("Invalid child number " + childNumber);
+    }
+    return ((long) (level + 1) << LEVEL_SHIFT) | (getPathUnchecked(key) * CHILDREN + childNumber);
+  }
+
+  /**
+   * The descendants of a cell at a level are all the keys from {@link #getFirstDescendant(long, int)} to
+   * {@link #getLastDescendant(long, int)}, so the key itself for its own level.
+   *
+   * @return the first key of the descendants of the cell at the given level
+   */
+  public static long getFirstDescendant(long key, int level) {
+    int keyLevel = getLevel(key);
+    checkDescendantLevel(keyLevel, level);
+    return ((long) level << LEVEL_SHIFT) | (getPathUnchecked(key) * DESCENDANTS[level - keyLevel]);
+  }
+
+  /**
+   * @return the last key (inclusive) of the descendants of the cell at the given level
+   */
+  public static long getLastDescendant(long key, int level) {
+    int keyLevel = getLevel(key);
+    checkDescendantLevel(keyLevel, level);
+    return ((long) level << LEVEL_SHIFT) | ((getPathUnchecked(key) + 1) * DESCENDANTS[level - keyLevel] - 1);
+  }
+
+  /**
+   * @return true if the cell of the key is the other cell or one of its descendants
+   */
+  public static boolean isWithin(long key, long ancestorKey) {
+    int level = getLevel(key);
+    int ancestorLevel = getLevel(ancestorKey);
+    return level >= ancestorLevel
+           && getPathUnchecked(key) / DESCENDANTS[level - ancestorLevel] == getPathUnchecked(ancestorKey);
+  }
+
+  /**
+   * Sets the bounds of the cell of the key into the given box, which can be reused from one call to the next.
+   *
+   * @return the given box
+   */
+  public static LatLngBoundingBox toBoundingBox(long key, LatLngBoundingBox box) {
+    int level = getLevel(key);
+    long path = getPathUnchecked(key);
+    long row = 0;
+    long column = 0;
+    for (int i = 0; i < level; i++) {
+      long digit = path % CHILDREN;
+      row += (digit / 10) * CELLS_PER_DEGREE[i];
+      column += (digit % 10) * CELLS_PER_DEGREE[i];
+      path /= CHILDREN;
+    }
+    long scale = CELLS_PER_DEGREE[level];
+    row += (path / 360) * scale;
+    column += (path % 360) * scale;
+
+    // dividing the integers keeps the bounds as close as possible to the decimal values
+    double degrees = scale;
+    long south = row - 90 * scale;
+    long west = column - 180 * scale;
+    box.setMinLat(south / degrees);
+    box.setMaxLat((south + 1) / degrees);
+    box.setMinLong(west / degrees);
+    box.setMaxLong((west + 1) / degrees);
+    return box;
+  }
+
+  /**
+   * @return a new box with the bounds of the cell of the key
+   */
+  public static LatLngBoundingBox toBoundingBox(long key) {
+    return toBoundingBox(key, new LatLngBoundingBox(0, 0, 0, 0));
+  }
+
+  private static long getPathUnchecked(long key) {
+    return key & PATH_MASK;
+  }
+
+  private static void checkLevel(int level) {
+    if (level < CELL_LEVEL || level > MAX_LEVEL) {
+      throw new IllegalArgumentException("Invalid level " + level);
+    }
+  }
+
+  private static void checkDescendantLevel(int keyLevel, int level) {
+    checkLevel(level);
+    if (level < keyLevel) {
+      throw new IllegalArgumentException("Level " + level + " is above the level " + keyLevel + " of the key");
+    }
+  }
+
+  private static void checkCellId(int cellId) {
+    if (cellId < 0 || cellId >= CellRanges.NUMBER_OF_CELLS) {
+      throw new IllegalArgumentException("Invalid cell id " + cellId);
+    }
+  }
+}
@@ -0,0 +1,273 @@
+package org.gbif.common.parsers.geospatial;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * An immutable set of cells of a regular lat/lng grid, encoded as sorted contiguous [start, end] ranges of cell ids.
+ * A range never spans two latitude rows, so every range can be used as it is in a range query on the cell id.
+ * For the one degree grid of {@link CellIdUtils} the rows are 360 cells long and there are 180 of them.
+ *
+ * The set can also be viewed as a {@link BitSet} of all the cells of the grid to run set operations.
+ *
+ * Thread-Safe, immutable class.
+ */
+public class CellRanges {
+
+  /**
+   * Number of cells in a row of the one degree grid.
+   */
+  public static final int CELLS_PER_ROW = 360;
+
+  /**
+   * Number of cells of the one degree grid.
+   */
+  public static final int NUMBER_OF_CELLS = CELLS_PER_ROW * 180;
+
+  /**
+   * Number of centi cells in a row of the 0.1 degree grid, see {@link CellIdUtils#toCentiCellIndex(int, int)}.
+   */
+  public static final int CENTI_CELLS_PER_ROW = 3600;
+
+  /**
+   * Number of centi cells of the 0.1 degree grid.
+   */
+  public static final int NUMBER_OF_CENTI_CELLS = CENTI_CELLS_PER_ROW * 1800;
+
+  private final int rowLength;
+  private final int gridSize;
+  // start and end (inclusive) of each range, one after the other
+  private final int[] bounds;
+  private final int rangeCount;
+
+  private CellRanges(int rowLength, int gridSize, int[] bounds, int rangeCount) {
+    this.rowLength = rowLength;
+    this.gridSize = gridSize;
+    this.bounds = bounds;
+    this.rangeCount = rangeCount;
+  }
+
+  /**
+   * @return an empty set of one degree cells
+   */
+  public static CellRanges empty() {
+    return new Builder(CELLS_PER_ROW, NUMBER_OF_CELLS).build();
+  }
+
+  /**
+   * Builds the ranges of the one degree cells set in the bitset.
+   */
+  public static CellRanges fromBitSet(BitSet cells) {
+    return fromBitSet(cells, CELLS_PER_ROW, NUMBER_OF_CELLS);
+  }
+
+  /**
+   * Builds the ranges of the centi cell indexes set in the bitset.
+   */
+  public static CellRanges fromCentiCellBitSet(BitSet centiCells) {
+    return fromBitSet(centiCells, CENTI_CELLS_PER_ROW, NUMBER_OF_CENTI_CELLS);
+  }
+
+  static CellRanges fromBitSet(BitSet cells, int rowLength, int gridSize) {
+    Builder builder = new Builder(rowLength, gridSize);
+    int start = cells.nextSetBit(0);
+    while (start >= 0 && start < gridSize) {
+      int end = Math.min(cells.nextClearBit(start), gridSize) - 1;
+      builder.add(start, end);
+      start = cells.nextSetBit(end + 1);
+    }
+    return builder.build();
+  }
+
+  /**
+   * @return the number of ranges
+   */
+  public int getRangeCount() {
+    return rangeCount;
+  }
+
+  /**
+   * @return the first cell id of the range at the given index
+   */
+  public int getStart(int index) {
+    Preconditions.checkElementIndex(index, rangeCount);
+    return bounds[2 * index];
+  }
+
+  /**
+   * @return the last cell id (inclusive) of the range at the given index
+   */
+  public int getEnd(int index) {
+    Preconditions.checkElementIndex(index, rangeCount);
+    return bounds[2 * index + 1];
+  }
+
+  /**
+   * @return the latitude row of the range at the given index
+   */
+  public int getRow(int index) {
+    return getStart(index) / rowLength;
+  }
+
+  /**
+   * @return the number of cells in a row of the grid
+   */
+  public int getRowLength() {
+    return rowLength;
+  }
+
+  /**
+   * @return the total number of cells in the set
+   */
+  public int getCellCount() {
+    int count = 0;
+    for (int i = 0; i < rangeCount; i++) {
+      count += bounds[2 * i + 1] - bounds[2 * i] + 1;
+    }
+    return count;
+  }
+
+  public boolean isEmpty() {
+    return rangeCount == 0;
+  }
+
+  /**
+   * @return true if the cell is in one of the ranges
+   */
+  public boolean contains(int cellId) {
+    int low = 0;
+    int high = rangeCount - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (cellId < bounds[2 * mid]) {
+        high = mid - 1;
+      } else if (cellId > bounds[2 * mid + 1]) {
+        low = mid + 1;
+      } else {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return a new bitset over all the cells of the grid with the cells of this set
+   */
+  public BitSet toBitSet() {
+    BitSet cells = new BitSet(gridSize);
+    for (int i = 0; i < rangeCount; i++) {
+      cells.set(bounds[2 * i], bounds[2 * i + 1] + 1);
+    }
+    return cells;
+  }
+
+  /**
+   * @return the cells in this set or the other one
+   */
+  public CellRanges union(CellRanges other) {
+    checkSameGrid(other);
+    BitSet cells = toBitSet();
+    cells.or(other.toBitSet());
+    return fromBitSet(cells, rowLength, gridSize);
+  }
+
+  /**
+   * @return the cells in both this set and the other one
+   */
+  public CellRanges intersection(CellRanges other) {
+    checkSameGrid(other);
+    BitSet cells = toBitSet();
+    cells.and(other.toBitSet());
+    return fromBitSet(cells, rowLength, gridSize);
+  }
+
+  /**
+   * @return the cells in this set that are not in the other one
+   */
+  public CellRanges difference(CellRanges other) {
+    checkSameGrid(other);
+    BitSet cells = toBitSet();
+    cells.andNot(other.toBitSet());
+    return fromBitSet(cells, rowLength, gridSize);
+  }
+
+  private void checkSameGrid(CellRanges other) {
+    Preconditions.checkArgument(rowLength == other.rowLength && gridSize == other.gridSize,
+                                "Cell ranges of different grids");
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * (31 * rowLength + gridSize) + Arrays.hashCode(bounds);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof CellRanges)) {
+      return false;
+    }
+
+    CellRanges that = (CellRanges) obj;
+    return rowLength == that.rowLength && gridSize == that.gridSize && Arrays.equals(bounds, that.bounds);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("CellRanges[");
+    for (int i = 0; i < rangeCount; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append(bounds[2 * i]).append('-').append(bounds[2 * i + 1]);
+    }
+    return sb.append(']').toString();
+  }
+
+  /**
+   * Collects ranges in increasing order, merging the ranges that touch within a row.
+   */
+  static class Builder {
+    private final int rowLength;
+    private final int gridSize;
+    private int[] bounds = new int[16];
+    private int rangeCount;
+
+    Builder(int rowLength, int gridSize) {
+      this.rowLength = rowLength;
+      this.gridSize = gridSize;
+    }
+
+    /**
+     * Adds the cells from start to end (inclusive), after all the cells already added.
+     * A range crossing rows is split at the end of each row.
+     */
+    Builder add(int start, int end) {
+      Preconditions.checkArgument(start >= 0 && start <= end && end < gridSize, "Invalid range %s-%s", start, end);
+      Preconditions.checkArgument(rangeCount == 0 || start > bounds[2 * rangeCount - 1], "Ranges must be increasing");
+      while (start <= end) {
+        int rowEnd = Math.min(end, (start / rowLength + 1) * rowLength - 1);
+        if (rangeCount > 0 && bounds[2 * rangeCount - 1] == start - 1 && start % rowLength != 0) {
+          bounds[2 * rangeCount - 1] = rowEnd;
+        } else {
+          if (2 * rangeCount == bounds.length) {
+            bounds = Arrays.copyOf(bounds, 2 * bounds.length);
+          }
+          bounds[2 * rangeCount] = start;
+          bounds[2 * rangeCount + 1] = rowEnd;
+          rangeCount++;
+        }
+        start = rowEnd + 1;
+      }
+      return this;
+    }
+
+    CellRanges build() {
+      return new CellRanges(rowLength, gridSize, Arrays.copyOf(bounds, 2 * rangeCount), rangeCount);
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package org.gbif.common.parsers.geospatial;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Counts occurrences per cell from several threads. Every thread counts into its own {@link CellDensity}, without
+ * contention, and the densities of all the threads are merged at the end by {@link #merge()}.
+ *
+ * Thread-Safe, but {@link #merge()} only sees the counts of the threads that are done counting, for example once
+ * the executor running them is terminated.
+ */
+public class ConcurrentCellDensity {
+
+  private final List<CellDensity> densities = new CopyOnWriteArrayList<CellDensity>();
+
+  private final ThreadLocal<CellDensity> density = new ThreadLocal<CellDensity>() {
+    @Override
+    protected CellDensity initialValue() {
+      CellDensity threadDensity = new CellDensity();
+      densities.add(threadDensity);
+      return threadDensity;
+    }
+  };
+
+  /**
+   * @see CellDensity#add(double, double)
+   */
+  public boolean add(double latitude, double longitude) {
+    return density.get().add(latitude, longitude, 1);
+  }
+
+  /**
+   * @see CellDensity#add(double, double, long)
+   */
+  public boolean add(double latitude, double longitude, long count) {
+    return density.get().add(latitude, longitude, count);
+  }
+
+  /**
+   * @see CellDensity#addAll(double[], double[])
+   */
+  public int addAll(double[] latitudes, double[] longitudes) {
+    return density.get().addAll(latitudes, longitudes);
+  }
+
+  /**
+   * @return a new density with the counts of all the threads
+   */
+  public CellDensity merge() {
+    CellDensity merged = new CellDensity();
+    for (CellDensity threadDensity : densities) {
+      merged.merge(threadDensity);
+    }
+    return merged;
+  }
+}
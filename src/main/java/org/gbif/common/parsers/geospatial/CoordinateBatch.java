@@ -0,0 +1,84 @@
+package org.gbif.common.parsers.geospatial;
+
+import org.gbif.api.vocabulary.OccurrenceIssue;
+import org.gbif.common.parsers.core.OccurrenceIssueSet;
+import org.gbif.common.parsers.core.OccurrenceParseResult;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Columnar results of interpreting a batch of coordinates, see
+ * {@link CoordinateParseUtils#parseLatLng(String[], String[])} and
+ * {@link CoordinateParseUtils#parseVerbatimCoordinates(String[])}.
+ *
+ * Every row has the same content as the {@link OccurrenceParseResult} of the single coordinate parsing:
+ * <ul>
+ *   <li>a status, {@link #SUCCESS} or {@link #FAIL}</li>
+ *   <li>the latitude and longitude of the payload, NaN if there is no payload</li>
+ *   <li>the issues as a bitmask, see {@link OccurrenceIssueSet#getBits()}</li>
+ * </ul>
+ * The confidence of a success is POSSIBLE for a {@link OccurrenceIssue#ZERO_COORDINATE}, DEFINITE otherwise.
+ *
+ * The columns are exposed as arrays to be read without copy. Not Thread-Safe, but the rows of distinct ranges can be
+ * written by distinct threads.
+ */
+public class CoordinateBatch {
+
+  public static final byte SUCCESS = 0;
+  public static final byte FAIL = 1;
+
+  final double[] latitudes;
+  final double[] longitudes;
+  final byte[] statuses;
+  final long[] issues;
+
+  public CoordinateBatch(int size) {
+    Preconditions.checkArgument(size >= 0, "Negative size %s", size);
+    latitudes = new double[size];
+    longitudes = new double[size];
+    statuses = new byte[size];
+    issues = new long[size];
+  }
+
+  public int size() {
+    return statuses.length;
+  }
+
+  public double[] getLatitudes() {
+    return latitudes;
+  }
+
+  public double[] getLongitudes() {
+    return longitudes;
+  }
+
+  public byte[] getStatuses() {
+    return statuses;
+  }
+
+  public long[] getIssues() {
+    return issues;
+  }
+
+  /**
+   * @return the issues of the row
+   */
+  public OccurrenceIssueSet getIssues(int row) {
+    return OccurrenceIssueSet.fromBits(issues[row]);
+  }
+
+  /**
+   * @return true if the row has the issue
+   */
+  public boolean hasIssue(int row, OccurrenceIssue issue) {
+    return (issues[row] & OccurrenceIssueSet.bit(issue)) != 0;
+  }
+
+  /**
+   * @return the parse result of the row, as returned by the single coordinate parsing
+   */
+  public OccurrenceParseResult<LatLng> toResult(int row) {
+    Preconditions.checkElementIndex(row, size(), "row");
+    return CoordinateParseUtils.toResult(latitudes[row], longitudes[row], issues[row]);
+  }
+}
@@ -1,18 +1,14 @@
 package org.gbif.common.parsers.geospatial;
 
 import org.gbif.api.vocabulary.OccurrenceIssue;
+import org.gbif.common.parsers.core.OccurrenceIssueSet;
 import org.gbif.common.parsers.core.OccurrenceParseResult;
+import org.gbif.common.parsers.core.ParallelChunks;
 import org.gbif.common.parsers.core.ParseResult;
-import org.gbif.common.parsers.NumberParser;
-
-import java.util.EnumSet;
-import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
-import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,21 +16,22 @@ import org.slf4j.LoggerFactory;
  * Utilities for assisting in the parsing of latitude and longitude strings into Decimals.
  */
 public class CoordinateParseUtils {
-  private final static String DMS = "\\s*(\\d{1,3})\\s*[°d ]"
-                                  + "\\s*([0-6]?\\d)\\s*['m ]"
-                                  + "\\s*(?:"
-                                    + "([0-6]?\\d(?:[,.]\\d+)?)"
-                                    + "\\s*(?:\"|''|s)?"
-                                  + ")?\\s*";
-  private final static Pattern DMS_SINGLE = Pattern.compile("^" + DMS + "$", Pattern.CASE_INSENSITIVE);
-  private final static Pattern DMS_COORD = Pattern.compile("^" + DMS + "([NSEOW])" + "[ ,;/]?" + DMS + "([NSEOW])$", Pattern.CASE_INSENSITIVE);
-  private final static String POSITIVE = "NEO";
   private CoordinateParseUtils() {
     throw new UnsupportedOperationException("Can't initialize class");
   }
 
   private static final Logger LOG = LoggerFactory.getLogger(CoordinateParseUtils.class);
 
+  private static final long ZERO_COORDINATE = OccurrenceIssueSet.bit(OccurrenceIssue.ZERO_COORDINATE);
+  private static final long COORDINATE_ROUNDED = OccurrenceIssueSet.bit(OccurrenceIssue.COORDINATE_ROUNDED);
+  private static final long COORDINATE_INVALID = OccurrenceIssueSet.bit(OccurrenceIssue.COORDINATE_INVALID);
+  private static final long COORDINATE_OUT_OF_RANGE = OccurrenceIssueSet.bit(OccurrenceIssue.COORDINATE_OUT_OF_RANGE);
+  private static final long PRESUMED_SWAPPED_COORDINATE =
+    OccurrenceIssueSet.bit(OccurrenceIssue.PRESUMED_SWAPPED_COORDINATE);
+
+  // rows of a batch interpreted by one thread at a time
+  private static final int CHUNK_SIZE = 4096;
+
   /**
    * This parses string representations of latitude and longitude values. It tries its best to interpret the values and
    * indicates any problems in its result as {@link org.gbif.api.vocabulary.OccurrenceIssue}.
@@ -58,22 +55,75 @@ public class CoordinateParseUtils {
    * @return The parse result
    */
   public static OccurrenceParseResult<LatLng> parseLatLng(final String latitude, final String longitude) {
+    CoordinateScanner scanner = new CoordinateScanner();
+    long issues = interpretLatLng(latitude, longitude, scanner);
+    return toResult(scanner.latitude, scanner.longitude, issues);
+  }
+
+  /**
+   * Parses columns of latitudes and longitudes like {@link #parseLatLng(String, String)} does for every row, in
+   * parallel chunks, without creating any object per row.
+   *
+   * @param latitudes  The decimal latitudes
+   * @param longitudes The decimal longitudes, as many as latitudes
+   *
+   * @return The results of all the rows
+   */
+  public static CoordinateBatch parseLatLng(final String[] latitudes, final String[] longitudes) {
+    Preconditions.checkArgument(latitudes.length == longitudes.length, "Latitudes and longitudes of different lengths");
+    final CoordinateBatch batch = new CoordinateBatch(latitudes.length);
+    ParallelChunks.process(batch.size(), CHUNK_SIZE, new ParallelChunks.Processor() {
+      @Override
+      public void process(int from, int to) {
+        parseLatLng(latitudes, longitudes, batch, from, to);
+      }
+    });
+    return batch;
+  }
+
+  /**
+   * Parses the rows from to to of columns of latitudes and longitudes into the same rows of the batch. Distinct ranges
+   * of the same batch can be parsed concurrently.
+   *
+   * @param from first row to parse
+   * @param to   end of the rows to parse, exclusive
+   */
+  public static void parseLatLng(String[] latitudes, String[] longitudes, CoordinateBatch batch, int from, int to) {
+    checkRows(from, to, batch, latitudes.length, longitudes.length);
+    CoordinateScanner scanner = new CoordinateScanner();
+    for (int row = from; row < to; row++) {
+      long issues = interpretLatLng(latitudes[row], longitudes[row], scanner);
+      write(batch, row, scanner, issues);
+    }
+  }
+
+  /**
+   * Interprets a latitude and longitude, leaving the rounded coordinate in the scanner.
+   *
+   * @return the issues as a bitmask
+   */
+  private static long interpretLatLng(String latitude, String longitude, CoordinateScanner scanner) {
+    scanner.latitude = Double.NaN;
+    scanner.longitude = Double.NaN;
     if (Strings.isNullOrEmpty(latitude) || Strings.isNullOrEmpty(longitude)) {
-      return OccurrenceParseResult.fail();
-    }
-    Double lat = NumberParser.parseDouble(latitude);
-    Double lng = NumberParser.parseDouble(longitude);
-    if (lat == null || lng == null) {
-      // try degree minute seconds
-      try {
-        lat = parseDMS(latitude, true);
-        lng = parseDMS(longitude, false);
-      } catch (IllegalArgumentException e) {
-        return OccurrenceParseResult.fail(OccurrenceIssue.COORDINATE_INVALID);
+      return 0;
+    }
+    if (scanner.scanNumber(latitude)) {
+      double lat = scanner.value;
+      if (scanner.scanNumber(longitude)) {
+        return validateAndRound(lat, scanner.value, scanner);
       }
     }
 
-    return validateAndRound(lat, lng);
+    // try degree minute seconds
+    if (!scanner.scanDms(latitude, true)) {
+      return COORDINATE_INVALID;
+    }
+    double lat = scanner.value;
+    if (!scanner.scanDms(longitude, false)) {
+      return COORDINATE_INVALID;
+    }
+    return validateAndRound(lat, scanner.value, scanner);
   }
 
   private static boolean inRange(double lat, double lon) {
@@ -83,56 +133,115 @@ public class CoordinateParseUtils {
     return false;
   }
 
-  private static boolean isLat(String direction) {
-    if ("NS".contains(direction.toUpperCase())) {
-      return true;
-    }
-    return false;
-  }
-
-  private static int coordSign(String direction) {
-    return POSITIVE.contains(direction.toUpperCase()) ? 1 : -1;
+  private static boolean isLat(char hemisphere) {
+    return hemisphere == 'N' || hemisphere == 'S';
   }
 
   // 02° 49' 52" N	131° 47' 03" E
   public static OccurrenceParseResult<LatLng> parseVerbatimCoordinates(final String coordinates) {
+    CoordinateScanner scanner = new CoordinateScanner();
+    long issues = interpretVerbatimCoordinates(coordinates, scanner);
+    return toResult(scanner.latitude, scanner.longitude, issues);
+  }
+
+  /**
+   * Parses a column of verbatim coordinates like {@link #parseVerbatimCoordinates(String)} does for every row, in
+   * parallel chunks, without creating any object per row.
+   *
+   * @return The results of all the rows
+   */
+  public static CoordinateBatch parseVerbatimCoordinates(final String[] coordinates) {
+    final CoordinateBatch batch = new CoordinateBatch(coordinates.length);
+    ParallelChunks.process(batch.size(), CHUNK_SIZE, new ParallelChunks.Processor() {
+      @Override
+      public void process(int from, int to) {
+        parseVerbatimCoordinates(coordinates, batch, from, to);
+      }
+    });
+    return batch;
+  }
+
+  /**
+   * Parses the rows from to to of a column of verbatim coordinates into the same rows of the batch. Distinct ranges
+   * of the same batch can be parsed concurrently.
+   *
+   * @param from first row to parse
+   * @param to   end of the rows to parse, exclusive
+   */
+  public static void parseVerbatimCoordinates(String[] coordinates, CoordinateBatch batch, int from, int to) {
+    checkRows(from, to, batch, coordinates.length, coordinates.length);
+    CoordinateScanner scanner = new CoordinateScanner();
+    for (int row = from; row < to; row++) {
+      long issues = interpretVerbatimCoordinates(coordinates[row], scanner);
+      write(batch, row, scanner, issues);
+    }
+  }
+
+  /**
+   * Interprets verbatim coordinates, leaving the rounded coordinate in the scanner.
+   *
+   * @return the issues as a bitmask
+   */
+  private static long interpretVerbatimCoordinates(String coordinates, CoordinateScanner scanner) {
+    scanner.latitude = Double.NaN;
+    scanner.longitude = Double.NaN;
     if (Strings.isNullOrEmpty(coordinates)) {
-      return OccurrenceParseResult.fail();
-    }
-    Matcher m = DMS_COORD.matcher(coordinates);
-    if (m.find()) {
-      final String dir1 = m.group(4);
-      final String dir2 = m.group(8);
-      // first parse coords regardless whether they are lat or lon
-      double c1 = coordFromMatcher(m, 1,2,3, dir1);
-      double c2 = coordFromMatcher(m, 5,6,7, dir2);
-      // now see what order the coords are in:
-      if (isLat(dir1) && !isLat(dir2)) {
-        return validateAndRound(c1, c2);
-
-      } else if (!isLat(dir1) && isLat(dir2)) {
-        return validateAndRound(c2, c1);
+      return 0;
+    }
+    if (scanner.scanDmsPair(coordinates)) {
+      // the coords were parsed regardless whether they are lat or lon, now see what order they are in:
+      if (isLat(scanner.firstHemisphere) && !isLat(scanner.secondHemisphere)) {
+        return validateAndRound(scanner.first, scanner.second, scanner);
+
+      } else if (!isLat(scanner.firstHemisphere) && isLat(scanner.secondHemisphere)) {
+        return validateAndRound(scanner.second, scanner.first, scanner);
 
       } else {
-        return OccurrenceParseResult.fail(OccurrenceIssue.COORDINATE_INVALID);
+        return COORDINATE_INVALID;
       }
 
     } else if(coordinates.length() > 4) {
-      // try to split and then use lat/lon parsing
-      for (final char delim : ",;/ ".toCharArray()) {
-        int cnt = StringUtils.countMatches(coordinates, String.valueOf(delim));
-        if (cnt == 1) {
-          String[] latlon = StringUtils.split(coordinates, delim);
-          return parseLatLng(latlon[0], latlon[1]);
-        }
+      // try to split on the first delimiter found only once and then use lat/lon parsing
+      int split = findSingleDelimiter(coordinates);
+      if (split > 0 && split < coordinates.length() - 1) {
+        return interpretLatLng(coordinates.substring(0, split), coordinates.substring(split + 1), scanner);
       }
     }
-    return OccurrenceParseResult.fail(OccurrenceIssue.COORDINATE_INVALID);
+    return COORDINATE_INVALID;
   }
 
-  private static OccurrenceParseResult<LatLng> validateAndRound(double lat, double lon) {
+  /**
+   * Counts the delimiters in one pass.
+   *
+   * @return the position of the first delimiter in the order , ; / and space that occurs exactly once, or -1
+   */
+  private static int findSingleDelimiter(String coordinates) {
+    final String delimiters = ",;/ ";
+    int[] counts = new int[delimiters.length()];
+    int[] positions = new int[delimiters.length()];
+    for (int i = 0; i < coordinates.length(); i++) {
+      int d = delimiters.indexOf(coordinates.charAt(i));
+      if (d >= 0) {
+        counts[d]++;
+        positions[d] = i;
+      }
+    }
+    for (int d = 0; d < delimiters.length(); d++) {
+      if (counts[d] == 1) {
+        return positions[d];
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Rounds and validates a coordinate, leaving the rounded coordinate in the scanner unless it is out of range.
+   *
+   * @return the issues as a bitmask
+   */
+  private static long validateAndRound(double lat, double lon, CoordinateScanner scanner) {
     // collecting issues for result
-    Set<OccurrenceIssue> issues = EnumSet.noneOf(OccurrenceIssue.class);
+    long issues = 0;
 
     // round to 6 decimals
     final double latOrig = lat;
@@ -140,18 +249,21 @@ public class CoordinateParseUtils {
     lat = roundTo6decimals(lat);
     lon = roundTo6decimals(lon);
     if (Double.compare(lat, latOrig) != 0 || Double.compare(lon, lngOrig) != 0) {
-      issues.add(OccurrenceIssue.COORDINATE_ROUNDED);
+      issues |= COORDINATE_ROUNDED;
     }
 
     // 0,0 is too suspicious
     if (Double.compare(lat, 0) == 0 && Double.compare(lon, 0) == 0) {
-      issues.add(OccurrenceIssue.ZERO_COORDINATE);
-      return OccurrenceParseResult.success(ParseResult.CONFIDENCE.POSSIBLE, new LatLng(0, 0), issues);
+      scanner.latitude = 0;
+      scanner.longitude = 0;
+      return issues | ZERO_COORDINATE;
     }
 
     // if everything falls in range
     if (inRange(lat, lon)) {
-      return OccurrenceParseResult.success(ParseResult.CONFIDENCE.DEFINITE, new LatLng(lat, lon), issues);
+      scanner.latitude = lat;
+      scanner.longitude = lon;
+      return issues;
     }
 
     // if lat is out of range, but in range of the lng,
@@ -162,15 +274,47 @@ public class CoordinateParseUtils {
     if (Double.compare(lat, 90) > 0 || Double.compare(lat, -90) < 0) {
       // try and swap
       if (inRange(lon, lat)) {
-        issues.add(OccurrenceIssue.PRESUMED_SWAPPED_COORDINATE);
-        return OccurrenceParseResult.fail(new LatLng(lat, lon), issues);
+        scanner.latitude = lat;
+        scanner.longitude = lon;
+        return issues | PRESUMED_SWAPPED_COORDINATE;
       }
     }
 
     // then something is out of range
-    issues.add(OccurrenceIssue.COORDINATE_OUT_OF_RANGE);
-    return OccurrenceParseResult.fail(issues);
+    return issues | COORDINATE_OUT_OF_RANGE;
+  }
 
+  /**
+   * A coordinate is only a success if it has a payload which is not presumed swapped.
+   */
+  private static boolean isSuccess(double lat, long issues) {
+    return !Double.isNaN(lat) && (issues & PRESUMED_SWAPPED_COORDINATE) == 0;
+  }
+
+  /**
+   * @return the parse result of an interpreted coordinate, NaN if there is no payload
+   */
+  static OccurrenceParseResult<LatLng> toResult(double lat, double lon, long issues) {
+    OccurrenceIssueSet issueSet = OccurrenceIssueSet.fromBits(issues);
+    if (isSuccess(lat, issues)) {
+      ParseResult.CONFIDENCE confidence =
+        (issues & ZERO_COORDINATE) == 0 ? ParseResult.CONFIDENCE.DEFINITE : ParseResult.CONFIDENCE.POSSIBLE;
+      return OccurrenceParseResult.success(confidence, new LatLng(lat, lon), issueSet);
+    }
+    return Double.isNaN(lat) ? OccurrenceParseResult.<LatLng>fail(issueSet)
+                             : OccurrenceParseResult.fail(new LatLng(lat, lon), issueSet);
+  }
+
+  private static void write(CoordinateBatch batch, int row, CoordinateScanner scanner, long issues) {
+    batch.latitudes[row] = scanner.latitude;
+    batch.longitudes[row] = scanner.longitude;
+    batch.statuses[row] = isSuccess(scanner.latitude, issues) ? CoordinateBatch.SUCCESS : CoordinateBatch.FAIL;
+    batch.issues[row] = issues;
+  }
+
+  private static void checkRows(int from, int to, CoordinateBatch batch, int columnLength, int otherColumnLength) {
+    Preconditions.checkPositionIndexes(from, to, batch.size());
+    Preconditions.checkArgument(to <= columnLength && to <= otherColumnLength, "Columns shorter than %s rows", to);
   }
 
   /**
@@ -181,40 +325,15 @@ public class CoordinateParseUtils {
    */
   @VisibleForTesting
   protected static double parseDMS(String coord, boolean lat) {
-    final String DIRS = lat ? "NS" : "EOW";
-    coord = coord.trim().toUpperCase();
-
-    if (coord.length() > 3) {
-      // preparse the direction and remove it from the string to avoid a very complex regex
-      char dir = 'n';
-      if (DIRS.contains(String.valueOf(coord.charAt(0)))) {
-        dir = coord.charAt(0);
-        coord = coord.substring(1);
-      } else if (DIRS.contains(String.valueOf(coord.charAt(coord.length()-1)))) {
-        dir = coord.charAt(coord.length()-1);
-        coord = coord.substring(0, coord.length()-1);
-      }
-      // without the direction chuck it at the regex
-      Matcher m = DMS_SINGLE.matcher(coord);
-      if (m.find()) {
-        return coordFromMatcher(m, 1,2,3, String.valueOf(dir));
-      }
+    CoordinateScanner scanner = new CoordinateScanner();
+    if (scanner.scanDms(coord, lat)) {
+      return scanner.value;
     }
     throw new IllegalArgumentException();
   }
 
-  private static double coordFromMatcher(Matcher m, int idx1, int idx2, int idx3, String sign) {
-    return roundTo6decimals(coordSign(sign) *
-        dmsToDecimal( NumberParser.parseDouble(m.group(idx1)), NumberParser.parseDouble(m.group(idx2)), NumberParser.parseDouble(m.group(idx3)) ));
-  }
-  private static double dmsToDecimal(double degree, Double minutes, Double seconds) {
-    minutes = minutes == null ? 0 : minutes;
-    seconds = seconds == null ? 0 : seconds;
-    return degree + (minutes / 60) + (seconds / 3600);
-  }
-
   // round to 6 decimals (~1m precision) since no way we're getting anything legitimately more precise
-  private static Double roundTo6decimals(Double x) {
-    return x == null ? null : Math.round(x * Math.pow(10, 6)) / Math.pow(10, 6);
+  static double roundTo6decimals(double x) {
+    return Math.round(x * Math.pow(10, 6)) / Math.pow(10, 6);
   }
 }
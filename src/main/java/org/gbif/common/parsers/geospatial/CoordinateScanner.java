@@ -0,0 +1,421 @@
+package org.gbif.common.parsers.geospatial;
+
+import org.gbif.common.parsers.NumberParser;
+
+/**
+ * Hand written scanner for the coordinates read by {@link CoordinateParseUtils}: decimal numbers, single degree
+ * minute second (DMS) values such as 43°38'19.39"N or 43d 38m 19.39s and verbatim coordinates made of two DMS values
+ * with their hemisphere such as 02° 49' 52" N 131° 47' 03" E.
+ *
+ * The input is read once from left to right, without regular expression or exception. The only lookahead is for a
+ * trailing s, which is the unit of the seconds or the southern hemisphere.
+ * A DMS value is degrees on 1 to 3 digits, a separator (° or d), minutes on 1 or 2 digits, a separator (' or m) and
+ * optional seconds with decimals and a unit (", '' or s). A space can stand for any separator.
+ *
+ * The scanner keeps the result of the last successful scan in its fields, an instance can be reused but is not
+ * Thread-Safe.
+ */
+class CoordinateScanner {
+
+  // number of digits whose value and power of ten are exact doubles, so the quotient is correctly rounded
+  private static final int MAX_EXACT_DIGITS = 15;
+  private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12,
+    1e13, 1e14, 1e15};
+
+  private static final int NO_MATCH = -1;
+
+  /**
+   * Value of the last number or DMS value scanned.
+   */
+  double value;
+
+  /**
+   * Values and hemispheres of the last verbatim coordinates scanned, in their order of appearance.
+   */
+  double first;
+  double second;
+  char firstHemisphere;
+  char secondHemisphere;
+
+  /**
+   * Rounded latitude and longitude of the last coordinate interpreted by {@link CoordinateParseUtils}, NaN if none.
+   */
+  double latitude;
+  double longitude;
+
+  // degrees, minutes and seconds of the last DMS value
+  private double degrees;
+  private double minutes;
+  private double seconds;
+  // where the unit of the seconds starts, or NO_MATCH, and where the value ends without the unit
+  private int unitStart;
+  private int endWithoutUnit;
+
+  /**
+   * Scans a decimal number, accepting the same inputs as {@link NumberParser#parseDouble(String)}.
+   * Plain decimals with a dot or a comma are read directly, the other inputs that may be numbers (exponents, grouping
+   * separators, etc.) are given to the NumberParser.
+   *
+   * @return true if the input is a number, its value is in {@link #value}
+   */
+  boolean scanNumber(String input) {
+    return input != null && scanNumber(input, 0, input.length());
+  }
+
+  /**
+   * Scans a decimal number within the input, like {@link #scanNumber(String)} does for the whole input.
+   *
+   * @param from first character of the number
+   * @param to   end of the number, exclusive
+   */
+  boolean scanNumber(String input, int from, int to) {
+    int start = from;
+    int end = to;
+    // same trimming as String.trim()
+    while (start < end && input.charAt(start) <= ' ') {
+      start++;
+    }
+    while (end > start && input.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    if (start == end) {
+      return false;
+    }
+
+    int i = start;
+    char sign = input.charAt(i);
+    if (sign == '-' || sign == '+') {
+      i++;
+    }
+    int decimalSeparator = NO_MATCH;
+    long mantissa = 0;
+    int digits = 0;
+    int fractionDigits = 0;
+    boolean plain = i < end;
+    for (; i < end && plain; i++) {
+      char c = input.charAt(i);
+      if (c >= '0' && c <= '9') {
+        mantissa = mantissa * 10 + (c - '0');
+        digits++;
+        if (decimalSeparator != NO_MATCH) {
+          fractionDigits++;
+        }
+      } else if ((c == '.' || c == ',') && decimalSeparator == NO_MATCH && digits > 0) {
+        decimalSeparator = c;
+      } else {
+        plain = false;
+      }
+    }
+    // the German format used for commas knows no plus sign
+    plain = plain && digits <= MAX_EXACT_DIGITS && (decimalSeparator == NO_MATCH || fractionDigits > 0)
+            && !(sign == '+' && decimalSeparator == ',');
+    if (plain) {
+      double abs = mantissa / POWERS_OF_TEN[fractionDigits];
+      value = sign == '-' ? -abs : abs;
+      return true;
+    }
+
+    if (mayBeNumber(input, start, end)) {
+      String number = from == 0 && to == input.length() ? input : input.substring(from, to);
+      Double parsed = NumberParser.parseDouble(number);
+      if (parsed != null) {
+        value = parsed;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Rules out the inputs that can't be a number for Double.parseDouble or a German DecimalFormat before trying them,
+   * as failing to parse them costs an exception.
+   */
+  private static boolean mayBeNumber(String input, int start, int end) {
+    int nan = input.indexOf("NaN", start);
+    int infinity = input.indexOf("Infinity", start);
+    if (nan >= 0 && nan + 3 <= end || infinity >= 0 && infinity + 8 <= end) {
+      return true;
+    }
+    for (int i = start; i < end; i++) {
+      char c = input.charAt(i);
+      boolean numberChar = c >= '0' && c <= '9' || c == '.' || c == ',' || c == '-' || c == '+'
+                           // exponents, hexadecimal numbers and type suffixes
+                           || c >= 'a' && c <= 'f' || c >= 'A' && c <= 'F' || c == 'x' || c == 'X' || c == 'p'
+                           || c == 'P'
+                           // other digits or symbols known to DecimalFormat
+                           || c > 127 && c != '°';
+      if (!numberChar) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Scans a single DMS value, with its hemisphere first or last. For a latitude the hemisphere is N or S, for a
+   * longitude E, O or W. The value is rounded to 6 decimals.
+   *
+   * @return true if the input is a DMS value, its value is in {@link #value}
+   */
+  boolean scanDms(String input, boolean latitude) {
+    int start = 0;
+    int end = input.length();
+    while (start < end && input.charAt(start) <= ' ') {
+      start++;
+    }
+    while (end > start && input.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    if (end - start <= 3) {
+      return false;
+    }
+
+    char hemisphere = 'N';
+    char c = Character.toUpperCase(input.charAt(start));
+    if (isHemisphere(c, latitude)) {
+      hemisphere = c;
+      start++;
+    } else {
+      c = Character.toUpperCase(input.charAt(end - 1));
+      if (isHemisphere(c, latitude)) {
+        hemisphere = c;
+        end--;
+      }
+    }
+
+    if (scanDmsValue(input, start, end) != end) {
+      return false;
+    }
+    value = toDecimal(hemisphere);
+    return true;
+  }
+
+  /**
+   * Scans two DMS values each followed by its hemisphere, optionally separated by a space, comma, semicolon or slash.
+   *
+   * @return true if the input is made of two DMS values, see {@link #first} and {@link #second}
+   */
+  boolean scanDmsPair(String input) {
+    int end = withoutLineTerminator(input);
+
+    int i = scanDmsValueAndHemisphere(input, 0, end);
+    if (i == NO_MATCH) {
+      return false;
+    }
+    first = toDecimal(firstHemisphere = Character.toUpperCase(input.charAt(i - 1)));
+
+    if (i < end) {
+      char c = input.charAt(i);
+      if (c == ' ' || c == ',' || c == ';' || c == '/') {
+        i++;
+      }
+    }
+    // the second value must end the input
+    i = scanDmsValueAndHemisphere(input, i, end);
+    if (i != end) {
+      return false;
+    }
+    second = toDecimal(secondHemisphere = Character.toUpperCase(input.charAt(i - 1)));
+    return true;
+  }
+
+  /**
+   * @return the position after the hemisphere or NO_MATCH
+   */
+  private int scanDmsValueAndHemisphere(String input, int from, int end) {
+    int i = scanDmsValue(input, from, end);
+    if (i == NO_MATCH) {
+      return NO_MATCH;
+    }
+    if (i < end && isHemisphere(input.charAt(i))) {
+      return i + 1;
+    }
+    // an s read as the unit of the seconds can be the southern hemisphere
+    if (unitStart != NO_MATCH && input.charAt(unitStart) != '"' && input.charAt(unitStart) != '\'') {
+      return endWithoutUnit + 1;
+    }
+    return NO_MATCH;
+  }
+
+  /**
+   * Scans degrees, minutes and optional seconds with their separators and surrounding whitespace.
+   *
+   * @return the position after the value or NO_MATCH
+   */
+  private int scanDmsValue(String input, int from, int end) {
+    int i = skipWhitespace(input, from, end);
+
+    // degrees on 1 to 3 digits
+    int digitsEnd = skipDigits(input, i, end);
+    int length = digitsEnd - i;
+    if (length < 1 || length > 3) {
+      return NO_MATCH;
+    }
+    degrees = parseInt(input, i, digitsEnd);
+    i = skipSeparator(input, digitsEnd, end, '°', 'd');
+    if (i == NO_MATCH) {
+      return NO_MATCH;
+    }
+
+    // minutes on 1 or 2 digits, up to 69
+    digitsEnd = skipDigits(input, i, end);
+    if (!isSixtyLike(input, i, digitsEnd)) {
+      return NO_MATCH;
+    }
+    minutes = parseInt(input, i, digitsEnd);
+    i = skipSeparator(input, digitsEnd, end, '\'', 'm');
+    if (i == NO_MATCH) {
+      return NO_MATCH;
+    }
+
+    // optional seconds on 1 or 2 digits with optional decimals and unit
+    seconds = 0;
+    unitStart = NO_MATCH;
+    digitsEnd = skipDigits(input, i, end);
+    if (digitsEnd == i) {
+      endWithoutUnit = i;
+      return i;
+    }
+    if (!isSixtyLike(input, i, digitsEnd)) {
+      return NO_MATCH;
+    }
+    int secondsEnd = digitsEnd;
+    if (digitsEnd + 1 < end && (input.charAt(digitsEnd) == '.' || input.charAt(digitsEnd) == ',')) {
+      int fractionEnd = skipDigits(input, digitsEnd + 1, end);
+      if (fractionEnd > digitsEnd + 1) {
+        secondsEnd = fractionEnd;
+      }
+    }
+    seconds = parseDecimal(input, i, secondsEnd);
+    i = skipWhitespace(input, secondsEnd, end);
+    endWithoutUnit = i;
+    if (i < end) {
+      char c = input.charAt(i);
+      if (c == '"' || c == 's' || c == 'S') {
+        unitStart = i;
+        i++;
+      } else if (c == '\'' && i + 1 < end && input.charAt(i + 1) == '\'') {
+        unitStart = i;
+        i += 2;
+      }
+    }
+    return skipWhitespace(input, i, end);
+  }
+
+  /**
+   * Skips a separator: whitespace around one of the symbols, or whitespace containing a space.
+   *
+   * @return the position after the separator or NO_MATCH
+   */
+  private static int skipSeparator(String input, int from, int end, char symbol, char letter) {
+    int i = from;
+    boolean space = false;
+    while (i < end && isWhitespace(input.charAt(i))) {
+      space |= input.charAt(i) == ' ';
+      i++;
+    }
+    if (i < end) {
+      char c = input.charAt(i);
+      if (c == symbol || c == letter || c == Character.toUpperCase(letter)) {
+        return skipWhitespace(input, i + 1, end);
+      }
+    }
+    return space ? i : NO_MATCH;
+  }
+
+  /**
+   * @return true for 1 digit or 2 digits starting with 0 to 6
+   */
+  private static boolean isSixtyLike(String input, int from, int to) {
+    return to - from == 1 || to - from == 2 && input.charAt(from) <= '6';
+  }
+
+  private double toDecimal(char hemisphere) {
+    double sign = hemisphere == 'S' || hemisphere == 'W' ? -1 : 1;
+    return CoordinateParseUtils.roundTo6decimals(sign * (degrees + (minutes / 60) + (seconds / 3600)));
+  }
+
+  private static boolean isHemisphere(char c, boolean latitude) {
+    return latitude ? c == 'N' || c == 'S' : c == 'E' || c == 'O' || c == 'W';
+  }
+
+  private static boolean isHemisphere(char c) {
+    char upper = Character.toUpperCase(c);
+    return upper == 'N' || upper == 'S' || upper == 'E' || upper == 'O' || upper == 'W';
+  }
+
+  /**
+   * Whitespace as in regular expressions: space, tab, new line, vertical tab, form feed and carriage return.
+   */
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+  }
+
+  private static int skipWhitespace(String input, int from, int end) {
+    int i = from;
+    while (i < end && isWhitespace(input.charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  private static int skipDigits(String input, int from, int end) {
+    int i = from;
+    while (i < end && input.charAt(i) >= '0' && input.charAt(i) <= '9') {
+      i++;
+    }
+    return i;
+  }
+
+  private static int parseInt(String input, int from, int to) {
+    int n = 0;
+    for (int i = from; i < to; i++) {
+      n = n * 10 + (input.charAt(i) - '0');
+    }
+    return n;
+  }
+
+  /**
+   * Parses digits with an optional decimal dot or comma.
+   */
+  private static double parseDecimal(String input, int from, int to) {
+    long mantissa = 0;
+    int digits = 0;
+    int fractionDigits = 0;
+    boolean fraction = false;
+    for (int i = from; i < to; i++) {
+      char c = input.charAt(i);
+      if (c == '.' || c == ',') {
+        fraction = true;
+      } else {
+        mantissa = mantissa * 10 + (c - '0');
+        digits++;
+        if (fraction) {
+          fractionDigits++;
+        }
+      }
+    }
+    if (digits > MAX_EXACT_DIGITS) {
+      // too long to be exact, leave the rounding to the NumberParser
+      return NumberParser.parseDouble(input.substring(from, to));
+    }
+    return mantissa / POWERS_OF_TEN[fractionDigits];
+  }
+
+  /**
+   * The end of the input, before a final line terminator, like the $ of a regular expression.
+   */
+  private static int withoutLineTerminator(String input) {
+    int end = input.length();
+    if (end > 0) {
+      char last = input.charAt(end - 1);
+      if (last == '\n') {
+        return end > 1 && input.charAt(end - 2) == '\r' ? end - 2 : end - 1;
+      }
+      if (last == '\r' || last == '\u0085' || last == '\u2028' || last == '\u2029') {
+        return end - 1;
+      }
+    }
+    return end;
+  }
+}
@@ -1,11 +1,14 @@
 package org.gbif.common.parsers.geospatial;
 
 import org.gbif.common.parsers.core.ASCIIParser;
+import org.gbif.common.parsers.core.CachingParser;
 import org.gbif.common.parsers.core.FileBasedDictionaryParser;
+import org.gbif.common.parsers.core.FrozenDictionary;
+import org.gbif.common.parsers.core.Parsable;
 import org.gbif.common.parsers.core.ParseResult;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.HashMap;
+import java.util.Map;
 
 import com.google.common.base.Strings;
 
@@ -22,16 +25,24 @@ import com.google.common.base.Strings;
  *   <li>http://prj2epsg.org/apidocs.html</li>
  * </ul>
  *
+ * Parsing uses no regular expression and creates no string: EPSG codes are scanned directly and the names are
+ * normalized into a char array looked up in a frozen copy of the dictionary, whose results are shared.
+ * Datums repeat over the records of a dataset, see {@link #getCachingInstance(int)} to remember recent inputs.
  */
 public class DatumParser extends FileBasedDictionaryParser<Integer> {
+  // folding to ascii makes a character 4 characters long at most
+  private static final int MAX_FOLDING = 4;
   private static DatumParser singletonObject;
-  private final Pattern EPSG = Pattern.compile("\\s*(EPSG|ESPG)\\s*:+\\s*(\\d+)\\s*$", Pattern.CASE_INSENSITIVE);
-  private final Pattern NORMALIZER = Pattern.compile("[^a-zA-Z0-9]+");
-  private final ASCIIParser ascii = ASCIIParser.getInstance();
+  private final FrozenDictionary<ParseResult<Integer>> results;
 
   private DatumParser() {
     super(false);
     init(DatumParser.class.getResourceAsStream("/dictionaries/parse/datum.txt"));
+    Map<String, ParseResult<Integer>> map = new HashMap<String, ParseResult<Integer>>();
+    for (Map.Entry<String, Integer> entry : getDictionary().entrySet()) {
+      map.put(entry.getKey(), ParseResult.success(ParseResult.CONFIDENCE.DEFINITE, entry.getValue()));
+    }
+    results = FrozenDictionary.copyOf(map);
   }
 
   public static DatumParser getInstance() {
@@ -43,27 +54,139 @@ public class DatumParser extends FileBasedDictionaryParser<Integer> {
     return singletonObject;
   }
 
+  /**
+   * @param maximumSize the number of distinct inputs to remember at most
+   *
+   * @return a parser caching the results of the shared instance
+   */
+  public static Parsable<Integer> getCachingInstance(int maximumSize) {
+    return new CachingParser<Integer>(getInstance(), maximumSize);
+  }
+
   @Override
   public ParseResult<Integer> parse(String input) {
     if (Strings.isNullOrEmpty(input)) {
       return null;
     }
     // try EPSG codes directly, allow common typo
-    Matcher m = EPSG.matcher(input);
-    if (m.find()) {
-      Integer code = Integer.valueOf(m.group(2));
+    int code = scanEpsg(input);
+    if (code >= 0) {
       return ParseResult.success(ParseResult.CONFIDENCE.DEFINITE, code);
     }
     // try dictionary for well known SRS names
-    return super.parse(input);
+    char[] chars = new char[input.length()];
+    int length = normalize(input, chars);
+    if (length < 0) {
+      // folding made the name longer than the input
+      chars = new char[input.length() * MAX_FOLDING];
+      length = normalize(input, chars);
+    }
+    ParseResult<Integer> result = results.get(chars, 0, length);
+    return result == null ? ParseResult.<Integer>fail() : result;
+  }
+
+  /**
+   * Scans a code like EPSG:4326 at the end of the input, in any case, with the common typo ESPG, one or more colons
+   * and optional whitespace around the colons and at the end.
+   *
+   * @return the code, or -1 if there is none
+   */
+  private static int scanEpsg(String input) {
+    int i = input.length();
+    while (i > 0 && isWhitespace(input.charAt(i - 1))) {
+      i--;
+    }
+    int digitsEnd = i;
+    while (i > 0 && isDigit(input.charAt(i - 1))) {
+      i--;
+    }
+    int digitsStart = i;
+    if (digitsStart == digitsEnd) {
+      return -1;
+    }
+    while (i > 0 && isWhitespace(input.charAt(i - 1))) {
+      i--;
+    }
+    int colonsEnd = i;
+    while (i > 0 && input.charAt(i - 1) == ':') {
+      i--;
+    }
+    if (i == colonsEnd) {
+      return -1;
+    }
+    while (i > 0 && isWhitespace(input.charAt(i - 1))) {
+      i--;
+    }
+    if (i < 4 || !(input.regionMatches(true, i - 4, "EPSG", 0, 4) || input.regionMatches(true, i - 4, "ESPG", 0, 4))) {
+      return -1;
+    }
+    long code = 0;
+    for (int d = digitsStart; d < digitsEnd; d++) {
+      code = code * 10 + (input.charAt(d) - '0');
+      if (code > Integer.MAX_VALUE) {
+        return -1;
+      }
+    }
+    return (int) code;
+  }
+
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  /**
+   * Normalizes the value into the array, folding it to ASCII and keeping only letters and digits in upper case.
+   *
+   * @param chars the array to write the normalized value to
+   *
+   * @return the length of the normalized value, or -1 if it is longer than the array
+   */
+  private static int normalize(String value, char[] chars) {
+    int length = 0;
+    StringBuilder folded = null;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c < '\u0080') {
+        length = append(c, chars, length);
+      } else {
+        if (folded == null) {
+          folded = new StringBuilder(4);
+        }
+        folded.setLength(0);
+        ASCIIParser.foldToASCII(c, folded);
+        for (int j = 0; j < folded.length() && length >= 0; j++) {
+          length = append(folded.charAt(j), chars, length);
+        }
+      }
+      if (length < 0) {
+        return -1;
+      }
+    }
+    return length;
+  }
+
+  private static int append(char c, char[] chars, int length) {
+    if (c >= 'a' && c <= 'z') {
+      c = (char) (c - 'a' + 'A');
+    } else if (!(c >= 'A' && c <= 'Z' || c >= '0' && c <= '9')) {
+      return length;
+    }
+    if (length == chars.length) {
+      return -1;
+    }
+    chars[length] = c;
+    return length + 1;
   }
 
   @Override
   protected String normalize(String value) {
     if (Strings.isNullOrEmpty(value)) return null;
-    // convert to ascii
-    ParseResult<String> asci = ascii.parse(value);
-    return NORMALIZER.matcher(asci.getPayload()).replaceAll("").toUpperCase();
+    char[] chars = new char[value.length() * MAX_FOLDING];
+    return new String(chars, 0, normalize(value, chars));
   }
 
   @Override
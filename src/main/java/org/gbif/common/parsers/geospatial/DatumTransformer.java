@@ -0,0 +1,363 @@
+package org.gbif.common.parsers.geospatial;
+
+import org.gbif.api.vocabulary.OccurrenceIssue;
+import org.gbif.common.parsers.core.OccurrenceIssueSet;
+import org.gbif.common.parsers.core.OccurrenceParseResult;
+import org.gbif.common.parsers.core.ParallelChunks;
+import org.gbif.common.parsers.core.ParseResult;
+
+import java.util.Map;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Transforms coordinates of the geodetic datums known by {@link DatumParser} to WGS84, keyed by the EPSG codes the
+ * parser returns. Both datum codes, such as 6267 for NAD27, and the codes of their geographic CRS, such as 4267, are
+ * accepted.
+ *
+ * The transformation goes through geocentric coordinates with a 3 or 7 parameter Helmert transformation (position
+ * vector convention), using the published parameters of the national or regional mean transformations. Their accuracy
+ * is in the order of 5 to 25 meters, grid based transformations such as NADCON are out of scope. Datums whose
+ * realisation is within a meter of WGS84, such as NAD83, ETRS89 or GDA94, are left untouched.
+ * The parameters are precomputed once, so transforming a coordinate allocates nothing.
+ *
+ * A few datums of the parser have no transformation here and fail with
+ * {@link OccurrenceIssue#COORDINATE_REPROJECTION_FAILED}: Batavia (Jakarta) 6813, Corrego Alegre 1961 1074,
+ * Ocotepeque 1935 1070, PDO Survey Datum 1993 6134, Reunion 1989 5156 and WGS66 6760 and 4890.
+ *
+ * The issues of a transformation are:
+ * <ul>
+ *   <li>{@link OccurrenceIssue#COORDINATE_REPROJECTED} if the coordinate was transformed</li>
+ *   <li>{@link OccurrenceIssue#COORDINATE_REPROJECTION_SUSPICIOUS} if it moved by more than 0.1 degrees</li>
+ *   <li>{@link OccurrenceIssue#COORDINATE_REPROJECTION_FAILED} if the datum is unknown or the coordinate out of
+ *   range, the coordinate is left untouched</li>
+ *   <li>{@link OccurrenceIssue#GEODETIC_DATUM_ASSUMED_WGS84} if there is no datum, see {@link #NO_DATUM}</li>
+ * </ul>
+ * A missing coordinate, NaN, has no issue.
+ */
+public class DatumTransformer {
+  private DatumTransformer() {
+    throw new UnsupportedOperationException("Can't initialize class");
+  }
+
+  /**
+   * The EPSG code of a record without datum in the batch methods.
+   */
+  public static final int NO_DATUM = 0;
+
+  private static final long REPROJECTED = OccurrenceIssueSet.bit(OccurrenceIssue.COORDINATE_REPROJECTED);
+  private static final long REPROJECTION_SUSPICIOUS =
+    OccurrenceIssueSet.bit(OccurrenceIssue.COORDINATE_REPROJECTION_SUSPICIOUS);
+  private static final long REPROJECTION_FAILED = OccurrenceIssueSet.bit(OccurrenceIssue.COORDINATE_REPROJECTION_FAILED);
+  private static final long ASSUMED_WGS84 = OccurrenceIssueSet.bit(OccurrenceIssue.GEODETIC_DATUM_ASSUMED_WGS84);
+
+  // a shift larger than this in degrees is suspicious
+  private static final double SUSPICIOUS_SHIFT = 0.1;
+
+  // rows of a batch transformed by one thread at a time
+  private static final int CHUNK_SIZE = 4096;
+
+  // ellipsoids as semi-major axis and inverse flattening
+  private static final double[] WGS84 = {6378137, 298.257223563};
+  private static final double[] AIRY_1830 = {6377563.396, 299.3249646};
+  private static final double[] AIRY_MODIFIED = {6377340.189, 299.3249646};
+  private static final double[] AUSTRALIAN_NATIONAL = {6378160, 298.25};
+  private static final double[] BESSEL_1841 = {6377397.155, 299.1528128};
+  private static final double[] BESSEL_NAMIBIA = {6377483.865280419, 299.1528128};
+  private static final double[] CLARKE_1866 = {6378206.4, 294.9786982};
+  private static final double[] CLARKE_1880 = {6378249.145, 293.465};
+  private static final double[] CLARKE_1880_ARC = {6378249.145, 293.4663077};
+  private static final double[] EVEREST_1830 = {6377276.345, 300.8017};
+  private static final double[] EVEREST_MODIFIED = {6377304.063, 300.8017};
+  private static final double[] GRS_1967_MODIFIED = {6378160, 298.25};
+  private static final double[] INTERNATIONAL_1924 = {6378388, 297};
+  private static final double[] WGS72 = {6378135, 298.26};
+
+  private static final Shift IDENTITY = new Shift(WGS84, 0, 0, 0, 0, 0, 0, 0);
+
+  private static final Map<Integer, Shift> SHIFTS = buildShifts();
+
+  private static Map<Integer, Shift> buildShifts() {
+    ImmutableMap.Builder<Integer, Shift> b = ImmutableMap.builder();
+    // WGS84 and the datums within a meter of it
+    identity(b, 6326, 4326);
+    identity(b, 6269, 4269); // NAD83
+    identity(b, 6258, 4258); // ETRS89
+    identity(b, 6283, 4283); // GDA94
+    identity(b, 6612, 4612); // JGD2000
+    identity(b, 6627, 4627); // RGR92
+    // JGD2011, its CRS code 6668 is the datum code of ED79
+    b.put(1128, IDENTITY);
+    b.put(6667, IDENTITY);
+    b.put(4939, IDENTITY); // GDA94 3D
+    b.put(4947, IDENTITY); // JGD2000 3D
+
+    // mean 3 parameter transformations
+    put(b, 6267, CLARKE_1866, -8, 160, 176); // NAD27 CONUS
+    put(b, 6202, AUSTRALIAN_NATIONAL, -133, -48, 148); // AGD66
+    put(b, 6203, AUSTRALIAN_NATIONAL, -134, -48, 149); // AGD84
+    put(b, 6204, INTERNATIONAL_1924, -150, -250, -1); // Ain el Abd 1970
+    put(b, 6209, CLARKE_1880, -143, -90, -294); // Arc 1950
+    put(b, 6210, CLARKE_1880, -160, -6, -302); // Arc 1960
+    put(b, 6211, BESSEL_1841, -377, 681, -50); // Batavia
+    put(b, 6218, INTERNATIONAL_1924, 307, 304, -318); // Bogota 1975
+    put(b, 6222, CLARKE_1880_ARC, -136, -108, -292); // Cape
+    put(b, 6225, INTERNATIONAL_1924, -206, 172, -6); // Corrego Alegre 1970-72
+    put(b, 6230, INTERNATIONAL_1924, -87, -98, -121); // ED50
+    put(b, 6236, INTERNATIONAL_1924, -637, -549, -203); // Hu Tzu Shan 1950
+    put(b, 6131, EVEREST_1830, 198, 881, 317); // Indian 1960
+    put(b, 6239, EVEREST_1830, 217, 823, 299); // Indian 1954
+    put(b, 6240, EVEREST_1830, 209, 818, 290); // Indian 1975
+    put(b, 6245, EVEREST_MODIFIED, -11, 851, 5); // Kertau 1968
+    put(b, 6248, INTERNATIONAL_1924, -288, 175, -376); // PSAD56
+    put(b, 6253, CLARKE_1866, -133, -77, -51); // Luzon 1911
+    put(b, 6293, BESSEL_NAMIBIA, 616, 97, -251); // Schwarzeck
+    put(b, 6301, BESSEL_1841, -148, 507, 685); // Tokyo
+    put(b, 6169, CLARKE_1866, -115, 118, 426); // American Samoa 1962
+    put(b, 6601, CLARKE_1880, -270, 13, 62); // Antigua 1943
+    put(b, 6604, CLARKE_1880, 174, 359, 365); // Montserrat 1958
+    put(b, 6618, GRS_1967_MODIFIED, -57, 1, -41); // SAD69
+    put(b, 6626, INTERNATIONAL_1924, 94, -948, -1262); // Reunion 1947
+    put(b, 6675, CLARKE_1866, -100, -248, 259); // Guam 1963
+    put(b, 6752, CLARKE_1880, 51, 391, -36); // Viti Levu 1916
+    b.put(6668, new Shift(INTERNATIONAL_1924, -86, -98, -119, 0, 0, 0, 0)); // ED79, no CRS code
+    b.put(37240, new Shift(CLARKE_1880, -7, 215, 225, 0, 0, 0, 0)); // Fort Thomas 1955
+
+    // 7 parameter transformations
+    put(b, 6188, AIRY_1830, 482.5, -130.6, 564.6, -1.042, -0.214, -0.631, 8.15); // OSNI 1952
+    put(b, 6231, INTERNATIONAL_1924, -82.981, -99.719, -110.709, -0.5076, 0.1503, 0.3898, -0.3143); // ED87
+    put(b, 6277, AIRY_1830, 446.448, -125.157, 542.06, 0.15, 0.247, 0.842, -20.489); // OSGB36
+    put(b, 6289, BESSEL_1841, 565.417, 50.3319, 465.552, -0.398957, 0.343988, -1.8774, 4.0725); // Amersfoort
+    put(b, 6300, AIRY_MODIFIED, 482.5, -130.6, 564.6, -1.042, -0.214, -0.631, 8.15); // Ireland 1965
+    put(b, 6322, WGS72, 0, 0, 4.5, 0, 0, 0.554, 0.2263); // WGS72
+    put(b, 6746, BESSEL_1841, 599.4, 72.4, 419.2, -0.062, -0.022, -2.723, 6.46); // PD/83
+    // the compound CRS code the dictionary uses for OSGB36
+    b.put(7405, new Shift(AIRY_1830, 446.448, -125.157, 542.06, 0.15, 0.247, 0.842, -20.489));
+    return b.build();
+  }
+
+  private static void identity(ImmutableMap.Builder<Integer, Shift> b, int datum, int crs) {
+    b.put(datum, IDENTITY);
+    b.put(crs, IDENTITY);
+  }
+
+  /**
+   * Registers a datum and its geographic CRS, whose code is the datum code minus 2000.
+   */
+  private static void put(ImmutableMap.Builder<Integer, Shift> b, int datum, double[] ellipsoid, double tx, double ty,
+    double tz) {
+    put(b, datum, ellipsoid, tx, ty, tz, 0, 0, 0, 0);
+  }
+
+  private static void put(ImmutableMap.Builder<Integer, Shift> b, int datum, double[] ellipsoid, double tx, double ty,
+    double tz, double rx, double ry, double rz, double ppm) {
+    Shift shift = new Shift(ellipsoid, tx, ty, tz, rx, ry, rz, ppm);
+    b.put(datum, shift);
+    b.put(datum - 2000, shift);
+  }
+
+  /**
+   * @return true if coordinates of the datum or geographic CRS can be transformed to WGS84
+   */
+  public static boolean isSupported(int epsg) {
+    return SHIFTS.containsKey(epsg);
+  }
+
+  /**
+   * Transforms a coordinate to WGS84.
+   *
+   * @param epsg the datum or geographic CRS code, {@link #NO_DATUM} or null if there is none
+   *
+   * @return the transformed coordinate, or a failure with the given coordinate if it cannot be transformed
+   */
+  public static OccurrenceParseResult<LatLng> toWgs84(Integer epsg, double lat, double lng) {
+    double[] lats = {lat};
+    double[] lngs = {lng};
+    long issues = transform(epsg == null ? NO_DATUM : epsg, lats, lngs, 0);
+    if ((issues & REPROJECTION_FAILED) != 0) {
+      return OccurrenceParseResult.fail(new LatLng(lat, lng), OccurrenceIssueSet.fromBits(issues));
+    }
+    return OccurrenceParseResult.success(ParseResult.CONFIDENCE.DEFINITE, new LatLng(lats[0], lngs[0]),
+                                         OccurrenceIssueSet.fromBits(issues));
+  }
+
+  /**
+   * Transforms columns of coordinates of the same datum to WGS84 in place, in parallel chunks.
+   *
+   * @param epsg the datum or geographic CRS code of all the rows, or {@link #NO_DATUM}
+   * @param lats the latitudes, overwritten with the transformed ones
+   * @param lngs the longitudes, as many as latitudes, overwritten with the transformed ones
+   *
+   * @return the issues of every row as a bitmask, see {@link OccurrenceIssueSet#fromBits(long)}
+   */
+  public static long[] toWgs84(final int epsg, final double[] lats, final double[] lngs) {
+    Preconditions.checkArgument(lats.length == lngs.length, "Latitudes and longitudes of different lengths");
+    final long[] issues = new long[lats.length];
+    ParallelChunks.process(lats.length, CHUNK_SIZE, new ParallelChunks.Processor() {
+      @Override
+      public void process(int from, int to) {
+        Shift shift = SHIFTS.get(epsg);
+        for (int row = from; row < to; row++) {
+          issues[row] = transform(epsg, shift, lats, lngs, row);
+        }
+      }
+    });
+    return issues;
+  }
+
+  /**
+   * Transforms columns of coordinates to WGS84 in place, in parallel chunks, every row with its own datum.
+   *
+   * @param epsgs the datum or geographic CRS code of every row, {@link #NO_DATUM} if there is none
+   * @param lats  the latitudes, overwritten with the transformed ones
+   * @param lngs  the longitudes, overwritten with the transformed ones
+   *
+   * @return the issues of every row as a bitmask, see {@link OccurrenceIssueSet#fromBits(long)}
+   */
+  public static long[] toWgs84(final int[] epsgs, final double[] lats, final double[] lngs) {
+    Preconditions.checkArgument(lats.length == lngs.length && lats.length == epsgs.length,
+                                "Datums, latitudes and longitudes of different lengths");
+    final long[] issues = new long[lats.length];
+    ParallelChunks.process(lats.length, CHUNK_SIZE, new ParallelChunks.Processor() {
+      @Override
+      public void process(int from, int to) {
+        for (int row = from; row < to; row++) {
+          issues[row] = transform(epsgs[row], lats, lngs, row);
+        }
+      }
+    });
+    return issues;
+  }
+
+  /**
+   * Transforms the successfully interpreted coordinates of a batch to WGS84 in place, in parallel chunks, adding the
+   * issues of the transformation to the rows. A failed transformation keeps the row successful, as the single record
+   * interpretation does with an unknown datum.
+   *
+   * @param epsgs the datum or geographic CRS code of every row, {@link #NO_DATUM} if there is none
+   */
+  public static void toWgs84(final int[] epsgs, final CoordinateBatch batch) {
+    Preconditions.checkArgument(epsgs.length == batch.size(), "Datums and batch of different sizes");
+    ParallelChunks.process(batch.size(), CHUNK_SIZE, new ParallelChunks.Processor() {
+      @Override
+      public void process(int from, int to) {
+        for (int row = from; row < to; row++) {
+          if (batch.statuses[row] == CoordinateBatch.SUCCESS) {
+            batch.issues[row] |= transform(epsgs[row], batch.latitudes, batch.longitudes, row);
+          }
+        }
+      }
+    });
+  }
+
+  private static long transform(int epsg, double[] lats, double[] lngs, int row) {
+    return transform(epsg, SHIFTS.get(epsg), lats, lngs, row);
+  }
+
+  /**
+   * Transforms a row in place.
+   *
+   * @return the issues as a bitmask
+   */
+  private static long transform(int epsg, Shift shift, double[] lats, double[] lngs, int row) {
+    double lat = lats[row];
+    double lng = lngs[row];
+    if (Double.isNaN(lat) || Double.isNaN(lng)) {
+      return 0;
+    }
+    if (epsg == NO_DATUM) {
+      return ASSUMED_WGS84;
+    }
+    if (shift == null || !(lat >= -90 && lat <= 90 && lng >= -180 && lng <= 180)) {
+      return REPROJECTION_FAILED;
+    }
+    if (shift == IDENTITY) {
+      return 0;
+    }
+    shift.apply(lats, lngs, row);
+    double lngShift = Math.abs(lngs[row] - lng);
+    if (Math.abs(lats[row] - lat) > SUSPICIOUS_SHIFT || Math.min(lngShift, 360 - lngShift) > SUSPICIOUS_SHIFT) {
+      return REPROJECTED | REPROJECTION_SUSPICIOUS;
+    }
+    return REPROJECTED;
+  }
+
+  /**
+   * Precomputed transformation of a datum to WGS84.
+   */
+  private static class Shift {
+    private static final double ARC_SECOND = Math.PI / (180 * 3600);
+    private static final double WGS84_A = WGS84[0];
+    private static final double WGS84_E2 = eccentricitySquared(WGS84);
+    private static final double WGS84_B = WGS84_A * Math.sqrt(1 - WGS84_E2);
+    private static final double WGS84_EP2 = WGS84_E2 / (1 - WGS84_E2);
+
+    // source ellipsoid
+    private final double a;
+    private final double e2;
+    // translation in meters, rotation in radians and scale factor
+    private final double tx;
+    private final double ty;
+    private final double tz;
+    private final double rx;
+    private final double ry;
+    private final double rz;
+    private final double scale;
+
+    /**
+     * @param ellipsoid semi-major axis and inverse flattening
+     * @param rx        rotations in arc seconds
+     * @param ppm       scale difference in parts per million
+     */
+    private Shift(double[] ellipsoid, double tx, double ty, double tz, double rx, double ry, double rz, double ppm) {
+      a = ellipsoid[0];
+      e2 = eccentricitySquared(ellipsoid);
+      this.tx = tx;
+      this.ty = ty;
+      this.tz = tz;
+      this.rx = rx * ARC_SECOND;
+      this.ry = ry * ARC_SECOND;
+      this.rz = rz * ARC_SECOND;
+      scale = 1 + ppm * 1e-6;
+    }
+
+    private static double eccentricitySquared(double[] ellipsoid) {
+      double f = 1 / ellipsoid[1];
+      return f * (2 - f);
+    }
+
+    /**
+     * Transforms the coordinate of the row in place, on the surface of the source ellipsoid, rounded to 6 decimals.
+     */
+    private void apply(double[] lats, double[] lngs, int row) {
+      double phi = Math.toRadians(lats[row]);
+      double lambda = Math.toRadians(lngs[row]);
+      double sinPhi = Math.sin(phi);
+      double cosPhi = Math.cos(phi);
+
+      // geocentric coordinates on the source ellipsoid
+      double n = a / Math.sqrt(1 - e2 * sinPhi * sinPhi);
+      double x = n * cosPhi * Math.cos(lambda);
+      double y = n * cosPhi * Math.sin(lambda);
+      double z = n * (1 - e2) * sinPhi;
+
+      // Helmert transformation, position vector convention
+      double x2 = tx + scale * (x - rz * y + ry * z);
+      double y2 = ty + scale * (rz * x + y - rx * z);
+      double z2 = tz + scale * (-ry * x + rx * y + z);
+
+      // back to geodetic coordinates on WGS84 with Bowring's formula, sub millimeter near the surface
+      double p = Math.sqrt(x2 * x2 + y2 * y2);
+      double theta = Math.atan2(z2 * WGS84_A, p * WGS84_B);
+      double sinTheta = Math.sin(theta);
+      double cosTheta = Math.cos(theta);
+      double lat = Math.atan2(z2 + WGS84_EP2 * WGS84_B * sinTheta * sinTheta * sinTheta,
+                              p - WGS84_E2 * WGS84_A * cosTheta * cosTheta * cosTheta);
+      double lng = Math.atan2(y2, x2);
+
+      lats[row] = CoordinateParseUtils.roundTo6decimals(Math.toDegrees(lat));
+      lngs[row] = CoordinateParseUtils.roundTo6decimals(Math.toDegrees(lng));
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package org.gbif.common.parsers.geospatial;
+
+import org.gbif.common.parsers.core.OccurrenceIssueSet;
+import org.gbif.common.parsers.core.OccurrenceParseResult;
+import org.gbif.common.parsers.core.ParseResult;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Columnar results of interpreting a batch of elevations or depths, see
+ * {@link MeterRangeParser#parseElevation(String[], String[], String[])} and
+ * {@link MeterRangeParser#parseDepth(String[], String[], String[])}.
+ *
+ * Every row has the same content as the {@link OccurrenceParseResult} of the single record parsing:
+ * <ul>
+ *   <li>a status, {@link #SUCCESS} or {@link #FAIL}</li>
+ *   <li>the value and accuracy of the payload, NaN if there is none</li>
+ *   <li>the issues as a bitmask, see {@link OccurrenceIssueSet#getBits()}</li>
+ *   <li>the payload itself, shared by all the rows with the same raw values</li>
+ * </ul>
+ *
+ * The columns are exposed as arrays to be read without copy. Not Thread-Safe, but the rows of distinct ranges can be
+ * written by distinct threads.
+ */
+public class MeasurementBatch {
+
+  public static final byte SUCCESS = 0;
+  public static final byte FAIL = 1;
+
+  final double[] values;
+  final double[] accuracies;
+  final byte[] statuses;
+  final long[] issues;
+  final DoubleAccuracy[] payloads;
+  int distinctCount;
+
+  public MeasurementBatch(int size) {
+    Preconditions.checkArgument(size >= 0, "Negative size %s", size);
+    values = new double[size];
+    accuracies = new double[size];
+    statuses = new byte[size];
+    issues = new long[size];
+    payloads = new DoubleAccuracy[size];
+  }
+
+  /**
+   * Sets a row from the result of the single record parsing.
+   */
+  void set(int row, OccurrenceParseResult<DoubleAccuracy> result) {
+    DoubleAccuracy payload = result.getPayload();
+    payloads[row] = payload;
+    values[row] = payload == null || payload.getValue() == null ? Double.NaN : payload.getValue();
+    accuracies[row] = payload == null || payload.getAccuracy() == null ? Double.NaN : payload.getAccuracy();
+    statuses[row] = result.isSuccessful() ? SUCCESS : FAIL;
+    issues[row] = result.getIssueBits();
+  }
+
+  public int size() {
+    return statuses.length;
+  }
+
+  /**
+   * @return the number of distinct raw values that were interpreted to fill the batch
+   */
+  public int getDistinctCount() {
+    return distinctCount;
+  }
+
+  public double[] getValues() {
+    return values;
+  }
+
+  public double[] getAccuracies() {
+    return accuracies;
+  }
+
+  public byte[] getStatuses() {
+    return statuses;
+  }
+
+  public long[] getIssues() {
+    return issues;
+  }
+
+  /**
+   * @return the issues of the row
+   */
+  public OccurrenceIssueSet getIssues(int row) {
+    return OccurrenceIssueSet.fromBits(issues[row]);
+  }
+
+  /**
+   * @return the payload of the row, shared with the other rows of the same raw values, or null
+   */
+  public DoubleAccuracy getPayload(int row) {
+    return payloads[row];
+  }
+
+  /**
+   * @return the parse result of the row, as returned by the single record parsing
+   */
+  public OccurrenceParseResult<DoubleAccuracy> toResult(int row) {
+    Preconditions.checkElementIndex(row, size(), "row");
+    if (statuses[row] == SUCCESS) {
+      return OccurrenceParseResult.success(ParseResult.CONFIDENCE.DEFINITE, payloads[row], getIssues(row));
+    }
+    return OccurrenceParseResult.fail(payloads[row], getIssues(row));
+  }
+}
@@ -0,0 +1,300 @@
+package org.gbif.common.parsers.geospatial;
+
+/**
+ * Hand written lexer for the measurements read by {@link MeterRangeParser}, converting them to meters.
+ *
+ * The input is read once from left to right, without regular expression or exception, as a sequence of tokens:
+ * <ul>
+ *   <li>numbers, read like {@link CoordinateScanner#scanNumber(String)} so dots and commas are both decimal marks</li>
+ *   <li>units following a number: m, meter(s), metre(s), km, kilometer(s), kilometre(s), ft, feet, foot, ', in,
+ *   inch(es), ", '' and fathom(s)</li>
+ *   <li>a range separator, -, – (en dash), − (minus sign) or to, between two values whose mean is the
+ *   measurement</li>
+ * </ul>
+ * A value can be a compound of feet and inches such as 5'6", 5 ft 6 in or 5'6, but no other units are added
+ * together. A number without unit takes the unit of the other value of a range, as in 6-7m, or is in meters.
+ * Other words and dots, as in ca. 100m, are skipped but make the measurement non numeric like units do. Any other
+ * symbol, such as parentheses, /, &lt;, &gt;, ~ or ±, makes the input unparsable.
+ *
+ * The scanner keeps the result of the last scan in its fields, an instance can be reused but is not Thread-Safe.
+ */
+class MeasurementScanner {
+
+  private static final double METER = 1;
+  private static final double KILOMETER = 1000;
+  private static final double FOOT = 0.3048;
+  private static final double INCH = 0.0254;
+  private static final double FATHOM = 1.8288;
+
+  // the minus sign, a sign and a range separator like the hyphen
+  private static final char MINUS = '\u2212';
+
+  /**
+   * The measurement in meters, NaN if there is none.
+   */
+  double value;
+
+  /**
+   * True if the input is more than a plain number.
+   */
+  boolean nonNumeric;
+
+  // the non metric units found
+  boolean feet;
+  boolean inches;
+  boolean fathoms;
+
+  private final CoordinateScanner numbers = new CoordinateScanner();
+
+  // the values of a range and the unit factor of the first one, NaN if none
+  private int valueCount;
+  private double firstValue;
+  private double secondValue;
+  private double firstFactor;
+
+  // the value being read: sum of the numbers with a unit, number waiting for a unit, first unit factor
+  private boolean empty;
+  private double total;
+  private double pending;
+  private double factor;
+  private boolean afterFeet;
+
+  /**
+   * Scans a measurement.
+   *
+   * @return true if the input has a measurement, its value in meters is in {@link #value}
+   */
+  boolean scan(String input) {
+    value = Double.NaN;
+    nonNumeric = false;
+    feet = false;
+    inches = false;
+    fathoms = false;
+    if (input == null) {
+      return false;
+    }
+
+    // plain numbers first
+    if (numbers.scanNumber(input)) {
+      if (!Double.isInfinite(numbers.value) && !Double.isNaN(numbers.value)) {
+        value = numbers.value;
+        return true;
+      }
+      nonNumeric = true;
+      return false;
+    }
+
+    valueCount = 0;
+    firstValue = Double.NaN;
+    secondValue = Double.NaN;
+    firstFactor = Double.NaN;
+    startValue();
+
+    boolean valid = true;
+    int end = input.length();
+    int i = 0;
+    while (i < end && valid) {
+      char c = input.charAt(i);
+      if (isWhitespace(c)) {
+        i++;
+
+      } else if (isNumberStart(input, i, end, c)) {
+        int numberEnd = i + 1;
+        while (numberEnd < end && isNumberChar(input.charAt(numberEnd))) {
+          numberEnd++;
+        }
+        if (c == MINUS) {
+          valid = Double.isNaN(pending) && numbers.scanNumber(input, i + 1, numberEnd);
+          pending = -numbers.value;
+        } else {
+          valid = Double.isNaN(pending) && numbers.scanNumber(input, i, numberEnd);
+          pending = numbers.value;
+        }
+        empty = false;
+        i = numberEnd;
+
+      } else if (Character.isLetter(c)) {
+        int wordEnd = i + 1;
+        while (wordEnd < end && Character.isLetter(input.charAt(wordEnd))) {
+          wordEnd++;
+        }
+        nonNumeric = true;
+        if (isWord(input, i, wordEnd, "to")) {
+          valid = endValue();
+        } else {
+          double unit = unitOf(input, i, wordEnd);
+          if (!Double.isNaN(unit)) {
+            valid = applyUnit(unit);
+          }
+        }
+        i = wordEnd;
+
+      } else {
+        nonNumeric = true;
+        if (c == '\'' && i + 1 < end && input.charAt(i + 1) == '\'') {
+          valid = applyUnit(INCH);
+          i += 2;
+        } else {
+          if (c == '\'' || c == '′') {
+            valid = applyUnit(FOOT);
+          } else if (c == '"' || c == '″') {
+            valid = applyUnit(INCH);
+          } else if (c == '-' || c == '–' || c == MINUS) {
+            valid = endValue();
+          } else if (c != '.') {
+            // qualifiers such as < or ~ and alternative values such as 10 m (33 ft) can't be read as one measurement
+            valid = false;
+          }
+          i++;
+        }
+      }
+    }
+    if (!valid || !endValue()) {
+      return false;
+    }
+    return computeValue();
+  }
+
+  /**
+   * A number starts with a digit, a decimal mark followed by a digit, or a sign followed by either where a new number
+   * is expected.
+   */
+  private boolean isNumberStart(String input, int i, int end, char c) {
+    if (c >= '0' && c <= '9') {
+      return true;
+    }
+    if ((c == '.' || c == ',') && i + 1 < end && isDigit(input.charAt(i + 1))) {
+      return true;
+    }
+    if ((c == '-' || c == '+' || c == MINUS) && empty && i + 1 < end) {
+      char next = input.charAt(i + 1);
+      return isDigit(next) || (next == '.' || next == ',') && i + 2 < end && isDigit(input.charAt(i + 2));
+    }
+    return false;
+  }
+
+  private static boolean isNumberChar(char c) {
+    return isDigit(c) || c == '.' || c == ',';
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isWhitespace(char c) {
+    return c <= ' ' || Character.isWhitespace(c) || Character.isSpaceChar(c);
+  }
+
+  /**
+   * @return the factor to meters of the unit word or NaN
+   */
+  private double unitOf(String input, int start, int end) {
+    if (isWord(input, start, end, "m") || isWord(input, start, end, "meter") || isWord(input, start, end, "meters")
+        || isWord(input, start, end, "metre") || isWord(input, start, end, "metres")) {
+      return METER;
+    }
+    if (isWord(input, start, end, "km") || isWord(input, start, end, "kilometer")
+        || isWord(input, start, end, "kilometers") || isWord(input, start, end, "kilometre")
+        || isWord(input, start, end, "kilometres")) {
+      return KILOMETER;
+    }
+    if (isWord(input, start, end, "ft") || isWord(input, start, end, "feet") || isWord(input, start, end, "foot")) {
+      return FOOT;
+    }
+    if (isWord(input, start, end, "in") || isWord(input, start, end, "inch") || isWord(input, start, end, "inches")) {
+      return INCH;
+    }
+    if (isWord(input, start, end, "fathom") || isWord(input, start, end, "fathoms")) {
+      return FATHOM;
+    }
+    return Double.NaN;
+  }
+
+  private static boolean isWord(String input, int start, int end, String word) {
+    return end - start == word.length() && input.regionMatches(true, start, word, 0, word.length());
+  }
+
+  /**
+   * Converts the pending number with the unit. A unit without number, as in 10 m in depth, is ignored.
+   *
+   * @return false if the value already has a unit and isn't feet followed by inches
+   */
+  private boolean applyUnit(double unit) {
+    if (Double.isNaN(pending)) {
+      return true;
+    }
+    if (!Double.isNaN(factor) && !(afterFeet && unit == INCH)) {
+      return false;
+    }
+    if (unit == FOOT) {
+      feet = true;
+    } else if (unit == INCH) {
+      inches = true;
+    } else if (unit == FATHOM) {
+      fathoms = true;
+    }
+    total += pending * unit;
+    pending = Double.NaN;
+    if (Double.isNaN(factor)) {
+      factor = unit;
+    }
+    afterFeet = unit == FOOT;
+    return true;
+  }
+
+  private void startValue() {
+    empty = true;
+    total = 0;
+    pending = Double.NaN;
+    factor = Double.NaN;
+    afterFeet = false;
+  }
+
+  /**
+   * Ends the value being read, at a range separator or the end of the input.
+   *
+   * @return false if the value is empty or there are more than two values
+   */
+  private boolean endValue() {
+    if (!Double.isNaN(pending)) {
+      if (afterFeet) {
+        // 5'6 is 5 feet 6 inches
+        applyUnit(INCH);
+      } else if (!Double.isNaN(factor)) {
+        // a number following a metric value, as in 1 m 5
+        return false;
+      } else {
+        total = pending;
+      }
+    } else if (Double.isNaN(factor)) {
+      return false;
+    }
+
+    valueCount++;
+    if (valueCount == 1) {
+      firstValue = total;
+      firstFactor = factor;
+    } else if (valueCount == 2) {
+      // a number without unit takes the unit of the other value
+      if (Double.isNaN(firstFactor) && !Double.isNaN(factor)) {
+        firstValue *= factor;
+      } else if (!Double.isNaN(firstFactor) && Double.isNaN(factor)) {
+        total *= firstFactor;
+      }
+      secondValue = total;
+    } else {
+      return false;
+    }
+    startValue();
+    return true;
+  }
+
+  private boolean computeValue() {
+    value = valueCount == 1 ? firstValue : (firstValue + secondValue) / 2d;
+    if (Double.isInfinite(value) || Double.isNaN(value)) {
+      value = Double.NaN;
+      return false;
+    }
+    return true;
+  }
+}
@@ -1,18 +1,20 @@
 package org.gbif.common.parsers.geospatial;
 
 import org.gbif.api.vocabulary.OccurrenceIssue;
+import org.gbif.common.parsers.core.OccurrenceIssueSet;
 import org.gbif.common.parsers.core.OccurrenceParseResult;
+import org.gbif.common.parsers.core.ParallelChunks;
 import org.gbif.common.parsers.core.ParseResult;
-import org.gbif.common.parsers.NumberParser;
 
-import java.util.Set;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import javax.annotation.Nullable;
 
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
-import com.google.common.collect.Sets;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  * Utilities for parsing min/max meter measurements in general plus specific additions and validations
@@ -23,43 +25,6 @@ import org.slf4j.LoggerFactory;
  *  http://jscience.org/api/javax/measure/unit/Unit.html
  */
 public class MeterRangeParser {
-  private static final Logger LOG = LoggerFactory.getLogger(MeterRangeParser.class);
-
-  /**
-   * Pattern for removing measurement denominations
-   */
-  private static final Pattern MEASURE_MARKER_PATTERN = Pattern.compile(".*[a-zA-Z].*");
-
-  /**
-   * Pattern to remove measurement markers (like "m")
-   */
-  private static final Pattern REMOVE_MEASURE_MARKER_PATTERN = Pattern.compile("[a-zA-Z\" \"\"]");
-
-  /**
-   * Pattern for recognising measurements in feet
-   */
-  private static final Pattern FEET_MARKER_PATTERN = Pattern.compile(".*ft.*|.*'.*", Pattern.CASE_INSENSITIVE);
-
-  /**
-   * Pattern for recognising measurements in inches
-   */
-  private static final Pattern INCHES_MARKER_PATTERN = Pattern.compile(".*in.*|.*\".*", Pattern.CASE_INSENSITIVE);
-
-  /**
-   * Pattern for recognising a range value
-   */
-  private static final Pattern SEP_MARKER_PATTERN = Pattern.compile("\\d-.*");
-
-  /**
-   * Constant factor to convert from feet to metres.
-   */
-  private static final float FEET_TO_METRES = 0.3048f;
-
-  /**
-   * Constant factor to convert from inches to metres.
-   */
-  private static final float INCHES_TO_METRES = 0.0254f;
-
 
   /**
    * The lowest elevation value recognised as valid:
@@ -95,10 +60,14 @@ public class MeterRangeParser {
    */
   private static final int MAX_DISTANCE = MAX_ELEVATION;
 
+  // rows of a batch interpreted by one thread at a time
+  private static final int CHUNK_SIZE = 4096;
+
   static class MeasurementWrapper<T> {
     private T measurement;
     private boolean isInFeet;
     private boolean isInInches;
+    private boolean isInFathoms;
     private boolean containsNonNumeric;
     private boolean minMaxSwapped;
     private boolean tooLarge;
@@ -115,6 +84,10 @@ public class MeterRangeParser {
       return isInInches;
     }
 
+    public boolean isInFathoms() {
+      return isInFathoms;
+    }
+
     public boolean containsNonNumeric() {
       return containsNonNumeric;
     }
@@ -130,6 +103,7 @@ public class MeterRangeParser {
     public void addIssues(MeasurementWrapper<?> issues) {
       isInFeet = isInFeet || issues.isInFeet;
       isInInches = isInInches || issues.isInInches;
+      isInFathoms = isInFathoms || issues.isInFathoms;
       containsNonNumeric = containsNonNumeric || issues.containsNonNumeric;
       minMaxSwapped = minMaxSwapped || issues.minMaxSwapped;
       tooLarge = tooLarge || issues.tooLarge;
@@ -143,9 +117,10 @@ public class MeterRangeParser {
   public static MeasurementWrapper<DoubleAccuracy> parseMeterRange(String minRaw, @Nullable String maxRaw, @Nullable String precisionRaw) {
     MeasurementWrapper<DoubleAccuracy> result = new MeasurementWrapper<DoubleAccuracy>();
 
-    MeasurementWrapper<Double> min = parseInMeter(minRaw);
-    MeasurementWrapper<Double> max = parseInMeter(maxRaw);
-    MeasurementWrapper<Double> prec = parseInMeter(precisionRaw);
+    MeasurementScanner scanner = new MeasurementScanner();
+    MeasurementWrapper<Double> min = parseInMeter(minRaw, scanner);
+    MeasurementWrapper<Double> max = parseInMeter(maxRaw, scanner);
+    MeasurementWrapper<Double> prec = parseInMeter(precisionRaw, scanner);
 
     result.addIssues(min);
     result.addIssues(max);
@@ -196,53 +171,54 @@ public class MeterRangeParser {
 
     MeasurementWrapper<DoubleAccuracy> elevation = parseMeterRange(min, max, precision);
 
-    Set<OccurrenceIssue> issues = Sets.newHashSet();
+    long issues = 0;
     if(elevation.containsNonNumeric) {
-      issues.add(OccurrenceIssue.ELEVATION_NON_NUMERIC);
+      issues |= OccurrenceIssueSet.bit(OccurrenceIssue.ELEVATION_NON_NUMERIC);
     }
-    if(elevation.isInFeet || elevation.isInInches) {
-      issues.add(OccurrenceIssue.ELEVATION_NOT_METRIC);
+    if(elevation.isInFeet || elevation.isInInches || elevation.isInFathoms) {
+      issues |= OccurrenceIssueSet.bit(OccurrenceIssue.ELEVATION_NOT_METRIC);
     }
     if(elevation.minMaxSwapped) {
-      issues.add(OccurrenceIssue.ELEVATION_MIN_MAX_SWAPPED);
+      issues |= OccurrenceIssueSet.bit(OccurrenceIssue.ELEVATION_MIN_MAX_SWAPPED);
     }
     if(elevation.tooLarge) {
-      issues.add(OccurrenceIssue.ELEVATION_UNLIKELY);
+      issues |= OccurrenceIssueSet.bit(OccurrenceIssue.ELEVATION_UNLIKELY);
     }
 
     if (elevation.measurement == null || elevation.measurement.getValue() == null) {
-      return OccurrenceParseResult.fail(issues);
+      return OccurrenceParseResult.fail(OccurrenceIssueSet.fromBits(issues));
     }
 
     DoubleAccuracy result = elevation.measurement;
     // record the number of records with altitude out of range
     if (result.getValue() > MAX_ELEVATION || result.getValue() < MIN_ELEVATION) {
-      issues.add(OccurrenceIssue.ELEVATION_UNLIKELY);
-      return OccurrenceParseResult.fail(issues);
+      issues |= OccurrenceIssueSet.bit(OccurrenceIssue.ELEVATION_UNLIKELY);
+      return OccurrenceParseResult.fail(OccurrenceIssueSet.fromBits(issues));
     }
 
-    return OccurrenceParseResult.success(ParseResult.CONFIDENCE.DEFINITE, result, issues);
+    return OccurrenceParseResult.success(ParseResult.CONFIDENCE.DEFINITE, result,
+                                         OccurrenceIssueSet.fromBits(issues));
   }
 
   public static OccurrenceParseResult<DoubleAccuracy> parseDepth(@Nullable String min, @Nullable String max, @Nullable String precision) {
     MeasurementWrapper<DoubleAccuracy> depth = parseMeterRange(min, max, precision);
 
-    Set<OccurrenceIssue> issues = Sets.newHashSet();
+    long issues = 0;
     if(depth.containsNonNumeric) {
-      issues.add(OccurrenceIssue.DEPTH_NON_NUMERIC);
+      issues |= OccurrenceIssueSet.bit(OccurrenceIssue.DEPTH_NON_NUMERIC);
     }
-    if(depth.isInFeet || depth.isInInches) {
-      issues.add(OccurrenceIssue.DEPTH_NOT_METRIC);
+    if(depth.isInFeet || depth.isInInches || depth.isInFathoms) {
+      issues |= OccurrenceIssueSet.bit(OccurrenceIssue.DEPTH_NOT_METRIC);
     }
     if(depth.minMaxSwapped) {
-      issues.add(OccurrenceIssue.DEPTH_MIN_MAX_SWAPPED);
+      issues |= OccurrenceIssueSet.bit(OccurrenceIssue.DEPTH_MIN_MAX_SWAPPED);
     }
     if(depth.tooLarge) {
-      issues.add(OccurrenceIssue.DEPTH_UNLIKELY);
+      issues |= OccurrenceIssueSet.bit(OccurrenceIssue.DEPTH_UNLIKELY);
     }
 
     if (depth.measurement == null || depth.measurement.getValue() == null) {
-      return OccurrenceParseResult.fail(issues);
+      return OccurrenceParseResult.fail(OccurrenceIssueSet.fromBits(issues));
     }
 
     DoubleAccuracy result = depth.measurement;
@@ -250,107 +226,148 @@ public class MeterRangeParser {
     // negate depth if its negative
     if (result.getValue() < 0) {
       result = new DoubleAccuracy(-1 * result.getValue(), result.getAccuracy());
-      issues.add(OccurrenceIssue.DEPTH_UNLIKELY);
+      issues |= OccurrenceIssueSet.bit(OccurrenceIssue.DEPTH_UNLIKELY);
     }
 
     // record the number of records with depth out of range
     if (result.getValue() > MAX_DEPTH) {
-      issues.add(OccurrenceIssue.DEPTH_UNLIKELY);
-      return OccurrenceParseResult.fail(issues);
+      issues |= OccurrenceIssueSet.bit(OccurrenceIssue.DEPTH_UNLIKELY);
+      return OccurrenceParseResult.fail(OccurrenceIssueSet.fromBits(issues));
     }
 
-    return OccurrenceParseResult.success(ParseResult.CONFIDENCE.DEFINITE, result, issues);
+    return OccurrenceParseResult.success(ParseResult.CONFIDENCE.DEFINITE, result,
+                                         OccurrenceIssueSet.fromBits(issues));
   }
 
   /**
-   * Parses a string supposed to be a value in meters.
-   * Accepts also feet if marked with a unit and converts them
+   * Parses columns of elevations like {@link #parseElevation(String, String, String)} does for every row, in parallel
+   * chunks. Every distinct min, max and precision triple is interpreted only once and its payload is shared by all
+   * its rows.
+   *
+   * @param mins       the minimum elevations
+   * @param maxs       the maximum elevations, as many as mins, or null if there are none
+   * @param precisions the precisions, as many as mins, or null if there are none
+   *
+   * @return the results of all the rows
    */
-  public static ParseResult<Double> parseMeters(String meter) {
-    MeasurementWrapper<Double> result = parseInMeter(meter);
-    if (result.getMeasurement() == null) {
-      return ParseResult.fail();
-    }
-    return ParseResult.success(ParseResult.CONFIDENCE.DEFINITE, result.getMeasurement());
+  public static MeasurementBatch parseElevation(String[] mins, @Nullable String[] maxs, @Nullable String[] precisions) {
+    return parseBatch(mins, maxs, precisions, false);
   }
 
-  private static MeasurementWrapper<Double> parseInMeter(String meter) {
-    MeasurementWrapper<Double> iMeter = new MeasurementWrapper<Double>();
-
-    if (Strings.isNullOrEmpty(meter)) {
-      return iMeter;
-    }
-
-    try {
-      iMeter.containsNonNumeric = MEASURE_MARKER_PATTERN.matcher(meter).matches();
-
-      if (!iMeter.containsNonNumeric()) {
-        iMeter.measurement = NumberParser.parseDouble(meter);
-
-      } else {
-        iMeter.isInFeet = FEET_MARKER_PATTERN.matcher(meter).matches();
-        iMeter.isInInches = INCHES_MARKER_PATTERN.matcher(meter).matches();
-
-        // handle 6-7m values
-        if (SEP_MARKER_PATTERN.matcher(meter).matches()) {
-          // we have been given a range
-          try {
-            String min = meter.substring(0, meter.indexOf('-')).trim();
-            min = removeMeasurementMarkers(min);
-            String max = meter.substring(meter.indexOf('-') + 1).trim();
-            max = removeMeasurementMarkers(max);
-
-            Double minDouble = NumberParser.parseDouble(min);
-            Double maxDouble = NumberParser.parseDouble(max);
-
-            if (minDouble != 0 && maxDouble != 0 && maxDouble - minDouble != 0) {
-              iMeter.measurement = (maxDouble + minDouble) / 2;
-            }
-          } catch (NumberFormatException ignored) {
-          }
+  /**
+   * Parses columns of depths like {@link #parseDepth(String, String, String)} does for every row, see
+   * {@link #parseElevation(String[], String[], String[])}.
+   */
+  public static MeasurementBatch parseDepth(String[] mins, @Nullable String[] maxs, @Nullable String[] precisions) {
+    return parseBatch(mins, maxs, precisions, true);
+  }
 
-        } else {
-          iMeter.measurement = NumberParser.parseDouble(removeMeasurementMarkers(meter));
+  private static MeasurementBatch parseBatch(final String[] mins, @Nullable final String[] maxs,
+    @Nullable final String[] precisions, final boolean depth) {
+    Preconditions.checkArgument(maxs == null || maxs.length == mins.length, "Maximums and minimums of different lengths");
+    Preconditions.checkArgument(precisions == null || precisions.length == mins.length,
+                                "Precisions and minimums of different lengths");
+    final MeasurementBatch batch = new MeasurementBatch(mins.length);
+    final ConcurrentMap<RawMeasurement, OccurrenceParseResult<DoubleAccuracy>> interpreted =
+      new ConcurrentHashMap<RawMeasurement, OccurrenceParseResult<DoubleAccuracy>>();
+    final AtomicInteger distinctCount = new AtomicInteger();
+    final Function<RawMeasurement, OccurrenceParseResult<DoubleAccuracy>> interpreter =
+      new Function<RawMeasurement, OccurrenceParseResult<DoubleAccuracy>>() {
+        @Override
+        public OccurrenceParseResult<DoubleAccuracy> apply(RawMeasurement raw) {
+          distinctCount.incrementAndGet();
+          return depth ? parseDepth(raw.min, raw.max, raw.precision) : parseElevation(raw.min, raw.max, raw.precision);
         }
-
-        if (iMeter.measurement != null) {
-          // convert to metric
-          if (iMeter.isInFeet) {
-            iMeter.measurement = convertFeetToMetres(iMeter.measurement);
-          } else if (iMeter.isInInches) {
-            iMeter.measurement = convertInchesToMetres(iMeter.measurement);
+      };
+
+    ParallelChunks.process(batch.size(), CHUNK_SIZE, new ParallelChunks.Processor() {
+      @Override
+      public void process(int from, int to) {
+        OccurrenceParseResult<DoubleAccuracy> result = null;
+        for (int row = from; row < to; row++) {
+          String min = mins[row];
+          String max = maxs == null ? null : maxs[row];
+          String precision = precisions == null ? null : precisions[row];
+          // sorted columns often repeat the previous row
+          if (row == from || !Objects.equal(min, mins[row - 1])
+              || maxs != null && !Objects.equal(max, maxs[row - 1])
+              || precisions != null && !Objects.equal(precision, precisions[row - 1])) {
+            RawMeasurement raw = new RawMeasurement(min, max, precision);
+            result = interpreted.get(raw);
+            if (result == null) {
+              // the map interprets every distinct measurement only once, even if several chunks meet it together
+              result = interpreted.computeIfAbsent(raw, interpreter);
+            }
           }
+          batch.set(row, result);
         }
       }
-    } catch (NumberFormatException e) {
-      LOG.debug("Unparsable meter measurement: {}", meter, e.getMessage());
+    });
+    batch.distinctCount = distinctCount.get();
+    return batch;
+  }
+
+  /**
+   * Key of the raw min, max and precision of a measurement.
+   */
+  private static class RawMeasurement {
+    private final String min;
+    private final String max;
+    private final String precision;
+    private final int hash;
+
+    private RawMeasurement(String min, String max, String precision) {
+      this.min = min;
+      this.max = max;
+      this.precision = precision;
+      this.hash = Objects.hashCode(min, max, precision);
     }
 
-    // round to centimeters
-    if (iMeter.measurement != null) {
-      iMeter.measurement = Math.round(iMeter.measurement * 100.0) / 100.0;
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof RawMeasurement)) {
+        return false;
+      }
+      RawMeasurement that = (RawMeasurement) obj;
+      return hash == that.hash && Objects.equal(min, that.min) && Objects.equal(max, that.max)
+             && Objects.equal(precision, that.precision);
     }
-    return iMeter;
   }
 
   /**
-   * Remove "m" etc.
-   *
-   * @param s to remove measurement markers from.
-   *
-   * @return a new string with all measurements removed (i.e. replaced by the empty string)
+   * Parses a string supposed to be a value in meters.
+   * Accepts also feet if marked with a unit and converts them
    */
-  private static String removeMeasurementMarkers(String s) {
-    if (s == null) return null;
-    return REMOVE_MEASURE_MARKER_PATTERN.matcher(s).replaceAll("");
+  public static ParseResult<Double> parseMeters(String meter) {
+    MeasurementWrapper<Double> result = parseInMeter(meter, new MeasurementScanner());
+    if (result.getMeasurement() == null) {
+      return ParseResult.fail();
+    }
+    return ParseResult.success(ParseResult.CONFIDENCE.DEFINITE, result.getMeasurement());
   }
 
-  private static double convertInchesToMetres(double inches) {
-    return inches * INCHES_TO_METRES;
-  }
+  private static MeasurementWrapper<Double> parseInMeter(String meter, MeasurementScanner scanner) {
+    MeasurementWrapper<Double> iMeter = new MeasurementWrapper<Double>();
 
-  private static double convertFeetToMetres(double feet) {
-    return feet * FEET_TO_METRES;
+    if (Strings.isNullOrEmpty(meter)) {
+      return iMeter;
+    }
+
+    // numbers, ranges and units are read and converted to meters in a single pass
+    if (scanner.scan(meter)) {
+      // round to centimeters
+      iMeter.measurement = Math.round(scanner.value * 100.0) / 100.0;
+    }
+    iMeter.containsNonNumeric = scanner.nonNumeric;
+    iMeter.isInFeet = scanner.feet;
+    iMeter.isInInches = scanner.inches;
+    iMeter.isInFathoms = scanner.fathoms;
+    return iMeter;
   }
 
   /**
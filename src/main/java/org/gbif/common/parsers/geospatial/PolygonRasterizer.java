@@ -0,0 +1,196 @@
+package org.gbif.common.parsers.geospatial;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Scanline rasterizer of lat/lng polygons on a regular grid of cells.
+ *
+ * The rings are read with the even-odd rule, so holes are simply more rings. Every ring is unwrapped so that two
+ * consecutive vertices are never more than 180 degrees apart in longitude: an edge from 179 to -179 crosses the
+ * antimeridian rather than the whole globe. The columns are then wrapped back into the grid.
+ *
+ * A cell is partial if the boundary crosses its interior, otherwise it is uniformly inside or outside the polygon,
+ * which is decided by the crossings of the row center line. The parity of several rings is the exclusive or of
+ * the parity of each ring.
+ *
+ * Rings going around a pole are not supported.
+ */
+class PolygonRasterizer {
+
+  private final int cellsPerDegree;
+  private final int rowLength;
+  private final int rows;
+
+  private final BitSet partial;
+  private final BitSet inside;
+
+  /**
+   * @param cellsPerDegree 1 for the one degree grid, 10 for the centi cell grid
+   */
+  PolygonRasterizer(int cellsPerDegree) {
+    this.cellsPerDegree = cellsPerDegree;
+    this.rowLength = 360 * cellsPerDegree;
+    this.rows = 180 * cellsPerDegree;
+    this.partial = new BitSet(rowLength * rows);
+    this.inside = new BitSet(rowLength * rows);
+  }
+
+  /**
+   * Adds a ring, given by the latitudes and longitudes of its vertices. It is closed from the last vertex to the first
+   * one, which may or may not be repeated.
+   */
+  void addRing(double[] latitudes, double[] longitudes) {
+    Preconditions.checkArgument(latitudes.length == longitudes.length, "Latitudes and longitudes of different lengths");
+    int n = latitudes.length;
+    if (n < 3) {
+      return;
+    }
+
+    // vertices in grid units, with unwrapped longitudes
+    double[] x = new double[n];
+    double[] y = new double[n];
+    double lng = longitudes[0];
+    for (int i = 0; i < n; i++) {
+      checkCoordinate(latitudes[i], longitudes[i]);
+      if (i > 0) {
+        double delta = longitudes[i] - longitudes[i - 1];
+        if (delta > 180) {
+          delta -= 360;
+        } else if (delta < -180) {
+          delta += 360;
+        }
+        lng += delta;
+      }
+      x[i] = (lng + 180) * cellsPerDegree;
+      y[i] = (latitudes[i] + 90) * cellsPerDegree;
+    }
+    double closing = longitudes[0] - longitudes[n - 1];
+    if (closing > 180) {
+      closing -= 360;
+    } else if (closing < -180) {
+      closing += 360;
+    }
+    // a ring around a pole ends 360 degrees away from its start
+    Preconditions.checkArgument(Math.abs(lng + closing - longitudes[0]) < 180, "Rings around a pole are not supported");
+
+    // crossings of the row center lines, sorted by row then longitude thanks to their key
+    double keyRowLength = 4d * rowLength;
+    double[] crossings = new double[2 * n];
+    int crossingCount = 0;
+    for (int i = 0; i < n; i++) {
+      int j = i == n - 1 ? 0 : i + 1;
+      double x0 = x[i];
+      double y0 = y[i];
+      double x1 = x[j];
+      double y1 = y[j];
+      markPartial(x0, y0, x1, y1);
+
+      // rows whose center line is crossed, with the half open rule y0 <= center < y1
+      double low = Math.min(y0, y1);
+      double high = Math.max(y0, y1);
+      int firstRow = Math.max(0, (int) Math.ceil(low - 0.5));
+      int lastRow = Math.min(rows - 1, (int) Math.ceil(high - 0.5) - 1);
+      for (int row = firstRow; row <= lastRow; row++) {
+        double center = row + 0.5;
+        double xc = x0 + (center - y0) * (x1 - x0) / (y1 - y0);
+        if (crossingCount == crossings.length) {
+          crossings = Arrays.copyOf(crossings, 2 * crossings.length);
+        }
+        crossings[crossingCount++] = row * keyRowLength + Math.max(0, Math.min(xc + rowLength, 3 * rowLength));
+      }
+    }
+    Arrays.sort(crossings, 0, crossingCount);
+
+    // pairs of crossings enclose the inside of the ring
+    for (int i = 0; i + 1 < crossingCount; i += 2) {
+      int row = (int) (crossings[i] / keyRowLength);
+      double from = crossings[i] - row * keyRowLength - rowLength;
+      double to = crossings[i + 1] - row * keyRowLength - rowLength;
+      // columns whose center is between the crossings
+      int firstColumn = (int) Math.ceil(from - 0.5);
+      int lastColumn = (int) Math.ceil(to - 0.5) - 1;
+      updateColumns(inside, true, row, firstColumn, lastColumn);
+    }
+  }
+
+  private static void checkCoordinate(double latitude, double longitude) {
+    Preconditions.checkArgument(latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180,
+                                "Invalid coordinate %s, %s", latitude, longitude);
+  }
+
+  /**
+   * Marks the cells whose interior is crossed by the edge.
+   */
+  private void markPartial(double x0, double y0, double x1, double y1) {
+    double low = Math.min(y0, y1);
+    double high = Math.max(y0, y1);
+    int firstRow = Math.max(0, (int) Math.floor(low));
+    int lastRow = Math.min(rows - 1, (int) Math.ceil(high) - 1);
+    for (int row = firstRow; row <= lastRow; row++) {
+      // part of the edge within the row
+      double xa;
+      double xb;
+      if (y0 == y1) {
+        xa = x0;
+        xb = x1;
+      } else {
+        double ya = Math.max(low, row);
+        double yb = Math.min(high, row + 1);
+        xa = x0 + (ya - y0) * (x1 - x0) / (y1 - y0);
+        xb = x0 + (yb - y0) * (x1 - x0) / (y1 - y0);
+      }
+      double minX = Math.min(xa, xb);
+      double maxX = Math.max(xa, xb);
+      updateColumns(partial, false, row, (int) Math.floor(minX), (int) Math.ceil(maxX) - 1);
+    }
+  }
+
+  /**
+   * Sets or flips the columns of the row, wrapping them into the grid.
+   */
+  private void updateColumns(BitSet cells, boolean flip, int row, int firstColumn, int lastColumn) {
+    if (lastColumn < firstColumn) {
+      return;
+    }
+    int rowStart = row * rowLength;
+    if (lastColumn - firstColumn >= rowLength - 1) {
+      update(cells, flip, rowStart, rowStart + rowLength);
+      return;
+    }
+    int first = Math.floorMod(firstColumn, rowLength);
+    int last = Math.floorMod(lastColumn, rowLength);
+    if (first <= last) {
+      update(cells, flip, rowStart + first, rowStart + last + 1);
+    } else {
+      update(cells, flip, rowStart + first, rowStart + rowLength);
+      update(cells, flip, rowStart, rowStart + last + 1);
+    }
+  }
+
+  private static void update(BitSet cells, boolean flip, int fromIndex, int toIndex) {
+    if (flip) {
+      cells.flip(fromIndex, toIndex);
+    } else {
+      cells.set(fromIndex, toIndex);
+    }
+  }
+
+  /**
+   * @return the cells inside the rings and not crossed by their boundary
+   */
+  CellRanges getFullCells() {
+    BitSet full = (BitSet) inside.clone();
+    full.andNot(partial);
+    return CellRanges.fromBitSet(full, rowLength, rowLength * rows);
+  }
+
+  /**
+   * @return the cells crossed by the boundary of the rings
+   */
+  CellRanges getPartialCells() {
+    return CellRanges.fromBitSet(partial, rowLength, rowLength * rows);
+  }
+}
@@ -0,0 +1,308 @@
+package org.gbif.common.parsers.utils;
+
+import org.gbif.api.exception.UnparsableException;
+import org.gbif.api.model.checklistbank.ParsedName;
+import org.gbif.api.service.checklistbank.NameParser;
+import org.gbif.api.vocabulary.Rank;
+import org.gbif.common.parsers.core.ParseResult;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Parses batches of scientific names in parallel, with a deadline for every name.
+ *
+ * The distinct names of a batch are parsed once each on an executor, at most maxConcurrency at a time. A name still
+ * parsing when its deadline passes gets an error result with a {@link TimeoutException}, see {@link #isTimeout}, and
+ * its thread is interrupted. Any executor can be given, such as one creating a virtual thread per task where the JDK
+ * has them, as the concurrency is bounded by the parser itself.
+ *
+ * The parser keeps counters of the names waiting and parsing, and of the latencies and timeouts of parsed names.
+ */
+public class BatchNameParser implements Closeable {
+
+  private final NameParser parser;
+  private final ExecutorService executor;
+  private final boolean ownExecutor;
+  private final Semaphore permits;
+  private final long timeout;
+  private final ScheduledExecutorService deadlines;
+  private final AtomicInteger queued = new AtomicInteger();
+  private final AtomicInteger running = new AtomicInteger();
+  private final AtomicLong parsedCount = new AtomicLong();
+  private final AtomicLong timeoutCount = new AtomicLong();
+  private final AtomicLong totalNanos = new AtomicLong();
+  private final AtomicLong maxNanos = new AtomicLong();
+
+  /**
+   * Parses names on a pool of its own, closed with the parser.
+   *
+   * @param parser  the name parser, which must be Thread-Safe
+   * @param threads the number of names parsed at most at a time
+   * @param timeout the time a name may take in milliseconds
+   */
+  public BatchNameParser(NameParser parser, int threads, long timeout) {
+    this(parser, Executors.newFixedThreadPool(threads, daemonThreads("batch-name-parser-%d")), threads, timeout, true);
+  }
+
+  /**
+   * Parses names on the given executor, which stays open when the parser is closed.
+   *
+   * @param parser         the name parser, which must be Thread-Safe
+   * @param executor       the executor running the parsing
+   * @param maxConcurrency the number of names parsed at most at a time
+   * @param timeout        the time a name may take in milliseconds
+   */
+  public BatchNameParser(NameParser parser, ExecutorService executor, int maxConcurrency, long timeout) {
+    this(parser, executor, maxConcurrency, timeout, false);
+  }
+
+  private BatchNameParser(NameParser parser, ExecutorService executor, int maxConcurrency, long timeout,
+    boolean ownExecutor) {
+    Preconditions.checkNotNull(parser, "Parser required");
+    Preconditions.checkNotNull(executor, "Executor required");
+    Preconditions.checkArgument(maxConcurrency > 0, "Maximum concurrency must be positive");
+    Preconditions.checkArgument(timeout > 0, "Timeout must be positive");
+    this.parser = parser;
+    this.executor = executor;
+    this.ownExecutor = ownExecutor;
+    this.timeout = timeout;
+    permits = new Semaphore(maxConcurrency);
+    ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, daemonThreads("name-deadline-%d"));
+    scheduler.setRemoveOnCancelPolicy(true);
+    deadlines = scheduler;
+  }
+
+  private static ThreadFactory daemonThreads(String nameFormat) {
+    return new ThreadFactoryBuilder().setDaemon(true).setNameFormat(nameFormat).build();
+  }
+
+  /**
+   * Parses names and waits for all of them.
+   * A parsed name is a success, a name which can't be parsed is a failure with its {@link UnparsableException} and a
+   * name taking too long is an error with a {@link TimeoutException}. Null names are failures without exception.
+   *
+   * @param names the names to parse, possibly repeated
+   * @param rank  the rank of all the names, if known
+   *
+   * @return the results in the order of the names, shared by equal names
+   */
+  public List<ParseResult<ParsedName>> parse(List<String> names, @Nullable Rank rank) {
+    Map<String, CompletableFuture<ParseResult<ParsedName>>> distinct =
+      new HashMap<String, CompletableFuture<ParseResult<ParsedName>>>();
+    List<CompletableFuture<ParseResult<ParsedName>>> futures = Lists.newArrayListWithCapacity(names.size());
+    for (String name : names) {
+      CompletableFuture<ParseResult<ParsedName>> future = null;
+      if (name != null) {
+        future = distinct.get(name);
+        if (future == null) {
+          future = submit(name, rank);
+          distinct.put(name, future);
+        }
+      }
+      futures.add(future);
+    }
+
+    List<ParseResult<ParsedName>> results = Lists.newArrayListWithCapacity(names.size());
+    for (CompletableFuture<ParseResult<ParsedName>> future : futures) {
+      results.add(future == null ? ParseResult.<ParsedName>fail() : future.join());
+    }
+    return results;
+  }
+
+  private CompletableFuture<ParseResult<ParsedName>> submit(String name, @Nullable Rank rank) {
+    NameTask task = new NameTask(name, rank);
+    queued.incrementAndGet();
+    try {
+      executor.execute(task);
+    } catch (RejectedExecutionException e) {
+      queued.decrementAndGet();
+      task.result.complete(ParseResult.<ParsedName>error(e));
+    }
+    return task.result;
+  }
+
+  /**
+   * @return true if the result is the error of a name which took too long
+   */
+  public static boolean isTimeout(ParseResult<?> result) {
+    return result.getStatus() == ParseResult.STATUS.ERROR && result.getError() instanceof TimeoutException;
+  }
+
+  /**
+   * @return the number of names waiting for a thread
+   */
+  public int getQueueDepth() {
+    return queued.get();
+  }
+
+  /**
+   * @return the number of names being parsed
+   */
+  public int getRunning() {
+    return running.get();
+  }
+
+  /**
+   * @return the number of names parsed, successfully or not, or timed out
+   */
+  public long getParsedCount() {
+    return parsedCount.get();
+  }
+
+  /**
+   * @return the number of names which took too long
+   */
+  public long getTimeoutCount() {
+    return timeoutCount.get();
+  }
+
+  /**
+   * @return the mean time taken by a name in milliseconds, timeouts included
+   */
+  public double getMeanLatencyMillis() {
+    long count = parsedCount.get();
+    return count == 0 ? 0 : totalNanos.get() / 1000000d / count;
+  }
+
+  /**
+   * @return the longest time taken by a name in milliseconds, timeouts included
+   */
+  public double getMaxLatencyMillis() {
+    return maxNanos.get() / 1000000d;
+  }
+
+  /**
+   * Stops the deadlines, and the executor if the parser created it. Names still waiting for its threads get an error.
+   */
+  @Override
+  public void close() {
+    deadlines.shutdownNow();
+    if (ownExecutor) {
+      for (Runnable task : executor.shutdownNow()) {
+        queued.decrementAndGet();
+        ((NameTask) task).result.complete(ParseResult.<ParsedName>error(new RejectedExecutionException("Closed")));
+      }
+    }
+  }
+
+  private void record(long nanos, boolean timedOut) {
+    parsedCount.incrementAndGet();
+    if (timedOut) {
+      timeoutCount.incrementAndGet();
+    }
+    totalNanos.addAndGet(nanos);
+    long max = maxNanos.get();
+    while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+      max = maxNanos.get();
+    }
+  }
+
+  /**
+   * Parses a name, completing its result with a timeout error once the deadline passes.
+   */
+  private class NameTask implements Runnable {
+    private final String name;
+    private final Rank rank;
+    private final CompletableFuture<ParseResult<ParsedName>> result =
+      new CompletableFuture<ParseResult<ParsedName>>();
+    // guarded by this, the thread is only interrupted before it is done with the name
+    private boolean finished;
+    private final AtomicBoolean completed = new AtomicBoolean();
+
+    private NameTask(String name, Rank rank) {
+      this.name = name;
+      this.rank = rank;
+    }
+
+    /**
+     * Completes the result if the parsing or the deadline didn't already, with the latency recorded first.
+     *
+     * @return true if completed
+     */
+    private boolean finish(ParseResult<ParsedName> parsed, long nanos, boolean timedOut) {
+      if (completed.compareAndSet(false, true)) {
+        record(nanos, timedOut);
+        result.complete(parsed);
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public void run() {
+      try {
+        permits.acquire();
+      } catch (InterruptedException e) {
+        queued.decrementAndGet();
+        result.complete(ParseResult.<ParsedName>error(e));
+        return;
+      }
+      queued.decrementAndGet();
+      final long start = System.nanoTime();
+      final Thread thread = Thread.currentThread();
+      ScheduledFuture<?> deadline = null;
+      try {
+        deadline = deadlines.schedule(new Runnable() {
+          @Override
+          public void run() {
+            if (finish(ParseResult.<ParsedName>error(new TimeoutException("Parsing took over " + timeout + "ms: " + name)),
+                       System.nanoTime() - start, true)) {
+              synchronized (NameTask.this) {
+                if (!finished) {
+                  thread.interrupt();
+                }
+              }
+            }
+          }
+        }, timeout, TimeUnit.MILLISECONDS);
+        ParseResult<ParsedName> parsed;
+        running.incrementAndGet();
+        try {
+          parsed = ParseResult.success(ParseResult.CONFIDENCE.DEFINITE, parser.parse(name, rank));
+        } catch (UnparsableException e) {
+          parsed = new ParseResult<ParsedName>(ParseResult.STATUS.FAIL, null, null, e);
+        } catch (RuntimeException e) {
+          parsed = ParseResult.error(e);
+        } finally {
+          running.decrementAndGet();
+        }
+        finish(parsed, System.nanoTime() - start, false);
+      } catch (RejectedExecutionException e) {
+        // closed
+        result.complete(ParseResult.<ParsedName>error(e));
+      } finally {
+        if (deadline != null) {
+          deadline.cancel(false);
+        }
+        synchronized (this) {
+          finished = true;
+          // the interrupt of a deadline is meant for this name only
+          Thread.interrupted();
+        }
+        permits.release();
+      }
+    }
+  }
+}
@@ -1,26 +1,32 @@
 package org.gbif.common.parsers.utils;
 
 import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 
+import com.google.common.base.Charsets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Set of bad names in UPPERCASE.
+ * Set of bad names, matched in upper case.
+ *
+ * The names are kept in an immutable table, which a reload replaces as a whole. Readers never lock and always see
+ * either the previous or the new names, and a reload failing to read its names keeps the previous ones.
  */
 public final class BlacklistedNames {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(BlacklistedNames.class);
 
-  private static final Set<String> NAMES = new HashSet<String>();
-
   private static final String BLACKLIST_FILE = "utils/blacklistedNames.txt";
 
+  private static volatile NameTable table = new NameTable(new ArrayList<String>());
+
   static {
     init(BLACKLIST_FILE);
   }
@@ -29,31 +35,159 @@ public final class BlacklistedNames {
     throw new UnsupportedOperationException("Can't initialize class");
   }
 
+  /**
+   * @return true if the name is blacklisted in any case
+   */
   public static boolean contains(String s) {
-    return NAMES.contains(s.toUpperCase());
+    return contains((CharSequence) s);
+  }
+
+  /**
+   * @return true if the name is blacklisted in any case, without copying it
+   */
+  public static boolean contains(CharSequence s) {
+    return table.contains(s);
+  }
+
+  /**
+   * @return the number of distinct blacklisted names
+   */
+  public static int size() {
+    return table.size;
   }
 
-  public static synchronized void init(Reader reader) {
-    NAMES.clear();
+  /**
+   * Replaces the blacklist with the names of a reader, one per line. The previous names stay if it can't be read.
+   */
+  public static void init(Reader reader) {
+    try {
+      table = read(reader);
+    } catch (IOException e) {
+      LOGGER.warn("Failed to read blacklisted names, keeping the previous ones", e);
+    }
+  }
+
+  /**
+   * Replaces the blacklist with the names of a classpath resource.
+   */
+  public static void init(String filepath) {
+    init(new InputStreamReader(BlacklistedNames.class.getClassLoader().getResourceAsStream(filepath)));
+  }
+
+  /**
+   * Replaces the blacklist with the names of a UTF-8 file, one per line.
+   *
+   * @throws IOException if the file can't be read, keeping the previous names
+   */
+  public static void reload(File file) throws IOException {
+    table = read(new InputStreamReader(new FileInputStream(file), Charsets.UTF_8));
+  }
+
+  private static NameTable read(Reader reader) throws IOException {
+    List<String> names = new ArrayList<String>();
     BufferedReader br = new BufferedReader(reader);
     try {
       String line = br.readLine();
       while (line != null) {
         LOGGER.debug("Blacklisting: {}", line);
-        NAMES.add(line.toUpperCase());
+        names.add(line);
         line = br.readLine();
       }
-    } catch (IOException e) {
-      LOGGER.debug("Exception thrown", e);
     } finally {
       try {
         br.close();
       } catch (IOException ignored) {
       }
     }
+    return new NameTable(names);
   }
 
-  public static synchronized void init(String filepath) {
-    init(new InputStreamReader(BlacklistedNames.class.getClassLoader().getResourceAsStream(filepath)));
+  /**
+   * Folds a character to upper case, like the upper cased names of the blacklist always were.
+   */
+  private static char fold(char c) {
+    if (c < 0x80) {
+      return c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c;
+    }
+    return Character.toUpperCase(c);
+  }
+
+  /**
+   * An immutable open addressing table of folded names. Lengths without any name are rejected before hashing.
+   */
+  private static final class NameTable {
+    private final String[] names;
+    private final int[] hashes;
+    private final int mask;
+    private final long[] lengths;
+    private final int size;
+
+    private NameTable(List<String> entries) {
+      int maxLength = 0;
+      for (String entry : entries) {
+        maxLength = Math.max(maxLength, entry.length());
+      }
+      lengths = new long[(maxLength >> 6) + 1];
+      // at most half full, so probes stay short and always reach an empty slot
+      int capacity = Integer.highestOneBit(Math.max(entries.size(), 1)) << 2;
+      names = new String[capacity];
+      hashes = new int[capacity];
+      mask = capacity - 1;
+
+      int count = 0;
+      for (String entry : entries) {
+        char[] folded = new char[entry.length()];
+        for (int i = 0; i < folded.length; i++) {
+          folded[i] = fold(entry.charAt(i));
+        }
+        String name = new String(folded);
+        int hash = hash(entry);
+        int slot = hash & mask;
+        while (names[slot] != null && !(hashes[slot] == hash && names[slot].equals(name))) {
+          slot = (slot + 1) & mask;
+        }
+        if (names[slot] == null) {
+          names[slot] = name;
+          hashes[slot] = hash;
+          lengths[name.length() >> 6] |= 1L << name.length();
+          count++;
+        }
+      }
+      size = count;
+    }
+
+    private boolean contains(CharSequence s) {
+      int length = s.length();
+      if ((length >> 6) >= lengths.length || (lengths[length >> 6] & (1L << length)) == 0) {
+        return false;
+      }
+      int hash = hash(s);
+      for (int slot = hash & mask; names[slot] != null; slot = (slot + 1) & mask) {
+        if (hashes[slot] == hash && matches(names[slot], s)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private static int hash(CharSequence s) {
+      int h = 0;
+      for (int i = 0; i < s.length(); i++) {
+        h = 31 * h + fold(s.charAt(i));
+      }
+      return h ^ (h >>> 16);
+    }
+
+    private static boolean matches(String name, CharSequence s) {
+      if (name.length() != s.length()) {
+        return false;
+      }
+      for (int i = 0; i < name.length(); i++) {
+        if (name.charAt(i) != fold(s.charAt(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
   }
 }
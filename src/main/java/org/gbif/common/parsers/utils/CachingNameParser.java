@@ -0,0 +1,184 @@
+package org.gbif.common.parsers.utils;
+
+import org.gbif.api.exception.UnparsableException;
+import org.gbif.api.model.checklistbank.ParsedName;
+import org.gbif.api.service.checklistbank.NameParser;
+import org.gbif.api.vocabulary.NameType;
+import org.gbif.api.vocabulary.Rank;
+
+import javax.annotation.Nullable;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * A name parser remembering the parsed names of the most recent names and ranks, as scientific names repeat a lot
+ * within a dataset. Names which can't be parsed are remembered too and throw the same exception again, unless the
+ * parser gave up on them, as it does on a timeout.
+ *
+ * The cache is Thread-Safe and every distinct name and rank is parsed once even if several threads ask for it
+ * together. The parsed names are shared, so they must not be modified.
+ */
+public class CachingNameParser {
+
+  private final NameParser parser;
+  private final LoadingCache<NameKey, Parsed> cache;
+
+  /**
+   * @param parser      the parser whose names are cached
+   * @param maximumSize the number of names and ranks to remember at most
+   */
+  public CachingNameParser(NameParser parser, int maximumSize) {
+    Preconditions.checkNotNull(parser, "Parser required");
+    Preconditions.checkArgument(maximumSize > 0, "Maximum size must be positive");
+    this.parser = parser;
+    cache = CacheBuilder.newBuilder()
+      .maximumSize(maximumSize)
+      .recordStats()
+      .build(new CacheLoader<NameKey, Parsed>() {
+        @Override
+        public Parsed load(NameKey key) throws UnparsableException {
+          return parse(key);
+        }
+      });
+  }
+
+  /**
+   * Parses a name like the wrapped parser does.
+   *
+   * @return the shared parsed name, never null
+   *
+   * @throws UnparsableException if the name can't be parsed
+   */
+  public ParsedName parse(String scientificName, @Nullable Rank rank) throws UnparsableException {
+    if (scientificName == null) {
+      return parser.parse(null, rank);
+    }
+    Parsed parsed;
+    try {
+      parsed = cache.getUnchecked(new NameKey(scientificName, rank));
+    } catch (UncheckedExecutionException e) {
+      // a failure which isn't cached
+      if (e.getCause() instanceof UnparsableException) {
+        throw (UnparsableException) e.getCause();
+      }
+      throw Throwables.propagate(e.getCause());
+    }
+    if (parsed.error != null) {
+      throw parsed.error;
+    }
+    return parsed.name;
+  }
+
+  /**
+   * Parses names without rank that are expected soon, see {@link #warmUp(Iterable, Rank)}.
+   */
+  public void warmUp(Iterable<String> scientificNames) {
+    warmUp(scientificNames, null);
+  }
+
+  /**
+   * Parses names that are expected soon, such as the distinct names of a dataset, unless they are remembered already.
+   */
+  public void warmUp(Iterable<String> scientificNames, @Nullable Rank rank) {
+    for (String name : scientificNames) {
+      if (name != null) {
+        try {
+          cache.getUnchecked(new NameKey(name, rank));
+        } catch (UncheckedExecutionException e) {
+          // fails again once asked for
+        }
+      }
+    }
+  }
+
+  /**
+   * @return the statistics of the cache, evictions included
+   */
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  /**
+   * @return the number of names and ranks remembered
+   */
+  public long size() {
+    return cache.size();
+  }
+
+  /**
+   * Forgets all names.
+   */
+  public void clear() {
+    cache.invalidateAll();
+  }
+
+  private Parsed parse(NameKey key) throws UnparsableException {
+    try {
+      return new Parsed(parser.parse(key.name, key.rank), null);
+    } catch (UnparsableException e) {
+      if (!isCacheable(e)) {
+        throw e;
+      }
+      return new Parsed(null, e);
+    }
+  }
+
+  /**
+   * The parser tells what an unparsable name is, such as a placeholder or no name at all, but reports a scientific
+   * name it gave up on, as on a parsing timeout, as an unparsable scientific name. Only the former are final.
+   *
+   * @return true if the failure can be remembered
+   */
+  static boolean isCacheable(UnparsableException e) {
+    return e.getType() != NameType.SCIENTIFIC;
+  }
+
+  /**
+   * A parsed name or the reason it couldn't be parsed.
+   */
+  private static class Parsed {
+    private final ParsedName name;
+    private final UnparsableException error;
+
+    private Parsed(ParsedName name, UnparsableException error) {
+      this.name = name;
+      this.error = error;
+    }
+  }
+
+  /**
+   * Key of a name and an optional rank.
+   */
+  private static class NameKey {
+    private final String name;
+    private final Rank rank;
+    private final int hash;
+
+    private NameKey(String name, Rank rank) {
+      this.name = name;
+      this.rank = rank;
+      this.hash = name.hashCode() * 31 + (rank == null ? 0 : rank.hashCode());
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof NameKey)) {
+        return false;
+      }
+      NameKey that = (NameKey) obj;
+      return hash == that.hash && name.equals(that.name) && Objects.equal(rank, that.rank);
+    }
+  }
+}
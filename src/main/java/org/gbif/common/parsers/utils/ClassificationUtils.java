@@ -1,6 +1,8 @@
 package org.gbif.common.parsers.utils;
 
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.gbif.api.exception.UnparsableException;
 import org.gbif.api.model.checklistbank.ParsedName;
 import org.gbif.api.vocabulary.Rank;
@@ -8,8 +10,8 @@ import org.gbif.api.vocabulary.Rank;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.regex.Pattern;
 
+import static org.gbif.common.parsers.utils.NameParserUtils.CACHING_PARSER;
 import static org.gbif.common.parsers.utils.NameParserUtils.PARSER;
 
 /**
@@ -17,14 +19,14 @@ import static org.gbif.common.parsers.utils.NameParserUtils.PARSER;
  */
 public final class ClassificationUtils {
 
-  // used to clean up bad characters
-  private static final Pattern CLEAN_REG_EX = Pattern.compile("[{}§';_|$%!?]+");
-
   // common null strings to ignore for fast performance.
   // Less frequent ones are kept in the blacklisted names dictionary!
   public static final Set<String> NULL_STRINGS =
     new HashSet<String>(Arrays.asList("/N", "\\", "\\\\", "\\N", "\\\\N", "null", "NULL", "Null"));
 
+  // the full names without rank of the shared indetermined parsed names, kept as long as those are cached
+  private static final Cache<ParsedName, String> INDETERMINED_NAMES = CacheBuilder.newBuilder().weakKeys().build();
+
   private ClassificationUtils() {
     throw new UnsupportedOperationException("Can't initialize class");
   }
@@ -35,7 +37,7 @@ public final class ClassificationUtils {
   public static String canonicalName(String scientificName, Rank rank) {
     ParsedName pn = null;
     try {
-      pn = PARSER.parse(scientificName, rank);
+      pn = CACHING_PARSER.parse(scientificName, rank);
     } catch (UnparsableException e) {
     }
     return pn.canonicalNameWithMarker();
@@ -62,54 +64,92 @@ public final class ClassificationUtils {
       return null;
     }
 
-    String cleanedTaxon = taxon;
+    // one scan tells if it is a single word in ALL "UPPERCASE"
+    final int length = taxon.length();
+    boolean upperCaseWord = true;
+    for (int i = 0; i < length; i++) {
+      char c = taxon.charAt(i);
+      if (c > 0x7F) {
+        // case mappings beyond ASCII may change the length of a name
+        return cleanUnicode(taxon);
+      }
+      if (c == ' ' || c >= 'a' && c <= 'z') {
+        upperCaseWord = false;
+      }
+    }
+
+    // remove the " from names with it at the beginning and/or end, then noise and white space around the name
+    int from = 0;
+    int to = length;
+    while (from < to && taxon.charAt(from) == '\"') {
+      from++;
+    }
+    while (from < to && taxon.charAt(to - 1) == '\"') {
+      to--;
+    }
+    while (from < to && isNoiseOrWhitespace(taxon.charAt(from))) {
+      from++;
+    }
+    while (from < to && isNoiseOrWhitespace(taxon.charAt(to - 1))) {
+      to--;
+    }
+    if (from == to) {
+      return null;
+    }
 
     // if it is a single word and ALL "UPPERCASE", turn it into a Capitalised word
     // Note: if we lowercase names with multiple words we might accidently create valid looking names by lowercasing the
     // author
     // for example ABIES ALBA REMSEN will become an Abies alba remsen which will then be interpreted badly
     // ABIES ALBA LINNEAUS 1771 will even be Abies alba linneaus 1771, a perfectly formed zoological name
-    if (!cleanedTaxon.contains(" ") && cleanedTaxon.equals(cleanedTaxon.toUpperCase())) {
-      cleanedTaxon = cleanedTaxon.substring(0, 1) + cleanedTaxon.substring(1).toLowerCase();
-    }
-
-    // remove the " from names with it at the beginning and end
-    while (cleanedTaxon.length()> 0 && cleanedTaxon.charAt(0) == '\"' && cleanedTaxon.charAt(cleanedTaxon.length() - 1) == '\"') {
-      if (cleanedTaxon.length() == 1) {
-        return null;
+    // The noise is dropped on the way.
+    char[] name = new char[to - from];
+    int n = 0;
+    boolean changed = false;
+    for (int i = from; i < to; i++) {
+      char c = taxon.charAt(i);
+      if (!isNoise(c)) {
+        if (upperCaseWord && i > 0 && c >= 'A' && c <= 'Z') {
+          c = (char) (c + ('a' - 'A'));
+          changed = true;
+        }
+        name[n++] = c;
       }
-      cleanedTaxon = cleanedTaxon.substring(1, cleanedTaxon.length() - 1);
     }
 
-    // remove the " from names with it just at the beginning
-    while (cleanedTaxon.length()> 0 && cleanedTaxon.charAt(0) == '\"') {
-      if (cleanedTaxon.length() == 1) {
-        return null;
-      }
-      cleanedTaxon = cleanedTaxon.substring(1, cleanedTaxon.length());
-    }
+    String cleanedTaxon = n == length && !changed ? taxon : new String(name, 0, n);
 
-    // remove the " from names with it just at the end
-    while (cleanedTaxon.length()> 0 && cleanedTaxon.charAt(cleanedTaxon.length() - 1) == '\"') {
-      if (cleanedTaxon.length() == 1) {
-        return null;
-      }
-      cleanedTaxon = cleanedTaxon.substring(0, cleanedTaxon.length() - 1);
+    // don't let any blacklisted names through
+    if (BlacklistedNames.contains(cleanedTaxon) || (n != length && BlacklistedNames.contains(taxon))) {
+      return null;
     }
 
+    return cleanedTaxon;
+  }
 
-    // remove noise
-    cleanedTaxon = CLEAN_REG_EX.matcher(cleanedTaxon).replaceAll("");
-    cleanedTaxon = cleanedTaxon.trim();
+  /**
+   * Cleans up a taxon with characters beyond ASCII, whose upper and lower case may differ in length.
+   */
+  private static String cleanUnicode(String taxon) {
+    String cleanedTaxon = taxon;
+    if (!cleanedTaxon.contains(" ") && cleanedTaxon.equals(cleanedTaxon.toUpperCase())) {
+      cleanedTaxon = cleanedTaxon.substring(0, 1) + cleanedTaxon.substring(1).toLowerCase();
+    }
 
-    // don't let any blacklisted names through
-    if (BlacklistedNames.contains(cleanedTaxon.toUpperCase()) || (cleanedTaxon != taxon && BlacklistedNames
-      .contains(taxon.toUpperCase()))) {
-      // blacklisted name
-      return null;
+    int from = 0;
+    int to = cleanedTaxon.length();
+    while (from < to && cleanedTaxon.charAt(from) == '\"') {
+      from++;
+    }
+    while (from < to && cleanedTaxon.charAt(to - 1) == '\"') {
+      to--;
     }
+    cleanedTaxon = strip(cleanedTaxon, from, to);
 
-    return Strings.emptyToNull(cleanedTaxon);
+    if (cleanedTaxon == null || BlacklistedNames.contains(cleanedTaxon) || BlacklistedNames.contains(taxon)) {
+      return null;
+    }
+    return cleanedTaxon;
   }
 
   /**
@@ -124,21 +164,78 @@ public final class ClassificationUtils {
       return null;
     }
 
-    String cleanedAuthor = author;
-
     // remove the " from names with it at the beginning and end
-    while (cleanedAuthor.length() >0 && cleanedAuthor.charAt(0) == '\"' && cleanedAuthor.charAt(cleanedAuthor.length() - 1) == '\"') {
-      if (cleanedAuthor.length() == 1) {
+    int from = 0;
+    int to = author.length();
+    while (from < to && author.charAt(from) == '\"' && author.charAt(to - 1) == '\"') {
+      if (to - from == 1) {
         return null;
       }
-      cleanedAuthor = cleanedAuthor.substring(1, cleanedAuthor.length() - 1);
+      from++;
+      to--;
     }
 
-    // remove noise
-    cleanedAuthor = CLEAN_REG_EX.matcher(cleanedAuthor).replaceAll("");
-    cleanedAuthor = cleanedAuthor.trim();
+    return strip(author, from, to);
+  }
 
-    return Strings.emptyToNull(cleanedAuthor);
+  /**
+   * Removes the noise from a part of a value and trims it, copying the value only if there is noise inside.
+   *
+   * @return the cleaned part or null if nothing is left
+   */
+  private static String strip(String value, int from, int to) {
+    while (from < to && isNoiseOrWhitespace(value.charAt(from))) {
+      from++;
+    }
+    while (from < to && isNoiseOrWhitespace(value.charAt(to - 1))) {
+      to--;
+    }
+    if (from == to) {
+      return null;
+    }
+
+    StringBuilder sb = null;
+    for (int i = from; i < to; i++) {
+      char c = value.charAt(i);
+      if (isNoise(c)) {
+        if (sb == null) {
+          sb = new StringBuilder(to - from);
+          sb.append(value, from, i);
+        }
+      } else if (sb != null) {
+        sb.append(c);
+      }
+    }
+    return sb == null ? value.substring(from, to) : sb.toString();
+  }
+
+  /**
+   * @return true for the bad characters removed anywhere in a name
+   */
+  private static boolean isNoise(char c) {
+    switch (c) {
+      case '{':
+      case '}':
+      case '\u00A7':
+      case '\'':
+      case ';':
+      case '_':
+      case '|':
+      case '$':
+      case '%':
+      case '!':
+      case '?':
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * @return true for noise and the characters {@link String#trim()} removes
+   */
+  private static boolean isNoiseOrWhitespace(char c) {
+    return c <= ' ' || isNoise(c);
   }
 
   /**
@@ -158,10 +255,18 @@ public final class ClassificationUtils {
   public static String parseName(String scientificName, Rank rank) {
 
     try {
-      ParsedName pn = PARSER.parse(scientificName, rank);
+      ParsedName pn = CACHING_PARSER.parse(scientificName, rank);
       // Handle Aus sp. and Aus bus spp.
       if (pn.isIndetermined()) {
-          pn.setRank(null);
+        String fullName = INDETERMINED_NAMES.getIfPresent(pn);
+        if (fullName == null) {
+          // the cached name is shared, change a copy of our own once
+          ParsedName copy = PARSER.parse(scientificName, rank);
+          copy.setRank(null);
+          fullName = copy.fullName();
+          INDETERMINED_NAMES.put(pn, fullName);
+        }
+        return fullName;
       }
       return pn.fullName();
 
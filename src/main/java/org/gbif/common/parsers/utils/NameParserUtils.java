@@ -9,4 +9,6 @@ import org.gbif.nameparser.NameParserGbifV1;
  */
 public class NameParserUtils {
   public static final NameParser PARSER = new NameParserGbifV1(1000);
+  // the parsed names of the most recent names, shared by the parsers of this library
+  public static final CachingNameParser CACHING_PARSER = new CachingNameParser(PARSER, 50000);
 }
@@ -0,0 +1,113 @@
+package org.gbif.common.parsers;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A small utility timing {@link ContentTypeResolver} against a local stub server answering every HEAD request after
+ * a fixed latency. The URLs are spread over two host names of the server, and most of them share a pattern with
+ * others like the identifiers of an image server.
+ */
+public class ContentTypeResolverBenchmark {
+
+  private static final int ROUNDS = 3;
+  private static final String[] HOSTS = {"127.0.0.1", "localhost"};
+
+  /**
+   * @param args optional number of URLs, server latency in milliseconds and number of distinct patterns
+   */
+  public static void main(String[] args) throws Exception {
+    int urls = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+    final int latency = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+    int patterns = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+
+    HttpServer server = HttpServer.create(new InetSocketAddress(0), 0);
+    ExecutorService serverExecutor = Executors.newCachedThreadPool();
+    server.setExecutor(serverExecutor);
+    server.createContext("/", new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        try {
+          Thread.sleep(latency);
+          exchange.getResponseHeaders().set("Content-Type", "image/jpeg");
+          exchange.sendResponseHeaders(200, -1);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          exchange.close();
+        }
+      }
+    });
+    server.start();
+
+    try {
+      for (int round = 1; round <= ROUNDS; round++) {
+        Random random = new Random(round);
+        URI[] batch = new URI[urls];
+        for (int i = 0; i < urls; i++) {
+          // the collection is a word, the identifier a number
+          batch[i] = URI.create("http://" + HOSTS[i % HOSTS.length] + ":" + server.getAddress().getPort() + "/media/"
+                                + word(random.nextInt(patterns)) + "/" + random.nextInt(1000000));
+        }
+        time(round, batch);
+      }
+    } finally {
+      server.stop(0);
+      serverExecutor.shutdownNow();
+    }
+  }
+
+  /**
+   * @return a word of letters only, which a pattern keeps
+   */
+  private static String word(int n) {
+    StringBuilder sb = new StringBuilder();
+    do {
+      sb.append((char) ('a' + n % 26));
+      n /= 26;
+    } while (n > 0);
+    return sb.toString();
+  }
+
+  private static void time(int round, URI[] batch) throws InterruptedException {
+    ContentTypeResolver resolver = new ContentTypeResolver(64, 8, 5000, 10000);
+    try {
+      final long[] latencies = new long[batch.length];
+      final CountDownLatch done = new CountDownLatch(batch.length);
+      long start = System.nanoTime();
+      for (int i = 0; i < batch.length; i++) {
+        final int index = i;
+        final long submitted = System.nanoTime();
+        CompletableFuture<String> type = resolver.resolve(batch[i]);
+        type.whenComplete(new BiConsumer<String, Throwable>() {
+          @Override
+          public void accept(String contentType, Throwable throwable) {
+            latencies[index] = System.nanoTime() - submitted;
+            done.countDown();
+          }
+        });
+      }
+      done.await();
+      long nanos = System.nanoTime() - start;
+      Arrays.sort(latencies);
+      System.out.println("Round " + round + ": " + batch.length + " urls in " + nanos / 1000000 + "ms, "
+                         + batch.length * 1000000000L / nanos + " urls/s, " + resolver.getRequestCount()
+                         + " requests, latency median " + latencies[latencies.length / 2] / 1000000 + "ms, p99 "
+                         + latencies[latencies.length * 99 / 100] / 1000000 + "ms");
+    } finally {
+      resolver.close();
+    }
+  }
+}
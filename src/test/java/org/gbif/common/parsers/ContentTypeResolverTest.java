@@ -0,0 +1,201 @@
+package org.gbif.common.parsers;
+
+import org.gbif.api.model.common.MediaObject;
+import org.gbif.api.vocabulary.MediaType;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.collect.Lists;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ContentTypeResolverTest {
+
+  private HttpServer server;
+  private ExecutorService serverExecutor;
+  private final AtomicInteger requests = new AtomicInteger();
+  private final AtomicInteger running = new AtomicInteger();
+  private final AtomicInteger maxRunning = new AtomicInteger();
+
+  @Before
+  public void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    serverExecutor = Executors.newCachedThreadPool();
+    server.setExecutor(serverExecutor);
+    server.createContext("/", new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        int now = running.incrementAndGet();
+        while (maxRunning.get() < now && !maxRunning.compareAndSet(maxRunning.get(), now)) {
+        }
+        try {
+          String path = exchange.getRequestURI().getPath();
+          if (path.startsWith("/slow")) {
+            Thread.sleep(50);
+          }
+          // done before answering, the client may start its next request as soon as it has the headers
+          running.decrementAndGet();
+          if (path.startsWith("/image") || path.startsWith("/slow")) {
+            exchange.getResponseHeaders().set("Content-Type", "IMAGE/JPEG; charset=binary");
+            exchange.sendResponseHeaders(200, -1);
+          } else if (path.startsWith("/page")) {
+            exchange.getResponseHeaders().set("Content-Type", "text/html;charset=UTF-8");
+            exchange.sendResponseHeaders(200, -1);
+          } else {
+            exchange.sendResponseHeaders(404, -1);
+          }
+        } catch (InterruptedException e) {
+          running.decrementAndGet();
+          Thread.currentThread().interrupt();
+        } finally {
+          exchange.close();
+        }
+      }
+    });
+    server.start();
+  }
+
+  @After
+  public void stopServer() {
+    server.stop(0);
+    serverExecutor.shutdownNow();
+  }
+
+  private URI url(String path) {
+    return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+  }
+
+  @Test
+  public void testResolve() throws Exception {
+    ContentTypeResolver resolver = new ContentTypeResolver(4, 2, 1000, 100);
+    try {
+      assertEquals("image/jpeg", resolver.resolve(url("/image/12")).get(5, TimeUnit.SECONDS));
+      assertEquals("text/html", resolver.resolve(url("/page?id=12")).get(5, TimeUnit.SECONDS));
+      assertNull(resolver.resolve(url("/missing/12")).get(5, TimeUnit.SECONDS));
+      assertNull(resolver.resolve(null).get());
+      assertNull(resolver.resolve(URI.create("ftp://127.0.0.1/image/12")).get());
+      assertNull(resolver.resolve(URI.create("image/12")).get());
+      assertEquals(3, resolver.getRequestCount());
+
+      // same patterns
+      assertEquals("image/jpeg", resolver.resolve(url("/image/13")).get(5, TimeUnit.SECONDS));
+      assertEquals("text/html", resolver.resolve(url("/page?id=13")).get(5, TimeUnit.SECONDS));
+      // failures are not cached
+      assertNull(resolver.resolve(url("/missing/13")).get(5, TimeUnit.SECONDS));
+      assertEquals(4, resolver.getRequestCount());
+      assertEquals(4, requests.get());
+    } finally {
+      resolver.close();
+    }
+  }
+
+  @Test
+  public void testHostLimit() throws Exception {
+    ContentTypeResolver resolver = new ContentTypeResolver(8, 2, 1000, 100);
+    try {
+      List<CompletableFuture<String>> types = Lists.newArrayList();
+      for (char c = 'a'; c <= 'l'; c++) {
+        types.add(resolver.resolve(url("/slow/" + c)));
+        // shares the pending request
+        types.add(resolver.resolve(url("/slow/" + c)));
+      }
+      for (CompletableFuture<String> type : types) {
+        assertEquals("image/jpeg", type.get(5, TimeUnit.SECONDS));
+      }
+      assertEquals(12, requests.get());
+      assertTrue("Ran " + maxRunning.get() + " requests at once", maxRunning.get() <= 2);
+    } finally {
+      resolver.close();
+    }
+  }
+
+  @Test
+  public void testClose() throws Exception {
+    // one request running, one waiting for a thread and the others waiting for the host
+    ContentTypeResolver resolver = new ContentTypeResolver(1, 2, 1000, 100);
+    List<CompletableFuture<String>> types = Lists.newArrayList();
+    for (char c = 'a'; c <= 'e'; c++) {
+      types.add(resolver.resolve(url("/slow/" + c)));
+    }
+    while (requests.get() == 0) {
+      Thread.sleep(1);
+    }
+    resolver.close();
+    // the running request isn't interrupted
+    assertEquals("image/jpeg", types.get(0).get(5, TimeUnit.SECONDS));
+    for (CompletableFuture<String> type : types.subList(1, types.size())) {
+      assertNull(type.get(5, TimeUnit.SECONDS));
+    }
+    assertEquals(1, requests.get());
+    assertNull(resolver.resolve(url("/image/12")).get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testPattern() {
+    assertEquals("www.gbif.org:-1/images/*/large", ContentTypeResolver.pattern(
+      URI.create("http://WWW.gbif.org/images/IMG_1234/large")));
+    assertEquals("www.gbif.org:8080/image?id=*&size=thumb", ContentTypeResolver.pattern(
+      URI.create("http://www.gbif.org:8080/image?id=12&size=thumb")));
+    assertEquals("www.gbif.org:-1", ContentTypeResolver.pattern(URI.create("http://www.gbif.org")));
+    assertEquals("www.gbif.org:-1/", ContentTypeResolver.pattern(URI.create("http://www.gbif.org/")));
+  }
+
+  @Test
+  public void testDetectType() throws Exception {
+    MediaParser parser = MediaParser.getInstance();
+    ContentTypeResolver resolver = new ContentTypeResolver(4, 2, 1000, 100);
+    try {
+      MediaObject mo = new MediaObject();
+      mo.setIdentifier(url("/image/12"));
+      assertEquals(mo, parser.detectType(mo, resolver).get(5, TimeUnit.SECONDS));
+      assertEquals("image/jpeg", mo.getFormat());
+      assertEquals(MediaType.StillImage, mo.getType());
+      assertEquals(url("/image/12"), mo.getIdentifier());
+
+      mo = new MediaObject();
+      mo.setIdentifier(url("/page?id=12"));
+      parser.detectType(mo, resolver).get(5, TimeUnit.SECONDS);
+      assertNull(mo.getIdentifier());
+      assertEquals(url("/page?id=12"), mo.getReferences());
+
+      // unresolved
+      mo = new MediaObject();
+      mo.setIdentifier(url("/missing/12"));
+      parser.detectType(mo, resolver).get(5, TimeUnit.SECONDS);
+      assertNull(mo.getIdentifier());
+      assertEquals(url("/missing/12"), mo.getReferences());
+
+      // no request for file extensions and given formats
+      long count = resolver.getRequestCount();
+      mo = new MediaObject();
+      mo.setIdentifier(url("/page/abies_alba.mp3"));
+      parser.detectType(mo, resolver).get(5, TimeUnit.SECONDS);
+      assertEquals(MediaType.Sound, mo.getType());
+      mo = new MediaObject();
+      mo.setIdentifier(url("/page/abies_alba"));
+      mo.setFormat("image/png");
+      parser.detectType(mo, resolver).get(5, TimeUnit.SECONDS);
+      assertEquals(MediaType.StillImage, mo.getType());
+      assertEquals(count, resolver.getRequestCount());
+    } finally {
+      resolver.close();
+    }
+  }
+}
@@ -108,4 +108,18 @@ public class LicenseParserTest extends ParserTestBase<License> {
     assertEquals(License.UNSUPPORTED, parser.parseUriThenTitle(new URI("http://creativecommons.org/licenses/by/3.0/legalcode"), null));
     assertEquals(License.UNSUPPORTED, parser.parseUriThenTitle(new URI("http://opendatacommons.org/licenses/odbl/1.0"), null));
   }
+
+  @Test
+  public void testParseUrlThenTitle() {
+    LicenseParser parser = LicenseParser.getInstance();
+    assertEquals(License.UNSPECIFIED, parser.parseUrlThenTitle(null, null));
+    assertEquals(License.UNSPECIFIED, parser.parseUrlThenTitle(UrlParser.scan("http://creative commons.org"), null));
+    assertEquals(License.CC0_1_0, parser.parseUrlThenTitle(UrlParser.scan("http://creative commons.org"), "CC0"));
+    assertEquals(License.CC0_1_0,
+                 parser.parseUrlThenTitle(UrlParser.scan("http://creativecommons.org/publicdomain/zero/1.0/"), null));
+    assertEquals(License.CC_BY_4_0,
+                 parser.parseUrlThenTitle(UrlParser.scan(" http://creativecommons.org/licenses/by/4.0/"), null));
+    assertEquals(License.UNSUPPORTED,
+                 parser.parseUrlThenTitle(UrlParser.scan("http://opendatacommons.org/licenses/odbl/1.0"), null));
+  }
 }
@@ -4,11 +4,15 @@ import org.gbif.api.model.common.MediaObject;
 import org.gbif.api.vocabulary.MediaType;
 
 import java.net.URI;
+import java.util.List;
 
+import com.google.common.collect.Lists;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class MediaParserTest {
   private final MediaParser parser = MediaParser.getInstance();
@@ -64,6 +68,71 @@ public class MediaParserTest {
     assertEquals("text/html", parser.parseMimeType(URI.create("http://arctos.database.museum/MediaSearch.pl?action=search")));
   }
 
+  @Test
+  public void testParseMimeTypeOfScannedUrl() throws Exception {
+    assertNull(parser.parseMimeType((ParsedUrl) null));
+    assertNull(parser.parseMimeType(UrlParser.scan("abies alba.jpg")));
+    assertEquals("image/jpeg", parser.parseMimeType(UrlParser.scan("abies_alba.jpg")));
+    assertEquals("image/jpeg", parser.parseMimeType(UrlParser.scan("www.gbif.org/abies_alba.JPG")));
+    assertEquals("audio/mpeg", parser.parseMimeType(UrlParser.scan(" http://www.gbif.org/abies_alba.mp3 ")));
+    assertEquals("text/html", parser.parseMimeType(UrlParser.scan("http://www.gbif.org/image?id=12")));
+  }
+
+  @Test
+  public void testParseMimeTypeByExtension() throws Exception {
+    assertEquals("text/x-csrc", parser.parseMimeType(URI.create("http://www.gbif.org/main.c")));
+    assertEquals("text/x-c++src", parser.parseMimeType(URI.create("http://www.gbif.org/main.C")));
+    assertEquals("application/gzip", parser.parseMimeType(URI.create("http://www.gbif.org/images.tar.gz")));
+    assertEquals("application/gzip", parser.parseMimeType(URI.create("http://www.gbif.org/images-gz")));
+    assertEquals("text/x-asciidoc", parser.parseMimeType(URI.create("http://www.gbif.org/readme.ad.txt")));
+    assertEquals("text/plain", parser.parseMimeType(URI.create("http://www.gbif.org/readme.txt")));
+    assertEquals("image/jpeg", parser.parseMimeType(URI.create("http://www.gbif.org/abies%20alba.jpg?size=large")));
+    assertEquals("text/html", parser.parseMimeType(URI.create("http://www.gbif.org/abies.jpg/")));
+    assertEquals("text/html", parser.parseMimeType(URI.create("mailto:abies.jpg")));
+  }
+
+  @Test
+  public void testCacheStats() throws Exception {
+    long hits = parser.getExtensionCacheStats().hitCount();
+    parser.parseMimeType(URI.create("http://www.gbif.org/abies_alba.png"));
+    parser.parseMimeType(URI.create("http://www.gbif.org/picea_abies.png"));
+    assertTrue(parser.getExtensionCacheStats().hitCount() > hits);
+
+    hits = parser.getMimeTypeCacheStats().hitCount();
+    parser.parseMimeType("image/png");
+    parser.parseMimeType(" IMAGE/PNG");
+    assertTrue(parser.getMimeTypeCacheStats().hitCount() > hits);
+  }
+
+  @Test
+  public void testDetectTypes() throws Exception {
+    List<MediaObject> media = Lists.newArrayList();
+    List<MediaObject> expected = Lists.newArrayList();
+    String[][] values = {{null, "http://www.gbif.org/abies_alba.jpg"}, {"audio/mp3", "http://www.gbif.org/abies_alba.jpg"},
+      {null, "http://www.gbif.org/image?id=12"}, {"image/jpeg", null}, {null, null}, {"", "abies_alba.mp3"},
+      {"text/html", "http://www.gbif.org/abies_alba.jpg"}, {"application/pdf", "http://www.gbif.org/abies.pdf"}};
+    for (int i = 0; i < 10000; i++) {
+      String[] value = values[i % values.length];
+      media.add(buildMO(value[0], value[1]));
+      expected.add(parser.detectType(buildMO(value[0], value[1])));
+    }
+    media.add(null);
+
+    UrlInterner interner = new UrlInterner();
+    assertSame(media, parser.detectTypes(media, interner));
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.get(i).getType(), media.get(i).getType());
+      assertEquals(expected.get(i).getFormat(), media.get(i).getFormat());
+      assertEquals(expected.get(i).getIdentifier(), media.get(i).getIdentifier());
+      assertEquals(expected.get(i).getReferences(), media.get(i).getReferences());
+    }
+    assertNull(media.get(media.size() - 1));
+    // identifiers moved to the references are interned too
+    assertEquals(4, interner.size());
+    assertSame(media.get(0).getIdentifier(), media.get(values.length).getIdentifier());
+    assertSame(media.get(2).getReferences(), media.get(2 + values.length).getReferences());
+  }
+
   @Test
   public void testParseHtmlMediaLink() throws Exception {
     MediaObject mo = buildMO(null, "http://www.gbif.org/image?id=12");
@@ -0,0 +1,60 @@
+package org.gbif.common.parsers;
+
+import org.gbif.api.vocabulary.TypeStatus;
+import org.gbif.common.parsers.core.ParseResult;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+public class TypeStatusInterpreterTest {
+
+  private final TypeStatusInterpreter interpreter = TypeStatusInterpreter.getInstance();
+
+  @Test
+  public void testInterpret() {
+    TypeStatusInterpreter.Interpretation i = interpreter.interpret("Holotype of Abies alba");
+    assertEquals(TypeStatus.HOLOTYPE, i.getTypeStatus().getPayload());
+    assertEquals(ParseResult.STATUS.SUCCESS, i.getTypifiedName().getStatus());
+    assertSame(i.getTypifiedName(), i.getTypifiedName());
+
+    assertEquals(TypeStatus.PARATYPE, interpreter.interpret("paratype(s)").getTypeStatus().getPayload());
+    assertFalse(interpreter.interpret("paratype(s)").getTypifiedName().isSuccessful());
+    assertFalse(interpreter.interpret(null).getTypeStatus().isSuccessful());
+    assertFalse(interpreter.interpret("").getTypifiedName().isSuccessful());
+  }
+
+  @Test
+  public void testSameAsParsers() {
+    for (String value : new String[] {"Holotype of Abies alba", " Holotype of: Abies alba", " Holotype of  Abies alba.",
+      "Holotype of Dianthus fruticosus ssp. amorginus Runemark", "Part of Holotype", "Cast of holotype", "mark",
+      "Holotype of ?", "Holotype of, Abies alba", "Holotype  of Abies alba", "Holotype of Abies of Mill.",
+      "Holotype of\nAbies alba", "of Abies alba", "Holotype\tof\tAbies alba", "HOLOTYPE OF ABIES ALBA"}) {
+      TypeStatusInterpreter.Interpretation i = interpreter.interpret(value);
+      assertResult(TypeStatusParser.getInstance().parse(value), i.getTypeStatus());
+      assertResult(TypifiedNameParser.getInstance().parse(value), i.getTypifiedName());
+    }
+  }
+
+  @Test
+  public void testBatch() {
+    List<String> values = Arrays.asList("Holotype of Abies alba", null, "allotype", "Holotype of Abies alba");
+    List<TypeStatusInterpreter.Interpretation> interpretations = interpreter.interpretAll(values);
+    assertEquals(4, interpretations.size());
+    assertEquals(TypeStatus.HOLOTYPE, interpretations.get(0).getTypeStatus().getPayload());
+    assertFalse(interpretations.get(1).getTypeStatus().isSuccessful());
+    assertEquals(TypeStatus.ALLOTYPE, interpretations.get(2).getTypeStatus().getPayload());
+    assertSame(interpretations.get(0), interpretations.get(3));
+  }
+
+  private static void assertResult(ParseResult<?> expected, ParseResult<?> result) {
+    assertEquals(expected.getStatus(), result.getStatus());
+    assertEquals(expected.getConfidence(), result.getConfidence());
+    assertEquals(expected.getPayload(), result.getPayload());
+  }
+}
@@ -1,9 +1,15 @@
 package org.gbif.common.parsers;
 
+import java.net.URI;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class UrlParserTest {
 
@@ -24,6 +30,53 @@ public class UrlParserTest {
       UrlParser.parse("http://www.gbif.org/image?id=12&format=gif,jpg").toString());
   }
 
+  @Test
+  public void testScan() throws Exception {
+    ParsedUrl url = UrlParser.scan(" http://www.gbif.org:8080/img/logo.png?id=12#top ");
+    assertTrue(url.isUrl());
+    assertEquals("http://www.gbif.org:8080/img/logo.png?id=12#top", url.toString());
+    assertEquals("http", url.getScheme());
+    assertTrue(url.hasScheme("HTTP"));
+    assertEquals("www.gbif.org", url.getHost());
+    assertEquals(8080, url.getPort());
+    assertEquals("/img/logo.png", url.getPath());
+    assertEquals(24, url.getPathStart());
+    assertEquals(37, url.getPathEnd());
+    assertEquals("id=12", url.getQuery());
+    assertEquals("top", url.getFragment());
+    assertEquals(URI.create(url.toString()), url.toUri());
+
+    url = UrlParser.scan("www.gbif.org/logo.png");
+    assertTrue(url.isUrl());
+    assertEquals("http://www.gbif.org/logo.png", url.toString());
+    assertEquals("http", url.getScheme());
+    assertEquals("www.gbif.org", url.getHost());
+    assertEquals("/logo.png", url.getPath());
+
+    url = UrlParser.scan("http://[::1]/logo.png");
+    assertTrue(url.isUrl());
+    assertEquals("[::1]", url.getHost());
+    assertEquals(-1, url.getPort());
+
+    // valid, but no host
+    url = UrlParser.scan("images/logo.gif");
+    assertTrue(url.isValid());
+    assertFalse(url.isUrl());
+    assertNull(url.getScheme());
+    assertNull(url.getHost());
+    assertEquals("images/logo.gif", url.getPath());
+    assertFalse(UrlParser.scan("http://gbif_org/logo.png").isUrl());
+
+    url = UrlParser.scan("http://www.gbif.org/logo 2.png");
+    assertFalse(url.isValid());
+    assertEquals(24, url.getErrorIndex());
+    assertNull(url.getHost());
+    assertNull(url.toUri());
+    assertEquals(16, UrlParser.scan("http://gbif.org/%zz").getErrorIndex());
+    assertEquals(0, UrlParser.scan(null).getErrorIndex());
+    assertFalse(UrlParser.scan(" ").isValid());
+  }
+
   @Test
   public void testParseUriList() throws Exception {
     assertEquals(0, UrlParser.parseUriList(null).size());
@@ -44,5 +97,60 @@ public class UrlParserTest {
     assertEquals(2, UrlParser.parseUriList("http://gbif.org/logo.png |#DELIMITER#| http://gbif.org/logo2.png").size());
 
     assertEquals(3, UrlParser.parseUriList("http://gbif.org/logo.png, http://gbif.org/logo2.png, http://gbif.org/logo3.png").size());
+
+    // junk and empty fragments are skipped
+    assertEquals(2, UrlParser.parseUriList("http://gbif.org/logo.png||tim.png| |www.gbif.org/logo2.png|-").size());
+    assertEquals(0, UrlParser.parseUriList("tim.png, images/logo.gif; -").size());
+    // the delimiter giving most URIs wins, even if another one appears inside the URIs
+    assertEquals(Lists.newArrayList(URI.create("http://gbif.org/img?id=1,2"), URI.create("http://gbif.org/img?id=3")),
+                 UrlParser.parseUriList("http://gbif.org/img?id=1,2; http://gbif.org/img?id=3"));
+    assertEquals(2, UrlParser.parseUriList("http://gbif.org/a.png |#DELIMITER#| http://gbif.org/b.png |#DELIMITER#| junk").size());
+  }
+
+  /**
+   * Compares the scanner with java.net.URI on generated valid and invalid references.
+   */
+  @Test
+  public void testScannerSameAsUri() throws Exception {
+    String[] seeds = {"http://gbif.org/logo.png", "www.gbif.org/a.jpg", "https://x.org/i?id=1&f=a,b#frag", "//host/p",
+      "ftp://u:p@h:21/x", "tim.png", "-", "urn:x:y", "mailto:x@y.org", "http://[::1]/x",
+      "http://[1:2:3:4:5:6:1.2.3.4]:8/", "http://[fe80::1%25eth0]/", "http://\u00fcn\u00ef.org/x", "http://h/%zz",
+      "http://h/%2F", "a:b//c", "HTTP://X.ORG", "http://h:x/", "file:///tmp/x", "http://1.2.3.400/", "http://a_b.org/",
+      "http://-a.org/", "http://a.1b/", "http://a@/", "http://:80/", "?q", "#f", "", "http://h.org./x", "1a:b",
+      "http://h?x#y#z", "http://[1::2::3]/", "http://1.2.3/", "\u00e9:x"};
+    String chars = "/:.@[]%?#_-~!$&'()*+,;= 0aZ\u00fc x1FF%2";
+    Random random = new Random(11);
+    UrlScanner scanner = new UrlScanner();
+    for (int i = 0; i < 200000; i++) {
+      StringBuilder sb = new StringBuilder(seeds[random.nextInt(seeds.length)]);
+      for (int edits = random.nextInt(4); edits > 0; edits--) {
+        int at = random.nextInt(sb.length() + 1);
+        if (random.nextInt(3) == 0 && at < sb.length()) {
+          sb.deleteCharAt(at);
+        } else {
+          sb.insert(at, chars.charAt(random.nextInt(chars.length())));
+        }
+      }
+      String reference = sb.toString();
+
+      URI uri = null;
+      try {
+        uri = URI.create(reference);
+      } catch (IllegalArgumentException e) {
+        // invalid
+      }
+      assertEquals(reference, uri != null, scanner.scan(reference, 0, reference.length(), false));
+      if (uri != null) {
+        ParsedUrl url = new ParsedUrl(reference, 0, scanner);
+        assertEquals(reference, uri.getScheme(), url.getScheme());
+        assertEquals(reference, uri.getHost(), url.getHost());
+        assertEquals(reference, uri.getPort(), url.getPort());
+        assertEquals(reference, uri.getRawPath(), url.getPath());
+        assertEquals(reference, uri.getRawQuery(), url.getQuery());
+        assertEquals(reference, uri.getRawFragment(), url.getFragment());
+      }
+      // never throws
+      UrlParser.parseUriList(reference + ", " + reference);
+    }
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,57 @@
+package org.gbif.common.parsers.core;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class FrozenDictionaryTest {
+
+  @Test
+  public void testGet() {
+    FrozenDictionary<Integer> dict = FrozenDictionary.copyOf(ImmutableMap.of("NAD27", 6267, "WGS84", 4326, "", 0));
+    assertEquals(3, dict.size());
+    assertEquals(Integer.valueOf(6267), dict.get("NAD27"));
+    assertEquals(Integer.valueOf(0), dict.get(""));
+    assertNull(dict.get("nad27"));
+    assertNull(dict.get("NAD2"));
+    assertNull(dict.get((String) null));
+
+    char[] chars = "xxWGS84NAD27".toCharArray();
+    assertEquals(Integer.valueOf(4326), dict.get(chars, 2, 7));
+    assertEquals(Integer.valueOf(6267), dict.get(chars, 7, 12));
+    assertNull(dict.get(chars, 2, 12));
+  }
+
+  @Test
+  public void testEmpty() {
+    FrozenDictionary<Integer> dict = FrozenDictionary.copyOf(new HashMap<String, Integer>());
+    assertEquals(0, dict.size());
+    assertNull(dict.get("A"));
+  }
+
+  @Test
+  public void testCollisions() {
+    Map<String, Integer> map = new HashMap<String, Integer>();
+    for (int i = 0; i < 5000; i++) {
+      map.put(Integer.toString(i, 36), i);
+    }
+    // same String hash code
+    map.put("Aa", -1);
+    map.put("BB", -2);
+    FrozenDictionary<Integer> dict = FrozenDictionary.copyOf(map);
+    assertEquals(map.size(), dict.size());
+    for (Map.Entry<String, Integer> entry : map.entrySet()) {
+      assertEquals(entry.getValue(), dict.get(entry.getKey()));
+    }
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testInvalidSlice() {
+    FrozenDictionary.copyOf(ImmutableMap.of("A", 1)).get(new char[2], 1, 3);
+  }
+}
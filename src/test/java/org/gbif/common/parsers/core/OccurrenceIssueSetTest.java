@@ -0,0 +1,96 @@
+package org.gbif.common.parsers.core;
+
+import org.gbif.api.vocabulary.OccurrenceIssue;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class OccurrenceIssueSetTest {
+
+  @Test
+  public void testSharedInstances() {
+    assertSame(OccurrenceIssueSet.empty(), OccurrenceIssueSet.of((OccurrenceIssue) null));
+    assertSame(OccurrenceIssueSet.empty(), OccurrenceIssueSet.of());
+    assertSame(OccurrenceIssueSet.empty(), OccurrenceIssueSet.fromBits(0));
+    assertSame(OccurrenceIssueSet.empty(), OccurrenceIssueSet.copyOf(EnumSet.noneOf(OccurrenceIssue.class)));
+    for (OccurrenceIssue issue : OccurrenceIssue.values()) {
+      assertSame(OccurrenceIssueSet.of(issue), OccurrenceIssueSet.of(issue, null, issue));
+      assertSame(OccurrenceIssueSet.of(issue), OccurrenceIssueSet.fromBits(OccurrenceIssueSet.bit(issue)));
+      assertSame(OccurrenceIssueSet.of(issue), OccurrenceIssueSet.empty().with(issue));
+    }
+  }
+
+  @Test
+  public void testSetContract() {
+    Random random = new Random(7);
+    OccurrenceIssue[] all = OccurrenceIssue.values();
+    for (int i = 0; i < 1000; i++) {
+      Set<OccurrenceIssue> expected = EnumSet.noneOf(OccurrenceIssue.class);
+      int count = random.nextInt(6);
+      for (int j = 0; j < count; j++) {
+        expected.add(all[random.nextInt(all.length)]);
+      }
+      OccurrenceIssueSet issues = OccurrenceIssueSet.copyOf(expected);
+      assertEquals(expected, issues);
+      assertEquals(issues, expected);
+      assertEquals(expected.hashCode(), issues.hashCode());
+      assertEquals(expected.size(), issues.size());
+      assertEquals(expected.isEmpty(), issues.isEmpty());
+      // iteration in declaration order like EnumSet
+      assertEquals(Arrays.asList(expected.toArray()), Arrays.asList(issues.toArray()));
+      assertEquals(issues, OccurrenceIssueSet.fromBits(issues.getBits()));
+      for (OccurrenceIssue issue : all) {
+        assertEquals(expected.contains(issue), issues.contains(issue));
+      }
+    }
+    assertFalse(OccurrenceIssueSet.empty().contains("ZERO_COORDINATE"));
+    assertFalse(OccurrenceIssueSet.empty().contains(null));
+  }
+
+  @Test
+  public void testWithAndUnion() {
+    OccurrenceIssueSet rounded = OccurrenceIssueSet.of(OccurrenceIssue.COORDINATE_ROUNDED);
+    OccurrenceIssueSet both = rounded.with(OccurrenceIssue.ZERO_COORDINATE);
+    assertEquals(EnumSet.of(OccurrenceIssue.COORDINATE_ROUNDED, OccurrenceIssue.ZERO_COORDINATE), both);
+    assertSame(both, both.with(OccurrenceIssue.ZERO_COORDINATE));
+    assertSame(both, both.union(rounded));
+    assertEquals(both, rounded.union(OccurrenceIssueSet.of(OccurrenceIssue.ZERO_COORDINATE)));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testImmutable() {
+    OccurrenceIssueSet.of(OccurrenceIssue.COORDINATE_ROUNDED).add(OccurrenceIssue.ZERO_COORDINATE);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testIteratorImmutable() {
+    Iterator<OccurrenceIssue> iter = OccurrenceIssueSet.of(OccurrenceIssue.COORDINATE_ROUNDED).iterator();
+    iter.next();
+    iter.remove();
+  }
+
+  @Test
+  public void testOccurrenceParseResult() {
+    OccurrenceParseResult<String> result = OccurrenceParseResult.fail(OccurrenceIssue.COORDINATE_INVALID);
+    assertSame(OccurrenceIssueSet.of(OccurrenceIssue.COORDINATE_INVALID), result.getIssues());
+    result.addIssue(OccurrenceIssue.ZERO_COORDINATE);
+    assertEquals(EnumSet.of(OccurrenceIssue.COORDINATE_INVALID, OccurrenceIssue.ZERO_COORDINATE), result.getIssues());
+    assertEquals(OccurrenceIssueSet.bit(OccurrenceIssue.COORDINATE_INVALID)
+                 | OccurrenceIssueSet.bit(OccurrenceIssue.ZERO_COORDINATE), result.getIssueBits());
+
+    assertTrue(OccurrenceParseResult.success(ParseResult.CONFIDENCE.DEFINITE, "x", (OccurrenceIssue) null)
+                 .getIssues().isEmpty());
+    assertEquals(EnumSet.of(OccurrenceIssue.COORDINATE_ROUNDED), OccurrenceParseResult
+      .fail("x", Arrays.asList(OccurrenceIssue.COORDINATE_ROUNDED, null)).getIssues());
+  }
+}
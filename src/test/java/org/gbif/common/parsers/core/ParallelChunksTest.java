@@ -0,0 +1,51 @@
+package org.gbif.common.parsers.core;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelChunksTest {
+
+  @Test
+  public void testProcess() {
+    for (int size : new int[] {0, 1, 99, 100, 101, 1000, 12345}) {
+      final AtomicIntegerArray visits = new AtomicIntegerArray(size);
+      ParallelChunks.process(size, 100, new ParallelChunks.Processor() {
+        @Override
+        public void process(int from, int to) {
+          assertTrue(to - from <= 100);
+          for (int i = from; i < to; i++) {
+            visits.incrementAndGet(i);
+          }
+        }
+      });
+      for (int i = 0; i < size; i++) {
+        assertEquals("Row " + i + " of " + size, 1, visits.get(i));
+      }
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testProcessorException() {
+    ParallelChunks.process(1000, 10, new ParallelChunks.Processor() {
+      @Override
+      public void process(int from, int to) {
+        if (from == 500) {
+          throw new IllegalStateException("Chunk failed");
+        }
+      }
+    });
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidChunkSize() {
+    ParallelChunks.process(10, 0, new ParallelChunks.Processor() {
+      @Override
+      public void process(int from, int to) {
+      }
+    });
+  }
+}
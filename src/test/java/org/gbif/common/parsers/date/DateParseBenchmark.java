@@ -0,0 +1,88 @@
+package org.gbif.common.parsers.date;
+
+import org.gbif.common.parsers.core.ParseResult;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * A small utility comparing the throughput of the SimpleDateFormat based {@link StringToDateParser} with the
+ * java.time based {@link ThreeTenStringToDateParser} used by {@link DateParseUtils}.
+ * Takes a tab delimited input file of day \t month \t year, by default the dayMonthYear.txt.gz file found in
+ * src/test/resources, and parses every field as well as the day/month/year and year-month-day concatenations.
+ */
+public class DateParseBenchmark {
+
+  private static final int ROUNDS = 5;
+
+  /**
+   * @param args optional inputFile
+   */
+  public static void main(String[] args) throws IOException {
+    List<String> inputs = read(args.length > 0 ? args[0] : null);
+    System.out.println("Inputs: " + inputs.size());
+
+    StringToDateParser legacy = new StringToDateParser();
+    ThreeTenStringToDateParser threeTen = new ThreeTenStringToDateParser();
+    for (int round = 1; round <= ROUNDS; round++) {
+      long start = System.nanoTime();
+      int legacyParsed = 0;
+      for (String input : inputs) {
+        if (legacy.parse(input).isSuccessful()) {
+          legacyParsed++;
+        }
+      }
+      long legacyNanos = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      int parsed = 0;
+      for (String input : inputs) {
+        ParseResult<TemporalAccessor> result = threeTen.parse(input);
+        if (result.isSuccessful()) {
+          // the conversion is part of what DateParseUtils does
+          ThreeTenStringToDateParser.toDate(result.getPayload());
+          parsed++;
+        }
+      }
+      long nanos = System.nanoTime() - start;
+
+      System.out.println("Round " + round + ": StringToDateParser " + legacyParsed + " dates in " + legacyNanos / 1000000
+                         + "ms (" + legacyNanos / inputs.size() + "ns/input), ThreeTenStringToDateParser " + parsed
+                         + " dates in " + nanos / 1000000 + "ms (" + nanos / inputs.size() + "ns/input)");
+    }
+  }
+
+  private static List<String> read(String file) throws IOException {
+    InputStream in = file == null
+      ? DateParseBenchmark.class.getResourceAsStream("/parse/date/dayMonthYear.txt.gz")
+      : new FileInputStream(file);
+    if (file == null || file.endsWith(".gz")) {
+      in = new GZIPInputStream(in);
+    }
+    List<String> inputs = new ArrayList<String>();
+    BufferedReader r = new BufferedReader(new InputStreamReader(in));
+    try {
+      String line;
+      while ((line = r.readLine()) != null) {
+        String[] dmy = line.split("\t", -1);
+        for (String value : dmy) {
+          inputs.add(DateParseUtils.normalizeMonth(value));
+        }
+        if (dmy.length == 3) {
+          inputs.add(dmy[0] + "/" + DateParseUtils.normalizeMonth(dmy[1]) + "/" + dmy[2]);
+          inputs.add(dmy[2] + "-" + DateParseUtils.normalizeMonth(dmy[1]) + "-" + dmy[0]);
+        }
+      }
+    } finally {
+      r.close();
+    }
+    return inputs;
+  }
+}
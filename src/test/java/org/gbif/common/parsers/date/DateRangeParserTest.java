@@ -0,0 +1,84 @@
+package org.gbif.common.parsers.date;
+
+import org.gbif.common.parsers.core.ParseResult;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.time.YearMonth;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link DateRangeParser}.
+ */
+public class DateRangeParserTest {
+
+  private final DateRangeParser parser = new DateRangeParser();
+
+  @Test
+  public void testParse() {
+    assertRange(LocalDate.of(2004, 5, 1), LocalDate.of(2004, 6, 15), "2004-05-01/2004-06-15");
+    assertRange(Year.of(1998), Year.of(1999), "1998/1999");
+    assertRange(YearMonth.of(2004, 5), YearMonth.of(2004, 6), "2004-05/2004-06");
+    assertRange(YearMonth.of(2004, 5), LocalDate.of(2004, 6, 15), "2004-5/2004-6-15");
+    assertRange(LocalDate.of(2004, 5, 1), LocalDate.of(2004, 5, 1), "2004-05-01/2004-05-01");
+    assertRange(LocalDate.of(2004, 5, 1), LocalDate.of(2004, 6, 15), " 2004-05-01 / 2004-06-15 ");
+
+    // abbreviated ends
+    assertRange(LocalDate.of(2004, 5, 1), LocalDate.of(2004, 5, 15), "2004-05-01/15");
+    assertRange(LocalDate.of(2004, 5, 1), LocalDate.of(2004, 6, 15), "2004-05-01/06-15");
+    assertRange(YearMonth.of(2004, 5), YearMonth.of(2004, 8), "2004-05/08");
+
+    // ends given to the numerical parser
+    assertRange(LocalDate.of(2004, 5, 1), LocalDate.of(2004, 6, 15), "20040501/20040615");
+    assertRange(LocalDateTime.of(2004, 5, 1, 10, 0), LocalDate.of(2004, 5, 2), "2004-05-01T10:00/2004-05-02");
+  }
+
+  @Test
+  public void testEpochDays() {
+    DateRange range = parser.parse("2004-05/2004-06").getPayload();
+    assertEquals(LocalDate.of(2004, 5, 1).toEpochDay(), range.getStartEpochDay());
+    assertEquals(LocalDate.of(2004, 6, 30).toEpochDay(), range.getEndEpochDay());
+    assertTrue(range.contains(LocalDate.of(2004, 6, 30).toEpochDay()));
+    assertFalse(range.contains(LocalDate.of(2004, 7, 1).toEpochDay()));
+
+    range = parser.parse("1998/1999").getPayload();
+    assertEquals(LocalDate.of(1998, 1, 1).toEpochDay(), range.getStartEpochDay());
+    assertEquals(LocalDate.of(1999, 12, 31).toEpochDay(), range.getEndEpochDay());
+  }
+
+  @Test
+  public void testFailures() {
+    String[] inputs = {null, "", " ", "2004-05-01", "2004/05/01", "1998/99", "2004-06-15/2004-05-01", "2004-05-01/32",
+      "2004-05-01/02-30", "2004-13/2004-14", "2004-05-01/", "/2004-05-01", "2004-05-01/ab", "2004-05-/2004-06",
+      "2004/2005/2006", "05/2004", "2004/05-01"};
+    for (String input : inputs) {
+      assertEquals(input, ParseResult.STATUS.FAIL, parser.parse(input).getStatus());
+    }
+  }
+
+  @Test
+  public void testIsIsoInterval() {
+    assertTrue(DateRangeParser.isIsoInterval("2004-05-01/2004-06-15"));
+    assertTrue(DateRangeParser.isIsoInterval("2004-05-01/15"));
+    assertFalse(DateRangeParser.isIsoInterval("2004/05/01"));
+    assertFalse(DateRangeParser.isIsoInterval("1/2/2004"));
+    assertFalse(DateRangeParser.isIsoInterval("2004-05-01"));
+    assertFalse(DateRangeParser.isIsoInterval(null));
+
+    // intervals are not single dates
+    assertEquals(ParseResult.STATUS.FAIL, DateParsers.defaultTemporalParser().parse("2004-05-01/2004-06-15").getStatus());
+  }
+
+  private void assertRange(Object expectedFrom, Object expectedTo, String input) {
+    ParseResult<DateRange> result = parser.parse(input);
+    assertEquals(input, ParseResult.STATUS.SUCCESS, result.getStatus());
+    assertEquals(input, expectedFrom, result.getPayload().getFrom());
+    assertEquals(input, expectedTo, result.getPayload().getTo());
+  }
+}
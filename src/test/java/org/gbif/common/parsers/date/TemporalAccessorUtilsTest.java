@@ -1,5 +1,7 @@
 package org.gbif.common.parsers.date;
 
+import org.gbif.common.parsers.core.ParseResult;
+
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
@@ -8,7 +10,9 @@ import java.time.YearMonth;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 import org.junit.Test;
 
@@ -81,6 +85,74 @@ public class TemporalAccessorUtilsTest {
     assertEquals(testTimeUTC.toEpochSecond(), date.getTime()/1000);
   }
 
+  @Test
+  public void testToEpochDay(){
+    assertEquals(LocalDate.of(2000, 2, 1).toEpochDay(), TemporalAccessorUtils.toStartEpochDay(YearMonth.of(2000, 2)));
+    assertEquals(LocalDate.of(2000, 2, 29).toEpochDay(), TemporalAccessorUtils.toEndEpochDay(YearMonth.of(2000, 2)));
+    assertEquals(LocalDate.of(1900, 2, 28).toEpochDay(), TemporalAccessorUtils.toEndEpochDay(YearMonth.of(1900, 2)));
+    assertEquals(LocalDate.of(-45, 1, 1).toEpochDay(), TemporalAccessorUtils.toStartEpochDay(Year.of(-45)));
+    assertEquals(LocalDate.of(2000, 12, 31).toEpochDay(), TemporalAccessorUtils.toEndEpochDay(Year.of(2000)));
+    assertEquals(LocalDate.of(2000, 1, 1).toEpochDay(),
+                 TemporalAccessorUtils.toEndEpochDay(LocalDateTime.of(2000, 1, 1, 2, 3, 4)));
+    assertEquals(TemporalAccessorUtils.NO_EPOCH_VALUE, TemporalAccessorUtils.toStartEpochDay(null));
+
+    // same computation as LocalDate for every month over 2 leap cycles of 400 years
+    for (int year = -400; year <= 400; year++) {
+      for (int month = 1; month <= 12; month++) {
+        YearMonth ym = YearMonth.of(year, month);
+        assertEquals(ym.atDay(1).toEpochDay(), TemporalAccessorUtils.toStartEpochDay(ym));
+        assertEquals(ym.atEndOfMonth().toEpochDay(), TemporalAccessorUtils.toEndEpochDay(ym));
+      }
+    }
+  }
+
+  @Test
+  public void testToEpochMilli(){
+    assertEquals(YEAR2000_1JAN_EPOCH_UTC, TemporalAccessorUtils.toStartEpochMilli(LocalDate.of(2000, 1, 1), false));
+    assertEquals(YEAR2000_1JAN_EPOCH_UTC + 86400000 - 1,
+                 TemporalAccessorUtils.toEndEpochMilli(LocalDate.of(2000, 1, 1), false));
+    assertEquals(YEAR2000_1JAN_2H_3M_4S_EPOCH_UTC,
+                 TemporalAccessorUtils.toStartEpochMilli(LocalDateTime.of(2000, 1, 1, 2, 3, 4), false));
+    assertEquals(YEAR2000_1JAN_2H_3M_4S_EPOCH_UTC,
+                 TemporalAccessorUtils.toEndEpochMilli(LocalDateTime.of(2000, 1, 1, 2, 3, 4), false));
+    assertEquals(YEAR2000_2FEB_0H_0M_0S_EPOCH_UTC, TemporalAccessorUtils.toStartEpochMilli(YearMonth.of(2000, 2), false));
+    assertEquals(YEAR2000_1JAN_0H_0M_0S_EPOCH_UTC, TemporalAccessorUtils.toStartEpochMilli(Year.of(2000), false));
+    assertEquals(LocalDate.of(2001, 1, 1).toEpochDay() * 86400000 - 1,
+                 TemporalAccessorUtils.toEndEpochMilli(Year.of(2000), false));
+
+    // same values as toDate
+    ZonedDateTime zonedDateTime = ZonedDateTime.of(2000, 1, 1, 4 , 20, 0, 123000000, EUROPE_CENTRAL_TIME);
+    TemporalAccessor[] values = {zonedDateTime, zonedDateTime.toOffsetDateTime(), zonedDateTime.toLocalDateTime(),
+      LocalDate.of(1582, 10, 4), YearMonth.of(1, 1), Year.of(3000)};
+    for (TemporalAccessor ta : values) {
+      assertEquals(TemporalAccessorUtils.toDate(ta, false).getTime(), TemporalAccessorUtils.toStartEpochMilli(ta, false));
+      assertEquals(TemporalAccessorUtils.toDate(ta, true).getTime(), TemporalAccessorUtils.toStartEpochMilli(ta, true));
+    }
+  }
+
+  @Test
+  public void testToEpochIntervals(){
+    List<ParseResult<TemporalAccessor>> results = new ArrayList<ParseResult<TemporalAccessor>>();
+    results.add(ParseResult.<TemporalAccessor>success(ParseResult.CONFIDENCE.DEFINITE, YearMonth.of(2000, 2)));
+    results.add(ParseResult.<TemporalAccessor>fail());
+    results.add(null);
+    results.add(ParseResult.<TemporalAccessor>success(ParseResult.CONFIDENCE.DEFINITE, LocalDate.of(2000, 1, 1)));
+
+    long[] starts = new long[4];
+    long[] ends = new long[4];
+    assertEquals(2, TemporalAccessorUtils.toEpochDayIntervals(results, starts, ends));
+    assertEquals(LocalDate.of(2000, 2, 1).toEpochDay(), starts[0]);
+    assertEquals(LocalDate.of(2000, 2, 29).toEpochDay(), ends[0]);
+    assertEquals(TemporalAccessorUtils.NO_EPOCH_VALUE, starts[1]);
+    assertEquals(TemporalAccessorUtils.NO_EPOCH_VALUE, ends[2]);
+    assertEquals(starts[3], ends[3]);
+
+    assertEquals(2, TemporalAccessorUtils.toEpochMilliIntervals(results, false, starts, ends));
+    assertEquals(YEAR2000_2FEB_0H_0M_0S_EPOCH_UTC, starts[0]);
+    assertEquals(YEAR2000_1JAN_EPOCH_UTC, starts[3]);
+    assertEquals(YEAR2000_1JAN_EPOCH_UTC + 86400000 - 1, ends[3]);
+  }
+
   @Test
   public void testGetBestResolutionTemporalAccessor(){
     TemporalAccessor ta1 = Year.of(2005);
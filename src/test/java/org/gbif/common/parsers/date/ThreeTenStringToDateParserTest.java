@@ -0,0 +1,148 @@
+package org.gbif.common.parsers.date;
+
+import org.gbif.common.parsers.core.ParseResult;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the java.time port against the SimpleDateFormat based {@link StringToDateParser}.
+ */
+public class ThreeTenStringToDateParserTest {
+
+  private static final String[] FIXTURES = {"/parse/date/threeten_localdate_tests.txt",
+    "/parse/date/threeten_localdatetime_tests.txt", "/parse/date/threeten_bad_date_tests.txt",
+    "/parse/date/local_datetime_tz_tests.txt"};
+
+  private static final String[] EDGE_CASES = {"1", "73", "0073", "12345", "211278", "010278", "20100101", "21121978",
+    "1891-07", "1973-5", "7/21/73", "1.7.73", "31.1.73", "0-0-0", "88/88/88", "2010'01", "1978-12-21T02:12:43+01:00",
+    "1978-12-21T02:12:43+0100", "1978-12-21T02:12:43Z", "1978-12-21T0212", "1978-12-21 02:12:43", "1978-12-21T24",
+    "1978-12-21T02:12:43+1:00", "1978-12-21T02:12:43+01:00 ", " 1978-12-21", "1978- 12-21", "1978-12 -21",
+    "1978-12-\t21", "-1978-12-21", "1978--12-21", "1978-12-21-", "2010/02/29", "2012/02/29",
+    "1582-10-10", "1582-10-15", "1582-10-04", "31-06-2000", "12/31/1999", "1/1/1", "01/01/0001", "1-1-01",
+    "999999-01-01", "9999-01-01", "5000-01-01", "20000-01-01", "1999.12.31", "1999_12_31", "1999\\12\\31",
+    "1999・12・31", "１９９９-12-31", "1999-12-31T12:00:00GMT", "12 2010", "2010 12",
+    "99-12", "12-99", "Sep-1999", "1999-Sep", "2010年5月", "15/3/2010", "3/15/2010"};
+
+  private final StringToDateParser legacy = new StringToDateParser();
+  private final ThreeTenStringToDateParser parser = new ThreeTenStringToDateParser();
+
+  @Test
+  public void testParse() {
+    assertEquals(LocalDateTime.of(1978, 12, 21, 0, 0), parser.parse("21/12/1978").getPayload());
+    assertEquals(ParseResult.CONFIDENCE.PROBABLE, parser.parse("211278").getConfidence());
+    assertEquals(ParseResult.CONFIDENCE.POSSIBLE, parser.parse("10/12/78").getConfidence());
+    assertEquals(OffsetDateTime.parse("1978-12-21T02:12:43+01:00"),
+                 parser.parse("1978-12-21T02:12:43+01:00").getPayload());
+
+    assertEquals(ParseResult.STATUS.FAIL, parser.parse("fsfgr/12/78").getStatus());
+    assertEquals(ParseResult.STATUS.FAIL, parser.parse("//").getStatus());
+    assertEquals(ParseResult.STATUS.FAIL, parser.parse("88/88/88").getStatus());
+    assertEquals(ParseResult.STATUS.FAIL, parser.parse(" ").getStatus());
+    assertEquals(ParseResult.STATUS.FAIL, parser.parse(null).getStatus());
+  }
+
+  @Test
+  public void testLenientPattern() {
+    ThreeTenStringToDateParser.DatePattern pattern = ThreeTenStringToDateParser.DatePattern.compile("yyyy-MM-dd");
+    assertNull(pattern.parse("1929-06-31", false));
+    assertEquals(LocalDateTime.of(1929, 7, 1, 0, 0), pattern.parse("1929-06-31", true));
+    assertEquals(LocalDateTime.of(1930, 2, 1, 0, 0), pattern.parse("1929-13-32", true));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnsupportedPattern() {
+    ThreeTenStringToDateParser.DatePattern.compile("yyyy-MMM-dd EEE");
+  }
+
+  /**
+   * Parses all date fixtures and the distinct values of the day, month, year corpus with both parsers and expects
+   * the same dates and confidences.
+   */
+  @Test
+  public void testEquivalence() throws IOException {
+    Set<String> inputs = new LinkedHashSet<String>();
+    for (String edgeCase : EDGE_CASES) {
+      inputs.add(edgeCase);
+    }
+    for (String fixture : FIXTURES) {
+      try (BufferedReader r = reader(fixture, false)) {
+        String line;
+        while ((line = r.readLine()) != null) {
+          if (!line.startsWith("#")) {
+            inputs.add(line.split(";", -1)[0]);
+          }
+        }
+      }
+    }
+    try (BufferedReader r = reader("/parse/date/dayMonthYear.txt.gz", true)) {
+      String line;
+      while ((line = r.readLine()) != null) {
+        String[] dmy = line.split("\t", -1);
+        for (String value : dmy) {
+          inputs.add(value);
+        }
+        if (dmy.length == 3) {
+          inputs.add(dmy[0] + "/" + dmy[1] + "/" + dmy[2]);
+          inputs.add(dmy[2] + "-" + dmy[1] + "-" + dmy[0]);
+        }
+      }
+    }
+
+    int parsed = 0;
+    for (String input : inputs) {
+      String normalized = DateParseUtils.normalizeMonth(input);
+      ParseResult<Date> expected = legacy.parse(normalized);
+      ParseResult<TemporalAccessor> found = parser.parse(normalized);
+      assertEquals("Status for " + input, expected.getStatus(), found.getStatus());
+      if (expected.isSuccessful()) {
+        assertEquals("Confidence for " + input, expected.getConfidence(), found.getConfidence());
+        assertEquals("Date for " + input, expected.getPayload(), ThreeTenStringToDateParser.toDate(found.getPayload()));
+        assertEquals("Atomized " + input, DateParseUtils.atomize(expected.getPayload()),
+                     DateParseUtils.atomize(input).getPayload());
+        parsed++;
+      }
+    }
+    assertTrue(parsed > 1000);
+  }
+
+  /**
+   * Compares the day, month, year parsing of the whole corpus.
+   */
+  @Test
+  public void testYearMonthDayEquivalence() throws IOException {
+    try (BufferedReader r = reader("/parse/date/dayMonthYear.txt.gz", true)) {
+      String line;
+      while ((line = r.readLine()) != null) {
+        String[] dmy = line.split("\t", -1);
+        if (dmy.length == 3) {
+          String month = DateParseUtils.normalizeMonth(dmy[1]);
+          Date expected = legacy.strictParse(dmy[0] + "/" + month + "/" + dmy[2], "dd/MM/yyyy", "dd/mm/yyyy");
+          ParseResult<Date> found = DateParseUtils.parse(dmy[2], dmy[1], dmy[0]);
+          assertEquals(line, expected, found.getPayload());
+        }
+      }
+    }
+  }
+
+  private static BufferedReader reader(String resource, boolean gzip) throws IOException {
+    InputStream in = ThreeTenStringToDateParserTest.class.getResourceAsStream(resource);
+    return new BufferedReader(new InputStreamReader(gzip ? new GZIPInputStream(in) : in, StandardCharsets.UTF_8));
+  }
+}
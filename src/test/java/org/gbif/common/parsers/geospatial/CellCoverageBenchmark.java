@@ -0,0 +1,61 @@
+package org.gbif.common.parsers.geospatial;
+
+import java.util.Random;
+
+/**
+ * A small utility timing {@link CellIdUtils#getCellCoverage(double[][], double[][])} on synthetic coastlines: rings
+ * with a fractal like boundary made of many short random edges, as found in country and region polygons.
+ * One of the polygons crosses the antimeridian.
+ */
+public class CellCoverageBenchmark {
+
+  private static final int ROUNDS = 5;
+
+  /**
+   * @param args optional number of vertices per ring
+   */
+  public static void main(String[] args) {
+    int vertices = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+
+    // a country sized polygon, a continent sized one with an island and a Pacific one crossing the antimeridian
+    double[][][] rings = {coastline(new Random(1), 46, 2, 6, vertices), coastline(new Random(2), 5, 20, 25, vertices),
+      coastline(new Random(3), -10, 40, 2, 1000), coastline(new Random(4), -15, 178, 8, vertices)};
+    double[][][][] polygons = {
+      {{rings[0][0]}, {rings[0][1]}},
+      {{rings[1][0], rings[2][0]}, {rings[1][1], rings[2][1]}},
+      {{rings[3][0]}, {rings[3][1]}}};
+    String[] names = {"country", "continent", "antimeridian"};
+
+    for (int round = 1; round <= ROUNDS; round++) {
+      StringBuilder sb = new StringBuilder("Round " + round + ":");
+      for (int p = 0; p < polygons.length; p++) {
+        long start = System.nanoTime();
+        CellCoverage coverage = CellIdUtils.getCellCoverage(polygons[p][0], polygons[p][1]);
+        long nanos = System.nanoTime() - start;
+        sb.append(' ').append(names[p]).append(' ').append(nanos / 1000000).append("ms (")
+          .append(coverage.getFullCells().getCellCount()).append(" full, ")
+          .append(coverage.getPartialCells().getCellCount()).append(" partial cells, ")
+          .append(coverage.getFullCentiCells().getRangeCount()).append(" full and ")
+          .append(coverage.getPartialCentiCells().getRangeCount()).append(" partial centi cell ranges)");
+      }
+      System.out.println(sb);
+    }
+  }
+
+  /**
+   * @return the latitudes in [0] and longitudes in [1] of a ring around the center with a randomly jagged radius
+   */
+  private static double[][] coastline(Random random, double centerLat, double centerLng, double radius, int n) {
+    double[] lats = new double[n];
+    double[] lngs = new double[n];
+    double r = radius;
+    for (int i = 0; i < n; i++) {
+      double angle = 2 * Math.PI * i / n;
+      r = Math.max(radius * 0.5, Math.min(radius * 1.5, r + (random.nextDouble() - 0.5) * radius * 0.02));
+      lats[i] = centerLat + r * Math.sin(angle);
+      double lng = centerLng + r * Math.cos(angle);
+      lngs[i] = lng > 180 ? lng - 360 : lng;
+    }
+    return new double[][] {lats, lngs};
+  }
+}
@@ -0,0 +1,157 @@
+package org.gbif.common.parsers.geospatial;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CellDensityTest {
+
+  @Test
+  public void testAdd() {
+    CellDensity density = new CellDensity();
+    assertTrue(density.add(-71.35, -12.42));
+    assertTrue(density.add(-71.35, -12.42, 2));
+    assertTrue(density.add(-71.05, -12.42));
+    assertTrue(density.add(90, 180));
+    assertFalse(density.add(91, 0));
+    assertFalse(density.add(Double.NaN, 0));
+
+    assertEquals(4, density.getCount(6647));
+    assertEquals(3, density.getCentiCellCount(6647, CellIdUtils.computeCentiCellId(-71.35, -12.42)));
+    assertEquals(1, density.getCentiCellCount(6647, CellIdUtils.computeCentiCellId(-71.05, -12.42)));
+    assertEquals(0, density.getCentiCellCount(6647, 0));
+    assertEquals(1, density.getCount(CellRanges.NUMBER_OF_CELLS - 1));
+    assertEquals(1, density.getCentiCellCount(CellRanges.NUMBER_OF_CELLS - 1, 99));
+    assertEquals(5, density.getTotalCount());
+    assertEquals(2, density.getInvalidCount());
+    assertEquals(2, density.getOccupiedCellCount());
+    assertEquals(3, density.getOccupiedCentiCellCount());
+    assertEquals(Arrays.asList(6647, CellRanges.NUMBER_OF_CELLS - 1), density.getCellIds());
+  }
+
+  @Test
+  public void testSameAsMap() throws UnableToGenerateCellIdException {
+    Random random = new Random(5);
+    double[] lats = new double[200000];
+    double[] lngs = new double[lats.length];
+    Map<Integer, Long> cells = new HashMap<Integer, Long>();
+    Map<Integer, Long> centiCells = new HashMap<Integer, Long>();
+    for (int i = 0; i < lats.length; i++) {
+      lats[i] = random.nextGaussian() * 5 + 40;
+      lngs[i] = random.nextGaussian() * 10;
+      int cellId = CellIdUtils.toCellId(lats[i], lngs[i]);
+      // toCentiCellId truncates negative values close to a degree into the wrong centi cell
+      int centiCellIndex = (int) Math.floor((lats[i] + 90) * 10) * CellRanges.CENTI_CELLS_PER_ROW
+                           + (int) Math.floor((lngs[i] + 180) * 10);
+      cells.put(cellId, cells.containsKey(cellId) ? cells.get(cellId) + 1 : 1);
+      centiCells.put(centiCellIndex, centiCells.containsKey(centiCellIndex) ? centiCells.get(centiCellIndex) + 1 : 1);
+    }
+
+    CellDensity density = new CellDensity();
+    assertEquals(lats.length, density.addAll(lats, lngs));
+    assertEquals(cells.size(), density.getOccupiedCellCount());
+    assertEquals(centiCells.size(), density.getOccupiedCentiCellCount());
+    for (Map.Entry<Integer, Long> cell : cells.entrySet()) {
+      assertEquals((long) cell.getValue(), density.getCount(cell.getKey()));
+    }
+    for (Map.Entry<Integer, Long> centiCell : centiCells.entrySet()) {
+      int cellId = CellIdUtils.toCellIdFromCentiCellIndex(centiCell.getKey());
+      int centiCellId = CellIdUtils.toCentiCellIdFromCentiCellIndex(centiCell.getKey());
+      assertEquals((long) centiCell.getValue(), density.getCentiCellCount(cellId, centiCellId));
+    }
+  }
+
+  @Test
+  public void testSameAsKeys() {
+    Random random = new Random(7);
+    CellDensity density = new CellDensity();
+    for (int i = 0; i < 100000; i++) {
+      // decimal coordinates on and around the boundaries of the centi cells
+      double lat = i % 2 == 0 ? random.nextInt(1801) / 10d - 90 : random.nextDouble() * 180 - 90;
+      double lng = i % 3 == 0 ? random.nextInt(3601) / 10d - 180 : random.nextDouble() * 360 - 180;
+      long key = CellKeys.toKey(lat, lng, CellKeys.CENTI_CELL_LEVEL);
+      int cellId = CellKeys.toCellId(key);
+      int centiCellId = CellKeys.toCentiCellId(key);
+      long cellCount = density.getCount(cellId);
+      long centiCellCount = density.getCentiCellCount(cellId, centiCellId);
+      assertTrue(density.add(lat, lng));
+      assertEquals(cellCount + 1, density.getCount(cellId));
+      assertEquals(centiCellCount + 1, density.getCentiCellCount(cellId, centiCellId));
+    }
+  }
+
+  @Test
+  public void testConcurrent() throws InterruptedException {
+    final ConcurrentCellDensity concurrent = new ConcurrentCellDensity();
+    final CellDensity expected = new CellDensity();
+    final double[][] lats = new double[8][];
+    final double[][] lngs = new double[8][];
+    Random random = new Random(9);
+    for (int t = 0; t < lats.length; t++) {
+      lats[t] = new double[10000];
+      lngs[t] = new double[10000];
+      for (int i = 0; i < lats[t].length; i++) {
+        lats[t][i] = random.nextDouble() * 20;
+        lngs[t][i] = random.nextDouble() * 20;
+      }
+      expected.addAll(lats[t], lngs[t]);
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    for (int t = 0; t < lats.length; t++) {
+      final int chunk = t;
+      executor.submit(new Runnable() {
+        @Override
+        public void run() {
+          concurrent.addAll(lats[chunk], lngs[chunk]);
+        }
+      });
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+    CellDensity merged = concurrent.merge();
+    assertEquals(80000, merged.getTotalCount());
+    assertEquals(expected.getCellIds(), merged.getCellIds());
+    assertArrayEquals(expected.getCentiCellCounts(900, 1800, 200, 200), merged.getCentiCellCounts(900, 1800, 200, 200));
+  }
+
+  @Test
+  public void testExport() {
+    CellDensity density = new CellDensity();
+    density.add(-30.5, 110.5);
+    density.add(-20.5, 129.5, 3);
+    density.add(0.05, 179.95, 2);
+    density.add(0.05, -179.95, 5);
+
+    LatLngBoundingBox box = density.getBoundingBox();
+    assertEquals(-31, box.getMinLat(), 0);
+    assertEquals(1, box.getMaxLat(), 0);
+
+    // a window of 2 x 3 cells around the antimeridian
+    long[] counts = density.getCellCounts(89, 358, 2, 3);
+    assertArrayEquals(new long[] {0, 0, 0, 0, 2, 5}, counts);
+
+    // a window of the centi cells around the antimeridian
+    counts = density.getCentiCellCounts(900, 3599, 1, 2);
+    assertArrayEquals(new long[] {2, 5}, counts);
+    counts = density.getCentiCellCounts(595, 2905, 1, 1);
+    assertArrayEquals(new long[] {1}, counts);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidWindow() {
+    new CellDensity().getCellCounts(170, 0, 20, 10);
+  }
+}
@@ -1,7 +1,9 @@
 package org.gbif.common.parsers.geospatial;
 
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
 
 import org.junit.Test;
@@ -38,6 +40,45 @@ public class CellIdUtilsTest {
     }
   }
 
+  @Test
+  public void testComputeCellId() throws UnableToGenerateCellIdException {
+    assertEquals(0, CellIdUtils.computeCellId(-90, -180));
+    assertEquals(359, CellIdUtils.computeCellId(-89.1, 179.2));
+    assertEquals(6647, CellIdUtils.computeCellId(-71.31, -12.4233));
+    assertEquals(CellIdUtils.INVALID_CELL_ID, CellIdUtils.computeCellId(-100, 0));
+    assertEquals(CellIdUtils.INVALID_CELL_ID, CellIdUtils.computeCellId(0, 180.1));
+    assertEquals(CellIdUtils.INVALID_CELL_ID, CellIdUtils.computeCellId(Double.NaN, 0));
+    assertEquals(CellIdUtils.INVALID_CELL_ID, CellIdUtils.computeCentiCellId(0, Double.NaN));
+
+    // same values as the boxed versions
+    Random random = new Random(42);
+    for (int i = 0; i < 100000; i++) {
+      double lat = i < 1000 ? Math.round(random.nextDouble() * 1800 - 900) / 10d : random.nextDouble() * 180 - 90;
+      double lng = i < 1000 ? Math.round(random.nextDouble() * 3600 - 1800) / 10d : random.nextDouble() * 360 - 180;
+      assertEquals(CellIdUtils.toCellId(lat, lng), CellIdUtils.computeCellId(lat, lng));
+      assertEquals(CellIdUtils.toCentiCellId(lat, lng), CellIdUtils.computeCentiCellId(lat, lng));
+    }
+  }
+
+  @Test
+  public void testComputeCellIds() throws UnableToGenerateCellIdException {
+    double[] lats = {-90, -89.1, -71.31, 41.6128, -100, Double.NaN, 90};
+    double[] lngs = {-180, 179.2, -12.4233, -87.2192, 0, 0, 180};
+    int[] cellIds = new int[lats.length];
+    int[] centiCellIds = new int[lats.length];
+    assertEquals(5, CellIdUtils.computeCellIds(lats, lngs, cellIds));
+    assertEquals(5, CellIdUtils.computeCentiCellIds(lats, lngs, centiCellIds));
+    for (int i = 0; i < lats.length; i++) {
+      if (i == 4 || i == 5) {
+        assertEquals(CellIdUtils.INVALID_CELL_ID, cellIds[i]);
+        assertEquals(CellIdUtils.INVALID_CELL_ID, centiCellIds[i]);
+      } else {
+        assertEquals(CellIdUtils.toCellId(lats[i], lngs[i]), cellIds[i]);
+        assertEquals(CellIdUtils.toCentiCellId(lats[i], lngs[i]), centiCellIds[i]);
+      }
+    }
+  }
+
   /**
    * Test method for {@link CellIdUtils#toCentiCellId(Double, Double)}.
    */
@@ -280,6 +321,66 @@ public class CellIdUtilsTest {
   }
 
 
+  @Test
+  public void testGetCellRangesEnclosedBy() throws UnableToGenerateCellIdException {
+    CellRanges ranges = CellIdUtils.getCellRangesEnclosedBy(-1, 1, -1, 1);
+    assertEquals(2, ranges.getRangeCount());
+    assertEquals(32219, ranges.getStart(0));
+    assertEquals(32220, ranges.getEnd(0));
+    assertEquals(32579, ranges.getStart(1));
+    assertEquals(32580, ranges.getEnd(1));
+    assertEquals(90, ranges.getRow(1));
+
+    ranges = CellIdUtils.getCellRangesEnclosedBy(-90, 90, -180, 180);
+    assertEquals(180, ranges.getRangeCount());
+    assertEquals(CellRanges.NUMBER_OF_CELLS, ranges.getCellCount());
+
+    // same cells as the id by id iteration
+    Random random = new Random(7);
+    for (int i = 0; i < 2000; i++) {
+      double lat1 = i % 2 == 0 ? random.nextInt(181) - 90 : random.nextDouble() * 180 - 90;
+      double lat2 = i % 3 == 0 ? random.nextInt(181) - 90 : random.nextDouble() * 180 - 90;
+      double lng1 = i % 2 == 0 ? random.nextInt(361) - 180 : random.nextDouble() * 360 - 180;
+      double lng2 = i % 5 == 0 ? random.nextInt(361) - 180 : random.nextDouble() * 360 - 180;
+      double minLat = Math.min(lat1, lat2);
+      double maxLat = Math.max(lat1, lat2);
+      double minLng = Math.min(lng1, lng2);
+      double maxLng = Math.max(lng1, lng2);
+      Set<Integer> expected = iterateCellsEnclosedBy(minLat, maxLat, minLng, maxLng);
+      ranges = CellIdUtils.getCellRangesEnclosedBy(minLat, maxLat, minLng, maxLng);
+      assertEquals(expected.size(), ranges.getCellCount());
+      for (Integer cellId : expected) {
+        assertTrue(ranges.contains(cellId));
+      }
+      assertEquals(expected, CellIdUtils.getCellsEnclosedBy(minLat, maxLat, minLng, maxLng));
+    }
+  }
+
+  /**
+   * The former implementation of getCellsEnclosedBy.
+   */
+  private static Set<Integer> iterateCellsEnclosedBy(double minLat, double maxLat, double minLong, double maxLong)
+    throws UnableToGenerateCellIdException {
+    int lower = CellIdUtils.toCellId(minLat, minLong);
+    int upper = CellIdUtils.toCellId(maxLat, maxLong);
+    if (Math.ceil(maxLong) == Math.floor(maxLong)) {
+      upper -= 1;
+    }
+    if (Math.ceil(maxLat) == Math.floor(maxLat)) {
+      upper -= 360;
+    }
+    int omitLeft = lower % 360;
+    int omitRight = upper % 360;
+    if (omitRight == 0) omitRight = 360;
+    Set<Integer> cells = new HashSet<Integer>();
+    for (int i = lower; i <= upper; i++) {
+      if (i % 360 >= omitLeft && i % 360 <= omitRight) {
+        cells.add(i);
+      }
+    }
+    return cells;
+  }
+
   /**
    * Test a conversion from and to ids
    */
@@ -0,0 +1,112 @@
+package org.gbif.common.parsers.geospatial;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CellKeysTest {
+
+  @Test
+  public void testToKey() {
+    assertEquals(0, CellKeys.toKey(-90, -180, CellKeys.CELL_LEVEL));
+    assertEquals(6647, CellKeys.toKey(-71.31, -12.4233, CellKeys.CELL_LEVEL));
+    assertEquals(CellRanges.NUMBER_OF_CELLS - 1, CellKeys.toKey(90, 180, CellKeys.CELL_LEVEL));
+    assertEquals(CellKeys.INVALID_KEY, CellKeys.toKey(90.1, 0, CellKeys.MAX_LEVEL));
+    assertEquals(CellKeys.INVALID_KEY, CellKeys.toKey(Double.NaN, 0, CellKeys.MAX_LEVEL));
+
+    long key = CellKeys.toKey(-71.31, -12.4233, CellKeys.MAX_LEVEL);
+    assertEquals(CellKeys.MAX_LEVEL, CellKeys.getLevel(key));
+    assertEquals(6647, CellKeys.toCellId(key));
+    LatLngBoundingBox box = CellKeys.toBoundingBox(key);
+    assertEquals(-71.31, box.getMinLat(), 1e-9);
+    assertEquals(-71.309, box.getMaxLat(), 1e-9);
+    assertEquals(-12.424, box.getMinLong(), 1e-9);
+    assertEquals(-12.423, box.getMaxLong(), 1e-9);
+  }
+
+  @Test
+  public void testCellIds() throws UnableToGenerateCellIdException {
+    for (int cellId = 0; cellId < CellRanges.NUMBER_OF_CELLS; cellId++) {
+      long key = CellKeys.fromCellId(cellId);
+      assertEquals(cellId, key);
+      assertEquals(cellId, CellKeys.toCellId(key));
+      assertEquals(CellIdUtils.INVALID_CELL_ID, CellKeys.toCentiCellId(key));
+      if (cellId % 97 == 0) {
+        assertEquals(CellIdUtils.toBoundingBox(cellId), CellKeys.toBoundingBox(key));
+        for (int centiCellId = 0; centiCellId < 100; centiCellId++) {
+          long centiKey = CellKeys.fromCentiCellId(cellId, centiCellId);
+          assertEquals(CellKeys.CENTI_CELL_LEVEL, CellKeys.getLevel(centiKey));
+          assertEquals(cellId, CellKeys.toCellId(centiKey));
+          assertEquals(centiCellId, CellKeys.toCentiCellId(centiKey));
+          assertEquals(key, CellKeys.getParent(centiKey));
+          assertEquals(centiKey, CellKeys.getChild(key, centiCellId));
+          LatLngBoundingBox box = CellKeys.toBoundingBox(centiKey);
+          LatLngBoundingBox expected = CellIdUtils.toBoundingBox(cellId, centiCellId);
+          assertEquals(expected.getMinLat(), box.getMinLat(), 1e-9);
+          assertEquals(expected.getMinLong(), box.getMinLong(), 1e-9);
+          assertEquals(expected.getMaxLat(), box.getMaxLat(), 1e-9);
+          assertEquals(expected.getMaxLong(), box.getMaxLong(), 1e-9);
+        }
+      }
+    }
+
+    // same cells as the coordinates within the cells
+    Random random = new Random(11);
+    for (int i = 0; i < 10000; i++) {
+      double lat = random.nextDouble() * 180 - 90;
+      double lng = random.nextDouble() * 360 - 180;
+      long key = CellKeys.toKey(lat, lng, CellKeys.MAX_LEVEL);
+      assertEquals(CellIdUtils.toCellId(lat, lng), CellKeys.toCellId(key));
+      LatLngBoundingBox box = CellKeys.toBoundingBox(key);
+      assertTrue(lat >= box.getMinLat() - 1e-9 && lat <= box.getMaxLat() + 1e-9);
+      assertTrue(lng >= box.getMinLong() - 1e-9 && lng <= box.getMaxLong() + 1e-9);
+      assertEquals(CellKeys.toKey(lat, lng, CellKeys.CENTI_CELL_LEVEL), CellKeys.getParent(CellKeys.getParent(key)));
+    }
+  }
+
+  @Test
+  public void testDescendants() {
+    long cell = CellKeys.fromCellId(32580);
+    long first = CellKeys.getFirstDescendant(cell, CellKeys.MAX_LEVEL);
+    long last = CellKeys.getLastDescendant(cell, CellKeys.MAX_LEVEL);
+    assertEquals(1000000 - 1, last - first);
+    assertEquals(cell, CellKeys.getFirstDescendant(cell, CellKeys.CELL_LEVEL));
+    assertEquals(cell, CellKeys.getLastDescendant(cell, CellKeys.CELL_LEVEL));
+
+    long key = CellKeys.toKey(0.5, 0.5, CellKeys.MAX_LEVEL);
+    assertTrue(key >= first && key <= last);
+    assertTrue(CellKeys.isWithin(key, cell));
+    assertTrue(CellKeys.isWithin(key, CellKeys.toKey(0.55, 0.55, 1)));
+    assertTrue(CellKeys.isWithin(cell, cell));
+    assertFalse(CellKeys.isWithin(cell, key));
+    assertFalse(CellKeys.isWithin(key, CellKeys.fromCellId(32581)));
+
+    long centi = CellKeys.getChild(cell, 99);
+    assertEquals(CellKeys.getLastDescendant(cell, 2), CellKeys.getLastDescendant(centi, 2));
+    assertEquals(CellKeys.getChild(centi, 0), CellKeys.getFirstDescendant(centi, 2));
+  }
+
+  @Test
+  public void testReusableBox() {
+    LatLngBoundingBox box = new LatLngBoundingBox(0, 0, 0, 0);
+    assertSame(box, CellKeys.toBoundingBox(CellKeys.fromCellId(0), box));
+    assertEquals(new LatLngBoundingBox(-180, -90, -179, -89), box);
+    CellKeys.toBoundingBox(CellKeys.toKey(89.9995, 179.9995, CellKeys.MAX_LEVEL), box);
+    assertEquals(new LatLngBoundingBox(179.999, 89.999, 180, 90), box);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidKey() {
+    CellKeys.getLevel(CellKeys.INVALID_KEY);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoParent() {
+    CellKeys.getParent(CellKeys.fromCellId(10));
+  }
+}
@@ -0,0 +1,62 @@
+package org.gbif.common.parsers.geospatial;
+
+import java.util.BitSet;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CellRangesTest {
+
+  @Test
+  public void testBuilder() {
+    CellRanges ranges = new CellRanges.Builder(CellRanges.CELLS_PER_ROW, CellRanges.NUMBER_OF_CELLS)
+      .add(10, 20)
+      .add(21, 30)
+      .add(350, 365)
+      .add(366, 366)
+      .add(64799, 64799)
+      .build();
+    // touching ranges are merged, but not across rows
+    assertEquals("CellRanges[10-30,350-359,360-366,64799-64799]", ranges.toString());
+    assertEquals(4, ranges.getRangeCount());
+    assertEquals(1, ranges.getRow(2));
+    assertEquals(21 + 10 + 7 + 1, ranges.getCellCount());
+
+    assertTrue(ranges.contains(10));
+    assertTrue(ranges.contains(359));
+    assertTrue(ranges.contains(360));
+    assertTrue(ranges.contains(64799));
+    assertFalse(ranges.contains(9));
+    assertFalse(ranges.contains(31));
+    assertFalse(ranges.contains(367));
+    assertFalse(CellRanges.empty().contains(0));
+    assertTrue(CellRanges.empty().isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBuilderDecreasing() {
+    new CellRanges.Builder(CellRanges.CELLS_PER_ROW, CellRanges.NUMBER_OF_CELLS).add(10, 20).add(15, 30);
+  }
+
+  @Test
+  public void testSetOperations() {
+    BitSet a = new BitSet();
+    a.set(0, 400);
+    BitSet b = new BitSet();
+    b.set(350, 720);
+
+    CellRanges ra = CellRanges.fromBitSet(a);
+    CellRanges rb = CellRanges.fromBitSet(b);
+    assertEquals("CellRanges[0-359,360-399]", ra.toString());
+    assertEquals(a, ra.toBitSet());
+
+    assertEquals("CellRanges[0-359,360-719]", ra.union(rb).toString());
+    assertEquals("CellRanges[350-359,360-399]", ra.intersection(rb).toString());
+    assertEquals("CellRanges[0-349]", ra.difference(rb).toString());
+    assertEquals(CellRanges.fromBitSet(b), rb);
+    assertEquals(CellRanges.fromBitSet(b).hashCode(), rb.hashCode());
+  }
+}
@@ -1,9 +1,15 @@
 package org.gbif.common.parsers.geospatial;
 
 import org.gbif.api.vocabulary.OccurrenceIssue;
+import org.gbif.common.parsers.NumberParser;
+import org.gbif.common.parsers.core.OccurrenceIssueSet;
 import org.gbif.common.parsers.core.OccurrenceParseResult;
 import org.gbif.common.parsers.core.ParseResult;
 
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 import com.google.common.collect.Lists;
 import org.junit.Test;
 
@@ -106,6 +112,166 @@ public class CoordinateParseUtilsTest {
     assertFailedWithIssues(CoordinateParseUtils.parseVerbatimCoordinates("12344"), OccurrenceIssue.COORDINATE_INVALID);
     assertFailedWithIssues(CoordinateParseUtils.parseVerbatimCoordinates(" "), OccurrenceIssue.COORDINATE_INVALID);
     assertFailedWithIssues(CoordinateParseUtils.parseVerbatimCoordinates("122°49'52\"N, 131°47'03\"E"), OccurrenceIssue.COORDINATE_OUT_OF_RANGE);
+    assertFailedWithIssues(CoordinateParseUtils.parseVerbatimCoordinates("14.93333/"), OccurrenceIssue.COORDINATE_INVALID);
+    assertFailedWithIssues(CoordinateParseUtils.parseVerbatimCoordinates(",-91.9 "), OccurrenceIssue.COORDINATE_INVALID);
+  }
+
+  @Test
+  public void testParseLatLngBatch() {
+    String[] latitudes = {"-46,33", "0", "2.123450678", "100", "200", "tim", null, "02° 49' 52\" N"};
+    String[] longitudes = {"51,8717", "0", "-8.123450678", "40", "30", "tom", "10", "131° 47' 03\" E"};
+    CoordinateBatch batch = CoordinateParseUtils.parseLatLng(latitudes, longitudes);
+    assertEquals(latitudes.length, batch.size());
+    for (int i = 0; i < latitudes.length; i++) {
+      assertSameResult(CoordinateParseUtils.parseLatLng(latitudes[i], longitudes[i]), batch, i);
+    }
+
+    assertEquals(CoordinateBatch.SUCCESS, batch.getStatuses()[0]);
+    assertEquals(-46.33, batch.getLatitudes()[0], 0);
+    assertEquals(51.8717, batch.getLongitudes()[0], 0);
+    assertEquals(0, batch.getIssues()[0]);
+    assertTrue(batch.hasIssue(1, OccurrenceIssue.ZERO_COORDINATE));
+    assertEquals(OccurrenceIssueSet.bit(OccurrenceIssue.COORDINATE_ROUNDED), batch.getIssues()[2]);
+    assertEquals(CoordinateBatch.FAIL, batch.getStatuses()[3]);
+    assertEquals(100, batch.getLatitudes()[3], 0);
+    assertTrue(Double.isNaN(batch.getLatitudes()[4]));
+    assertTrue(batch.hasIssue(5, OccurrenceIssue.COORDINATE_INVALID));
+    assertEquals(CoordinateBatch.FAIL, batch.getStatuses()[6]);
+    assertEquals(0, batch.getIssues()[6]);
+  }
+
+  @Test
+  public void testParseVerbatimCoordinatesBatch() {
+    // enough rows for several chunks
+    String[] coordinates = new String[10000];
+    for (int i = 0; i < coordinates.length; i++) {
+      switch (i % 4) {
+        case 0:
+          coordinates[i] = (i % 90) + "° " + (i % 60) + "' N, " + (i % 180) + "° 6' W";
+          break;
+        case 1:
+          coordinates[i] = (i % 80) + "." + i + "/-" + (i % 170) + ".9";
+          break;
+        case 2:
+          coordinates[i] = String.valueOf(i);
+          break;
+        default:
+          coordinates[i] = null;
+      }
+    }
+    CoordinateBatch batch = CoordinateParseUtils.parseVerbatimCoordinates(coordinates);
+    for (int i = 0; i < coordinates.length; i++) {
+      assertSameResult(CoordinateParseUtils.parseVerbatimCoordinates(coordinates[i]), batch, i);
+    }
+  }
+
+  /**
+   * Compares the scanner with the regular expressions it replaced, on generated decimal and DMS values.
+   */
+  @Test
+  public void testScannerSameAsRegex() {
+    String[] tokens = {"0", "1", "12", "45", "59", "60", "61", "69", "7", "123", "179", "180", "181", "1234", "90",
+      ".", ",", "5", "°", "d", "D", "'", "m", "M", "\"", "''", "s", "S", "N", "n", "E", "e", "W", "w", "O", "o", " ",
+      "  ", "\t", "\n", "-", "+", ";", "/", "x", "NaN", "1e3", "0.5", "12.345678901", "06", ".25", ",75", "\r"};
+    String[] seeds = {"43 38 19.39 N", "02° 49' 52\" N\t131° 47' 03\" E", "10d 20m 30s N 20d 30m 40s W",
+      "45°12'N, 12°3'E", "45 12 s, 12 3 e", "-12.5", "12,5", "N43°38'19.39\"", "12°30'40''S/10°20'W\n",
+      "30° 12.5' 12\"n"};
+    Random random = new Random(42);
+    CoordinateScanner scanner = new CoordinateScanner();
+    for (int i = 0; i < 200000; i++) {
+      StringBuilder sb = new StringBuilder();
+      if (i % 2 == 0) {
+        // a value with a few edits
+        sb.append(seeds[random.nextInt(seeds.length)]);
+        for (int edits = 1 + random.nextInt(3); edits > 0; edits--) {
+          int at = random.nextInt(sb.length() + 1);
+          if (random.nextBoolean() && at < sb.length()) {
+            sb.deleteCharAt(at);
+          } else {
+            sb.insert(at, tokens[random.nextInt(tokens.length)]);
+          }
+        }
+      } else {
+        for (int count = random.nextInt(10); count > 0; count--) {
+          sb.append(tokens[random.nextInt(tokens.length)]);
+        }
+      }
+      String input = sb.toString();
+
+      Double number = NumberParser.parseDouble(input);
+      assertEquals(input, number != null, scanner.scanNumber(input));
+      if (number != null) {
+        assertEquals(input, number, scanner.value, 0);
+      }
+
+      for (boolean lat : new boolean[] {true, false}) {
+        Double dms = regexDms(input, lat);
+        assertEquals(input, dms != null, scanner.scanDms(input, lat));
+        if (dms != null) {
+          assertEquals(input, dms, scanner.value, 0);
+        }
+      }
+
+      Matcher m = DMS_COORD.matcher(input);
+      assertEquals(input, m.find(), scanner.scanDmsPair(input));
+      if (scanner.scanDmsPair(input)) {
+        assertEquals(input, m.group(4).toUpperCase().charAt(0), scanner.firstHemisphere);
+        assertEquals(input, m.group(8).toUpperCase().charAt(0), scanner.secondHemisphere);
+        assertEquals(input, regexDecimal(m, 1, m.group(4)), scanner.first, 0);
+        assertEquals(input, regexDecimal(m, 5, m.group(8)), scanner.second, 0);
+      }
+    }
+  }
+
+  // the regular expressions CoordinateParseUtils used before the scanner
+  private static final String DMS = "\\s*(\\d{1,3})\\s*[°d ]"
+                                    + "\\s*([0-6]?\\d)\\s*['m ]"
+                                    + "\\s*(?:"
+                                    + "([0-6]?\\d(?:[,.]\\d+)?)"
+                                    + "\\s*(?:\"|''|s)?"
+                                    + ")?\\s*";
+  private static final Pattern DMS_SINGLE = Pattern.compile("^" + DMS + "$", Pattern.CASE_INSENSITIVE);
+  private static final Pattern DMS_COORD =
+    Pattern.compile("^" + DMS + "([NSEOW])" + "[ ,;/]?" + DMS + "([NSEOW])$", Pattern.CASE_INSENSITIVE);
+
+  /**
+   * @return the DMS value as the regular expression read it, or null
+   */
+  private static Double regexDms(String coord, boolean lat) {
+    String dirs = lat ? "NS" : "EOW";
+    coord = coord.trim().toUpperCase();
+    if (coord.length() > 3) {
+      char dir = 'n';
+      if (dirs.contains(String.valueOf(coord.charAt(0)))) {
+        dir = coord.charAt(0);
+        coord = coord.substring(1);
+      } else if (dirs.contains(String.valueOf(coord.charAt(coord.length() - 1)))) {
+        dir = coord.charAt(coord.length() - 1);
+        coord = coord.substring(0, coord.length() - 1);
+      }
+      Matcher m = DMS_SINGLE.matcher(coord);
+      if (m.find()) {
+        return regexDecimal(m, 1, String.valueOf(dir));
+      }
+    }
+    return null;
+  }
+
+  private static double regexDecimal(Matcher m, int group, String dir) {
+    Double minutes = NumberParser.parseDouble(m.group(group + 1));
+    Double seconds = NumberParser.parseDouble(m.group(group + 2));
+    double decimal = NumberParser.parseDouble(m.group(group)) + (minutes == null ? 0 : minutes) / 60
+                     + (seconds == null ? 0 : seconds) / 3600;
+    return Math.round(("NEO".contains(dir.toUpperCase()) ? 1 : -1) * decimal * Math.pow(10, 6)) / Math.pow(10, 6);
+  }
+
+  private void assertSameResult(OccurrenceParseResult<LatLng> expected, CoordinateBatch batch, int row) {
+    OccurrenceParseResult<LatLng> result = batch.toResult(row);
+    assertEquals(expected.getStatus(), result.getStatus());
+    assertEquals(expected.getConfidence(), result.getConfidence());
+    assertEquals(expected.getPayload(), result.getPayload());
+    assertEquals(expected.getIssues(), result.getIssues());
+    assertEquals(expected.getStatus() == ParseResult.STATUS.SUCCESS, batch.getStatuses()[row] == CoordinateBatch.SUCCESS);
   }
 
   private void assertExpected(LatLng result, Double lat, Double lon) {
@@ -1,6 +1,7 @@
 package org.gbif.common.parsers.geospatial;
 
 import org.gbif.common.parsers.ParserTestBase;
+import org.gbif.common.parsers.core.Parsable;
 import org.gbif.common.parsers.core.ParseResult;
 
 import java.io.BufferedReader;
@@ -12,6 +13,9 @@ import com.google.common.base.Charsets;
 import com.google.common.collect.Sets;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -50,6 +54,43 @@ public class DatumParserTest extends ParserTestBase<Integer> {
     assertParseSuccess(6760, "World Geodetic System 1966");
   }
 
+  @Test
+  public void testParseEpsg() {
+    assertParseSuccess(4326, "epsg:4326");
+    assertParseSuccess(4326, "EPSG:::4326\n");
+    assertParseSuccess(4326, "WGS84 EPSG:4326");
+    assertParseSuccess(4326, "\tEsPg\t:4326 ");
+    assertParseSuccess(Integer.MAX_VALUE, "EPSG:2147483647");
+    assertParseFailure("EPSG:2147483648");
+    assertParseFailure("EPSG:");
+    assertParseFailure("EPSG: :4326");
+    assertParseFailure("EPSG4326");
+    assertParseFailure("EPSG:4326 WGS84");
+  }
+
+  @Test
+  public void testParseNormalized() {
+    assertParseSuccess(6230, "European-Datum 1950");
+    assertParseSuccess(6230, "  ed50 ");
+    assertParseSuccess(6230, "ÉD50");
+    assertParseSuccess(6204, "Aïn el Abd 1970");
+    assertParseFailure("ÆD50");
+    assertParseFailure("--");
+  }
+
+  @Test
+  public void testCachingInstance() {
+    Parsable<Integer> cached = DatumParser.getCachingInstance(10);
+    for (String datum : new String[] {"NAD27", "EPSG:4326", "unknown", "NAD27"}) {
+      ParseResult<Integer> expected = parser.parse(datum);
+      ParseResult<Integer> result = cached.parse(datum);
+      assertEquals(expected.getStatus(), result.getStatus());
+      assertEquals(expected.getPayload(), result.getPayload());
+      assertSame(result, cached.parse(datum));
+    }
+    assertNull(cached.parse(null));
+  }
+
   /**
    * Parse all unique datum values found and make sure parsing doesn't get worse.
    * If the test file is updated, values here need to be adjusted!
@@ -0,0 +1,139 @@
+package org.gbif.common.parsers.geospatial;
+
+import org.gbif.api.vocabulary.OccurrenceIssue;
+import org.gbif.common.parsers.core.OccurrenceIssueSet;
+import org.gbif.common.parsers.core.OccurrenceParseResult;
+import org.gbif.common.parsers.core.ParseResult;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DatumTransformerTest {
+
+  private static final double DELTA = 0.0002;
+
+  @Test
+  public void testToWgs84() {
+    // Tokyo datum at the Tokyo station shifts about 12 seconds north and west
+    assertTransformed(35.683227, 139.766790, DatumParser.getInstance().parse("Tokyo").getPayload(), 35.68, 139.77);
+    // the Airy meridian of Greenwich is a hundred meters west in WGS84
+    assertTransformed(51.478300, -0.001470, 4277, 51.4778, 0);
+    assertTransformed(51.478300, -0.001470, 7405, 51.4778, 0);
+    // the geographic CRS code of a datum works as well
+    assertEquals(DatumTransformer.toWgs84(6267, 40, -100).getPayload(),
+                 DatumTransformer.toWgs84(4267, 40, -100).getPayload());
+  }
+
+  @Test
+  public void testIdentity() {
+    for (int epsg : new int[] {4326, 6326, 6269, 6258, 4939}) {
+      OccurrenceParseResult<LatLng> result = DatumTransformer.toWgs84(epsg, 12.1234567, -45.5);
+      assertEquals(ParseResult.STATUS.SUCCESS, result.getStatus());
+      assertEquals(new LatLng(12.1234567, -45.5), result.getPayload());
+      assertTrue(result.getIssues().isEmpty());
+    }
+  }
+
+  @Test
+  public void testIssues() {
+    OccurrenceParseResult<LatLng> result = DatumTransformer.toWgs84(null, 10, 20);
+    assertEquals(ParseResult.STATUS.SUCCESS, result.getStatus());
+    assertEquals(new LatLng(10, 20), result.getPayload());
+    assertEquals(OccurrenceIssueSet.of(OccurrenceIssue.GEODETIC_DATUM_ASSUMED_WGS84), result.getIssues());
+
+    result = DatumTransformer.toWgs84(1234, 10, 20);
+    assertFalse(DatumTransformer.isSupported(1234));
+    // known to the parser, but without transformation
+    for (int epsg : new int[] {6813, 1074, 1070, 6134, 5156, 6760, 4890}) {
+      assertFalse(DatumTransformer.isSupported(epsg));
+    }
+    assertEquals(ParseResult.STATUS.FAIL, result.getStatus());
+    assertEquals(new LatLng(10, 20), result.getPayload());
+    assertEquals(OccurrenceIssueSet.of(OccurrenceIssue.COORDINATE_REPROJECTION_FAILED), result.getIssues());
+
+    result = DatumTransformer.toWgs84(6230, 95, 20);
+    assertEquals(OccurrenceIssueSet.of(OccurrenceIssue.COORDINATE_REPROJECTION_FAILED), result.getIssues());
+
+    // a shift across the antimeridian is not suspicious
+    result = DatumTransformer.toWgs84(6253, 0, 179.99999);
+    assertEquals(OccurrenceIssueSet.of(OccurrenceIssue.COORDINATE_REPROJECTED), result.getIssues());
+    assertTrue(result.getPayload().getLng() < -179.99);
+  }
+
+  @Test
+  public void testBatch() {
+    int[] epsgs = {6230, DatumTransformer.NO_DATUM, 4326, 999, 6301, 6230};
+    double[] lats = {45.1, 45.1, 45.1, 45.1, Double.NaN, 60};
+    double[] lngs = {8.2, 8.2, 8.2, 8.2, 140, -3};
+    double[] origLats = lats.clone();
+    double[] origLngs = lngs.clone();
+
+    long[] issues = DatumTransformer.toWgs84(epsgs, lats, lngs);
+    for (int row = 0; row < epsgs.length; row++) {
+      OccurrenceParseResult<LatLng> expected = DatumTransformer.toWgs84(epsgs[row], origLats[row], origLngs[row]);
+      assertEquals(expected.getIssueBits(), issues[row]);
+      if (!Double.isNaN(origLats[row])) {
+        assertEquals(expected.getPayload(), new LatLng(lats[row], lngs[row]));
+      }
+    }
+    assertEquals(origLngs[4], lngs[4], 0);
+
+    // a single datum for all rows
+    double[] lats2 = origLats.clone();
+    double[] lngs2 = origLngs.clone();
+    issues = DatumTransformer.toWgs84(6230, lats2, lngs2);
+    assertEquals(OccurrenceIssueSet.bit(OccurrenceIssue.COORDINATE_REPROJECTED), issues[0]);
+    assertEquals(lats[0], lats2[0], 0);
+    assertEquals(lngs[5], lngs2[5], 0);
+  }
+
+  @Test
+  public void testLargeBatch() {
+    int size = 10000;
+    double[] lats = new double[size];
+    double[] lngs = new double[size];
+    for (int i = 0; i < size; i++) {
+      lats[i] = -60 + (i % 120);
+      lngs[i] = -170 + (i % 340);
+    }
+    double[] expectedLats = lats.clone();
+    double[] expectedLngs = lngs.clone();
+    for (int i = 0; i < size; i++) {
+      LatLng latLng = DatumTransformer.toWgs84(6267, expectedLats[i], expectedLngs[i]).getPayload();
+      expectedLats[i] = latLng.getLat();
+      expectedLngs[i] = latLng.getLng();
+    }
+    long[] issues = DatumTransformer.toWgs84(6267, lats, lngs);
+    assertArrayEquals(expectedLats, lats, 0);
+    assertArrayEquals(expectedLngs, lngs, 0);
+    long[] expectedIssues = new long[size];
+    Arrays.fill(expectedIssues, OccurrenceIssueSet.bit(OccurrenceIssue.COORDINATE_REPROJECTED));
+    assertArrayEquals(expectedIssues, issues);
+  }
+
+  @Test
+  public void testCoordinateBatch() {
+    CoordinateBatch batch = CoordinateParseUtils.parseLatLng(new String[] {"51.4778", "foo", "10"},
+                                                             new String[] {"0", "bar", "20"});
+    DatumTransformer.toWgs84(new int[] {6277, 6277, DatumTransformer.NO_DATUM}, batch);
+    assertEquals(-0.00147, batch.getLongitudes()[0], DELTA);
+    assertTrue(batch.hasIssue(0, OccurrenceIssue.COORDINATE_REPROJECTED));
+    assertEquals(OccurrenceIssueSet.of(OccurrenceIssue.COORDINATE_INVALID), batch.getIssues(1));
+    assertEquals(OccurrenceIssueSet.of(OccurrenceIssue.GEODETIC_DATUM_ASSUMED_WGS84), batch.getIssues(2));
+    assertEquals(CoordinateBatch.SUCCESS, batch.getStatuses()[2]);
+  }
+
+  private static void assertTransformed(double expectedLat, double expectedLng, int epsg, double lat, double lng) {
+    OccurrenceParseResult<LatLng> result = DatumTransformer.toWgs84(epsg, lat, lng);
+    assertEquals(ParseResult.STATUS.SUCCESS, result.getStatus());
+    assertEquals(expectedLat, result.getPayload().getLat(), DELTA);
+    assertEquals(expectedLng, result.getPayload().getLng(), DELTA);
+    assertEquals(OccurrenceIssueSet.of(OccurrenceIssue.COORDINATE_REPROJECTED), result.getIssues());
+  }
+}
@@ -1,6 +1,7 @@
 package org.gbif.common.parsers.geospatial;
 
 import org.gbif.api.vocabulary.OccurrenceIssue;
+import org.gbif.common.parsers.core.OccurrenceIssueSet;
 import org.gbif.common.parsers.core.OccurrenceParseResult;
 import org.gbif.common.parsers.core.ParseResult;
 
@@ -81,6 +82,122 @@ public class MeterRangeParserTest {
                  OccurrenceIssue.DEPTH_NON_NUMERIC);
   }
 
+  @Test
+  public void testParseUnits() {
+    assertResult(MeterRangeParser.parseElevation("2 km", null, null), true, 2000d, null,
+                 OccurrenceIssue.ELEVATION_NON_NUMERIC);
+    assertResult(MeterRangeParser.parseElevation("1.2Km", null, null), true, 1200d, null,
+                 OccurrenceIssue.ELEVATION_NON_NUMERIC);
+    assertResult(MeterRangeParser.parseElevation("100 metres asl", null, null), true, 100d, null,
+                 OccurrenceIssue.ELEVATION_NON_NUMERIC);
+    assertResult(MeterRangeParser.parseElevation("ca. 100m", null, null), true, 100d, null,
+                 OccurrenceIssue.ELEVATION_NON_NUMERIC);
+    assertResult(MeterRangeParser.parseElevation("5'", null, null), true, 1.52, null,
+                 OccurrenceIssue.ELEVATION_NOT_METRIC, OccurrenceIssue.ELEVATION_NON_NUMERIC);
+    assertResult(MeterRangeParser.parseElevation("5'6\"", null, null), true, 1.68, null,
+                 OccurrenceIssue.ELEVATION_NOT_METRIC, OccurrenceIssue.ELEVATION_NON_NUMERIC);
+    assertResult(MeterRangeParser.parseElevation("5 feet 6 inches", null, null), true, 1.68, null,
+                 OccurrenceIssue.ELEVATION_NOT_METRIC, OccurrenceIssue.ELEVATION_NON_NUMERIC);
+    assertResult(MeterRangeParser.parseElevation("5'6", null, null), true, 1.68, null,
+                 OccurrenceIssue.ELEVATION_NOT_METRIC, OccurrenceIssue.ELEVATION_NON_NUMERIC);
+    assertResult(MeterRangeParser.parseElevation("10 m in depth", null, null), true, 10d, null,
+                 OccurrenceIssue.ELEVATION_NON_NUMERIC);
+    assertResult(MeterRangeParser.parseDepth("12 fathoms", null, null), true, 21.95, null,
+                 OccurrenceIssue.DEPTH_NOT_METRIC, OccurrenceIssue.DEPTH_NON_NUMERIC);
+    assertResult(MeterRangeParser.parseDepth("5''", null, null), true, 0.13, null,
+                 OccurrenceIssue.DEPTH_NOT_METRIC, OccurrenceIssue.DEPTH_NON_NUMERIC);
+
+    // ranges within a single value
+    assertResult(MeterRangeParser.parseElevation("6-7m", null, null), true, 6.5, null,
+                 OccurrenceIssue.ELEVATION_NON_NUMERIC);
+    assertResult(MeterRangeParser.parseElevation("10 - 20 m", null, null), true, 15d, null,
+                 OccurrenceIssue.ELEVATION_NON_NUMERIC);
+    assertResult(MeterRangeParser.parseElevation("100 to 200 m", null, null), true, 150d, null,
+                 OccurrenceIssue.ELEVATION_NON_NUMERIC);
+    assertResult(MeterRangeParser.parseElevation("-100--50", null, null), true, -75d, null,
+                 OccurrenceIssue.ELEVATION_NON_NUMERIC);
+    assertResult(MeterRangeParser.parseElevation("100-200 ft", null, null), true, 45.72, null,
+                 OccurrenceIssue.ELEVATION_NOT_METRIC, OccurrenceIssue.ELEVATION_NON_NUMERIC);
+
+    // incomplete or ambiguous
+    assertResult(MeterRangeParser.parseElevation("6-m", null, null), false, null, null);
+    assertResult(MeterRangeParser.parseElevation("1-2-3", null, null), false, null, null);
+    assertResult(MeterRangeParser.parseElevation("100 200", null, null), false, null, null);
+
+    // the minus sign is a sign and a range separator like the hyphen
+    assertResult(MeterRangeParser.parseElevation("\u221210 m", null, null), true, -10d, null,
+                 OccurrenceIssue.ELEVATION_NON_NUMERIC);
+    assertResult(MeterRangeParser.parseElevation("10 m \u2212 20 m", null, null), true, 15d, null,
+                 OccurrenceIssue.ELEVATION_NON_NUMERIC);
+
+    // alternative values, qualifiers and other symbols are not added up or skipped
+    for (String value : new String[] {"1200 m (3937 ft)", "3937 ft (1200 m)", "1200 m 3937 ft", "100 m / 200 m",
+      "+/-10 m", "\u00b110 m", "<10 m", "> 1000 m", "~10", "10 m, 20 m", "5 ft 6 in 3 in"}) {
+      assertEquals(value, ParseResult.STATUS.FAIL, MeterRangeParser.parseMeters(value).getStatus());
+    }
+  }
+
+  @Test
+  public void testParseMeters() {
+    assertEquals(1000d, MeterRangeParser.parseMeters("1000").getPayload(), 0);
+    assertEquals(304.8, MeterRangeParser.parseMeters("1000 ft").getPayload(), 0);
+    assertEquals(ParseResult.STATUS.FAIL, MeterRangeParser.parseMeters("ft").getStatus());
+    assertEquals(ParseResult.STATUS.FAIL, MeterRangeParser.parseMeters(null).getStatus());
+  }
+
+  @Test
+  public void testParseBatch() {
+    String[][] distinct = {{"10", "20", null}, {"1000m", null, "1"}, {"3280ft", null, "1"}, {"-800", null, null},
+      {"4061987", "4061987", null}, {"booya", "boom", "1"}, {null, null, null}, {"20", "10", null}};
+    // enough rows for several chunks, sorted runs and scattered values
+    int size = 20000;
+    String[] mins = new String[size];
+    String[] maxs = new String[size];
+    String[] precisions = new String[size];
+    for (int i = 0; i < size; i++) {
+      String[] raw = distinct[i < size / 2 ? i * distinct.length / size : i % distinct.length];
+      // distinct instances of equal strings
+      mins[i] = raw[0] == null ? null : new String(raw[0]);
+      maxs[i] = raw[1];
+      precisions[i] = raw[2];
+    }
+
+    MeasurementBatch elevations = MeterRangeParser.parseElevation(mins, maxs, precisions);
+    MeasurementBatch depths = MeterRangeParser.parseDepth(mins, maxs, precisions);
+    assertEquals(distinct.length, elevations.getDistinctCount());
+    assertEquals(distinct.length, depths.getDistinctCount());
+    for (int i = 0; i < size; i++) {
+      assertSameResult(MeterRangeParser.parseElevation(mins[i], maxs[i], precisions[i]), elevations, i);
+      assertSameResult(MeterRangeParser.parseDepth(mins[i], maxs[i], precisions[i]), depths, i);
+    }
+
+    // payloads are shared
+    assertTrue(elevations.getPayload(0) == elevations.getPayload(size - distinct.length));
+    assertEquals(15d, elevations.getValues()[0], 0);
+    assertEquals(5d, elevations.getAccuracies()[0], 0);
+    assertEquals(MeasurementBatch.SUCCESS, elevations.getStatuses()[0]);
+    assertEquals(0, elevations.getIssues()[0]);
+  }
+
+  @Test
+  public void testParseBatchWithoutMaxAndPrecision() {
+    MeasurementBatch batch = MeterRangeParser.parseElevation(new String[] {"10", "1000m", null}, null, null);
+    assertEquals(3, batch.size());
+    assertEquals(10d, batch.getValues()[0], 0);
+    assertTrue(Double.isNaN(batch.getAccuracies()[0]));
+    assertEquals(OccurrenceIssueSet.of(OccurrenceIssue.ELEVATION_NON_NUMERIC), batch.getIssues(1));
+    assertEquals(MeasurementBatch.FAIL, batch.getStatuses()[2]);
+    assertTrue(Double.isNaN(batch.getValues()[2]));
+  }
+
+  private void assertSameResult(OccurrenceParseResult<DoubleAccuracy> expected, MeasurementBatch batch, int row) {
+    OccurrenceParseResult<DoubleAccuracy> result = batch.toResult(row);
+    assertEquals(expected.getStatus(), result.getStatus());
+    assertEquals(expected.getConfidence(), result.getConfidence());
+    assertEquals(expected.getPayload(), result.getPayload());
+    assertEquals(expected.getIssues(), result.getIssues());
+  }
+
   private void assertResult(OccurrenceParseResult<?> pr, boolean success, Double elevation, Double precision, OccurrenceIssue ... issue) {
     if (success) {
       assertExpected(pr, new DoubleAccuracy(elevation, precision), ParseResult.CONFIDENCE.DEFINITE, issue);
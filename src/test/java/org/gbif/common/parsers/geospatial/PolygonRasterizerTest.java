@@ -0,0 +1,151 @@
+package org.gbif.common.parsers.geospatial;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the polygon rasterization through {@link CellIdUtils#getCellCoverage(double[][], double[][])}.
+ */
+public class PolygonRasterizerTest {
+
+  @Test
+  public void testSquare() {
+    CellCoverage coverage = coverage(new double[] {10.5, 10.5, 12.5, 12.5}, new double[] {20.5, 22.5, 22.5, 20.5});
+
+    int cellId = CellIdUtils.computeCellId(11.5, 21.5);
+    assertEquals(1, coverage.getFullCells().getCellCount());
+    assertTrue(coverage.getFullCells().contains(cellId));
+    assertEquals(8, coverage.getPartialCells().getCellCount());
+    assertFalse(coverage.getPartialCells().contains(cellId));
+    assertTrue(coverage.getPartialCells().contains(CellIdUtils.computeCellId(10.5, 20.5)));
+    assertEquals(9, coverage.getCoveredCells().getCellCount());
+
+    // the sides lie on centi cell boundaries
+    assertEquals(400, coverage.getFullCentiCells().getCellCount());
+    assertEquals(20, coverage.getFullCentiCells().getRangeCount());
+    assertTrue(coverage.getPartialCentiCells().isEmpty());
+    assertTrue(coverage.getFullCentiCells().contains(
+      CellIdUtils.toCentiCellIndex(CellIdUtils.computeCellId(10.55, 20.55), CellIdUtils.computeCentiCellId(10.55, 20.55))));
+    assertFalse(coverage.getFullCentiCells().contains(
+      CellIdUtils.toCentiCellIndex(CellIdUtils.computeCellId(10.45, 20.55), CellIdUtils.computeCentiCellId(10.45, 20.55))));
+  }
+
+  @Test
+  public void testHole() {
+    CellCoverage coverage = CellIdUtils.getCellCoverage(
+      new double[][] {{0, 0, 10, 10}, {2, 4, 4, 2}},
+      new double[][] {{0, 10, 10, 0}, {2, 2, 4, 4}});
+    assertEquals(96, coverage.getFullCells().getCellCount());
+    assertTrue(coverage.getPartialCells().isEmpty());
+    assertFalse(coverage.getFullCells().contains(CellIdUtils.computeCellId(3.5, 3.5)));
+    assertTrue(coverage.getFullCells().contains(CellIdUtils.computeCellId(4.5, 3.5)));
+  }
+
+  @Test
+  public void testAntimeridian() {
+    CellCoverage coverage = coverage(new double[] {0.5, 0.5, 1.5, 1.5}, new double[] {179.5, -179.5, -179.5, 179.5});
+    assertTrue(coverage.getFullCells().isEmpty());
+    assertEquals(4, coverage.getPartialCells().getCellCount());
+    assertTrue(coverage.getPartialCells().contains(CellIdUtils.computeCellId(0.7, 179.7)));
+    assertTrue(coverage.getPartialCells().contains(CellIdUtils.computeCellId(0.7, -179.7)));
+    assertTrue(coverage.getPartialCells().contains(CellIdUtils.computeCellId(1.2, -179.7)));
+    assertEquals(100, coverage.getFullCentiCells().getCellCount());
+    // 10 rows on both sides of the antimeridian
+    assertEquals(20, coverage.getFullCentiCells().getRangeCount());
+
+    // the same polygon with the other winding and the first vertex repeated
+    CellCoverage reversed =
+      coverage(new double[] {0.5, 1.5, 1.5, 0.5, 0.5}, new double[] {179.5, 179.5, -179.5, -179.5, 179.5});
+    assertEquals(coverage, reversed);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAroundPole() {
+    coverage(new double[] {80, 80, 80, 80}, new double[] {0, 90, 180, -90});
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidCoordinate() {
+    coverage(new double[] {0, 0, 91}, new double[] {0, 1, 1});
+  }
+
+  @Test
+  public void testCentiCellIndex() {
+    for (int cellId = 0; cellId < CellRanges.NUMBER_OF_CELLS; cellId += 7) {
+      for (int centiCellId = 0; centiCellId < 100; centiCellId += 3) {
+        int index = CellIdUtils.toCentiCellIndex(cellId, centiCellId);
+        assertEquals(cellId, CellIdUtils.toCellIdFromCentiCellIndex(index));
+        assertEquals(centiCellId, CellIdUtils.toCentiCellIdFromCentiCellIndex(index));
+      }
+    }
+    assertEquals(0, CellIdUtils.toCentiCellIndex(0, 0));
+    assertEquals(CellRanges.NUMBER_OF_CENTI_CELLS - 1, CellIdUtils.toCentiCellIndex(64799, 99));
+    assertEquals(CellRanges.CENTI_CELLS_PER_ROW, CellIdUtils.toCentiCellIndex(0, 10));
+  }
+
+  /**
+   * Cells not crossed by the boundary are full exactly when their center is inside the polygon, and cells with a
+   * corner on either side of the polygon are crossed.
+   */
+  @Test
+  public void testRandomPolygons() {
+    Random random = new Random(3);
+    for (int p = 0; p < 20; p++) {
+      int n = 3 + random.nextInt(20);
+      double centerLat = random.nextDouble() * 100 - 50;
+      double centerLng = random.nextDouble() * 360 - 180;
+      double[] lats = new double[n];
+      double[] lngs = new double[n];
+      for (int i = 0; i < n; i++) {
+        double angle = 2 * Math.PI * i / n;
+        double radius = 2 + random.nextDouble() * 8;
+        lats[i] = centerLat + radius * Math.sin(angle);
+        double lng = centerLng + radius * Math.cos(angle);
+        lngs[i] = lng > 180 ? lng - 360 : lng < -180 ? lng + 360 : lng;
+      }
+      CellCoverage coverage = coverage(lats, lngs);
+      CellRanges full = coverage.getFullCells();
+      CellRanges partial = coverage.getPartialCells();
+      assertTrue(full.intersection(partial).isEmpty());
+      for (int cellId = 0; cellId < CellRanges.NUMBER_OF_CELLS; cellId++) {
+        double south = cellId / 360 - 90;
+        double west = cellId % 360 - 180;
+        boolean center = isInside(lats, lngs, centerLng, south + 0.5, west + 0.5);
+        if (!partial.contains(cellId)) {
+          assertEquals(center, full.contains(cellId));
+          boolean corner = isInside(lats, lngs, centerLng, south + 0.01, west + 0.01);
+          assertEquals(corner, center);
+        }
+      }
+    }
+  }
+
+  private static CellCoverage coverage(double[] lats, double[] lngs) {
+    return CellIdUtils.getCellCoverage(new double[][] {lats}, new double[][] {lngs});
+  }
+
+  /**
+   * Even-odd point in polygon test, with the longitudes taken around the center of the polygon.
+   */
+  private static boolean isInside(double[] lats, double[] lngs, double centerLng, double lat, double lng) {
+    boolean inside = false;
+    double x = unwrap(lng - centerLng);
+    for (int i = 0, j = lats.length - 1; i < lats.length; j = i++) {
+      double xi = unwrap(lngs[i] - centerLng);
+      double xj = unwrap(lngs[j] - centerLng);
+      if ((lats[i] > lat) != (lats[j] > lat) && x < xi + (lat - lats[i]) * (xj - xi) / (lats[j] - lats[i])) {
+        inside = !inside;
+      }
+    }
+    return inside;
+  }
+
+  private static double unwrap(double delta) {
+    return delta > 180 ? delta - 360 : delta < -180 ? delta + 360 : delta;
+  }
+}
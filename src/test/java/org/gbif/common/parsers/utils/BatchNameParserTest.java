@@ -0,0 +1,127 @@
+package org.gbif.common.parsers.utils;
+
+import org.gbif.api.exception.UnparsableException;
+import org.gbif.api.model.checklistbank.ParsedName;
+import org.gbif.api.service.checklistbank.NameParser;
+import org.gbif.common.parsers.core.ParseResult;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class BatchNameParserTest {
+
+  private final AtomicInteger calls = new AtomicInteger();
+  private final AtomicInteger running = new AtomicInteger();
+  private final AtomicInteger maxRunning = new AtomicInteger();
+
+  /**
+   * The shared parser, sleeping first for names starting with Slow and for ever for names starting with Stuck.
+   */
+  private NameParser parser(final long sleep) {
+    return (NameParser) Proxy.newProxyInstance(NameParser.class.getClassLoader(), new Class<?>[] {NameParser.class},
+      new InvocationHandler() {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+          String name = (String) args[0];
+          calls.incrementAndGet();
+          int now = running.incrementAndGet();
+          while (maxRunning.get() < now && !maxRunning.compareAndSet(maxRunning.get(), now)) {
+          }
+          try {
+            if (name.startsWith("Stuck")) {
+              Thread.sleep(Long.MAX_VALUE);
+            } else if (name.startsWith("Slow")) {
+              Thread.sleep(sleep);
+            }
+            return method.invoke(NameParserUtils.PARSER, args);
+          } catch (InvocationTargetException e) {
+            throw e.getCause();
+          } finally {
+            running.decrementAndGet();
+          }
+        }
+      });
+  }
+
+  @Test
+  public void testParse() throws Exception {
+    BatchNameParser batch = new BatchNameParser(parser(0), 4, 10000);
+    try {
+      List<ParseResult<ParsedName>> results =
+        batch.parse(Arrays.asList("Abies alba", "?", null, "Abies alba", "Picea abies"), null);
+      assertEquals(5, results.size());
+      assertTrue(results.get(0).isSuccessful());
+      assertEquals(NameParserUtils.PARSER.parse("Abies alba", null).canonicalNameComplete(),
+                   results.get(0).getPayload().canonicalNameComplete());
+      assertEquals(ParseResult.STATUS.FAIL, results.get(1).getStatus());
+      assertTrue(results.get(1).getError() instanceof UnparsableException);
+      assertEquals(ParseResult.STATUS.FAIL, results.get(2).getStatus());
+      assertNull(results.get(2).getError());
+      assertSame(results.get(0), results.get(3));
+      assertTrue(results.get(4).isSuccessful());
+
+      assertEquals(3, calls.get());
+      assertEquals(3, batch.getParsedCount());
+      assertEquals(0, batch.getTimeoutCount());
+      assertEquals(0, batch.getQueueDepth());
+      assertEquals(0, batch.getRunning());
+      assertTrue(batch.getMaxLatencyMillis() >= batch.getMeanLatencyMillis());
+    } finally {
+      batch.close();
+    }
+  }
+
+  @Test
+  public void testTimeout() throws Exception {
+    BatchNameParser batch = new BatchNameParser(parser(0), 2, 200);
+    try {
+      List<ParseResult<ParsedName>> results = batch.parse(Arrays.asList("Stuck name", "Abies alba"), null);
+      assertTrue(BatchNameParser.isTimeout(results.get(0)));
+      assertFalse(BatchNameParser.isTimeout(results.get(1)));
+      assertTrue(results.get(1).isSuccessful());
+      assertEquals(1, batch.getTimeoutCount());
+      assertTrue(batch.getMaxLatencyMillis() >= 200);
+
+      // the interrupted thread parses the next names
+      results = batch.parse(Arrays.asList("Picea abies", "Pinus sylvestris", "Pinus nigra"), null);
+      for (ParseResult<ParsedName> result : results) {
+        assertTrue(result.isSuccessful());
+      }
+    } finally {
+      batch.close();
+    }
+  }
+
+  @Test
+  public void testConcurrency() throws Exception {
+    BatchNameParser batch = new BatchNameParser(parser(20), 2, 10000);
+    try {
+      List<String> names = Lists.newArrayList();
+      for (int i = 0; i < 20; i++) {
+        names.add("Slow name" + (char) ('a' + i));
+      }
+      for (ParseResult<ParsedName> result : batch.parse(names, null)) {
+        assertTrue(result.isSuccessful());
+      }
+      assertTrue("Parsed " + maxRunning.get() + " names at once", maxRunning.get() <= 2);
+      assertEquals(20, batch.getParsedCount());
+      assertTrue(batch.getMeanLatencyMillis() >= 20);
+    } finally {
+      batch.close();
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package org.gbif.common.parsers.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import com.google.common.base.Charsets;
+
+/**
+ * A small utility timing {@link BlacklistedNames#contains} against a set of upper case names looked up with
+ * contains(s.toUpperCase()), as it used to be. The names are a mix of blacklisted names and taxa in various cases.
+ */
+public class BlacklistedNamesBenchmark {
+
+  private static final int ROUNDS = 5;
+  private static final String[] TAXA = {"Animalia", "Chordata", "Aves", "Passeriformes", "Fringillidae",
+    "Fringilla coelebs Linnaeus, 1758", "Plantae", "Fabaceae", "Abies alba Mill.", "Insecta", "Coleoptera"};
+
+  /**
+   * @param args optional number of lookups per round
+   */
+  public static void main(String[] args) throws IOException {
+    int lookups = args.length > 0 ? Integer.parseInt(args[0]) : 5000000;
+
+    List<String> blacklist = new ArrayList<String>();
+    BufferedReader br = new BufferedReader(new InputStreamReader(
+      BlacklistedNamesBenchmark.class.getClassLoader().getResourceAsStream("utils/blacklistedNames.txt"),
+      Charsets.UTF_8));
+    try {
+      String line = br.readLine();
+      while (line != null) {
+        blacklist.add(line);
+        line = br.readLine();
+      }
+    } finally {
+      br.close();
+    }
+    Set<String> upperCase = new HashSet<String>();
+    for (String name : blacklist) {
+      upperCase.add(name.toUpperCase());
+    }
+
+    // a quarter of blacklisted names
+    Random random = new Random(1);
+    String[] names = new String[1024];
+    for (int i = 0; i < names.length; i++) {
+      if (i % 4 == 0) {
+        String name = blacklist.get(random.nextInt(blacklist.size()));
+        names[i] = random.nextBoolean() ? name.toLowerCase() : name;
+      } else {
+        String name = TAXA[random.nextInt(TAXA.length)];
+        names[i] = random.nextBoolean() ? name.toUpperCase() : name;
+      }
+    }
+
+    for (int round = 1; round <= ROUNDS; round++) {
+      int hits = 0;
+      long start = System.nanoTime();
+      for (int i = 0; i < lookups; i++) {
+        if (upperCase.contains(names[i & 1023].toUpperCase())) {
+          hits++;
+        }
+      }
+      long upperCaseNanos = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (int i = 0; i < lookups; i++) {
+        if (BlacklistedNames.contains(names[i & 1023])) {
+          hits--;
+        }
+      }
+      long matcherNanos = System.nanoTime() - start;
+
+      System.out.println("Round " + round + ": toUpperCase " + upperCaseNanos / lookups + "ns, matcher "
+                         + matcherNanos / lookups + "ns per lookup" + (hits == 0 ? "" : ", " + hits + " different"));
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package org.gbif.common.parsers.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BlacklistedNamesTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @After
+  public void restore() {
+    BlacklistedNames.init("utils/blacklistedNames.txt");
+  }
+
+  @Test
+  public void testContains() {
+    assertTrue(BlacklistedNames.contains("UNKNOWN"));
+    assertTrue(BlacklistedNames.contains("unknown"));
+    assertTrue(BlacklistedNames.contains("UnKnOwN"));
+    assertTrue(BlacklistedNames.contains(new StringBuilder("Not assigned")));
+    assertFalse(BlacklistedNames.contains("Abies"));
+    assertFalse(BlacklistedNames.contains("UNKNOWNS"));
+    assertFalse(BlacklistedNames.contains(""));
+    assertFalse(BlacklistedNames.contains(new String(new char[1000])));
+    // upper cased like before, the dotted capital I and the Kelvin sign are no I or K
+    assertTrue(BlacklistedNames.contains("i."));
+    assertFalse(BlacklistedNames.contains("\u0130."));
+    assertFalse(BlacklistedNames.contains("\u212a."));
+  }
+
+  @Test
+  public void testInit() {
+    BlacklistedNames.init(new StringReader("Aus\nBUS\naus\n" + new String(new char[100]).replace('\0', 'x')));
+    assertEquals(3, BlacklistedNames.size());
+    assertTrue(BlacklistedNames.contains("AUS"));
+    assertTrue(BlacklistedNames.contains("bus"));
+    assertTrue(BlacklistedNames.contains(new String(new char[100]).replace('\0', 'X')));
+    assertFalse(BlacklistedNames.contains("unknown"));
+  }
+
+  @Test
+  public void testReload() throws IOException {
+    int size = BlacklistedNames.size();
+    try {
+      BlacklistedNames.reload(new File(folder.getRoot(), "missing.txt"));
+      fail("Missing file loaded");
+    } catch (IOException e) {
+      // the previous names stay
+    }
+    assertEquals(size, BlacklistedNames.size());
+    assertTrue(BlacklistedNames.contains("unknown"));
+
+    File file = folder.newFile("blacklist.txt");
+    Files.write("Ärger\nnomen nudum\n", file, Charsets.UTF_8);
+    BlacklistedNames.reload(file);
+    assertEquals(2, BlacklistedNames.size());
+    assertTrue(BlacklistedNames.contains("ärger"));
+    assertTrue(BlacklistedNames.contains("NOMEN NUDUM"));
+    assertFalse(BlacklistedNames.contains("unknown"));
+  }
+}
@@ -0,0 +1,78 @@
+package org.gbif.common.parsers.utils;
+
+import org.gbif.api.exception.UnparsableException;
+import org.gbif.api.model.checklistbank.ParsedName;
+import org.gbif.api.vocabulary.NameType;
+import org.gbif.api.vocabulary.Rank;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CachingNameParserTest {
+
+  @Test
+  public void testParse() throws Exception {
+    CachingNameParser parser = new CachingNameParser(NameParserUtils.PARSER, 100);
+    ParsedName pn = parser.parse("Abies alba Mill.", null);
+    assertEquals(NameParserUtils.PARSER.parse("Abies alba Mill.", null).canonicalNameComplete(),
+                 pn.canonicalNameComplete());
+    assertSame(pn, parser.parse("Abies alba Mill.", null));
+    assertNotSame(pn, parser.parse("Abies alba Mill.", Rank.SPECIES));
+    assertEquals(2, parser.size());
+    assertEquals(1, parser.stats().hitCount());
+    assertEquals(2, parser.stats().missCount());
+  }
+
+  @Test
+  public void testUnparsable() throws Exception {
+    CachingNameParser parser = new CachingNameParser(NameParserUtils.PARSER, 100);
+    UnparsableException error = null;
+    for (int i = 0; i < 2; i++) {
+      try {
+        parser.parse("?", null);
+        fail("? parsed");
+      } catch (UnparsableException e) {
+        if (error == null) {
+          error = e;
+        }
+        assertSame(error, e);
+      }
+    }
+    assertEquals(1, parser.stats().hitCount());
+  }
+
+  @Test
+  public void testCacheable() {
+    assertTrue(CachingNameParser.isCacheable(new UnparsableException(NameType.NO_NAME, "?")));
+    assertTrue(CachingNameParser.isCacheable(new UnparsableException(NameType.PLACEHOLDER, "incertae sedis")));
+    // a timeout may pass next time
+    assertFalse(CachingNameParser.isCacheable(new UnparsableException(NameType.SCIENTIFIC, "Abies alba")));
+  }
+
+  @Test
+  public void testEviction() throws Exception {
+    CachingNameParser parser = new CachingNameParser(NameParserUtils.PARSER, 2);
+    parser.warmUp(ImmutableList.of("Abies alba", "Picea abies", "Pinus sylvestris"));
+    assertEquals(2, parser.size());
+    assertEquals(1, parser.stats().evictionCount());
+    parser.clear();
+    assertEquals(0, parser.size());
+  }
+
+  @Test
+  public void testWarmUp() throws Exception {
+    CachingNameParser parser = new CachingNameParser(NameParserUtils.PARSER, 100);
+    parser.warmUp(ImmutableList.of("Abies alba", "Picea abies", "?"), Rank.SPECIES);
+    assertEquals(3, parser.size());
+    parser.parse("Abies alba", Rank.SPECIES);
+    parser.parse("Picea abies", null);
+    assertEquals(1, parser.stats().hitCount());
+  }
+}
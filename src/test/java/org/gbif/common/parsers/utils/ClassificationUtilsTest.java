@@ -19,6 +19,9 @@ public class ClassificationUtilsTest {
     assertNull(clean("PHYLUM"));
     assertNull(clean("Phylum"));
     assertNull(clean("UnPLaCED_CLaSS"));
+    assertNull(clean("\"Unknown\""));
+    assertNull(clean("UN{KNOWN"));
+    assertNull(clean(" ?unknown "));
     // assertNull(clean("{UNPLACED_CLASS")); Won't work because of the way clean is implemented at the moment.
   }
 
@@ -43,6 +46,16 @@ public class ClassificationUtilsTest {
         put("\"{Aus\"", "Aus");
         put("\"\"\"{Aus\"\"\"", "Aus");
         put("\"? gryphoids", "gryphoids");
+        put("AB{I}ES", "Abies");
+        put("\"ABIES\"", "abies");
+        put("Ab'ies al_ba", "Abies alba");
+        put(" \"Aus\"", "\"Aus");
+        put("{\"Aus\"", "\"Aus");
+        put("ÅLAND", "Åland");
+        put("Ab§ies Müll.", "Abies Müll.");
+        // not the blacklisted I.
+        put("\u0130.", "\u0130.");
+        put("i.", null);
       }
     };
 